@@ -0,0 +1,248 @@
+package mysql;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The MySqlAsyncExecutor class runs the asynchronous operations of a {@link mysql.MySqlConnector MySqlConnector},
+ * with at most {@code maxConcurrency} of them running at the same time.
+ * <ul>
+ *     <li>Tasks above the limit wait in a queue instead of occupying a thread, submitting a task never blocks the caller.
+ *     When a running task finishes, the next queued task is handed to the underlying executor.</li>
+ *     <li>The limit is meant to be the size of the connection pool, so thousands of submitted operations
+ *     do not all wait for a connection at once and time out.</li>
+ *     <li>By default the tasks run on a virtual thread per task when the JDK provides them (JDK 21 or newer),
+ *     otherwise on a cached pool of daemon threads, which never grows beyond the limit.</li>
+ *     <li>If the underlying executor rejects a task, the task is not run, a {@link RejectableTask RejectableTask} is told about it,
+ *     so the future of an asynchronous operation is completed exceptionally instead of never, any other task is dropped with a warning.
+ *     A rejected task never runs on the thread that handed it over, so a finishing task does not run the queue on its own stack.</li>
+ * </ul>
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlAsyncExecutor
+implements Executor, AutoCloseable {
+
+    /**
+     * {@code RejectableTask} is a task that is told when the underlying executor rejects it, so its caller is not left waiting.
+     */
+    interface RejectableTask
+    extends Runnable {
+
+        /**
+         * Called instead of {@link #run()} when the underlying executor rejected the task.
+         * @param       e the rejection of the executor.
+         */
+        void reject(RejectedExecutionException e);
+    }
+
+    /**
+     * Reports the dropped tasks.
+     */
+    private static final System.Logger LOGGER = System.getLogger(MySqlAsyncExecutor.class.getName());
+
+    /**
+     * Numbers the threads of the default executor.
+     */
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    /**
+     * The executor the tasks run on.
+     */
+    private final Executor executor;
+
+    /**
+     * It is used to store whether the executor was created here, and so it is shut down by {@link #close()}.
+     */
+    private final boolean ownedExecutor;
+
+    /**
+     * The largest number of tasks running at the same time.
+     */
+    private volatile int maxConcurrency;
+
+    /**
+     * Tasks submitted above the limit, in submission order.
+     */
+    private final ConcurrentLinkedQueue<Runnable> queuedTasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The number of tasks handed to the executor and not yet finished.
+     */
+    private final AtomicInteger runningTasks = new AtomicInteger();
+
+    /**
+     * It is used to store whether the executor was closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Async executor constructor with the default executor.
+     * @param       maxConcurrency the largest number of tasks running at the same time.
+     * @throws      IllegalArgumentException if the limit is less than <i>1</i>.
+     */
+    public MySqlAsyncExecutor(int maxConcurrency)
+    throws IllegalArgumentException {
+        this(newDefaultExecutor(), true, maxConcurrency);
+    }
+
+    /**
+     * Async executor constructor.
+     * @param       executor the executor the tasks run on, it is not shut down by {@link #close()}.
+     * @param       maxConcurrency the largest number of tasks running at the same time.
+     * @throws      IllegalArgumentException if the limit is less than <i>1</i>.
+     */
+    public MySqlAsyncExecutor(Executor executor, int maxConcurrency)
+    throws IllegalArgumentException {
+        this(executor, false, maxConcurrency);
+    }
+
+    private MySqlAsyncExecutor(Executor executor, boolean ownedExecutor, int maxConcurrency)
+    throws IllegalArgumentException {
+        this.executor = executor;
+        this.ownedExecutor = ownedExecutor;
+        setMaxConcurrency(maxConcurrency);
+    }
+
+    /**
+     * This method is a getter for the executor variable.
+     * @return      the executor the tasks run on.
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * This method is a getter for the maxConcurrency variable.
+     * @return      the largest number of tasks running at the same time.
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * This method is a setter for the maxConcurrency variable.
+     * A raised limit starts queued tasks at once, a lowered one lets the running tasks finish.
+     * @param       maxConcurrency the largest number of tasks running at the same time.
+     * @throws      IllegalArgumentException if the limit is less than <i>1</i>.
+     */
+    public void setMaxConcurrency(int maxConcurrency)
+    throws IllegalArgumentException {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Async concurrency is not correct: " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        dispatch();
+    }
+
+    /**
+     * This method returns the number of tasks running.
+     * @return      the number of running tasks.
+     */
+    public int getRunningTasks() {
+        return runningTasks.get();
+    }
+
+    /**
+     * This method returns the number of tasks waiting for a running task to finish.
+     * @return      the number of queued tasks.
+     */
+    public int getQueuedTasks() {
+        return queuedTasks.size();
+    }
+
+    /**
+     * {@code execute} runs the task on the executor, as soon as fewer than {@code maxConcurrency} tasks are running.
+     * @param       task the task to run.
+     * @throws      RejectedExecutionException if the executor was closed.
+     */
+    @Override
+    public void execute(Runnable task)
+    throws RejectedExecutionException {
+        if (closed) {
+            throw new RejectedExecutionException("MySql async executor is closed!");
+        }
+        queuedTasks.add(task);
+        dispatch();
+    }
+
+    /**
+     * {@code close} refuses new tasks, the submitted ones still run.
+     * The default executor is shut down after its tasks finished, an executor given to the constructor is left running.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (ownedExecutor && (executor instanceof ExecutorService)) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    /**
+     * Hands queued tasks to the executor while the limit allows.
+     * It is called after every submission and after every finished task, so a queued task is never left behind.
+     */
+    private void dispatch() {
+        while (!queuedTasks.isEmpty()) {
+            int running = runningTasks.get();
+            if (running >= maxConcurrency) {
+                return;
+            }
+            if (!runningTasks.compareAndSet(running, (running + 1))) {
+                continue;
+            }
+            Runnable task = queuedTasks.poll();
+            if (task == null) {
+                runningTasks.decrementAndGet();
+                continue;
+            }
+            Runnable tracked = () -> {
+                try {
+                    task.run();
+                } finally {
+                    runningTasks.decrementAndGet();
+                    dispatch();
+                }
+            };
+            try {
+                executor.execute(tracked);
+            } catch (RejectedExecutionException e) {
+                runningTasks.decrementAndGet();
+                reject(task, e);
+            }
+        }
+    }
+
+    /**
+     * Tells a task that it was rejected by the underlying executor, a task that cannot be told is dropped with a warning.
+     * @param       task the rejected task.
+     * @param       e the rejection of the executor.
+     */
+    private static void reject(Runnable task, RejectedExecutionException e) {
+        if (task instanceof RejectableTask) {
+            ((RejectableTask) task).reject(e);
+        } else {
+            LOGGER.log(System.Logger.Level.WARNING, "Task rejected by the executor is dropped: " + task, e);
+        }
+    }
+
+    /**
+     * Creates the default executor, a virtual thread per task on JDK 21 or newer, otherwise a cached pool of daemon threads.
+     * @return      the new executor.
+     */
+    private static ExecutorService newDefaultExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, ("mysql-async-" + THREAD_NUMBER.incrementAndGet()));
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
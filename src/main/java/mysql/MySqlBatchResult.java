@@ -0,0 +1,127 @@
+package mysql;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * The MySqlBatchResult class reports the outcome of a batched write, created by {@link mysql.MySqlConnector#mysqlSetBatch(String, java.util.List, int)}.
+ * <ul>
+ *     <li>Every row of the input has an update count, at the same index.
+ *     A row written by a statement the driver rewrote into a multi-row {@code INSERT} has {@link java.sql.Statement#SUCCESS_NO_INFO SUCCESS_NO_INFO},
+ *     a row that was not written has {@link java.sql.Statement#EXECUTE_FAILED EXECUTE_FAILED}.</li>
+ *     <li>The batches are committed one by one, so the batches before the failing one stay written,
+ *     the failing batch is rolled back and the batches after it are not run.</li>
+ * </ul>
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public final class MySqlBatchResult {
+
+    /**
+     * The update count of every row.
+     */
+    private final int[] updateCounts;
+
+    /**
+     * The number of batches committed.
+     */
+    private final int committedBatches;
+
+    /**
+     * The index of the first row that failed, <i>-1</i> if every row was written.
+     */
+    private final int firstFailedIndex;
+
+    /**
+     * The error of the failing batch, {@code null} if every row was written.
+     */
+    private final SQLException failure;
+
+    /**
+     * Batch result constructor.
+     * @param       updateCounts the update count of every row.
+     * @param       committedBatches the number of batches committed.
+     * @param       firstFailedIndex the index of the first row that failed, <i>-1</i> if every row was written.
+     * @param       failure the error of the failing batch, {@code null} if every row was written.
+     */
+    MySqlBatchResult(int[] updateCounts, int committedBatches, int firstFailedIndex, SQLException failure) {
+        this.updateCounts = updateCounts;
+        this.committedBatches = committedBatches;
+        this.firstFailedIndex = firstFailedIndex;
+        this.failure = failure;
+    }
+
+    /**
+     * This method returns the update count of every row.
+     * @return      a copy of the update counts, in the order of the input rows.
+     */
+    public int[] getUpdateCounts() {
+        return updateCounts.clone();
+    }
+
+    /**
+     * This method returns the update count of a row.
+     * @param       row the index of the input row.
+     * @return      the number of rows changed, {@link java.sql.Statement#SUCCESS_NO_INFO SUCCESS_NO_INFO} or {@link java.sql.Statement#EXECUTE_FAILED EXECUTE_FAILED}.
+     * @throws      IndexOutOfBoundsException if there is no such row.
+     */
+    public int getUpdateCount(int row)
+    throws IndexOutOfBoundsException {
+        return updateCounts[row];
+    }
+
+    /**
+     * This method returns the number of input rows.
+     * @return      the number of rows of the batched write.
+     */
+    public int getRowCount() {
+        return updateCounts.length;
+    }
+
+    /**
+     * This method returns the number of rows written.
+     * @return      the number of rows whose update count is not {@link java.sql.Statement#EXECUTE_FAILED EXECUTE_FAILED}.
+     */
+    public int getWrittenRows() {
+        int written = 0;
+        for (int updateCount : updateCounts) {
+            if (updateCount != Statement.EXECUTE_FAILED) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * This method is a getter for the committedBatches variable.
+     * @return      the number of batches committed.
+     */
+    public int getCommittedBatches() {
+        return committedBatches;
+    }
+
+    /**
+     * This method is a getter for the firstFailedIndex variable.
+     * @return      the index of the first row that failed, <i>-1</i> if every row was written.
+     */
+    public int getFirstFailedIndex() {
+        return firstFailedIndex;
+    }
+
+    /**
+     * This method is a getter for the failure variable.
+     * @return      the error of the failing batch, usually a {@link java.sql.BatchUpdateException BatchUpdateException},
+     *              {@code null} if every row was written.
+     */
+    public SQLException getFailure() {
+        return failure;
+    }
+
+    /**
+     * This method tells whether every row was written.
+     * @return      {@code true} if no batch failed.
+     */
+    public boolean isSuccessful() {
+        return (failure == null);
+    }
+}
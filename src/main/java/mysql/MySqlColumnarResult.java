@@ -0,0 +1,548 @@
+package mysql;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * The MySqlColumnarResult class holds a query result column by column, every column in an array of its own type,
+ * created by {@link mysql.MySqlConnector#mysqlGetColumnar(String)}.
+ * <ul>
+ *     <li>Numeric and date columns are stored in primitive arrays, they are never turned into a {@code String} and parsed back,
+ *     see {@link ColumnType} for the mapping of the JDBC types.</li>
+ *     <li>SQL {@code NULL} values are marked in a bitmap of every column, the primitive array holds <i>0</i> in their place.</li>
+ *     <li>The rows and the columns are indexed from <i>0</i>, in the order of the query.</li>
+ *     <li>The values of a numeric column can be read in bulk with {@link #intStream(int)}, {@link #longStream(int)} and {@link #doubleStream(int)}.</li>
+ * </ul>
+ * The result is read completely when it is created, it holds no connection and it is immutable, so it can be shared between threads.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public final class MySqlColumnarResult {
+
+    /**
+     * {@code ColumnType} is the storage of a column, chosen from its JDBC type.
+     */
+    public enum ColumnType {
+
+        /**
+         * An {@code int[]}, for {@code TINYINT}, {@code SMALLINT}, {@code MEDIUMINT}, signed {@code INT}, {@code BIT} and {@code BOOLEAN}.
+         */
+        INT,
+
+        /**
+         * A {@code long[]}, for {@code BIGINT} and unsigned {@code INT}.
+         */
+        LONG,
+
+        /**
+         * A {@code double[]}, for {@code FLOAT}, {@code REAL} and {@code DOUBLE}.
+         */
+        DOUBLE,
+
+        /**
+         * A {@code long[]} of epoch milliseconds, for {@code DATE}, {@code DATETIME} and {@code TIMESTAMP}.
+         */
+        TIMESTAMP,
+
+        /**
+         * A {@code String[]}, for every other type, such as {@code DECIMAL} that must keep its precision,
+         * unsigned {@code BIGINT} that does not fit in a {@code long}, {@code TIME} and the text types.
+         */
+        STRING
+    }
+
+    /**
+     * The number of rows the arrays of the columns are created for, they grow by doubling.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The column names of the result.
+     */
+    private final String[] columnNames;
+
+    /**
+     * The index of every column name.
+     */
+    private final Map<String, Integer> columnIndexes;
+
+    /**
+     * The storage type of every column.
+     */
+    private final ColumnType[] columnTypes;
+
+    /**
+     * The values of every column, an {@code int[]}, {@code long[]}, {@code double[]} or {@code String[]} according to its type.
+     */
+    private final Object[] columns;
+
+    /**
+     * The bitmap of the {@code NULL} values of every column, a set bit marks a {@code NULL} row.
+     */
+    private final long[][] nulls;
+
+    /**
+     * The number of {@code NULL} values of every column.
+     */
+    private final int[] nullCounts;
+
+    /**
+     * The number of rows.
+     */
+    private final int rowCount;
+
+    /**
+     * Columnar result constructor.
+     * @param       columnNames the column names.
+     * @param       columnTypes the storage type of every column.
+     * @param       columns the values of every column.
+     * @param       nulls the bitmap of the {@code NULL} values of every column.
+     * @param       nullCounts the number of {@code NULL} values of every column.
+     * @param       rowCount the number of rows.
+     */
+    private MySqlColumnarResult(String[] columnNames, ColumnType[] columnTypes, Object[] columns, long[][] nulls, int[] nullCounts, int rowCount) {
+        this.columnNames = columnNames;
+        this.columnTypes = columnTypes;
+        this.columns = columns;
+        this.nulls = nulls;
+        this.nullCounts = nullCounts;
+        this.rowCount = rowCount;
+        this.columnIndexes = new HashMap<>();
+        for (int i = 0; i < columnNames.length; i++) {
+            columnIndexes.putIfAbsent(columnNames[i], i);
+        }
+    }
+
+    /**
+     * {@code read} reads every row of a result set into columns.
+     * <ul>
+     *     <li>The metadata is resolved once, the storage type of every column is chosen before the first row.</li>
+     *     <li>Every value is read by its column index with the getter of its type, such as {@link java.sql.ResultSet#getLong(int) getLong()},
+     *     and {@link java.sql.ResultSet#wasNull() wasNull()} marks it in the bitmap of the column.</li>
+     * </ul>
+     * @param       resultSet the result set positioned before its first row.
+     * @return      the columns of the result.
+     * @throws      SQLException if it runs into some MySql error while reading.
+     */
+    static MySqlColumnarResult read(ResultSet resultSet)
+    throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        String[] columnNames = new String[columnCount];
+        ColumnType[] columnTypes = new ColumnType[columnCount];
+        Object[] columns = new Object[columnCount];
+        long[][] nulls = new long[columnCount][];
+        int[] nullCounts = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columnNames[i] = metaData.getColumnName((i + 1));
+            columnTypes[i] = columnType(metaData.getColumnType((i + 1)), metaData.isSigned((i + 1)));
+            columns[i] = newColumn(columnTypes[i], INITIAL_CAPACITY);
+            nulls[i] = new long[(INITIAL_CAPACITY >>> 6)];
+        }
+        int capacity = INITIAL_CAPACITY;
+        int row = 0;
+        while (resultSet.next()) {
+            if (row == capacity) {
+                capacity <<= 1;
+                for (int i = 0; i < columnCount; i++) {
+                    columns[i] = copyColumn(columns[i], capacity);
+                    nulls[i] = Arrays.copyOf(nulls[i], (capacity >>> 6));
+                }
+            }
+            for (int i = 0; i < columnCount; i++) {
+                int index = i + 1;
+                switch (columnTypes[i]) {
+                    case INT:
+                        ((int[]) columns[i])[row] = resultSet.getInt(index);
+                        break;
+                    case LONG:
+                        ((long[]) columns[i])[row] = resultSet.getLong(index);
+                        break;
+                    case DOUBLE:
+                        ((double[]) columns[i])[row] = resultSet.getDouble(index);
+                        break;
+                    case TIMESTAMP:
+                        Timestamp timestamp = resultSet.getTimestamp(index);
+                        ((long[]) columns[i])[row] = (timestamp != null) ? timestamp.getTime() : 0L;
+                        break;
+                    default:
+                        ((String[]) columns[i])[row] = resultSet.getString(index);
+                        break;
+                }
+                if (resultSet.wasNull()) {
+                    nulls[i][(row >>> 6)] |= (1L << row);
+                    nullCounts[i]++;
+                }
+            }
+            row++;
+        }
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = copyColumn(columns[i], row);
+        }
+        return new MySqlColumnarResult(columnNames, columnTypes, columns, nulls, nullCounts, row);
+    }
+
+    /**
+     * This method is a getter for the rowCount variable.
+     * @return      the number of rows.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * This method returns the number of columns.
+     * @return      the number of columns of the result.
+     */
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    /**
+     * This method returns the name of a column.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      the name of the column.
+     * @throws      IndexOutOfBoundsException if there is no such column.
+     */
+    public String getColumnName(int column)
+    throws IndexOutOfBoundsException {
+        return columnNames[column];
+    }
+
+    /**
+     * This method returns the index of a column by its name.
+     * @param       columnName the name of the column.
+     * @return      the index of the column, from <i>0</i>.
+     * @throws      IllegalArgumentException if there is no such column.
+     */
+    public int getColumnIndex(String columnName)
+    throws IllegalArgumentException {
+        Integer column = columnIndexes.get(columnName);
+        if (column == null) {
+            throw new IllegalArgumentException("Column not found: " + columnName);
+        }
+        return column;
+    }
+
+    /**
+     * This method returns the storage type of a column.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      the storage type of the column.
+     * @throws      IndexOutOfBoundsException if there is no such column.
+     */
+    public ColumnType getColumnType(int column)
+    throws IndexOutOfBoundsException {
+        return columnTypes[column];
+    }
+
+    /**
+     * This method returns the number of {@code NULL} values of a column.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      the number of {@code NULL} values.
+     * @throws      IndexOutOfBoundsException if there is no such column.
+     */
+    public int getNullCount(int column)
+    throws IndexOutOfBoundsException {
+        return nullCounts[column];
+    }
+
+    /**
+     * This method tells whether a value is SQL {@code NULL}.
+     * @param       row the index of the row, from <i>0</i>.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      {@code true} if the value is {@code NULL}.
+     * @throws      IndexOutOfBoundsException if there is no such row or column.
+     */
+    public boolean isNull(int row, int column)
+    throws IndexOutOfBoundsException {
+        checkRow(row);
+        return ((nulls[column][(row >>> 6)] & (1L << row)) != 0L);
+    }
+
+    /**
+     * This method returns a value of an {@link ColumnType#INT INT} column.
+     * @param       row the index of the row, from <i>0</i>.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      the value, <i>0</i> for {@code NULL}.
+     * @throws      IndexOutOfBoundsException if there is no such row or column.
+     * @throws      IllegalStateException if the column is not an {@code INT} column.
+     */
+    public int getInt(int row, int column)
+    throws IndexOutOfBoundsException, IllegalStateException {
+        checkRow(row);
+        return ints(column)[row];
+    }
+
+    /**
+     * This method returns a value of an {@link ColumnType#INT INT}, {@link ColumnType#LONG LONG} or {@link ColumnType#TIMESTAMP TIMESTAMP} column.
+     * @param       row the index of the row, from <i>0</i>.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      the value, epoch milliseconds for a {@code TIMESTAMP} column, <i>0</i> for {@code NULL}.
+     * @throws      IndexOutOfBoundsException if there is no such row or column.
+     * @throws      IllegalStateException if the column is not an integer or timestamp column.
+     */
+    public long getLong(int row, int column)
+    throws IndexOutOfBoundsException, IllegalStateException {
+        checkRow(row);
+        if (columnTypes[column] == ColumnType.INT) {
+            return ((int[]) columns[column])[row];
+        }
+        return longs(column)[row];
+    }
+
+    /**
+     * This method returns a value of a numeric column, {@link ColumnType#INT INT}, {@link ColumnType#LONG LONG} or {@link ColumnType#DOUBLE DOUBLE}.
+     * @param       row the index of the row, from <i>0</i>.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      the value, <i>0</i> for {@code NULL}.
+     * @throws      IndexOutOfBoundsException if there is no such row or column.
+     * @throws      IllegalStateException if the column is not a numeric column.
+     */
+    public double getDouble(int row, int column)
+    throws IndexOutOfBoundsException, IllegalStateException {
+        checkRow(row);
+        switch (columnTypes[column]) {
+            case INT:
+                return ((int[]) columns[column])[row];
+            case LONG:
+                return ((long[]) columns[column])[row];
+            case DOUBLE:
+                return ((double[]) columns[column])[row];
+            default:
+                throw new IllegalStateException("Column is not numeric: " + columnNames[column]);
+        }
+    }
+
+    /**
+     * This method returns a value of a {@link ColumnType#TIMESTAMP TIMESTAMP} column.
+     * @param       row the index of the row, from <i>0</i>.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      the value in epoch milliseconds, <i>0</i> for {@code NULL}.
+     * @throws      IndexOutOfBoundsException if there is no such row or column.
+     * @throws      IllegalStateException if the column is not a {@code TIMESTAMP} column.
+     */
+    public long getEpochMillis(int row, int column)
+    throws IndexOutOfBoundsException, IllegalStateException {
+        checkRow(row);
+        if (columnTypes[column] != ColumnType.TIMESTAMP) {
+            throw new IllegalStateException("Column is not a timestamp: " + columnNames[column]);
+        }
+        return ((long[]) columns[column])[row];
+    }
+
+    /**
+     * This method returns a value of any column as a string,
+     * the primitive values are formatted, a {@code TIMESTAMP} value like {@link java.sql.Timestamp#toString()}.
+     * @param       row the index of the row, from <i>0</i>.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      the value as a string, {@code null} for {@code NULL}.
+     * @throws      IndexOutOfBoundsException if there is no such row or column.
+     */
+    public String getString(int row, int column)
+    throws IndexOutOfBoundsException {
+        if (isNull(row, column)) {
+            return null;
+        }
+        switch (columnTypes[column]) {
+            case INT:
+                return Integer.toString(((int[]) columns[column])[row]);
+            case LONG:
+                return Long.toString(((long[]) columns[column])[row]);
+            case DOUBLE:
+                return Double.toString(((double[]) columns[column])[row]);
+            case TIMESTAMP:
+                return new Timestamp(((long[]) columns[column])[row]).toString();
+            default:
+                return ((String[]) columns[column])[row];
+        }
+    }
+
+    /**
+     * {@code intStream} returns the values of an {@link ColumnType#INT INT} column, the {@code NULL} values are left out.
+     * Without {@code NULL} values the stream reads the array of the column directly.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      the stream of the values, in the order of the rows.
+     * @throws      IndexOutOfBoundsException if there is no such column.
+     * @throws      IllegalStateException if the column is not an {@code INT} column.
+     */
+    public IntStream intStream(int column)
+    throws IndexOutOfBoundsException, IllegalStateException {
+        int[] values = ints(column);
+        if (nullCounts[column] == 0) {
+            return Arrays.stream(values);
+        }
+        return nonNullRows(column).map(row -> values[row]);
+    }
+
+    /**
+     * {@code longStream} returns the values of an {@link ColumnType#INT INT}, {@link ColumnType#LONG LONG} or {@link ColumnType#TIMESTAMP TIMESTAMP} column,
+     * the {@code NULL} values are left out.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      the stream of the values, in the order of the rows.
+     * @throws      IndexOutOfBoundsException if there is no such column.
+     * @throws      IllegalStateException if the column is not an integer or timestamp column.
+     */
+    public LongStream longStream(int column)
+    throws IndexOutOfBoundsException, IllegalStateException {
+        if (columnTypes[column] == ColumnType.INT) {
+            return intStream(column).asLongStream();
+        }
+        long[] values = longs(column);
+        if (nullCounts[column] == 0) {
+            return Arrays.stream(values);
+        }
+        return nonNullRows(column).mapToLong(row -> values[row]);
+    }
+
+    /**
+     * {@code doubleStream} returns the values of a numeric column, the {@code NULL} values are left out.
+     * It suits aggregations, such as {@code doubleStream(column).summaryStatistics()}.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      the stream of the values, in the order of the rows.
+     * @throws      IndexOutOfBoundsException if there is no such column.
+     * @throws      IllegalStateException if the column is not a numeric column.
+     */
+    public DoubleStream doubleStream(int column)
+    throws IndexOutOfBoundsException, IllegalStateException {
+        switch (columnTypes[column]) {
+            case INT:
+                return intStream(column).asDoubleStream();
+            case LONG:
+                return longStream(column).asDoubleStream();
+            case DOUBLE:
+                double[] values = (double[]) columns[column];
+                if (nullCounts[column] == 0) {
+                    return Arrays.stream(values);
+                }
+                return nonNullRows(column).mapToDouble(row -> values[row]);
+            default:
+                throw new IllegalStateException("Column is not numeric: " + columnNames[column]);
+        }
+    }
+
+    /**
+     * Chooses the storage type of a column.
+     * @param       sqlType the JDBC type of the column, from {@link java.sql.Types Types}.
+     * @param       signed whether the column is signed.
+     * @return      the storage type of the column.
+     */
+    static ColumnType columnType(int sqlType, boolean signed) {
+        switch (sqlType) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+            case Types.TINYINT:
+            case Types.SMALLINT:
+                return ColumnType.INT;
+            case Types.INTEGER:
+                return signed ? ColumnType.INT : ColumnType.LONG;
+            case Types.BIGINT:
+                return signed ? ColumnType.LONG : ColumnType.STRING;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return ColumnType.DOUBLE;
+            case Types.DATE:
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return ColumnType.TIMESTAMP;
+            default:
+                return ColumnType.STRING;
+        }
+    }
+
+    /**
+     * Creates the array of a column.
+     * @param       columnType the storage type of the column.
+     * @param       capacity the length of the array.
+     * @return      the array of the column.
+     */
+    private static Object newColumn(ColumnType columnType, int capacity) {
+        switch (columnType) {
+            case INT:
+                return new int[capacity];
+            case LONG:
+            case TIMESTAMP:
+                return new long[capacity];
+            case DOUBLE:
+                return new double[capacity];
+            default:
+                return new String[capacity];
+        }
+    }
+
+    /**
+     * Copies the array of a column into a new array of a given length.
+     * @param       column the array of the column.
+     * @param       length the length of the new array.
+     * @return      the new array of the column.
+     */
+    private static Object copyColumn(Object column, int length) {
+        if (column instanceof int[]) {
+            return Arrays.copyOf((int[]) column, length);
+        } else if (column instanceof long[]) {
+            return Arrays.copyOf((long[]) column, length);
+        } else if (column instanceof double[]) {
+            return Arrays.copyOf((double[]) column, length);
+        }
+        return Arrays.copyOf((String[]) column, length);
+    }
+
+    /**
+     * Checks the index of a row.
+     * @param       row the index of the row.
+     * @throws      IndexOutOfBoundsException if there is no such row.
+     */
+    private void checkRow(int row)
+    throws IndexOutOfBoundsException {
+        if ((row < 0) || (row >= rowCount)) {
+            throw new IndexOutOfBoundsException("Row is not correct: " + row);
+        }
+    }
+
+    /**
+     * Returns the array of an {@code INT} column.
+     * @param       column the index of the column.
+     * @return      the array of the column.
+     * @throws      IllegalStateException if the column is not an {@code INT} column.
+     */
+    private int[] ints(int column)
+    throws IllegalStateException {
+        if (columnTypes[column] != ColumnType.INT) {
+            throw new IllegalStateException("Column is not an int: " + columnNames[column]);
+        }
+        return (int[]) columns[column];
+    }
+
+    /**
+     * Returns the array of a {@code LONG} or {@code TIMESTAMP} column.
+     * @param       column the index of the column.
+     * @return      the array of the column.
+     * @throws      IllegalStateException if the column is not a {@code LONG} or {@code TIMESTAMP} column.
+     */
+    private long[] longs(int column)
+    throws IllegalStateException {
+        if ((columnTypes[column] != ColumnType.LONG) && (columnTypes[column] != ColumnType.TIMESTAMP)) {
+            throw new IllegalStateException("Column is not a long: " + columnNames[column]);
+        }
+        return (long[]) columns[column];
+    }
+
+    /**
+     * Returns the indexes of the rows that are not {@code NULL} in a column.
+     * @param       column the index of the column.
+     * @return      the stream of the row indexes.
+     */
+    private IntStream nonNullRows(int column) {
+        long[] bitmap = nulls[column];
+        return IntStream.range(0, rowCount).filter(row -> (bitmap[(row >>> 6)] & (1L << row)) == 0L);
+    }
+}
@@ -0,0 +1,816 @@
+package mysql;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The MySqlConnectionPool class keeps a bounded set of validated MySQL connections that can be borrowed and returned.
+ * Reusing connections saves the TCP and authentication handshake that every new {@link java.sql.DriverManager DriverManager} connection costs.
+ * <ul>
+ *     <li>At least {@code minimumPoolSize} connections are kept open, and never more than {@code maximumPoolSize} exist at the same time.</li>
+ *     <li>A borrower waits at most {@code borrowTimeout} milliseconds for a free connection.</li>
+ *     <li>An idle connection is validated before it is handed out, unless it was used within the last {@code aliveBypassWindow} milliseconds.</li>
+ *     <li>Connections idle for longer than {@code idleTimeout} are closed, as long as the minimum size is kept.</li>
+ *     <li>Connections older than {@code maxLifetime} are retired when they are returned or found idle.</li>
+ *     <li>Every connection has its own {@link mysql.MySqlStatementCache MySqlStatementCache} of {@code statementCacheSize} statements,
+ *     which is closed together with the connection.</li>
+ *     <li>Borrowed connections, the statements handed out by the caches, and the statements and results of the cursors and publishers
+ *     are watched by a {@link mysql.MySqlLeakDetector MySqlLeakDetector}, which is turned off until a leak detection threshold is set.</li>
+ * </ul>
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlConnectionPool
+implements AutoCloseable {
+
+    /**
+     * {@code ConnectionFactory} opens a new physical connection whenever the pool has to grow.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+
+        /**
+         * Opens a new connection to MySQL.
+         * @return      the new connection.
+         * @throws      SQLException if the connection cannot be established.
+         */
+        Connection newConnection()
+        throws SQLException;
+    }
+
+    /**
+     * A physical connection together with its statement cache and the timestamps the pool needs for eviction.
+     */
+    private static final class PooledConnection {
+
+        private final Connection connection;
+        private final MySqlStatementCache statementCache;
+        private final long createdAt;
+        private long lastUsedAt;
+        private volatile long lastReleasedAt;
+
+        private PooledConnection(Connection connection, int statementCacheSize, MySqlLeakDetector leakDetector) {
+            this.connection = connection;
+            this.statementCache = new MySqlStatementCache(connection, statementCacheSize, leakDetector);
+            this.createdAt = System.currentTimeMillis();
+            this.lastUsedAt = createdAt;
+        }
+    }
+
+    /**
+     * The default number of statements cached for every connection.
+     */
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
+    /**
+     * How often the housekeeping task looks for idle and expired connections, in milliseconds.
+     */
+    private static final long HOUSEKEEPING_PERIOD = 30_000L;
+
+    /**
+     * It is used to open new physical connections.
+     */
+    private final ConnectionFactory connectionFactory;
+
+    /**
+     * The number of connections the pool keeps open even when they are idle.
+     */
+    private final int minimumPoolSize;
+
+    /**
+     * The largest number of connections the pool opens at the same time.
+     */
+    private final int maximumPoolSize;
+
+    /**
+     * The number of prepared statements cached for every connection.
+     */
+    private final int statementCacheSize;
+
+    /**
+     * The longest time in milliseconds a borrower waits for a free connection.
+     */
+    private volatile long borrowTimeout = 30_000L;
+
+    /**
+     * The time in milliseconds after which an idle connection above the minimum size is closed.
+     */
+    private volatile long idleTimeout = 600_000L;
+
+    /**
+     * The time in milliseconds after which a connection is retired regardless of its use.
+     */
+    private volatile long maxLifetime = 1_800_000L;
+
+    /**
+     * The time in seconds the driver is given to validate a connection.
+     */
+    private volatile int validationTimeout = 5;
+
+    /**
+     * The time in milliseconds after its last use within which a connection is handed out without validation.
+     */
+    private volatile long aliveBypassWindow = 500L;
+
+    /**
+     * Watches the borrowed connections and the statements of their caches.
+     */
+    private final MySqlLeakDetector leakDetector = new MySqlLeakDetector();
+
+    /**
+     * Connections ready to be borrowed, the most recently returned first.
+     */
+    private final Deque<PooledConnection> idleConnections = new ArrayDeque<>();
+
+    /**
+     * Connections currently handed out to borrowers.
+     * It is changed only while holding the lock, but it is read without it to find the statement cache of a borrowed connection.
+     */
+    private final Map<Connection, PooledConnection> borrowedConnections = new ConcurrentHashMap<>();
+
+    /**
+     * Statement cache hits of the connections already closed.
+     */
+    private final LongAdder retiredStatementCacheHits = new LongAdder();
+
+    /**
+     * Statement cache misses of the connections already closed.
+     */
+    private final LongAdder retiredStatementCacheMisses = new LongAdder();
+
+    /**
+     * It guards every mutable state of the pool.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signalled whenever a connection or a free slot becomes available.
+     */
+    private final Condition available = lock.newCondition();
+
+    /**
+     * Every connection that is idle, borrowed or being opened.
+     */
+    private int totalConnections;
+
+    /**
+     * Set once the pool is closed.
+     */
+    private boolean closed;
+
+    /**
+     * Runs the periodic eviction of idle and expired connections.
+     */
+    private final ScheduledExecutorService housekeeper;
+
+    /**
+     * Pool constructor based on a JDBC connection URL.
+     * @param       url the complete JDBC connection URL.
+     * @param       user MySQL username.
+     * @param       password MySQL password.
+     * @param       minimumPoolSize the number of connections kept open.
+     * @param       maximumPoolSize the largest number of connections open at the same time.
+     * @throws      SQLException if the minimum number of connections cannot be opened.
+     * @throws      IllegalArgumentException if the pool sizes are not correct.
+     */
+    public MySqlConnectionPool(String url, String user, String password, int minimumPoolSize, int maximumPoolSize)
+    throws SQLException, IllegalArgumentException {
+        this(() -> DriverManager.getConnection(url, user, password), minimumPoolSize, maximumPoolSize);
+    }
+
+    /**
+     * Pool constructor based on a connection factory, with the default statement cache size.
+     * @param       connectionFactory opens the physical connections.
+     * @param       minimumPoolSize the number of connections kept open.
+     * @param       maximumPoolSize the largest number of connections open at the same time.
+     * @throws      SQLException if the minimum number of connections cannot be opened.
+     * @throws      IllegalArgumentException if the pool sizes are not correct.
+     * @see         mysql.MySqlConnectionPool#DEFAULT_STATEMENT_CACHE_SIZE
+     */
+    public MySqlConnectionPool(ConnectionFactory connectionFactory, int minimumPoolSize, int maximumPoolSize)
+    throws SQLException, IllegalArgumentException {
+        this(connectionFactory, minimumPoolSize, maximumPoolSize, DEFAULT_STATEMENT_CACHE_SIZE);
+    }
+
+    /**
+     * Pool constructor based on a connection factory.
+     * The minimum number of connections is opened immediately, so a wrong login is reported here and not at the first query.
+     * @param       connectionFactory opens the physical connections.
+     * @param       minimumPoolSize the number of connections kept open.
+     * @param       maximumPoolSize the largest number of connections open at the same time.
+     * @param       statementCacheSize the number of prepared statements cached for every connection, <i>0</i> turns caching off.
+     * @throws      SQLException if the minimum number of connections cannot be opened.
+     * @throws      IllegalArgumentException if the pool sizes or the statement cache size are not correct.
+     */
+    public MySqlConnectionPool(ConnectionFactory connectionFactory, int minimumPoolSize, int maximumPoolSize, int statementCacheSize)
+    throws SQLException, IllegalArgumentException {
+        if ((minimumPoolSize < 0) || (maximumPoolSize < 1) || (minimumPoolSize > maximumPoolSize)) {
+            throw new IllegalArgumentException("Pool size is not correct: minimum " + minimumPoolSize + ", maximum " + maximumPoolSize);
+        }
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("Statement cache size is not correct: " + statementCacheSize);
+        }
+        this.connectionFactory = connectionFactory;
+        this.minimumPoolSize = minimumPoolSize;
+        this.maximumPoolSize = maximumPoolSize;
+        this.statementCacheSize = statementCacheSize;
+        try {
+            for (int i = 0; i < minimumPoolSize; i++) {
+                idleConnections.addLast(newPooledConnection());
+                totalConnections++;
+            }
+        } catch (SQLException e) {
+            for (PooledConnection pooled : idleConnections) {
+                retire(pooled);
+            }
+            throw e;
+        }
+        housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mysql-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::evictIdleConnections, HOUSEKEEPING_PERIOD, HOUSEKEEPING_PERIOD, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * This method is a getter for the minimumPoolSize variable.
+     * @return      the number of connections kept open.
+     */
+    public int getMinimumPoolSize() {
+        return minimumPoolSize;
+    }
+
+    /**
+     * This method is a getter for the maximumPoolSize variable.
+     * @return      the largest number of connections open at the same time.
+     */
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    /**
+     * This method is a getter for the statementCacheSize variable.
+     * @return      the number of prepared statements cached for every connection.
+     */
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * This method is a getter for the borrowTimeout variable.
+     * @return      the longest wait for a free connection in milliseconds.
+     */
+    public long getBorrowTimeout() {
+        return borrowTimeout;
+    }
+
+    /**
+     * This method is a getter for the idleTimeout variable.
+     * @return      the idle time in milliseconds after which a connection is closed.
+     */
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * This method is a getter for the maxLifetime variable.
+     * @return      the age in milliseconds after which a connection is retired.
+     */
+    public long getMaxLifetime() {
+        return maxLifetime;
+    }
+
+    /**
+     * This method is a setter for the borrowTimeout variable.
+     * @param       borrowTimeout the longest wait for a free connection in milliseconds.
+     */
+    public void setBorrowTimeout(long borrowTimeout) {
+        this.borrowTimeout = borrowTimeout;
+    }
+
+    /**
+     * This method is a setter for the idleTimeout variable.
+     * @param       idleTimeout the idle time in milliseconds after which a connection is closed.
+     */
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * This method is a setter for the maxLifetime variable.
+     * @param       maxLifetime the age in milliseconds after which a connection is retired.
+     */
+    public void setMaxLifetime(long maxLifetime) {
+        this.maxLifetime = maxLifetime;
+    }
+
+    /**
+     * This method is a setter for the leak detection threshold of the pool.
+     * A borrowed connection or a statement handed out for longer than the threshold is reported with the stack trace of its borrower.
+     * @param       leakDetectionThreshold the time in milliseconds a resource may stay open, <i>0</i> turns the detection off.
+     * @throws      IllegalArgumentException if the threshold is negative.
+     * @see         mysql.MySqlLeakDetector
+     */
+    public void setLeakDetectionThreshold(long leakDetectionThreshold)
+    throws IllegalArgumentException {
+        leakDetector.setLeakDetectionThreshold(leakDetectionThreshold);
+    }
+
+    /**
+     * This method is a getter for the leakDetector variable.
+     * @return      the leak detector watching the borrowed connections and their statements.
+     */
+    public MySqlLeakDetector getLeakDetector() {
+        return leakDetector;
+    }
+
+    /**
+     * This method is a getter for the aliveBypassWindow variable.
+     * @return      the time in milliseconds after its last use within which a connection is not validated.
+     */
+    public long getAliveBypassWindow() {
+        return aliveBypassWindow;
+    }
+
+    /**
+     * This method is a setter for the aliveBypassWindow variable.
+     * A connection used within this window is very likely alive, so the round trip of the validation is skipped.
+     * @param       aliveBypassWindow the time in milliseconds after its last use within which a connection is not validated,
+     *              <i>0</i> validates every connection before it is handed out.
+     */
+    public void setAliveBypassWindow(long aliveBypassWindow) {
+        this.aliveBypassWindow = aliveBypassWindow;
+    }
+
+    /**
+     * This method is a setter for the validationTimeout variable.
+     * @param       validationTimeout the time in seconds the driver is given to validate a connection.
+     */
+    public void setValidationTimeout(int validationTimeout) {
+        this.validationTimeout = validationTimeout;
+    }
+
+    /**
+     * This method returns the number of connections that are idle, borrowed or being opened.
+     * @return      the number of connections that are idle, borrowed or being opened.
+     */
+    public int getTotalConnections() {
+        lock.lock();
+        try {
+            return totalConnections;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method returns the number of connections ready to be borrowed.
+     * @return      the number of connections ready to be borrowed.
+     */
+    public int getIdleConnections() {
+        lock.lock();
+        try {
+            return idleConnections.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method returns the number of connections handed out to borrowers.
+     * @return      the number of connections handed out to borrowers.
+     */
+    public int getActiveConnections() {
+        lock.lock();
+        try {
+            return borrowedConnections.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method returns how many statements were found in the statement caches of all connections, including the closed ones.
+     * @return      the number of statement cache hits.
+     */
+    public long getStatementCacheHits() {
+        long hits = retiredStatementCacheHits.sum();
+        for (MySqlStatementCache statementCache : statementCaches()) {
+            hits += statementCache.getHits();
+        }
+        return hits;
+    }
+
+    /**
+     * This method returns how many statements had to be prepared on any connection, including the closed ones.
+     * @return      the number of statement cache misses.
+     */
+    public long getStatementCacheMisses() {
+        long misses = retiredStatementCacheMisses.sum();
+        for (MySqlStatementCache statementCache : statementCaches()) {
+            misses += statementCache.getMisses();
+        }
+        return misses;
+    }
+
+    /**
+     * {@code getStatementCache} returns the statement cache of a borrowed connection.
+     * The cache may only be used by the borrower, until the connection is released.
+     * @param       connection the connection received from {@link #borrowConnection()}.
+     * @return      the statement cache of the connection.
+     * @throws      IllegalArgumentException if the connection is not borrowed from this pool.
+     */
+    public MySqlStatementCache getStatementCache(Connection connection)
+    throws IllegalArgumentException {
+        PooledConnection pooled = borrowedConnections.get(connection);
+        if (pooled == null) {
+            throw new IllegalArgumentException("Connection is not borrowed from this pool!");
+        }
+        return pooled.statementCache;
+    }
+
+    /**
+     * {@code borrowConnection} hands out a connection that must be returned with {@link #releaseConnection(Connection)}.
+     * <ul>
+     *     <li>The most recently returned idle connection is taken first, because it is the most likely to be still alive.</li>
+     *     <li>An idle connection that is past its {@code maxLifetime} or fails validation is closed, and the next one is tried.</li>
+     *     <li>If no idle connection is left and the pool is below {@code maximumPoolSize}, a new connection is opened.</li>
+     *     <li>Otherwise the caller waits until a connection is returned or {@code borrowTimeout} passes.</li>
+     * </ul>
+     * @return      a connection reserved for the caller.
+     * @throws      SQLTimeoutException if no connection became free within {@code borrowTimeout}.
+     * @throws      SQLException if the pool is closed or a new connection cannot be opened.
+     */
+    public Connection borrowConnection()
+    throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(borrowTimeout);
+        while (true) {
+            PooledConnection pooled;
+            lock.lock();
+            try {
+                pooled = awaitConnection(deadline);
+            } finally {
+                lock.unlock();
+            }
+            if (pooled == null) {
+                try {
+                    pooled = newPooledConnection();
+                } catch (SQLException e) {
+                    discardSlot();
+                    throw e;
+                }
+            } else if (!isUsable(pooled)) {
+                discardSlot();
+                retire(pooled);
+                continue;
+            }
+            lock.lock();
+            try {
+                if (!closed) {
+                    borrowedConnections.put(pooled.connection, pooled);
+                    leakDetector.track(pooled.connection, "Connection borrowed from pool");
+                    return pooled.connection;
+                }
+                totalConnections--;
+            } finally {
+                lock.unlock();
+            }
+            retire(pooled);
+            throw new SQLException("Connection pool is closed!");
+        }
+    }
+
+    /**
+     * {@code releaseConnection} returns a borrowed connection to the pool.
+     * <ul>
+     *     <li>A connection returned with auto-commit turned off is rolled back and auto-commit is turned on again,
+     *     so an open transaction and its uncommitted writes never reach the next borrower.</li>
+     *     <li>A connection that was closed by its user, cannot be reset, is past its {@code maxLifetime},
+     *     or was returned after the pool was closed is closed instead of being kept.</li>
+     * </ul>
+     * @param       connection the connection received from {@link #borrowConnection()}.
+     * @throws      IllegalArgumentException if the connection was not borrowed from this pool.
+     */
+    public void releaseConnection(Connection connection)
+    throws IllegalArgumentException {
+        if (connection == null) {
+            return;
+        }
+        PooledConnection pooled;
+        lock.lock();
+        try {
+            pooled = borrowedConnections.remove(connection);
+            if (pooled == null) {
+                throw new IllegalArgumentException("Connection does not belong to this pool!");
+            }
+            leakDetector.untrack(connection);
+        } finally {
+            lock.unlock();
+        }
+        boolean reset = resetSession(connection);
+        lock.lock();
+        try {
+            if (reset && !closed && !isExpired(pooled, System.currentTimeMillis()) && !isClosed(connection)) {
+                pooled.lastUsedAt = System.currentTimeMillis();
+                pooled.lastReleasedAt = pooled.lastUsedAt;
+                idleConnections.addFirst(pooled);
+                available.signal();
+                return;
+            }
+            totalConnections--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        retire(pooled);
+    }
+
+    /**
+     * {@code invalidateConnection} drops a borrowed connection that ran into a connection error, instead of returning it to the pool.
+     * <ul>
+     *     <li>The connection is closed and its slot is freed, so the next borrower opens a new connection.</li>
+     *     <li>The idle connections were probably cut off by the same failure,
+     *     so each of them is validated before it is handed out again, regardless of {@code aliveBypassWindow}.</li>
+     * </ul>
+     * @param       connection the connection received from {@link #borrowConnection()}.
+     * @throws      IllegalArgumentException if the connection was not borrowed from this pool.
+     */
+    public void invalidateConnection(Connection connection)
+    throws IllegalArgumentException {
+        PooledConnection pooled;
+        lock.lock();
+        try {
+            pooled = borrowedConnections.remove(connection);
+            if (pooled == null) {
+                throw new IllegalArgumentException("Connection does not belong to this pool!");
+            }
+            leakDetector.untrack(connection);
+            for (PooledConnection idle : idleConnections) {
+                idle.lastReleasedAt = 0L;
+            }
+            totalConnections--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        retire(pooled);
+    }
+
+    /**
+     * {@code evictIdleConnections} closes connections that were idle for longer than {@code idleTimeout}
+     * or live longer than {@code maxLifetime}, then opens connections again up to {@code minimumPoolSize}.
+     * It runs periodically on a background thread, but it can also be called directly.
+     */
+    public void evictIdleConnections() {
+        List<PooledConnection> evicted = new ArrayList<>();
+        int missing;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            Iterator<PooledConnection> oldestFirst = idleConnections.descendingIterator();
+            while (oldestFirst.hasNext()) {
+                PooledConnection pooled = oldestFirst.next();
+                boolean idle = (now - pooled.lastUsedAt) >= idleTimeout && (totalConnections > minimumPoolSize);
+                if (idle || isExpired(pooled, now)) {
+                    oldestFirst.remove();
+                    totalConnections--;
+                    evicted.add(pooled);
+                }
+            }
+            missing = minimumPoolSize - totalConnections;
+            totalConnections += Math.max(missing, 0);
+        } finally {
+            lock.unlock();
+        }
+        evicted.forEach(this::retire);
+        for (int i = 0; i < missing; i++) {
+            try {
+                PooledConnection pooled = newPooledConnection();
+                lock.lock();
+                try {
+                    if (!closed) {
+                        idleConnections.addLast(pooled);
+                        available.signal();
+                        continue;
+                    }
+                    totalConnections--;
+                } finally {
+                    lock.unlock();
+                }
+                retire(pooled);
+            } catch (SQLException e) {
+                discardSlot();
+            }
+        }
+    }
+
+    /**
+     * {@code close} closes every idle connection and stops the housekeeping task.
+     * Borrowed connections are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        List<PooledConnection> idle;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            idle = new ArrayList<>(idleConnections);
+            totalConnections -= idleConnections.size();
+            idleConnections.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        leakDetector.close();
+        idle.forEach(this::retire);
+    }
+
+    /**
+     * Waits, while holding the lock, for an idle connection or a free slot.
+     * @param       deadline {@link System#nanoTime()} value after which waiting gives up.
+     * @return      an idle connection, or {@code null} if a slot was reserved for a new connection.
+     * @throws      SQLException if the pool is closed, the wait timed out or was interrupted.
+     */
+    private PooledConnection awaitConnection(long deadline)
+    throws SQLException {
+        while (true) {
+            if (closed) {
+                throw new SQLException("Connection pool is closed!");
+            }
+            PooledConnection pooled = idleConnections.pollFirst();
+            if (pooled != null) {
+                return pooled;
+            }
+            if (totalConnections < maximumPoolSize) {
+                totalConnections++;
+                return null;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L) {
+                throw new SQLTimeoutException("No connection became free within " + borrowTimeout + " ms!");
+            }
+            try {
+                available.awaitNanos(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a connection!", e);
+            }
+        }
+    }
+
+    /**
+     * Opens a new physical connection with an empty statement cache.
+     * @return      the new pooled connection.
+     * @throws      SQLException if the connection cannot be established.
+     */
+    private PooledConnection newPooledConnection()
+    throws SQLException {
+        return new PooledConnection(connectionFactory.newConnection(), statementCacheSize, leakDetector);
+    }
+
+    /**
+     * Opens a new physical connection with the connection factory of the pool, which the pool does not manage.
+     * @return      the new connection, the caller has to close it.
+     * @throws      SQLException if the connection cannot be established.
+     */
+    Connection openUnpooledConnection()
+    throws SQLException {
+        return connectionFactory.newConnection();
+    }
+
+    /**
+     * Closes the statement cache and the connection, keeping the statement cache statistics.
+     * @param       pooled the connection to close.
+     */
+    private void retire(PooledConnection pooled) {
+        retiredStatementCacheHits.add(pooled.statementCache.getHits());
+        retiredStatementCacheMisses.add(pooled.statementCache.getMisses());
+        pooled.statementCache.close();
+        closeQuietly(pooled.connection);
+    }
+
+    /**
+     * Collects the statement caches of the open connections.
+     * @return      the statement caches of the idle and borrowed connections.
+     */
+    private List<MySqlStatementCache> statementCaches() {
+        List<MySqlStatementCache> statementCaches = new ArrayList<>();
+        lock.lock();
+        try {
+            idleConnections.forEach(pooled -> statementCaches.add(pooled.statementCache));
+            borrowedConnections.values().forEach(pooled -> statementCaches.add(pooled.statementCache));
+        } finally {
+            lock.unlock();
+        }
+        return statementCaches;
+    }
+
+    /**
+     * Gives back the slot of a connection that was never opened or has been dropped.
+     */
+    private void discardSlot() {
+        lock.lock();
+        try {
+            totalConnections--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks that an idle connection can be handed out again.
+     * A connection released within the {@code aliveBypassWindow} is not validated,
+     * a connection that was never released or is suspected since {@link #invalidateConnection(Connection)} always is.
+     * @param       pooled the connection to check.
+     * @return      {@code true} if the connection is within its lifetime and it was used recently or the driver reports it valid.
+     */
+    private boolean isUsable(PooledConnection pooled) {
+        long now = System.currentTimeMillis();
+        if (isExpired(pooled, now)) {
+            return false;
+        }
+        if ((pooled.lastReleasedAt != 0L) && ((now - pooled.lastReleasedAt) < aliveBypassWindow)) {
+            return true;
+        }
+        try {
+            return pooled.connection.isValid(validationTimeout);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks the age of a connection.
+     * @param       pooled the connection to check.
+     * @param       now the current time in milliseconds.
+     * @return      {@code true} if the connection lived longer than {@code maxLifetime}.
+     */
+    private boolean isExpired(PooledConnection pooled, long now) {
+        return (maxLifetime > 0L) && ((now - pooled.createdAt) >= maxLifetime);
+    }
+
+    /**
+     * Ends the transaction a user left open on a connection: it is rolled back and auto-commit is turned on again.
+     * @param       connection the connection to reset.
+     * @return      {@code true} if the connection is in auto-commit mode, {@code false} if it could not be reset.
+     */
+    private static boolean resetSession(Connection connection) {
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether the user of a connection closed it.
+     * @param       connection the connection to check.
+     * @return      {@code true} if the connection is closed or its state cannot be read.
+     */
+    private static boolean isClosed(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Closes a connection, ignoring the errors of a connection that is already broken.
+     * @param       connection the connection to close.
+     */
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
@@ -1,9 +1,28 @@
 package mysql;
 
+import com.mysql.cj.jdbc.JdbcStatement;
+
+import java.io.FilterInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 /**
  * The MySqlConnector class provides a convenient way to establish a connection between a Java project and a MySQL database.
@@ -14,14 +33,59 @@ import java.util.List;
 public class MySqlConnector {
 
     /**
-     * It is used to store the database connection object.
+     * The {@code max_allowed_packet} assumed when the server does not report it, the default of MySQL 8.
+     */
+    private static final long DEFAULT_MAX_ALLOWED_PACKET = 64L * 1_024L * 1_024L;
+
+    /**
+     * The bytes of {@code max_allowed_packet} left free by a multi-row {@code INSERT}, for the packet header and the estimation error,
+     * at most a quarter of a small packet, so the rows still get three quarters of it.
+     */
+    private static final long PACKET_RESERVE = 16L * 1_024L;
+
+    /**
+     * The largest number of parameters of a prepared statement.
+     */
+    private static final int MAX_STATEMENT_PARAMETERS = 65_535;
+
+    /**
+     * {@code ConnectionCallback} is a unit of work that runs on a borrowed connection.
+     * @param       <R> the type of the result.
+     */
+    @FunctionalInterface
+    private interface ConnectionCallback<R> {
+
+        /**
+         * Runs the work on the connection.
+         * @param       connection the borrowed connection, valid only during the call.
+         * @param       statementCache the prepared statements cached for the connection.
+         * @return      the result of the work.
+         * @throws      SQLException if it runs into some MySql error while running.
+         */
+        R execute(Connection connection, MySqlStatementCache statementCache)
+        throws SQLException;
+    }
+
+    /**
+     * {@code TransactionCallback} is a unit of work that runs in a transaction, see {@link mysql.MySqlConnector#mysqlInTransaction(TransactionCallback)}.
+     * @param       <R> the type of the result.
      */
-    private Connection connection;
+    @FunctionalInterface
+    public interface TransactionCallback<R> {
+
+        /**
+         * Runs the work, the operations of the connector called on the same thread are part of the transaction.
+         * @return      the result of the work.
+         * @throws      SQLException if it runs into some MySql error while running, the transaction is rolled back.
+         */
+        R execute()
+        throws SQLException;
+    }
 
     /**
-     * It is used to store prepared statements, which are used to execute parameterized MySQL queries.
+     * It is used to store the pool of database connections, every operation borrows its connection from here.
      */
-    private PreparedStatement preparedStatement;
+    private volatile MySqlConnectionPool connectionPool;
 
     /**
      * The connection string specifies the protocol (jdbc:mysql://),<br>
@@ -31,10 +95,12 @@ public class MySqlConnector {
     private String JDBCConnectionString = "jdbc:mysql://127.0.0.1:3306/";
 
     /**
-     * autoReconnect=true specifies that the JDBC driver should automatically reconnect to the database if the connection is lost,
-     * and useSSL=false disables the use of SSL for the connection.
+     * The connection parameters appended to the connection URL, useSSL=false disables the use of SSL for the connection,
+     * rewriteBatchedStatements=true lets the driver send a batch of {@code INSERT}s as multi-row {@code INSERT}s.
+     * The deprecated autoReconnect=true of the driver is not used, a lost connection is replaced by the connector itself,
+     * see {@link mysql.MySqlConnector#setMaxReconnectAttempts(int)}.
      */
-    private String autoReconnect = "?autoReconnect=true&useSSL=false";
+    private String autoReconnect = "?useSSL=false&rewriteBatchedStatements=true";
 
     /**
      * Storing the MySQL current database name.
@@ -56,6 +122,164 @@ public class MySqlConnector {
      */
     private String password = null;
 
+    /**
+     * It is used to store the administrative connection, which has no database selected and runs every DDL instruction.
+     * It is opened at the first DDL call and reused until disconnection.
+     */
+    private Connection adminConnection;
+
+    /**
+     * It is used to store the connection returned by {@link mysql.MySqlConnector#getConnection()}, which is not part of the connection pool.
+     * It is opened at the first call and kept until disconnection or until the connection pool is replaced.
+     */
+    private Connection sharedConnection;
+
+    /**
+     * It guards the {@code adminConnection}, DDL instructions of concurrent callers run one after the other.
+     */
+    private final ReentrantLock adminLock = new ReentrantLock();
+
+    /**
+     * The number of connections the pool keeps open, by default a single connection.
+     */
+    private int minimumPoolSize = 1;
+
+    /**
+     * The largest number of connections the pool opens at the same time, by default a single connection.
+     */
+    private int maximumPoolSize = 1;
+
+    /**
+     * The number of prepared statements cached for every pooled connection.
+     */
+    private int statementCacheSize = MySqlConnectionPool.DEFAULT_STATEMENT_CACHE_SIZE;
+
+    /**
+     * The longest time in milliseconds an operation waits for a free connection of the pool.
+     */
+    private long borrowTimeout = 30_000L;
+
+    /**
+     * The time in milliseconds after which an idle pooled connection above the minimum pool size is closed.
+     */
+    private long idleTimeout = 600_000L;
+
+    /**
+     * The time in milliseconds after which a pooled connection is retired.
+     */
+    private long maxLifetime = 1_800_000L;
+
+    /**
+     * The time in milliseconds a borrowed connection or statement may stay open before it is reported as a leak, <i>0</i> turns the detection off.
+     */
+    private long leakDetectionThreshold = 0L;
+
+    /**
+     * The time in milliseconds after its last use within which a pooled connection is handed out without a liveness check.
+     */
+    private long aliveBypassWindow = 500L;
+
+    /**
+     * The number of times an operation that hit a connection error is tried again on a new connection.
+     */
+    private int maxReconnectAttempts = 3;
+
+    /**
+     * The wait in milliseconds before the second reconnect attempt, doubled at every further attempt.
+     */
+    private long reconnectBackoff = 100L;
+
+    /**
+     * The longest wait in milliseconds between two reconnect attempts.
+     */
+    private long maxReconnectBackoff = 5_000L;
+
+    /**
+     * The number of rows a cursor fetches from the server at a time, <i>0</i> streams the rows one by one.
+     */
+    private int cursorFetchSize = 0;
+
+    /**
+     * The number of rows sent and committed together by the batched writes.
+     */
+    private int batchSize = 1_000;
+
+    /**
+     * The largest statement in bytes the server accepts, read from the server at the connection, <i>0</i> until it is read.
+     */
+    private volatile long maxAllowedPacket = 0L;
+
+    /**
+     * It is used to store the transaction of every thread, the connection it holds between {@code mysqlBegin} and its end.
+     */
+    private final ThreadLocal<Transaction> transaction = new ThreadLocal<>();
+
+    /**
+     * The largest number of writes of concurrent callers committed together by {@link mysql.MySqlConnector#mysqlSetGrouped(String, Object...)},
+     * <i>1</i> turns the grouping off.
+     */
+    private volatile int groupCommitSize = 1;
+
+    /**
+     * The longest time in milliseconds the first write of a group waits for more writes to join.
+     */
+    private volatile long groupCommitDelay = 2L;
+
+    /**
+     * Guards the queue of the grouped writes.
+     */
+    private final ReentrantLock groupLock = new ReentrantLock();
+
+    /**
+     * Signalled when the queue of the grouped writes holds a full group.
+     */
+    private final Condition groupFilled = groupLock.newCondition();
+
+    /**
+     * Signalled when a group was committed or rolled back.
+     */
+    private final Condition groupFinished = groupLock.newCondition();
+
+    /**
+     * The grouped writes waiting for their group, in the order of arrival.
+     */
+    private final ArrayList<GroupedWrite> groupQueue = new ArrayList<>();
+
+    /**
+     * It is used to store whether a caller is collecting or committing a group.
+     */
+    private boolean groupLeader = false;
+
+    /**
+     * The executor given for the asynchronous operations, {@code null} uses the default executor of {@link mysql.MySqlAsyncExecutor MySqlAsyncExecutor}.
+     */
+    private Executor asyncExecutorDelegate;
+
+    /**
+     * It is used to store the executor of the asynchronous operations, created at the first asynchronous call.
+     */
+    private volatile MySqlAsyncExecutor asyncExecutor;
+
+    /**
+     * It is used to store the cached metadata of the tables of the database, created at the first call of {@link mysql.MySqlConnector#getSchemaCatalog()}.
+     */
+    private volatile MySqlSchemaCatalog schemaCatalog;
+
+    /**
+     * Counts the operations that got a working connection again after a connection error.
+     */
+    private final LongAdder reconnects = new LongAdder();
+
+    /**
+     * The total time in nanoseconds spent between a connection error and the next working connection.
+     */
+    private final LongAdder reconnectTime = new LongAdder();
+
+    /**
+     * It is used to store the policy that retries the operations failing with a deadlock or a lock wait timeout.
+     */
+    private volatile MySqlRetryPolicy retryPolicy = new MySqlRetryPolicy();
+
     /**
      * Default constructor.
      * <b>Automatic connection is not possible, the MySQL parameters must be specified separately:</b>
@@ -105,19 +329,61 @@ public class MySqlConnector {
     }
 
     /**
-     * This method is a getter for the connection variable. It returns the current Connection object.
+     * This method returns the connection of the connector, as before the connection pool.
+     * <ul>
+     *     <li>The connection is opened at the first call with the settings of the connection pool, but it is not borrowed from it,
+     *     so it does not take a connection of the pool away from the operations of the connector.</li>
+     *     <li>Every call returns the same connection, the caller must not close it.
+     *     It is closed by {@link mysql.MySqlConnector#mysqlDisconnection()} or when the connection pool is replaced.</li>
+     * </ul>
+     * @return      the connection to MySQL, or {@code null} if there is no connection or it cannot be opened.
+     * @deprecated  use {@link mysql.MySqlConnector#borrowConnection()} and {@link mysql.MySqlConnector#releaseConnection(Connection)},
+     *              which use the connections of the connection pool.
+     */
+    @Deprecated
+    public synchronized Connection getConnection() {
+        MySqlConnectionPool pool = connectionPool;
+        if (pool == null) {
+            return null;
+        }
+        try {
+            if ((sharedConnection == null) || sharedConnection.isClosed()) {
+                sharedConnection = pool.openUnpooledConnection();
+            }
+            return sharedConnection;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    /**
+     * This method borrows a connection from the connection pool.
+     * The connection is reserved for the caller until it is handed back with {@link mysql.MySqlConnector#releaseConnection(Connection)}.
+     * A transaction left open on it is rolled back when it is handed back.
      * @return      the connection to MySQL.
+     * @throws      SQLException if there is no connection or no connection became free in time.
+     */
+    public Connection borrowConnection()
+    throws SQLException {
+        return connectionPool().borrowConnection();
+    }
+
+    /**
+     * This method hands back a connection received from {@link mysql.MySqlConnector#borrowConnection()} to the connection pool.
+     * @param       connection the borrowed connection.
+     * @throws      SQLException if there is no connection pool.
      */
-    public Connection getConnection() {
-        return connection;
+    public void releaseConnection(Connection connection)
+    throws SQLException {
+        connectionPool().releaseConnection(connection);
     }
 
     /**
-     * This method is a getter for the preparedStatement variable. It returns the current PreparedStatement object.
-     * @return      the statement to MySQL.
+     * This method is a getter for the connectionPool variable. It returns the current connection pool.
+     * @return      the connection pool, or {@code null} if there is no connection.
      */
-    public PreparedStatement getPreparedStatement() {
-        return preparedStatement;
+    public MySqlConnectionPool getConnectionPool() {
+        return connectionPool;
     }
 
     /**
@@ -129,8 +395,8 @@ public class MySqlConnector {
     }
 
     /**
-     * This method is a getter for the autoReconnect variable. It returns the current auto-reconnect parameter string.
-     * @return      the current auto-reconnect parameter.
+     * This method is a getter for the autoReconnect variable. It returns the current connection parameter string.
+     * @return      the current connection parameters appended to the URL.
      */
     public String getAutoReconnect() {
         return autoReconnect;
@@ -152,6 +418,209 @@ public class MySqlConnector {
         return table;
     }
 
+    /**
+     * This method is a getter for the minimumPoolSize variable.
+     * @return      the number of connections the pool keeps open.
+     */
+    public int getMinimumPoolSize() {
+        return minimumPoolSize;
+    }
+
+    /**
+     * This method is a getter for the maximumPoolSize variable.
+     * @return      the largest number of connections the pool opens at the same time.
+     */
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    /**
+     * This method is a getter for the statementCacheSize variable.
+     * @return      the number of prepared statements cached for every pooled connection.
+     */
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * This method is a getter for the borrowTimeout variable.
+     * @return      the longest wait for a free connection in milliseconds.
+     */
+    public long getBorrowTimeout() {
+        return borrowTimeout;
+    }
+
+    /**
+     * This method is a getter for the idleTimeout variable.
+     * @return      the idle time in milliseconds after which a pooled connection is closed.
+     */
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * This method is a getter for the maxLifetime variable.
+     * @return      the age in milliseconds after which a pooled connection is retired.
+     */
+    public long getMaxLifetime() {
+        return maxLifetime;
+    }
+
+    /**
+     * This method is a getter for the leakDetectionThreshold variable.
+     * @return      the time in milliseconds a borrowed resource may stay open before it is reported.
+     */
+    public long getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    /**
+     * This method is a getter for the aliveBypassWindow variable.
+     * @return      the time in milliseconds after its last use within which a pooled connection is not checked.
+     */
+    public long getAliveBypassWindow() {
+        return aliveBypassWindow;
+    }
+
+    /**
+     * This method is a getter for the maxReconnectAttempts variable.
+     * @return      the number of times an operation is tried again after a connection error.
+     */
+    public int getMaxReconnectAttempts() {
+        return maxReconnectAttempts;
+    }
+
+    /**
+     * This method is a getter for the retryPolicy variable.
+     * @return      the policy that retries the operations failing with a deadlock or a lock wait timeout, it counts the retries.
+     */
+    public MySqlRetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * This method is a getter for the reconnectBackoff variable.
+     * @return      the wait in milliseconds before the second reconnect attempt.
+     */
+    public long getReconnectBackoff() {
+        return reconnectBackoff;
+    }
+
+    /**
+     * This method is a getter for the maxReconnectBackoff variable.
+     * @return      the longest wait in milliseconds between two reconnect attempts.
+     */
+    public long getMaxReconnectBackoff() {
+        return maxReconnectBackoff;
+    }
+
+    /**
+     * This method is a getter for the cursorFetchSize variable.
+     * @return      the number of rows a cursor fetches from the server at a time, <i>0</i> if the rows are streamed.
+     */
+    public int getCursorFetchSize() {
+        return cursorFetchSize;
+    }
+
+    /**
+     * This method is a getter for the batchSize variable.
+     * @return      the number of rows sent and committed together by the batched writes.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * This method is a getter for the maxAllowedPacket variable.
+     * @return      the largest statement in bytes the server accepts, <i>0</i> if it was not read yet.
+     */
+    public long getMaxAllowedPacket() {
+        return maxAllowedPacket;
+    }
+
+    /**
+     * This method is a getter for the groupCommitSize variable.
+     * @return      the largest number of grouped writes committed together, <i>1</i> if the grouping is off.
+     */
+    public int getGroupCommitSize() {
+        return groupCommitSize;
+    }
+
+    /**
+     * This method is a getter for the groupCommitDelay variable.
+     * @return      the longest time in milliseconds the first write of a group waits for more writes.
+     */
+    public long getGroupCommitDelay() {
+        return groupCommitDelay;
+    }
+
+    /**
+     * This method tells whether the calling thread is in a transaction started by {@link mysql.MySqlConnector#mysqlBegin()}.
+     * @return      {@code true} if the operations of the thread run in a transaction.
+     */
+    public boolean isInTransaction() {
+        return (transaction.get() != null);
+    }
+
+    /**
+     * This method returns the executor of the asynchronous operations, creating it at the first call.
+     * Its concurrency is limited to the maximum size of the current connection pool, or to {@code maximumPoolSize} if there is none.
+     * @return      the executor of the asynchronous operations.
+     */
+    public MySqlAsyncExecutor getAsyncExecutor() {
+        MySqlAsyncExecutor executor = asyncExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = asyncExecutor;
+                if (executor == null) {
+                    MySqlConnectionPool pool = connectionPool;
+                    int maxConcurrency = (pool != null) ? pool.getMaximumPoolSize() : maximumPoolSize;
+                    executor = (asyncExecutorDelegate != null)
+                            ? new MySqlAsyncExecutor(asyncExecutorDelegate, maxConcurrency)
+                            : new MySqlAsyncExecutor(maxConcurrency);
+                    asyncExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * This method returns the cached metadata of the tables of the database, creating the catalog at the first call.
+     * The catalog is invalidated by every DDL call of the connector, see {@link mysql.MySqlConnector#mysqlSchemaBatch(List)}.
+     * @return      the schema catalog of the connector.
+     */
+    public MySqlSchemaCatalog getSchemaCatalog() {
+        MySqlSchemaCatalog catalog = schemaCatalog;
+        if (catalog == null) {
+            synchronized (this) {
+                catalog = schemaCatalog;
+                if (catalog == null) {
+                    catalog = new MySqlSchemaCatalog(this);
+                    schemaCatalog = catalog;
+                }
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * This method returns how many times an operation got a working connection again after a connection error.
+     * @return      the number of reconnects.
+     */
+    public long getReconnectCount() {
+        return reconnects.sum();
+    }
+
+    /**
+     * This method returns the total time spent reconnecting, from each connection error to the next working connection,
+     * including the backoff waits.
+     * @return      the time spent reconnecting in milliseconds.
+     */
+    public long getReconnectTime() {
+        return reconnectTime.sum() / 1_000_000L;
+    }
+
     /**
      * This method is a setter for the JDBCConnectionString variable.
      * It allows the JDBC connection string to be updated by providing a new value.
@@ -163,7 +632,7 @@ public class MySqlConnector {
 
     /**
      * This method is a setter for the autoReconnect variable.
-     * It allows the auto-reconnect parameter string to be updated by providing a new value.
+     * It allows the connection parameter string to be updated by providing a new value.
      * @param       autoReconnect to be updated.
      */
     public void setAutoReconnect(String autoReconnect) {
@@ -217,56 +686,307 @@ public class MySqlConnector {
     }
 
     /**
-     * {@code mysqlLogIn} that is used to log in to a MySQL database.
-     * It takes two parameters: {@code mysqlUser} (the username) and {@code mysqlPassword} (the password).<br><br>
-     * This method attempts to log in to the MySQL database by setting the username and password using the provided parameters
-     * and then calling the {@code mysqlConnection}() method.
-     * <ul>
-     *     <li>The method receives the {@code mysqlUser} and {@code mysqlPassword} as input parameters.</li>
-     *     <li>It calls the {@code setUser} method, passing the {@code mysqlUser} parameter, to set the username.</li>
-     *     <li>It calls the setPassword method, passing the {@code mysqlPassword} parameter, to set the password.</li>
-     *     <li>It calls the mysqlConnection method, which is presumably responsible for establishing the database connection.</li>
-     * </ul>
-     * By encapsulating the login logic within this method, the code ensures that the username and password are set correctly
-     * and that any exceptions thrown during the login process are handled appropriately.
-     * @param       mysqlUser the username.
-     * @param       mysqlPassword the password.
-     * @throws      SQLException if there is an error during the login process.
-     * @throws      IllegalArgumentException if the user and/or password is incorrect.
-     * @see         mysql.MySqlConnector#setUser(String)
-     * @see         mysql.MySqlConnector#setPassword(String)
-     * @see         mysql.MySqlConnector#mysqlConnection()
+     * This method is a setter for the minimumPoolSize and maximumPoolSize variables.
+     * The new sizes are used by the next {@link mysql.MySqlConnector#mysqlConnection()} call.
+     * @param       minimumPoolSize the number of connections the pool keeps open.
+     * @param       maximumPoolSize the largest number of connections the pool opens at the same time.
+     * @throws      IllegalArgumentException if the minimum is negative, the maximum is less than <i>1</i>, or the minimum is above the maximum.
      */
-    public void mysqlLogIn(String mysqlUser, String mysqlPassword)
-    throws SQLException, IllegalArgumentException {
-        try {
-            setUser(mysqlUser);
-            setPassword(mysqlPassword);
-            mysqlConnection();
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException(e.getMessage());
-        } catch (SQLException e) {
-            throw new SQLException(e.getMessage());
+    public void setPoolSize(int minimumPoolSize, int maximumPoolSize)
+    throws IllegalArgumentException {
+        if ((minimumPoolSize >= 0) && (maximumPoolSize >= 1) && (minimumPoolSize <= maximumPoolSize)) {
+            this.minimumPoolSize = minimumPoolSize;
+            this.maximumPoolSize = maximumPoolSize;
+        } else {
+            throw new IllegalArgumentException("Pool size is not correct: minimum " + minimumPoolSize + ", maximum " + maximumPoolSize);
         }
     }
 
     /**
-     * {@code mysqlLogIn} method that includes additional functionality.
-     * This method is used to log in to a MySQL database,
-     * and if the login fails, it attempts
-     * to repair the database by creating it and creating a table with the specified {@code columns} and {@code datatype}.
-     * <ul>
-     *     <li>The method receives the {@code mysqlUser} and {@code mysqlPassword} as input parameters.</li>
-     *     <li>It calls the {@code setUser} method, passing the {@code mysqlUser} parameter, to set the username.</li>
+     * This method is a setter for the statementCacheSize variable.
+     * The new size is used by the next {@link mysql.MySqlConnector#mysqlConnection()} call.
+     * @param       statementCacheSize the number of prepared statements cached for every pooled connection, <i>0</i> turns caching off.
+     * @throws      IllegalArgumentException if the size is negative.
+     */
+    public void setStatementCacheSize(int statementCacheSize)
+    throws IllegalArgumentException {
+        if (statementCacheSize >= 0) {
+            this.statementCacheSize = statementCacheSize;
+        } else {
+            throw new IllegalArgumentException("Statement cache size is not correct: " + statementCacheSize);
+        }
+    }
+
+    /**
+     * This method is a setter for the borrowTimeout variable.
+     * It is applied to the current connection pool too.
+     * @param       borrowTimeout the longest wait for a free connection in milliseconds.
+     */
+    public void setBorrowTimeout(long borrowTimeout) {
+        this.borrowTimeout = borrowTimeout;
+        MySqlConnectionPool pool = connectionPool;
+        if (pool != null) {
+            pool.setBorrowTimeout(borrowTimeout);
+        }
+    }
+
+    /**
+     * This method is a setter for the idleTimeout variable.
+     * It is applied to the current connection pool too.
+     * @param       idleTimeout the idle time in milliseconds after which a pooled connection is closed.
+     */
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+        MySqlConnectionPool pool = connectionPool;
+        if (pool != null) {
+            pool.setIdleTimeout(idleTimeout);
+        }
+    }
+
+    /**
+     * This method is a setter for the maxLifetime variable.
+     * It is applied to the current connection pool too.
+     * @param       maxLifetime the age in milliseconds after which a pooled connection is retired.
+     */
+    public void setMaxLifetime(long maxLifetime) {
+        this.maxLifetime = maxLifetime;
+        MySqlConnectionPool pool = connectionPool;
+        if (pool != null) {
+            pool.setMaxLifetime(maxLifetime);
+        }
+    }
+
+    /**
+     * This method is a setter for the leakDetectionThreshold variable.
+     * It is applied to the current connection pool too.
+     * A connection borrowed with {@link mysql.MySqlConnector#borrowConnection()} and not released, or a statement not closed,
+     * is reported with the stack trace of the code that opened it.
+     * @param       leakDetectionThreshold the time in milliseconds a resource may stay open, <i>0</i> turns the detection off.
+     * @throws      IllegalArgumentException if the threshold is negative.
+     * @see         mysql.MySqlLeakDetector
+     */
+    public void setLeakDetectionThreshold(long leakDetectionThreshold)
+    throws IllegalArgumentException {
+        if (leakDetectionThreshold < 0L) {
+            throw new IllegalArgumentException("Leak detection threshold is not correct: " + leakDetectionThreshold);
+        }
+        this.leakDetectionThreshold = leakDetectionThreshold;
+        MySqlConnectionPool pool = connectionPool;
+        if (pool != null) {
+            pool.setLeakDetectionThreshold(leakDetectionThreshold);
+        }
+    }
+
+    /**
+     * This method is a setter for the aliveBypassWindow variable.
+     * It is applied to the current connection pool too.
+     * A pooled connection used within this window is handed out without a liveness check,
+     * an older one is checked with {@link java.sql.Connection#isValid(int) isValid()} first.
+     * @param       aliveBypassWindow the time in milliseconds after its last use within which a connection is not checked,
+     *              <i>0</i> checks every connection.
+     */
+    public void setAliveBypassWindow(long aliveBypassWindow) {
+        this.aliveBypassWindow = aliveBypassWindow;
+        MySqlConnectionPool pool = connectionPool;
+        if (pool != null) {
+            pool.setAliveBypassWindow(aliveBypassWindow);
+        }
+    }
+
+    /**
+     * This method is a setter for the maxReconnectAttempts variable.
+     * @param       maxReconnectAttempts the number of times an operation is tried again after a connection error,
+     *              <i>0</i> turns the reconnect off.
+     * @throws      IllegalArgumentException if the number is negative.
+     */
+    public void setMaxReconnectAttempts(int maxReconnectAttempts)
+    throws IllegalArgumentException {
+        if (maxReconnectAttempts < 0) {
+            throw new IllegalArgumentException("Reconnect attempts is not correct: " + maxReconnectAttempts);
+        }
+        this.maxReconnectAttempts = maxReconnectAttempts;
+    }
+
+    /**
+     * This method is a setter for the retryPolicy variable.
+     * <ul>
+     *     <li>A single statement, a batch committed by {@link mysql.MySqlConnector#mysqlSetBatch(String, List, int) mysqlSetBatch()},
+     *     a group of {@link mysql.MySqlConnector#mysqlSetGrouped(String, Object...) mysqlSetGrouped()}
+     *     and the work of {@link mysql.MySqlConnector#mysqlInTransaction(TransactionCallback) mysqlInTransaction()}
+     *     are run again after a deadlock or a lock wait timeout, as the policy decides.</li>
+     *     <li>The operations reading their rows from a stream or an iterator are not run again, the rows consumed cannot be read twice.</li>
+     *     <li>{@code new MySqlRetryPolicy(0, 0L, 0L)} turns the retries off.</li>
+     * </ul>
+     * @param       retryPolicy the policy of the retries.
+     * @throws      IllegalArgumentException if the policy is {@code null}.
+     */
+    public void setRetryPolicy(MySqlRetryPolicy retryPolicy)
+    throws IllegalArgumentException {
+        if (retryPolicy == null) {
+            throw new IllegalArgumentException("Retry policy is not correct: " + null);
+        }
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * This method is a setter for the cursorFetchSize variable.
+     * <ul>
+     *     <li><i>0</i> uses the streaming mode of the driver, a fetch size of {@link Integer#MIN_VALUE},
+     *     the server sends the rows one after the other and the driver reads them as the cursor goes forward.</li>
+     *     <li>A positive number uses a server-side cursor that is read in blocks of this many rows,
+     *     it only takes effect if {@code useCursorFetch=true} is among the connection parameters, see {@link #setAutoReconnect(String)}.
+     *     Unlike streaming, the connection can be used for other statements between two blocks.</li>
+     * </ul>
+     * @param       cursorFetchSize the number of rows a cursor fetches from the server at a time.
+     * @throws      IllegalArgumentException if the number is negative.
+     */
+    public void setCursorFetchSize(int cursorFetchSize)
+    throws IllegalArgumentException {
+        if (cursorFetchSize < 0) {
+            throw new IllegalArgumentException("Cursor fetch size is not correct: " + cursorFetchSize);
+        }
+        this.cursorFetchSize = cursorFetchSize;
+    }
+
+    /**
+     * This method is a setter for the batchSize variable.
+     * Larger batches need fewer round trips and commits, but hold more rows in the memory of the driver and roll back more rows on an error.
+     * @param       batchSize the number of rows sent and committed together by the batched writes.
+     * @throws      IllegalArgumentException if the number is less than <i>1</i>.
+     */
+    public void setBatchSize(int batchSize)
+    throws IllegalArgumentException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size is not correct: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * This method is a setter for the maxAllowedPacket variable, it overrides the value read from the server until the next connection.
+     * @param       maxAllowedPacket the largest statement in bytes the server accepts.
+     * @throws      IllegalArgumentException if the size is less than <i>1024</i> bytes, the smallest value of the server.
+     */
+    public void setMaxAllowedPacket(long maxAllowedPacket)
+    throws IllegalArgumentException {
+        if (maxAllowedPacket < 1_024L) {
+            throw new IllegalArgumentException("Max allowed packet is not correct: " + maxAllowedPacket);
+        }
+        this.maxAllowedPacket = maxAllowedPacket;
+    }
+
+    /**
+     * This method is a setter for the groupCommitSize and groupCommitDelay variables, the group commit mode of
+     * {@link mysql.MySqlConnector#mysqlSetGrouped(String, Object...)}.
+     * A larger group and a longer delay need fewer log flushes on the server, but every write of the group waits for the slowest one.
+     * @param       groupCommitSize the largest number of writes committed together, <i>1</i> turns the grouping off.
+     * @param       groupCommitDelay the longest time in milliseconds the first write of a group waits for more writes to join.
+     * @throws      IllegalArgumentException if the size is less than <i>1</i> or the delay is negative.
+     */
+    public void setGroupCommit(int groupCommitSize, long groupCommitDelay)
+    throws IllegalArgumentException {
+        if ((groupCommitSize < 1) || (groupCommitDelay < 0L)) {
+            throw new IllegalArgumentException("Group commit is not correct: " + groupCommitSize + ", " + groupCommitDelay);
+        }
+        this.groupCommitSize = groupCommitSize;
+        this.groupCommitDelay = groupCommitDelay;
+    }
+
+    /**
+     * This method is a setter for the reconnectBackoff and maxReconnectBackoff variables.
+     * The first reconnect is attempted at once, the following ones wait {@code reconnectBackoff} milliseconds,
+     * doubled at every attempt up to {@code maxReconnectBackoff} milliseconds.
+     * @param       reconnectBackoff the wait in milliseconds before the second reconnect attempt.
+     * @param       maxReconnectBackoff the longest wait in milliseconds between two reconnect attempts.
+     * @throws      IllegalArgumentException if a wait is negative or the longest wait is less than the first one.
+     */
+    public void setReconnectBackoff(long reconnectBackoff, long maxReconnectBackoff)
+    throws IllegalArgumentException {
+        if ((reconnectBackoff < 0L) || (maxReconnectBackoff < reconnectBackoff)) {
+            throw new IllegalArgumentException("Reconnect backoff is not correct: " + reconnectBackoff + ", " + maxReconnectBackoff);
+        }
+        this.reconnectBackoff = reconnectBackoff;
+        this.maxReconnectBackoff = maxReconnectBackoff;
+    }
+
+    /**
+     * This method is a setter for the executor of the asynchronous operations.
+     * The previous executor is closed, its submitted operations still run.
+     * At most as many operations run on the executor at the same time as the connection pool has connections, the rest wait in a queue.
+     * @param       executor the executor the asynchronous operations run on, it is not shut down by the connector;
+     *              {@code null} uses a virtual thread per task on JDK 21 or newer, otherwise a pool of daemon threads.
+     * @see         mysql.MySqlAsyncExecutor
+     */
+    public synchronized void setAsyncExecutor(Executor executor) {
+        this.asyncExecutorDelegate = executor;
+        closeAsyncExecutor();
+    }
+
+    /**
+     * This method is a setter for the connectionPool variable.
+     * It allows an externally created pool to be used, the previous pool is closed.
+     * The concurrency of the asynchronous operations follows the maximum size of the new pool.
+     * @param       connectionPool to be used by every operation.
+     */
+    public void setConnectionPool(MySqlConnectionPool connectionPool) {
+        MySqlConnectionPool previous = this.connectionPool;
+        this.connectionPool = connectionPool;
+        if (previous != connectionPool) {
+            closeSharedConnection();
+        }
+        MySqlAsyncExecutor executor = asyncExecutor;
+        if ((executor != null) && (connectionPool != null)) {
+            executor.setMaxConcurrency(connectionPool.getMaximumPoolSize());
+        }
+        if ((previous != null) && (previous != connectionPool)) {
+            previous.close();
+        }
+    }
+
+    /**
+     * {@code mysqlLogIn} that is used to log in to a MySQL database.
+     * It takes two parameters: {@code mysqlUser} (the username) and {@code mysqlPassword} (the password).<br><br>
+     * This method attempts to log in to the MySQL database by setting the username and password using the provided parameters
+     * and then calling the {@code mysqlConnection}() method.
+     * <ul>
+     *     <li>The method receives the {@code mysqlUser} and {@code mysqlPassword} as input parameters.</li>
+     *     <li>It calls the {@code setUser} method, passing the {@code mysqlUser} parameter, to set the username.</li>
+     *     <li>It calls the setPassword method, passing the {@code mysqlPassword} parameter, to set the password.</li>
+     *     <li>It calls the mysqlConnection method, which is presumably responsible for establishing the database connection.</li>
+     * </ul>
+     * By encapsulating the login logic within this method, the code ensures that the username and password are set correctly
+     * and that any exceptions thrown during the login process are handled appropriately.
+     * @param       mysqlUser the username.
+     * @param       mysqlPassword the password.
+     * @throws      SQLException if there is an error during the login process.
+     * @throws      IllegalArgumentException if the user and/or password is incorrect.
+     * @see         mysql.MySqlConnector#setUser(String)
+     * @see         mysql.MySqlConnector#setPassword(String)
+     * @see         mysql.MySqlConnector#mysqlConnection()
+     */
+    public void mysqlLogIn(String mysqlUser, String mysqlPassword)
+    throws SQLException, IllegalArgumentException {
+        setUser(mysqlUser);
+        setPassword(mysqlPassword);
+        mysqlConnection();
+    }
+
+    /**
+     * {@code mysqlLogIn} method that includes additional functionality.
+     * This method is used to log in to a MySQL database,
+     * and if the login fails, it attempts
+     * to repair the database by creating it and creating a table with the specified {@code columns} and {@code datatype}.
+     * <ul>
+     *     <li>The method receives the {@code mysqlUser} and {@code mysqlPassword} as input parameters.</li>
+     *     <li>It calls the {@code setUser} method, passing the {@code mysqlUser} parameter, to set the username.</li>
      *     <li>It calls the {@code setPassword} method, passing the {@code mysqlPassword} parameter, to set the password.</li>
      *     <li>It calls the {@code mysqlConnection} method to establish a connection to the MySQL database.</li>
      *     <li>If the connection fails and the {@code repair} flag is set to {@code true}, it proceeds with the repair process.</li>
      *     <li>Within the repair process, it calls the {@code mysqlConnection} method,
      *     passing the {@code column} and {@code datatype} arrays and setting the repair flag to {@code true}.</li>
-     *     <li>If the repair process encounters an exception during the connection or repair process, it is caught,
-     *     and a new {@code SQLException} with the same error message is thrown.</li>
+     *     <li>If the repair process encounters an exception during the connection or repair process, it is thrown on.</li>
      *     <li>If the connection fails and the {@code repair} flag is set to {@code false},
-     *     it throws an {@code SQLException} with the original error message.</li>
+     *     it throws the original {@code SQLException}, with its SQL state and error code.</li>
      * </ul>
      * method provides a mechanism to handle failed login attempts and automatically repair the database if requested.
      * If the repair process encounters any exceptions, they are appropriately propagated with informative error messages.
@@ -293,25 +1013,27 @@ public class MySqlConnector {
             if (repair) {
                 mysqlConnection(column, datatype, true);
             } else {
-                throw new SQLException(e.getMessage());
+                throw e;
             }
         }
     }
 
     /**
      * {@code mysqlConnection} that establishes a connection to a MySQL database.
-     * It utilizes the {@link java.sql.DriverManager DriverManager} class from JDBC to create the connection object.<br><br>
+     * It creates a {@link mysql.MySqlConnectionPool MySqlConnectionPool}, which opens its connections with the
+     * {@link java.sql.DriverManager DriverManager} class from JDBC.<br><br>
      * This method attempts to establish a connection to the MySQL database using the provided connection string, database name, username, and password.
-     * It utilizes the DriverManager.{@link java.sql.DriverManager#getConnection(String) getConnection()} method to create
-     * a {@link java.sql.Connection Connection} object and assigns it to the connection variable.
      * <ul>
      *     <li>The method concatenates the JDBC connection string, the database name,
-     *     and the auto-reconnect parameter to form the complete connection URL.</li>
-     *     <li>It calls the {@code DriverManager.getConnection()} method, passing
-     *     the connection URL, username, and password, to establish a connection to the MySQL database.</li>
-     *     <li>The resulting {@code Connection} object is assigned to the {@code connection} variable.</li>
-     *     <li>If an {@code SQLException} occurs during the connection process,
-     *     it is caught, and a new exception with the same error message is thrown.</li>
+     *     and the connection parameters ({@code autoReconnect}) to form the complete connection URL.</li>
+     *     <li>It creates a connection pool of {@code minimumPoolSize} to {@code maximumPoolSize} connections,
+     *     by default a pool of a single connection. The minimum number of connections is opened immediately.
+     *     Every connection caches {@code statementCacheSize} prepared statements.</li>
+     *     <li>The pool replaces the previous one, which is closed.</li>
+     *     <li>The {@code max_allowed_packet} of the server is read once, it limits the size of the statements of
+     *     {@link mysql.MySqlConnector#mysqlInsertRows(String, String[], Iterator) mysqlInsertRows()}.</li>
+     *     <li>If an {@code SQLException} occurs during the connection process, it is thrown on unchanged,
+     *     with its SQL state and error code.</li>
      * </ul>
      * By encapsulating the connection logic within this method, the code ensures that the connection is established correctly
      * and any exceptions thrown during the process are handled appropriately.
@@ -319,11 +1041,35 @@ public class MySqlConnector {
      */
     public void mysqlConnection()
     throws SQLException {
-        try {
-            connection = DriverManager.getConnection((JDBCConnectionString + database + autoReconnect), user, password);
-        } catch (SQLException e) {
-            throw new SQLException(e.getMessage());
-        }
+        setConnectionPool(newConnectionPool(JDBCConnectionString));
+        maxAllowedPacket = 0L;
+        mysqlExecute(true, true, (connection, statementCache) -> maxAllowedPacket(statementCache));
+    }
+
+    /**
+     * {@code newConnectionPool} creates a connection pool to a MySQL server with the settings of this connector.
+     * <ul>
+     *     <li>The connection URL is the given connection string, the {@code database} and the connection parameters ({@code autoReconnect}).</li>
+     *     <li>The pool has {@code minimumPoolSize} to {@code maximumPoolSize} connections, each caching {@code statementCacheSize} statements,
+     *     and it uses the timeouts, the leak detection threshold and the alive bypass window of this connector.</li>
+     * </ul>
+     * Subclasses use it to open pools to further servers, such as replicas, with the same settings.
+     * @param       JDBCConnectionString the protocol, host and port of the server, such as {@code jdbc:mysql://127.0.0.1:3306/}.
+     * @return      the new connection pool, its minimum number of connections is already open.
+     * @throws      SQLException if the minimum number of connections cannot be opened.
+     */
+    protected MySqlConnectionPool newConnectionPool(String JDBCConnectionString)
+    throws SQLException {
+        String url = JDBCConnectionString + database + autoReconnect;
+        String mysqlUser = user;
+        String mysqlPassword = password;
+        MySqlConnectionPool pool = new MySqlConnectionPool(() -> DriverManager.getConnection(url, mysqlUser, mysqlPassword), minimumPoolSize, maximumPoolSize, statementCacheSize);
+        pool.setBorrowTimeout(borrowTimeout);
+        pool.setIdleTimeout(idleTimeout);
+        pool.setMaxLifetime(maxLifetime);
+        pool.setLeakDetectionThreshold(leakDetectionThreshold);
+        pool.setAliveBypassWindow(aliveBypassWindow);
+        return pool;
     }
 
     /**
@@ -338,11 +1084,10 @@ public class MySqlConnector {
      *     <li>It calls the {@code mysqlCreateDatabase} method to create the database.</li>
      *     <li>It calls the mysqlCreateTable method, passing the column and datatype arrays,
      *     to create a table with the specified {@code columns} and {@code datatype}.</li>
-     *     <li>If an {@code IllegalArgumentException} occurs during the repair process, it is caught,
-     *     and a new exception with the same error message is thrown.</li>
-     *     <li>If an {@code SQLException} occurs during the repair process, it is caught, and a new exception with the same error message is thrown.</li>
+     *     <li>It calls the {@code mysqlConnection} method again to connect to the repaired database.</li>
+     *     <li>If an {@code IllegalArgumentException} or an {@code SQLException} occurs during the repair process, it is thrown on.</li>
      *     <li>If the connection fails and the {@code repair} flag is set to {@code false},
-     *     it throws an {@code SQLException} with the original error message.</li>
+     *     it throws the original {@code SQLException}, with its SQL state and error code.</li>
      * </ul>
      * method provides a mechanism to handle failed database connections and automatically repair the database if requested.
      * If the repair process encounters any exceptions,
@@ -362,36 +1107,34 @@ public class MySqlConnector {
     public void mysqlConnection(String[] column, String[] datatype, boolean repair)
     throws SQLException, IllegalArgumentException {
         try {
-            connection = DriverManager.getConnection((JDBCConnectionString + database + autoReconnect), user, password);
+            mysqlConnection();
         } catch (SQLException e) {
             if (repair) {
-                try {
-                    setDatabase(database);
-                    setTable(table);
-                    mysqlCreateDatabase();
-                    mysqlCreateTable(column, datatype);
-                } catch (IllegalArgumentException e2) {
-                    throw new IllegalArgumentException(e2.getMessage());
-                } catch (SQLException e2) {
-                    throw new SQLException(e2.getMessage());
-                }
+                setDatabase(database);
+                setTable(table);
+                mysqlCreateDatabase();
+                mysqlCreateTable(column, datatype);
+                mysqlConnection();
             } else {
-                throw new SQLException(e.getMessage());
+                throw e;
             }
         }
     }
 
     /**
      * {@code mysqlDisconnection} that is used to disconnect from the MySQL database.
-     * It closes the connection by calling the close method on the {@link java.sql.Connection Connection} object.<br><br>
-     * This method attempts to close the connection to the MySQL database by calling
-     * the {@link Connection#close() close()} method on the {@code connection} object.
-     * The close method is responsible for releasing any resources associated with the connection.
+     * It closes the connection pool by calling the close method on the {@link mysql.MySqlConnectionPool MySqlConnectionPool} object.<br><br>
+     * This method attempts to close the connections to the MySQL database by calling
+     * the {@link MySqlConnectionPool#close() close()} method on the {@code connectionPool} object.
+     * The close method is responsible for releasing any resources associated with the connections.
      * <ul>
-     *     <li>The method calls the {@code close} method on the connection object
-     *     to close the {@code connection} to the MySQL database.</li>
-     *     <li>If an exception of type Exception occurs during the disconnection process, it is caught,
-     *     and a new {@code SQLException} with the same error message is thrown.</li>
+     *     <li>The method closes the administrative connection used by the DDL methods and the connection returned by
+     *     {@link mysql.MySqlConnector#getConnection()}, if they were opened.</li>
+     *     <li>The executor of the asynchronous operations refuses new operations, the submitted ones still run.</li>
+     *     <li>The method calls the {@code close} method on the connection pool object
+     *     to close every idle connection to the MySQL database, borrowed connections are closed when they are released.</li>
+     *     <li>An {@code SQLException} of the disconnection process is thrown on unchanged,
+     *     any other exception is wrapped in an {@code SQLException} as its cause.</li>
      * </ul>
      * By encapsulating the disconnection logic within this method, the code ensures that the connection
      * is closed properly and any exceptions thrown during the disconnection process are handled appropriately.
@@ -400,9 +1143,13 @@ public class MySqlConnector {
     public void mysqlDisconnection()
     throws SQLException {
         try {
-            connection.close();
-        } catch (Exception e) {
-            throw new SQLException(e.getMessage());
+            closeAdminConnection();
+            closeSharedConnection();
+            closeAsyncExecutor();
+            connectionPool().close();
+            connectionPool = null;
+        } catch (RuntimeException e) {
+            throw new SQLException(e.getMessage(), e);
         }
     }
 
@@ -413,21 +1160,10 @@ public class MySqlConnector {
      *     <li>It constructs an SQL statement to create a database using the
      *     <pre> CREATE DATABASE IF NOT EXISTS </pre>
      *     syntax. The {@code database} variable is used to specify the name of the database to be created.</li>
-     *     <li>It establishes a new connection to the MySQL server
-     *     by calling {@link java.sql.DriverManager DriverManager}.{@link java.sql.DriverManager#getConnection(String) getConnection()},
-     *     passing the JDBC connection string without the specific database name
-     *     but with the auto-reconnect option, and the username and password.</li>
-     *     <li>It creates a {@link java.sql.PreparedStatement PreparedStatement} object
-     *     by calling {@code connection}.{@link java.sql.Connection#prepareStatement(String) prepareStatement()}
-     *     and passing the SQL statement for creating the database.</li>
-     *     <li>It executes the SQL statement to create the database
-     *     by calling {@code preparedStatement}.{@link java.sql.PreparedStatement#executeUpdate() executeUpdate()}.</li>
-     *     <li>It clears the parameters of the prepared statement
-     *     by calling {@code preparedStatement}.{@link java.sql.PreparedStatement#clearParameters() clearParameters()}
-     *     to release any resources associated with it.</li>
-     *     <li>It closes the connection by calling {@code connection}.{@link Connection#close() close()}.</li>
-     *     <li>If an exception of type {@code Exception} occurs during the database creation process,
-     *     it is caught, and a new {@code SQLException} with the same error message is thrown.</li>
+     *     <li>It executes the SQL statement on the administrative connection, which has no database selected.
+     *     The connection is opened at the first DDL call and reused by the later ones, see {@link mysql.MySqlConnector#mysqlSchemaBatch(List)}.</li>
+     *     <li>An {@code SQLException} of the database creation process is thrown on unchanged, with its SQL state and error code,
+     *     any other exception is wrapped in an {@code SQLException} as its cause.</li>
      * </ul>
      * By encapsulating the database creation logic within this method,
      * the code ensures that the database is created or verified to exist,
@@ -438,13 +1174,9 @@ public class MySqlConnector {
     throws SQLException {
         String mysqlInstructions = "CREATE DATABASE IF NOT EXISTS " + database;
         try {
-            connection = DriverManager.getConnection((JDBCConnectionString + autoReconnect), user, password);
-            preparedStatement = connection.prepareStatement(mysqlInstructions);
-            preparedStatement.executeUpdate();
-            preparedStatement.clearParameters();
-            connection.close();
-        } catch (Exception e) {
-            throw new SQLException(e.getMessage());
+            mysqlSchemaBatch(List.of(mysqlInstructions));
+        } catch (RuntimeException e) {
+            throw new SQLException(e.getMessage(), e);
         }
     }
 
@@ -455,7 +1187,8 @@ public class MySqlConnector {
      * <ul>
      *     <li>It constructs an SQL statement to create a table using the
      *     <pre>CREATE TABLE IF NOT EXISTS</pre>
-     *     syntax. The {@code table} variable is used to specify the name of the table to be created.</li>
+     *     syntax. The {@code table} variable, qualified with the {@code database} variable,
+     *     is used to specify the name of the table to be created.</li>
      *     <li>It checks if the sizes of the {@code column} and {@code datatype} arrays are equal and greater than or equal to <i>1</i>.
      *     If they are not, it throws an {@code IllegalArgumentException} with an appropriate error message.</li>
      *     <li>If the sizes of the arrays are valid, it iterates over
@@ -463,19 +1196,9 @@ public class MySqlConnector {
      *     Each column and datatype pair is separated by a comma.
      *     The data type is converted to uppercase.</li>
      *     <li>After the loop, it removes the trailing comma and space from the SQL statement and closes it with a closing parenthesis.</li>
-     *     <li>It establishes a new connection to the MySQL server
-     *     by calling {@link java.sql.DriverManager DriverManager}.{@link java.sql.DriverManager#getConnection(String) getConnection()},
-     *     passing the JDBC connection string with the specific database name and auto-reconnect option, and the username and password.</li>
-     *     <li>It creates a PreparedStatement object
-     *     by calling {@code connection}.{@link java.sql.Connection#prepareStatement(String) prepareStatement()}
-     *     and passing the SQL statement for creating the table.</li>
-     *     <li>It executes the SQL statement to create the table
-     *     by calling {@code preparedStatement}.{@link java.sql.PreparedStatement#executeUpdate() executeUpdate()}.</li>
-     *     <li>It clears the parameters of the prepared statement
-     *     by calling {@code preparedStatement}.{@link java.sql.PreparedStatement#clearParameters() clearParameters()}
-     *     to release any resources associated with it.</li>
-     *     <li>If an exception of type {@code Exception} occurs during the table creation process, it is caught,
-     *     and a new {@code SQLException} with the same error message is thrown.</li>
+     *     <li>It executes the SQL statement on the reused administrative connection.</li>
+     *     <li>An {@code SQLException} of the table creation process is thrown on unchanged, with its SQL state and error code,
+     *     any other exception is wrapped in an {@code SQLException} as its cause.</li>
      *     <li>If the sizes of the {@code column} and {@code datatype} arrays are not equal,
      *     it throws an {@code IllegalArgumentException} with an error message indicating the mismatch.</li>
      *     <li>If the sizes of the arrays are valid but less than <i>1</i>,
@@ -490,19 +1213,16 @@ public class MySqlConnector {
      */
     public void mysqlCreateTable(String[] column, String[] datatype)
     throws SQLException, IllegalArgumentException {
-        String mysqlInstructions = "CREATE TABLE IF NOT EXISTS " + table + "(";
+        String mysqlInstructions = "CREATE TABLE IF NOT EXISTS " + qualifiedTable() + "(";
         if ((column.length == datatype.length) && (column.length >= 1)) {
             for (int i = 0; i < column.length; i++) {
                 mysqlInstructions += column[i] + " " + datatype[i].toUpperCase() + ", ";
             }
             mysqlInstructions = mysqlInstructions.substring(0, (mysqlInstructions.length() - 2)) + ")";
             try {
-                connection = DriverManager.getConnection((JDBCConnectionString + database + autoReconnect), user, password);
-                preparedStatement = connection.prepareStatement(mysqlInstructions);
-                preparedStatement.executeUpdate();
-                preparedStatement.clearParameters();
-            } catch (Exception e) {
-                throw new SQLException(e.getMessage());
+                mysqlSchemaBatch(List.of(mysqlInstructions));
+            } catch (RuntimeException e) {
+                throw new SQLException(e.getMessage(), e);
             }
         } else if (column.length != datatype.length) {
             throw new IllegalArgumentException("Not equals column " + column.length + " " + ((Math.min(column.length, datatype.length) == column.length) ? "<" : ">") + " datatype " + datatype.length);
@@ -514,16 +1234,18 @@ public class MySqlConnector {
     /**
      * {@code mysqlGet} method executes the provided MySQL instruction by preparing a statement using
      * the {@code connection} object and the {@code mysqlInstructions} parameter.
+     * The {@code connection} is borrowed from the connection pool for the time of the call.
      * <ul>
      *     <li>It then executes the prepared statement using {@link java.sql.PreparedStatement#executeQuery() executeQuery()} method,
      *     which returns a {@link java.sql.ResultSet ResultSet}.</li>
-     *     <li>The method iterates over the rows in the ResultSet and retrieves
-     *     the values for each column using {@code resultSet}.{@link java.sql.ResultSet#getString(String) getString()} method.
-     *     It stores the column values in a {@code List<String>} named {@code resultList}.</li>
-     *     <li>For each row, it adds the {@code resultList} as a string array to another {@code List<String[]>} named {@code lists}.
+     *     <li>The number of columns is read from the {@link java.sql.ResultSetMetaData ResultSetMetaData} once for the whole result.</li>
+     *     <li>The method iterates over the rows in the ResultSet and retrieves the values for each column by its index
+     *     using {@code resultSet}.{@link java.sql.ResultSet#getString(int) getString()} method,
+     *     straight into a string array allocated for the row, without looking up the column by its name.</li>
+     *     <li>Each row array is added to a {@code List<String[]>} named {@code lists}.
      *     This creates a list of string arrays, where each array represents a row of data from the {@code ResultSet}.</li>
      *     <li>After iterating over all rows, the method closes the {@code ResultSet},
-     *     clears the parameters of the prepared statement,
+     *     hands back the prepared statement to the statement cache,
      *     and returns the lists as a two-dimensional array of strings.</li>
      * </ul>
      * {@code mysqlGet} method provides a convenient way to execute a parameterized MySQL query
@@ -534,44 +1256,33 @@ public class MySqlConnector {
      */
     public String[][] mysqlGet(String mysqlInstructions)
     throws SQLException {
-        List<String> resultList = new ArrayList<>();
-        List<String[]> lists = new ArrayList<>();
-        preparedStatement = connection.prepareStatement(mysqlInstructions);
-        ResultSet resultSet = preparedStatement.executeQuery();
-        int columnCount = resultSet.getMetaData().getColumnCount();
-        while (resultSet.next()) {
-            for (int i = 0; i < columnCount; i++) {
-                resultList.add(resultSet.getString(resultSet.getMetaData().getColumnName((i + 1))));
+        return mysqlExecute(true, true, (connection, statementCache) -> {
+            List<String[]> lists = new ArrayList<>();
+            PreparedStatement preparedStatement = statementCache.prepareStatement(mysqlInstructions);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                mysqlReadRows(resultSet, lists);
+            } finally {
+                statementCache.releaseStatement(preparedStatement);
             }
-            lists.add(resultList.toArray(new String[0]));
-            resultList.clear();
-        }
-        resultSet.close();
-        preparedStatement.clearParameters();
-        return lists.toArray(new String[0][]);
+            return lists.toArray(new String[0][]);
+        });
     }
 
     /**
      * {@code mysqlGetToCollection}, returns the result of the MySQL query as a collection of string arrays.
      * <ul>
-     *     <li>The method initializes a new collection, {@code resultCollection}, of type {@code Collection<String>},
-     *     which will store the values of each column in a row.</li>
-     *     <li>It also initializes a new collection, {@code collections}, of type {@code Collection<String[]>},
+     *     <li>The method initializes a new collection, {@code collections}, of type {@code Collection<String[]>},
      *     which will store the string arrays representing each row of data.</li>
-     *     <li>The method prepares a statement using the provided {@code mysqlInstructions} and the {@code connection} object.</li>
+     *     <li>The method takes the statement prepared for {@code mysqlInstructions} from the statement cache of the {@code connection},
+     *     or prepares it if it is not cached yet.</li>
      *     <li>It executes the prepared statement by calling {@link java.sql.PreparedStatement#executeQuery() executeQuery()},
      *     which returns a {@link java.sql.ResultSet ResultSet} containing the result of the query.</li>
-     *     <li>The method iterates over each row in the {@code ResultSet} using {@code resultSet}.{@link java.sql.ResultSet#next() next()}.
-     *     For each row, it iterates over the columns using the {@code for} loop.</li>
-     *     <li>Inside the inner loop, it retrieves the value of each column using
-     *     {@code resultSet}.{@link java.sql.ResultSet#getString(String) getString()} and adds it to the {@code resultCollection}.</li>
-     *     <li>Once all columns in a row are added to the {@code resultCollection},
-     *     it converts the collection to a string array using
-     *     {@code resultCollection}.{@link java.util.Collection#toArray(Object[]) toArray}{@code (new String[0])}
-     *     and adds it to the {@code collections} collection.</li>
-     *     <li>After adding a row to {@code collections}, it clears the {@code resultCollection} to prepare for the next row.</li>
+     *     <li>The number of columns is read from the {@link java.sql.ResultSetMetaData ResultSetMetaData} once for the whole result.</li>
+     *     <li>The method iterates over each row in the {@code ResultSet} using {@code resultSet}.{@link java.sql.ResultSet#next() next()},
+     *     and retrieves the value of each column by its index using {@code resultSet}.{@link java.sql.ResultSet#getString(int) getString()},
+     *     straight into a string array allocated for the row, which is added to the {@code collections} collection.</li>
      *     <li>Once all rows have been processed, the method closes the {@code ResultSet},
-     *     clears the parameters of the prepared statement,
+     *     hands back the prepared statement to the statement cache,
      *     and returns the {@code collections} collection containing all rows as string arrays.</li>
      * </ul>
      * {@code mysqlGetToCollection} method provides a way to retrieve the result of a MySQL query as a collection of string arrays, where each string array represents a row of data.
@@ -582,26 +1293,21 @@ public class MySqlConnector {
     @SuppressWarnings("unchecked")
     public <C extends Collection<String[]>> C mysqlGetToCollection(String mysqlInstructions)
     throws SQLException {
-        Collection<String> resultCollection = new ArrayList<>();
-        Collection<String[]> collections = new ArrayList<>();
-        preparedStatement = connection.prepareStatement(mysqlInstructions);
-        ResultSet resultSet = preparedStatement.executeQuery();
-        int columnCount = resultSet.getMetaData().getColumnCount();
-        while (resultSet.next()) {
-            for (int i = 0; i < columnCount; i++) {
-                resultCollection.add(resultSet.getString(resultSet.getMetaData().getColumnName((i + 1))));
+        return mysqlExecute(true, true, (connection, statementCache) -> {
+            Collection<String[]> collections = new ArrayList<>();
+            PreparedStatement preparedStatement = statementCache.prepareStatement(mysqlInstructions);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                mysqlReadRows(resultSet, collections);
+            } finally {
+                statementCache.releaseStatement(preparedStatement);
             }
-            collections.add(resultCollection.toArray(new String[0]));
-            resultCollection.clear();
-        }
-        resultSet.close();
-        preparedStatement.clearParameters();
-        return (C) collections;
+            return (C) collections;
+        });
     }
 
     /**
      * {@code mysqlSet} that takes a {@code String} parameter {@code mysqlInstructions}.
-     * It is assumed that there is a connection object and a {@code preparedStatement} object declared and initialized outside this method.
+     * The connection is borrowed from the connection pool for the time of the call and released afterwards.
      * <ul>
      *     <li>creates a prepared statement by using the {@code mysqlInstructions} parameter to set the SQL query or statement to be executed.
      *     The {@code connection} object is used to prepare the statement.</li>
@@ -615,9 +1321,14 @@ public class MySqlConnector {
      */
     public void mysqlSet(String mysqlInstructions)
     throws SQLException {
-        preparedStatement = connection.prepareStatement(mysqlInstructions);
-        preparedStatement.executeUpdate();
-        preparedStatement.clearParameters();
+        mysqlExecute(false, false, (connection, statementCache) -> {
+            PreparedStatement preparedStatement = statementCache.prepareStatement(mysqlInstructions);
+            try {
+                return preparedStatement.executeUpdate();
+            } finally {
+                statementCache.releaseStatement(preparedStatement);
+            }
+        });
     }
 
     /**
@@ -626,7 +1337,8 @@ public class MySqlConnector {
      *     <li>The method takes two parameters:
      *     {@code mysqlInstructions}, which represents the parameterized MySQL update statement,
      *     and update, which is a variable number of arguments (varargs) represented as an array of objects.</li>
-     *     <li>The method prepares a statement using the provided {@code mysqlInstructions} and the {@code connection} object.</li>
+     *     <li>The method takes the statement prepared for {@code mysqlInstructions} from the statement cache of the {@code connection},
+     *     or prepares it if it is not cached yet.</li>
      *     <li>It iterates over the {@code update} array using a {@code for} loop.</li>
      *     <li>Inside the loop, it sets the object at index {@code (i + 1)} in the prepared statement
      *     using the {@link java.sql.PreparedStatement#setObject(int, Object) setObject} method.
@@ -634,8 +1346,8 @@ public class MySqlConnector {
      *     <li>After setting all the parameters, the method executes the update statement
      *     using {@link PreparedStatement#executeUpdate() executeUpdate()} method,
      *     which returns the number of affected rows (if applicable).</li>
-     *     <li>Finally, the method clears the parameters of the prepared statement
-     *     using {@link PreparedStatement#clearParameters() clearParameters()} to prepare it for future use.</li>
+     *     <li>Finally, the method hands back the prepared statement to the statement cache of the connection,
+     *     which clears its parameters for the next call on the same connection.</li>
      * </ul>
      * {@code mysqlSetVarargs} method provides a way to execute a parameterized MySQL update statement with a flexible number of arguments.
      * The method sets the provided arguments as parameters in the prepared statement and then executes the update statement against the MySQL database.
@@ -645,12 +1357,17 @@ public class MySqlConnector {
      */
     public void mysqlSetVarargs(String mysqlInstructions, Object... update)
     throws SQLException {
-        preparedStatement = connection.prepareStatement(mysqlInstructions);
-        for (int i = 0; i < update.length; i++) {
-            preparedStatement.setObject((i + 1), update[i]);
-        }
-        preparedStatement.executeUpdate();
-        preparedStatement.clearParameters();
+        mysqlExecute(false, false, (connection, statementCache) -> {
+            PreparedStatement preparedStatement = statementCache.prepareStatement(mysqlInstructions);
+            try {
+                for (int i = 0; i < update.length; i++) {
+                    preparedStatement.setObject((i + 1), update[i]);
+                }
+                return preparedStatement.executeUpdate();
+            } finally {
+                statementCache.releaseStatement(preparedStatement);
+            }
+        });
     }
 
     /**
@@ -659,7 +1376,8 @@ public class MySqlConnector {
      *     <li>The method takes two parameters:
      *     {@code mysqlInstructions}, which represents the parameterized MySQL update statement,
      *     and {@code update}, which is an array of objects containing the values to be set as parameters in the statement.</li>
-     *     <li>The method prepares a statement using the provided {@code mysqlInstructions} and the {@code connection} object.</li>
+     *     <li>The method takes the statement prepared for {@code mysqlInstructions} from the statement cache of the {@code connection},
+     *     or prepares it if it is not cached yet.</li>
      *     <li>It iterates over the {@code update} array using a {@code for} loop.</li>
      *     <li>Inside the loop, it sets the object at index {@code (i + 1)} in the prepared statement
      *     using the {@link java.sql.PreparedStatement#setObject(int, Object) setObject} method.
@@ -667,8 +1385,8 @@ public class MySqlConnector {
      *     <li>After setting all the parameters, the method executes the update statement
      *     using the {@link PreparedStatement#executeUpdate() executeUpdate()} method,
      *     which returns the number of affected rows (if applicable).</li>
-     *     <li>Finally, the method clears the parameters of the prepared statement
-     *     using {@link PreparedStatement#clearParameters() clearParameters()} to prepare it for future use.</li>
+     *     <li>Finally, the method hands back the prepared statement to the statement cache of the connection,
+     *     which clears its parameters for the next call on the same connection.</li>
      * </ul>
      * {@code mysqlSet} method provides a way to execute a parameterized MySQL update statement with a fixed-size array of objects.
      * The method sets the provided values as parameters in
@@ -679,12 +1397,17 @@ public class MySqlConnector {
      */
     public void mysqlSet(String mysqlInstructions, Object[] update)
     throws SQLException {
-        preparedStatement = connection.prepareStatement(mysqlInstructions);
-        for (int i = 0; i < update.length; i++) {
-            preparedStatement.setObject((i + 1), update[i]);
-        }
-        preparedStatement.executeUpdate();
-        preparedStatement.clearParameters();
+        mysqlExecute(false, false, (connection, statementCache) -> {
+            PreparedStatement preparedStatement = statementCache.prepareStatement(mysqlInstructions);
+            try {
+                for (int i = 0; i < update.length; i++) {
+                    preparedStatement.setObject((i + 1), update[i]);
+                }
+                return preparedStatement.executeUpdate();
+            } finally {
+                statementCache.releaseStatement(preparedStatement);
+            }
+        });
     }
 
     /**
@@ -693,7 +1416,8 @@ public class MySqlConnector {
      *     <li>The method takes two parameters:
      *     {@code mysqlInstructions}, which represents the parameterized MySQL update statement,
      *     and {@code update}, which is a {@code List} of objects containing the values to be set as parameters in the statement.</li>
-     *     <li>The method prepares a statement using the provided {@code mysqlInstructions} and the {@code connection} object.</li>
+     *     <li>The method takes the statement prepared for {@code mysqlInstructions} from the statement cache of the {@code connection},
+     *     or prepares it if it is not cached yet.</li>
      *     <li>It iterates over the {@code update} list using a {@code for} loop and retrieves each object
      *     using the {@link java.util.List#get(int) get} method.</li>
      *     <li>Inside the loop, it sets the object at index {@code (i + 1)} in the prepared statement
@@ -702,8 +1426,8 @@ public class MySqlConnector {
      *     <li>After setting all the parameters, the method executes the update statement
      *     using the {@link PreparedStatement#executeUpdate() executeUpdate()} method,
      *     which returns the number of affected rows (if applicable).</li>
-     *     <li>Finally, the method clears the parameters of the prepared statement
-     *     using {@link PreparedStatement#clearParameters() clearParameters()} to prepare it for future use.</li>
+     *     <li>Finally, the method hands back the prepared statement to the statement cache of the connection,
+     *     which clears its parameters for the next call on the same connection.</li>
      * </ul>
      * {@code mysqlSet} method provides a way to execute a parameterized MySQL update statement with a {@code List} of objects as input.
      * The method sets the provided values from the list as parameters in the prepared statement
@@ -714,75 +1438,1713 @@ public class MySqlConnector {
      */
     public void mysqlSet(String mysqlInstructions, List<Object> update)
     throws SQLException {
-        preparedStatement = connection.prepareStatement(mysqlInstructions);
-        for (int i = 0; i < update.size(); i++) {
-            preparedStatement.setObject((i + 1), update.get(i));
+        mysqlExecute(false, false, (connection, statementCache) -> {
+            PreparedStatement preparedStatement = statementCache.prepareStatement(mysqlInstructions);
+            try {
+                for (int i = 0; i < update.size(); i++) {
+                    preparedStatement.setObject((i + 1), update.get(i));
+                }
+                return preparedStatement.executeUpdate();
+            } finally {
+                statementCache.releaseStatement(preparedStatement);
+            }
+        });
+    }
+
+    /**
+     * {@code mysqlSetBatch} runs a parameterized MySQL update statement for every row, in batches of {@code batchSize} rows.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @param       rows the parameters of every run of the statement.
+     * @return      the update count of every row, and the first row that failed.
+     * @throws      SQLException if the connection is lost or the statement cannot be prepared.
+     * @see         mysql.MySqlConnector#mysqlSetBatch(String, List, int)
+     */
+    public MySqlBatchResult mysqlSetBatch(String mysqlInstructions, List<Object[]> rows)
+    throws SQLException {
+        return mysqlSetBatch(mysqlInstructions, rows, batchSize);
+    }
+
+    /**
+     * {@code mysqlSetBatch} runs a parameterized MySQL update statement for every row, in batches, instead of one round trip per row.
+     * <ul>
+     *     <li>The statement is taken from the statement cache of the connection, the parameters of every row are added to it
+     *     with {@link java.sql.PreparedStatement#addBatch() addBatch()}, and every {@code batchSize} rows are sent at once
+     *     with {@link java.sql.PreparedStatement#executeBatch() executeBatch()}.</li>
+     *     <li>With {@code rewriteBatchedStatements=true} among the connection parameters, which is the default,
+     *     the driver sends a batch of {@code INSERT}s as multi-row {@code INSERT}s.</li>
+     *     <li>Every batch is committed in a transaction of its own, so the server flushes its log once per batch instead of once per row.
+     *     If the connection is already in a transaction, the batches are part of it and nothing is committed.</li>
+     *     <li>When a batch fails, it is rolled back, the batches after it are not run,
+     *     and the error is reported in the result instead of being thrown.</li>
+     *     <li>In a transaction the error of a failing batch is thrown, so the owner of the transaction rolls it back,
+     *     the server may have rolled back the whole transaction already, such as after a deadlock.</li>
+     *     <li>The statement is not run again after a connection error, the batches committed before it stay written.</li>
+     * </ul>
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @param       rows the parameters of every run of the statement.
+     * @param       batchSize the number of rows sent and committed together.
+     * @return      the update count of every row, and the first row that failed.
+     * @throws      SQLException if the connection is lost, the statement cannot be prepared, or a batch fails in a transaction.
+     * @throws      IllegalArgumentException if the batch size is less than <i>1</i>.
+     */
+    public MySqlBatchResult mysqlSetBatch(String mysqlInstructions, List<Object[]> rows, int batchSize)
+    throws SQLException, IllegalArgumentException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size is not correct: " + batchSize);
         }
-        preparedStatement.executeUpdate();
-        preparedStatement.clearParameters();
+        return mysqlExecute(false, false, false, (connection, statementCache) -> {
+            int[] updateCounts = new int[rows.size()];
+            Arrays.fill(updateCounts, Statement.EXECUTE_FAILED);
+            boolean commitBatches = connection.getAutoCommit();
+            PreparedStatement preparedStatement = statementCache.prepareStatement(mysqlInstructions);
+            try {
+                if (commitBatches) {
+                    connection.setAutoCommit(false);
+                }
+                int committedBatches = 0;
+                int retries = 0;
+                for (int start = 0; start < rows.size(); start += batchSize) {
+                    int end = Math.min(rows.size(), (start + batchSize));
+                    try {
+                        for (int row = start; row < end; row++) {
+                            Object[] update = rows.get(row);
+                            for (int i = 0; i < update.length; i++) {
+                                preparedStatement.setObject((i + 1), update[i]);
+                            }
+                            preparedStatement.addBatch();
+                        }
+                        int[] batchCounts = preparedStatement.executeBatch();
+                        if (commitBatches) {
+                            connection.commit();
+                        }
+                        System.arraycopy(batchCounts, 0, updateCounts, start, Math.min(batchCounts.length, (end - start)));
+                        committedBatches++;
+                        retries = 0;
+                    } catch (SQLException e) {
+                        if (isConnectionError(e) || !commitBatches) {
+                            throw e;
+                        }
+                        connection.rollback();
+                        if (retryPolicy.retry(e, retries++)) {
+                            preparedStatement.clearBatch();
+                            start -= batchSize;
+                            continue;
+                        }
+                        return new MySqlBatchResult(updateCounts, committedBatches, (start + firstFailedRow(e)), e);
+                    }
+                }
+                return new MySqlBatchResult(updateCounts, committedBatches, -1, null);
+            } finally {
+                try {
+                    preparedStatement.clearBatch();
+                } catch (SQLException ignored) {
+                }
+                statementCache.releaseStatement(preparedStatement);
+                if (commitBatches) {
+                    connection.setAutoCommit(true);
+                }
+            }
+        });
     }
 
     /**
-     * {@code mysqlDropDatabase} that attempts to drop a MySQL database. 
-     * It assumes the presence of a {@code connection} object, a {@code preparedStatement} object, 
-     * and several other variables ({@code database}, {@code JDBCConnectionString}, {@code autoReconnect}, {@code user}, and {@code password}).
+     * {@code mysqlInsert} runs a parameterized MySQL {@code INSERT} statement and returns the key generated for the row,
+     * read from the reply of the statement instead of a {@code SELECT LAST_INSERT_ID()} round trip.
      * <ul>
-     *     <li>Constructs an SQL query to drop a database using the value of the {@code database} variable. The database name is appended to the "DROP DATABASE" statement.</li>
-     *     <li>The code then enters a {@code try-catch} block to handle any potential exceptions.</li>
-     *     <li>{@link java.sql.DriverManager DriverManager}.{@link java.sql.DriverManager#getConnection(String, String, String) getConnection}
-     *     {@code ((JDBCConnectionString + autoReconnect), user, password)};
-     *     Establishes a database connection using the provided JDBC connection string, auto-reconnect configuration, username, and password.</li>
-     *     <li>Prepares a statement using the {@code mysqlInstructions} query.</li>
-     *     <li>Executes the prepared statement, which in this case drops the database specified in the query.</li>
-     *     <li>Clears any parameters set on the prepared statement.</li>
-     *     <li>Closes the database connection.</li>
-     * </ul>
-     * If an exception occurs in the try block, it is caught in the catch block, and a new {@link java.sql.SQLException SQLException} is thrown with the original exception's message.<br>
-     * <p>It's important to note that dropping a database is a potentially irreversible action that permanently deletes all the data and objects within that database.
-     * Exercise caution when using this method and ensure that you have appropriate permissions and a backup of any critical data before attempting to drop a database.</p>
-     * @throws      SQLException if it runs into some other MySql error while running.
+     *     <li>The statement is prepared with {@link java.sql.Statement#RETURN_GENERATED_KEYS RETURN_GENERATED_KEYS}
+     *     and cached apart from the plain statement of the same SQL text.</li>
+     *     <li>The statement is not run again after a connection error.</li>
+     * </ul>
+     * @param       mysqlInstructions MySql instruction, an {@code INSERT} into a table with an {@code AUTO_INCREMENT} column.
+     * @param       update the parameters of the statement.
+     * @return      the generated key of the inserted row, <i>0</i> if no key was generated.
+     * @throws      SQLException if it runs into some MySql error while running.
      */
-    public void mysqlDropDatabase()
+    public long mysqlInsert(String mysqlInstructions, Object... update)
     throws SQLException {
-        String mysqlInstructions = "DROP DATABASE " + database;
-        try {
-            connection = DriverManager.getConnection((JDBCConnectionString + autoReconnect), user, password);
-            preparedStatement = connection.prepareStatement(mysqlInstructions);
-            preparedStatement.executeUpdate();
-            preparedStatement.clearParameters();
-            connection.close();
-        } catch (Exception e) {
-            throw new SQLException(e.getMessage());
+        return mysqlExecute(false, false, (connection, statementCache) -> {
+            PreparedStatement preparedStatement = statementCache.prepareStatement(mysqlInstructions, Statement.RETURN_GENERATED_KEYS);
+            try {
+                for (int i = 0; i < update.length; i++) {
+                    preparedStatement.setObject((i + 1), update[i]);
+                }
+                preparedStatement.executeUpdate();
+                try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                    return generatedKeys.next() ? generatedKeys.getLong(1) : 0L;
+                }
+            } finally {
+                statementCache.releaseStatement(preparedStatement);
+            }
+        });
+    }
+
+    /**
+     * {@code mysqlInsertBatch} runs a parameterized MySQL {@code INSERT} statement for every row, in batches of {@code batchSize} rows,
+     * and returns the generated keys.
+     * @param       mysqlInstructions MySql instruction, an {@code INSERT} into a table with an {@code AUTO_INCREMENT} column.
+     * @param       rows the parameters of every run of the statement.
+     * @return      the generated key of every row, in the order of the rows.
+     * @throws      SQLException if it runs into some MySql error while running.
+     * @see         mysql.MySqlConnector#mysqlInsertBatch(String, List, int)
+     */
+    public long[] mysqlInsertBatch(String mysqlInstructions, List<Object[]> rows)
+    throws SQLException {
+        return mysqlInsertBatch(mysqlInstructions, rows, batchSize);
+    }
+
+    /**
+     * {@code mysqlInsertBatch} runs a parameterized MySQL {@code INSERT} statement for every row, in batches,
+     * and returns the generated keys aligned with the rows.
+     * <ul>
+     *     <li>The statement is prepared with {@link java.sql.Statement#RETURN_GENERATED_KEYS RETURN_GENERATED_KEYS},
+     *     the keys of a batch are read from its reply, with no extra round trip.</li>
+     *     <li>With {@code rewriteBatchedStatements=true}, the default, a batch is sent as one multi-row {@code INSERT},
+     *     and the driver counts its keys up from the first one. So every row must insert exactly one row,
+     *     an {@code INSERT IGNORE} that skips rows or a statement that inserts several rows breaks the alignment.</li>
+     *     <li>Every batch is committed on its own, unless the connection is in a transaction.
+     *     When a batch fails, the error is thrown and the batches before it stay written.</li>
+     * </ul>
+     * @param       mysqlInstructions MySql instruction, an {@code INSERT} into a table with an {@code AUTO_INCREMENT} column.
+     * @param       rows the parameters of every run of the statement.
+     * @param       batchSize the number of rows sent together.
+     * @return      the generated key of every row, in the order of the rows, <i>0</i> for a row with no key.
+     * @throws      SQLException if it runs into some MySql error while running.
+     * @throws      IllegalArgumentException if the batch size is less than <i>1</i>.
+     */
+    public long[] mysqlInsertBatch(String mysqlInstructions, List<Object[]> rows, int batchSize)
+    throws SQLException, IllegalArgumentException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size is not correct: " + batchSize);
         }
+        return mysqlExecute(false, false, false, (connection, statementCache) -> {
+            long[] keys = new long[rows.size()];
+            PreparedStatement preparedStatement = statementCache.prepareStatement(mysqlInstructions, Statement.RETURN_GENERATED_KEYS);
+            try {
+                for (int start = 0; start < rows.size(); start += batchSize) {
+                    int end = Math.min(rows.size(), (start + batchSize));
+                    for (int row = start; row < end; row++) {
+                        Object[] update = rows.get(row);
+                        for (int i = 0; i < update.length; i++) {
+                            preparedStatement.setObject((i + 1), update[i]);
+                        }
+                        preparedStatement.addBatch();
+                    }
+                    preparedStatement.executeBatch();
+                    try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                        for (int row = start; (row < end) && generatedKeys.next(); row++) {
+                            keys[row] = generatedKeys.getLong(1);
+                        }
+                    }
+                }
+                return keys;
+            } finally {
+                try {
+                    preparedStatement.clearBatch();
+                } catch (SQLException ignored) {
+                }
+                statementCache.releaseStatement(preparedStatement);
+            }
+        });
     }
 
     /**
-     * {@code mysqlDropTable} that attempts to drop a table in a MySQL database. 
-     * It assumes the presence of a {@code connection} object, a {@code preparedStatement} object,
-     * and several other variables ({@code table}, {@code JDBCConnectionString}, {@code database}, {@code autoReconnect}, {@code user}, and {@code password}).
+     * {@code mysqlInsertRows} inserts a stream of rows with multi-row {@code INSERT} statements.
+     * @param       table the name of the table.
+     * @param       columns the names of the columns the values of a row are inserted into.
+     * @param       rows the rows, every row has a value for each column.
+     * @return      the number of rows inserted.
+     * @throws      SQLException if it runs into some MySql error while running.
+     * @throws      IllegalArgumentException if a row does not have a value for each column.
+     * @see         mysql.MySqlConnector#mysqlInsertRows(String, String[], Iterator)
+     */
+    public long mysqlInsertRows(String table, String[] columns, Stream<Object[]> rows)
+    throws SQLException, IllegalArgumentException {
+        return mysqlInsertRows(table, columns, rows.iterator());
+    }
+
+    /**
+     * {@code mysqlInsertRows} inserts a stream of rows with multi-row {@code INSERT ... VALUES (...), (...), ...} statements,
+     * the fastest bulk insert that needs no privilege beyond {@code INSERT}.
      * <ul>
-     *     <li>Constructs an SQL query to drop a table using the value of the {@code table} variable. The table name is appended to the "DROP TABLE" statement.</li>
-     *     <li>The code then enters a {@code try-catch} block to handle any potential exceptions.</li>
-     *     <li>{@link java.sql.DriverManager DriverManager}.{@link java.sql.DriverManager#getConnection(String, String, String) getConnection}
-     *     {@code ((JDBCConnectionString + database + autoReconnect), user, password)}; 
-     *     Establishes a database connection using the provided JDBC connection string, database name, auto-reconnect configuration, username, and password.</li>
-     *     <li>Prepares a statement using the {@code mysqlInstructions} query.</li>
-     *     <li>Executes the prepared statement, which in this case drops the table specified in the query.</li>
-     *     <li>Clears any parameters set on the prepared statement.</li>
-     * </ul>
-     * If an exception occurs in the try block, it is caught in the catch block, and a new {@link java.sql.SQLException SQLException} is thrown with the original exception's message.
-     * @throws      SQLException if it runs into some other MySql error while running.
+     *     <li>The rows are gathered into chunks, a chunk is sent when its estimated size would pass the {@code max_allowed_packet} of the server,
+     *     read once at the connection, or when it reaches the largest number of parameters of a statement.</li>
+     *     <li>The size of every chunk follows the byte budget of its own rows, so a large row makes only its own chunk smaller.</li>
+     *     <li>A chunk is sent in statements whose number of rows is a power of two, so their statements are built once and reused
+     *     from the statement cache of the connection, and only a few different statements are ever prepared.</li>
+     *     <li>Every statement is committed on its own, the rows are read from the iterator while the connection is held.</li>
+     *     <li>The statements are not run again after a connection error, the chunks sent before it stay inserted.</li>
+     * </ul>
+     * @param       table the name of the table.
+     * @param       columns the names of the columns the values of a row are inserted into.
+     * @param       rows the rows, every row has a value for each column.
+     * @return      the number of rows inserted.
+     * @throws      SQLException if it runs into some MySql error while running.
+     * @throws      IllegalArgumentException if there are no columns, a row does not have a value for each column,
+     *              or the statement leaves no room for a row in the {@code max_allowed_packet}.
      */
-    public void mysqlDropTable()
-    throws SQLException {
-        String mysqlInstructions = "DROP TABLE " + table;
-        try {
-            connection = DriverManager.getConnection((JDBCConnectionString + database + autoReconnect), user, password);
-            preparedStatement = connection.prepareStatement(mysqlInstructions);
-            preparedStatement.executeUpdate();
-            preparedStatement.clearParameters();
-        } catch (Exception e) {
-            throw new SQLException(e.getMessage());
+    public long mysqlInsertRows(String table, String[] columns, Iterator<Object[]> rows)
+    throws SQLException, IllegalArgumentException {
+        return insertRows(("INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES "), "", columns.length, rows)[1];
+    }
+
+    /**
+     * {@code mysqlUpsertRows} inserts or updates a stream of rows.
+     * @param       table the name of the table.
+     * @param       keyColumns the names of the columns of a primary or unique key.
+     * @param       valueColumns the names of the columns updated when the key already exists.
+     * @param       rows the rows, every row has the values of the key columns followed by the values of the value columns.
+     * @return      the number of rows inserted and updated.
+     * @throws      SQLException if it runs into some MySql error while running.
+     * @throws      IllegalArgumentException if there are no key columns, a row does not have a value for each column,
+     *              or the statement leaves no room for a row in the {@code max_allowed_packet}.
+     * @see         mysql.MySqlConnector#mysqlUpsertRows(String, String[], String[], Iterator)
+     */
+    public MySqlUpsertResult mysqlUpsertRows(String table, String[] keyColumns, String[] valueColumns, Stream<Object[]> rows)
+    throws SQLException, IllegalArgumentException {
+        return mysqlUpsertRows(table, keyColumns, valueColumns, rows.iterator());
+    }
+
+    /**
+     * {@code mysqlUpsertRows} inserts or updates a stream of rows with multi-row {@code INSERT ... ON DUPLICATE KEY UPDATE} statements,
+     * one round trip per chunk instead of a query and a write per row.
+     * <ul>
+     *     <li>A row whose key is not in the table is inserted, otherwise the value columns of the existing row are set to the values of the row.</li>
+     *     <li>The rows are chunked and the statements are reused from the statement cache
+     *     as by {@link mysql.MySqlConnector#mysqlInsertRows(String, String[], Iterator) mysqlInsertRows()}.</li>
+     *     <li>The new values are referred to with {@code VALUES(column)}, which every MySQL version accepts.
+     *     Without value columns an existing row is left as it is.</li>
+     *     <li>The inserted and updated rows are told apart by the affected rows the server reports,
+     *     <i>1</i> for an inserted row and <i>2</i> for an updated one.</li>
+     * </ul>
+     * @param       table the name of the table.
+     * @param       keyColumns the names of the columns of a primary or unique key.
+     * @param       valueColumns the names of the columns updated when the key already exists.
+     * @param       rows the rows, every row has the values of the key columns followed by the values of the value columns.
+     * @return      the number of rows inserted and updated.
+     * @throws      SQLException if it runs into some MySql error while running.
+     * @throws      IllegalArgumentException if there are no key columns, a row does not have a value for each column,
+     *              or the statement leaves no room for a row in the {@code max_allowed_packet}.
+     */
+    public MySqlUpsertResult mysqlUpsertRows(String table, String[] keyColumns, String[] valueColumns, Iterator<Object[]> rows)
+    throws SQLException, IllegalArgumentException {
+        if (keyColumns.length == 0) {
+            throw new IllegalArgumentException("Key columns are empty!");
+        }
+        StringBuilder update = new StringBuilder(" ON DUPLICATE KEY UPDATE ");
+        if (valueColumns.length == 0) {
+            update.append(keyColumns[0]).append(" = ").append(keyColumns[0]);
+        }
+        for (int i = 0; i < valueColumns.length; i++) {
+            if (i > 0) {
+                update.append(", ");
+            }
+            update.append(valueColumns[i]).append(" = VALUES(").append(valueColumns[i]).append(")");
+        }
+        String prefix = "INSERT INTO " + table + " (" + String.join(", ", keyColumns)
+                + ((valueColumns.length == 0) ? "" : (", " + String.join(", ", valueColumns))) + ") VALUES ";
+        long[] counts = insertRows(prefix, update.toString(), (keyColumns.length + valueColumns.length), rows);
+        return new MySqlUpsertResult(counts[0], counts[1]);
+    }
+
+    /**
+     * {@code mysqlLoadData} loads a stream of rows with {@code LOAD DATA LOCAL INFILE}, the texts are encoded in UTF-8.
+     * @param       table the name of the table.
+     * @param       columns the names of the columns the values of a row are loaded into.
+     * @param       rows the rows, every row has a value for each column.
+     * @return      the number of rows loaded and the warnings of the server.
+     * @throws      SQLException if it runs into some MySql error while running, or a row does not have a value for each column.
+     * @throws      IllegalArgumentException if there are no columns.
+     * @see         mysql.MySqlConnector#mysqlLoadData(String, String[], Iterator, Charset)
+     */
+    public MySqlLoadResult mysqlLoadData(String table, String[] columns, Stream<Object[]> rows)
+    throws SQLException, IllegalArgumentException {
+        return mysqlLoadData(table, columns, rows.iterator(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * {@code mysqlLoadData} loads rows with {@code LOAD DATA LOCAL INFILE}, the texts are encoded in UTF-8.
+     * @param       table the name of the table.
+     * @param       columns the names of the columns the values of a row are loaded into.
+     * @param       rows the rows, every row has a value for each column.
+     * @return      the number of rows loaded and the warnings of the server.
+     * @throws      SQLException if it runs into some MySql error while running, or a row does not have a value for each column.
+     * @throws      IllegalArgumentException if there are no columns.
+     * @see         mysql.MySqlConnector#mysqlLoadData(String, String[], Iterator, Charset)
+     */
+    public MySqlLoadResult mysqlLoadData(String table, String[] columns, Iterator<Object[]> rows)
+    throws SQLException, IllegalArgumentException {
+        return mysqlLoadData(table, columns, rows, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * {@code mysqlLoadData} loads rows with {@code LOAD DATA LOCAL INFILE}, the fastest bulk load of the server.
+     * <ul>
+     *     <li>The rows are serialized into tab separated lines while the driver sends them, they are never written to a file.</li>
+     *     <li>A {@code null} value is loaded as {@code NULL}, texts and binary values are escaped, so they are loaded unchanged.</li>
+     *     <li>The rows are read from the iterator while the connection is held, the statement is committed at its end.</li>
+     * </ul>
+     * @param       table the name of the table.
+     * @param       columns the names of the columns the values of a row are loaded into.
+     * @param       rows the rows, every row has a value for each column.
+     * @param       charset the charset the texts are encoded in.
+     * @return      the number of rows loaded and the warnings of the server.
+     * @throws      SQLException if it runs into some MySql error while running, or a row does not have a value for each column.
+     * @throws      IllegalArgumentException if there are no columns, or the charset is not supported.
+     * @see         mysql.MySqlConnector#mysqlLoadData(String, String[], InputStream, Charset)
+     */
+    public MySqlLoadResult mysqlLoadData(String table, String[] columns, Iterator<Object[]> rows, Charset charset)
+    throws SQLException, IllegalArgumentException {
+        return mysqlLoadData(table, columns, new MySqlTsvInputStream(rows, columns.length, charset), charset);
+    }
+
+    /**
+     * {@code mysqlLoadData} loads the content of a stream with {@code LOAD DATA LOCAL INFILE},
+     * through the local infile stream of the driver.
+     * <ul>
+     *     <li>The content is in the default format of {@code LOAD DATA}: fields separated by tabs, lines ending with a newline,
+     *     special characters escaped with a backslash and {@code NULL} written as {@code \N}.</li>
+     *     <li>The driver sends the local data only if {@code allowLoadLocalInfile=true} is among the connection parameters,
+     *     see {@link mysql.MySqlConnector#setAutoReconnect(String)}, and the server has {@code local_infile} enabled.</li>
+     *     <li>The driver closes the local infile stream when it has sent it, so the stream is handed over in a wrapper
+     *     that ignores the close, and the stream of the caller stays open.</li>
+     *     <li>The statement is not run again after a connection error, the stream cannot be read twice.</li>
+     * </ul>
+     * @param       table the name of the table.
+     * @param       columns the names of the columns the fields of a line are loaded into.
+     * @param       data the content to load, it is read to its end but not closed, closing it is up to the caller.
+     * @param       charset the charset of the content, <i>UTF-8</i>, <i>US-ASCII</i>, <i>ISO-8859-1</i>, <i>ISO-8859-2</i> or <i>windows-1250</i>.
+     * @return      the number of rows loaded and the warnings of the server.
+     * @throws      SQLException if it runs into some MySql error while running, or the stream cannot be read.
+     * @throws      IllegalArgumentException if there are no columns, or the charset is not supported.
+     */
+    public MySqlLoadResult mysqlLoadData(String table, String[] columns, InputStream data, Charset charset)
+    throws SQLException, IllegalArgumentException {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("Columns are empty!");
+        }
+        String sql = "LOAD DATA LOCAL INFILE 'stream' INTO TABLE " + table + " CHARACTER SET " + mysqlCharset(charset)
+                + " FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (" + String.join(", ", columns) + ")";
+        return mysqlExecute(false, false, false, (connection, statementCache) -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.unwrap(JdbcStatement.class).setLocalInfileInputStream(new FilterInputStream(data) {
+                    @Override
+                    public void close() {}
+                });
+                long loaded = statement.executeLargeUpdate(sql);
+                return new MySqlLoadResult(loaded, statement.getWarnings());
+            }
+        });
+    }
+
+    /**
+     * {@code mysqlBegin} starts a transaction on the calling thread.
+     * <ul>
+     *     <li>A connection is borrowed and held with {@code autoCommit} turned off, until {@link mysql.MySqlConnector#mysqlCommit()}
+     *     or {@link mysql.MySqlConnector#mysqlRollback()} is called on the same thread.</li>
+     *     <li>Every operation of the connector called on the thread in the meantime runs on this connection, so it is part of the transaction,
+     *     the reads as well, so they see the writes of the transaction. The cursors and the asynchronous operations borrow their own connections.</li>
+     *     <li>The operations in a transaction are not run again after a connection error, the transaction is lost with its connection.</li>
+     * </ul>
+     * @throws      SQLException if a connection cannot be borrowed.
+     * @throws      IllegalStateException if a transaction is already running on the thread.
+     * @see         mysql.MySqlConnector#mysqlInTransaction(TransactionCallback)
+     */
+    public void mysqlBegin()
+    throws SQLException, IllegalStateException {
+        if (transaction.get() != null) {
+            throw new IllegalStateException("Transaction is already running!");
+        }
+        MySqlConnectionPool pool = connectionPool();
+        Connection connection = pool.borrowConnection();
+        try {
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            endConnection(pool, connection, isConnectionError(e));
+            throw e;
+        }
+        transaction.set(new Transaction(pool, connection, pool.getStatementCache(connection)));
+    }
+
+    /**
+     * {@code mysqlCommit} commits the transaction of the calling thread and hands back its connection.
+     * @throws      SQLException if it runs into some MySql error while committing, the transaction is ended anyway.
+     * @throws      IllegalStateException if no transaction is running on the thread.
+     */
+    public void mysqlCommit()
+    throws SQLException, IllegalStateException {
+        Transaction current = endTransaction();
+        try {
+            current.connection.commit();
+        } catch (SQLException e) {
+            current.broken |= isConnectionError(e);
+            if (!current.broken) {
+                try {
+                    current.connection.rollback();
+                } catch (SQLException ignored) {}
+            }
+            throw e;
+        } finally {
+            closeTransaction(current);
+        }
+    }
+
+    /**
+     * {@code mysqlRollback} rolls back the transaction of the calling thread and hands back its connection.
+     * @throws      SQLException if it runs into some MySql error while rolling back, the transaction is ended anyway.
+     * @throws      IllegalStateException if no transaction is running on the thread.
+     */
+    public void mysqlRollback()
+    throws SQLException, IllegalStateException {
+        Transaction current = endTransaction();
+        try {
+            if (!current.broken) {
+                current.connection.rollback();
+            }
+        } catch (SQLException e) {
+            current.broken |= isConnectionError(e);
+            throw e;
+        } finally {
+            closeTransaction(current);
+        }
+    }
+
+    /**
+     * {@code mysqlInTransaction} runs a unit of work in a transaction: it is committed if the work returns,
+     * and rolled back if the work throws an exception, which is thrown on.
+     * If a transaction is already running on the thread, the work joins it, and it is committed or rolled back by its owner.<br>
+     * If the transaction is rolled back by a deadlock or a lock wait timeout, the work is run again in a new transaction
+     * as the retry policy decides, see {@link mysql.MySqlConnector#setRetryPolicy(MySqlRetryPolicy)},
+     * so the work should have no effect beside its operations on the connector.
+     * <pre>{@code
+     * mysql.mysqlInTransaction(() -> {
+     *     mysql.mysqlSetVarargs("UPDATE accounts_t SET balance = balance - ? WHERE id = ?", amount, from);
+     *     mysql.mysqlSetVarargs("UPDATE accounts_t SET balance = balance + ? WHERE id = ?", amount, to);
+     *     return null;
+     * });
+     * }</pre>
+     * @param       callback the work, the operations of the connector it calls on the same thread are part of the transaction.
+     * @param       <R> the type of the result.
+     * @return      the result of the work.
+     * @throws      SQLException if the work or the commit fails.
+     */
+    public <R> R mysqlInTransaction(TransactionCallback<R> callback)
+    throws SQLException {
+        if (transaction.get() != null) {
+            return callback.execute();
+        }
+        int retries = 0;
+        while (true) {
+            mysqlBegin();
+            R result;
+            try {
+                result = callback.execute();
+            } catch (SQLException e) {
+                rollbackFailed(e);
+                if (retryPolicy.retry(e, retries++)) {
+                    continue;
+                }
+                throw e;
+            } catch (RuntimeException | Error e) {
+                rollbackFailed(e);
+                throw e;
+            }
+            mysqlCommit();
+            return result;
+        }
+    }
+
+    /**
+     * {@code rollbackFailed} rolls back the transaction of the calling thread after its work failed.
+     * @param       failure the error of the work, an error of the rollback is added to it as suppressed.
+     */
+    private void rollbackFailed(Throwable failure) {
+        try {
+            mysqlRollback();
+        } catch (SQLException rollback) {
+            failure.addSuppressed(rollback);
+        }
+    }
+
+    /**
+     * {@code mysqlSetGrouped} runs a parameterized MySQL update statement, committed together with the grouped writes of concurrent callers.
+     * <ul>
+     *     <li>With the group commit mode on, see {@link mysql.MySqlConnector#setGroupCommit(int, long)}, the first caller waits
+     *     at most {@code groupCommitDelay} milliseconds for others to join, then runs the writes of the group in one transaction,
+     *     so the server flushes its log once for the group instead of once per write. The writes arriving meanwhile form the next group.</li>
+     *     <li>Every caller returns when its group is committed, with its own update count.</li>
+     *     <li>A write that fails is taken out of the group, its caller gets the error, and the group is run again without it,
+     *     so the writes of the group stay independent. After a connection error every write of the group fails.</li>
+     *     <li>With the group commit mode off, or in a transaction, the statement runs at once, as {@link mysql.MySqlConnector#mysqlSetVarargs(String, Object...)}.</li>
+     * </ul>
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @param       update the parameters of the statement.
+     * @return      the number of rows changed by the statement.
+     * @throws      SQLException if it runs into some MySql error while running.
+     */
+    public int mysqlSetGrouped(String mysqlInstructions, Object... update)
+    throws SQLException {
+        if ((groupCommitSize < 2) || (transaction.get() != null)) {
+            return mysqlExecute(false, false, (connection, statementCache) -> executeUpdate(statementCache, mysqlInstructions, update));
+        }
+        GroupedWrite write = new GroupedWrite(mysqlInstructions, update.clone());
+        List<GroupedWrite> group;
+        groupLock.lock();
+        try {
+            groupQueue.add(write);
+            if (groupQueue.size() >= groupCommitSize) {
+                groupFilled.signal();
+            }
+            while (!write.done && (groupLeader || (groupQueue.get(0) != write))) {
+                groupFinished.awaitUninterruptibly();
+            }
+            if (write.done) {
+                return write.result();
+            }
+            groupLeader = true;
+            long remaining = groupCommitDelay * 1_000_000L;
+            while ((groupQueue.size() < groupCommitSize) && (remaining > 0L)) {
+                try {
+                    remaining = groupFilled.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            List<GroupedWrite> taken = groupQueue.subList(0, Math.min(groupCommitSize, groupQueue.size()));
+            group = new ArrayList<>(taken);
+            taken.clear();
+        } finally {
+            groupLock.unlock();
+        }
+        try {
+            commitGroup(group);
+        } finally {
+            groupLock.lock();
+            try {
+                groupLeader = false;
+                groupFinished.signalAll();
+            } finally {
+                groupLock.unlock();
+            }
+        }
+        return write.result();
+    }
+
+    /**
+     * {@code mysqlGetAsync} is the asynchronous variant of {@link mysql.MySqlConnector#mysqlGet(String)}.
+     * <ul>
+     *     <li>The query runs on the executor of the asynchronous operations, the calling thread is not blocked.</li>
+     *     <li>At most as many operations run at the same time as the pool has connections, so they do not all wait for a pooled connection,
+     *     the rest wait in a queue without occupying a thread.</li>
+     *     <li>Several queries can be fanned out at once and combined with {@link java.util.concurrent.CompletableFuture#allOf(CompletableFuture[]) allOf()}.</li>
+     * </ul>
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @return      a future completed with the values read from MySql stored in a two-dimensional String array,
+     *              or completed exceptionally with the {@link java.sql.SQLException SQLException} of the query.
+     * @see         mysql.MySqlConnector#setAsyncExecutor(Executor)
+     */
+    public CompletableFuture<String[][]> mysqlGetAsync(String mysqlInstructions) {
+        return mysqlAsync(() -> mysqlGet(mysqlInstructions));
+    }
+
+    /**
+     * {@code mysqlGetPublisher} returns the rows of a query as a {@link java.util.concurrent.Flow.Publisher Flow.Publisher},
+     * instead of reading the whole result into the memory like {@link mysql.MySqlConnector#mysqlGet(String)}.
+     * <ul>
+     *     <li>The query runs when a subscriber subscribes, on the executor of the asynchronous operations,
+     *     on a connection borrowed from the connection pool and with the statement taken from its statement cache.</li>
+     *     <li>The rows are streamed from the server and a row is read only after the subscriber requested it,
+     *     so a slow subscriber throttles the reading.</li>
+     *     <li>Cancelling the subscription cancels the statement and hands the connection back to the pool.</li>
+     *     <li>A lost connection is dropped from the pool, the query is not run again as rows may have been published already.</li>
+     * </ul>
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @return      a publisher of the rows, every subscriber runs the query again.
+     * @see         mysql.MySqlRowPublisher
+     */
+    public Flow.Publisher<MySqlRow> mysqlGetPublisher(String mysqlInstructions) {
+        return new MySqlRowPublisher(getAsyncExecutor(), handler -> mysqlExecute(true, false, false, (connection, statementCache) -> {
+            PreparedStatement preparedStatement = statementCache.prepareStatement(mysqlInstructions);
+            try {
+                handler.handle(preparedStatement, statementCache.getLeakDetector());
+            } finally {
+                statementCache.releaseStatement(preparedStatement);
+            }
+            return null;
+        }));
+    }
+
+    /**
+     * {@code mysqlGetToList} returns the result of the MySQL query as a list of objects of a class.
+     * <ul>
+     *     <li>The rows are mapped by the {@link mysql.MySqlRowMapper MySqlRowMapper} of the class, built once and reused by every call.</li>
+     *     <li>The columns are bound to the record components or fields of the same name once per result,
+     *     then every value is read by its column index with the getter of the type of its property.</li>
+     *     <li>Like {@code mysqlGet}, the query is tried again on a new connection after a connection error.</li>
+     * </ul>
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @param       type the type the rows are mapped to, a record or a class with a no-argument constructor.
+     * @param       <T> the type the rows are mapped to.
+     * @return      the rows of the result as objects, in the order of the result.
+     * @throws      SQLException if it runs into some other MySql error while running.
+     * @throws      IllegalArgumentException if the type cannot be mapped.
+     */
+    public <T> List<T> mysqlGetToList(String mysqlInstructions, Class<T> type)
+    throws SQLException, IllegalArgumentException {
+        MySqlRowMapper<T> mapper = MySqlRowMapper.of(type);
+        return mysqlExecute(true, true, (connection, statementCache) -> {
+            List<T> rows = new ArrayList<>();
+            PreparedStatement preparedStatement = statementCache.prepareStatement(mysqlInstructions);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                mapper.mapRows(resultSet, rows);
+            } finally {
+                statementCache.releaseStatement(preparedStatement);
+            }
+            return rows;
+        });
+    }
+
+    /**
+     * {@code mysqlGetColumnar} reads the result of a query column by column, every column stored according to its JDBC type.
+     * <ul>
+     *     <li>Integer, floating-point and date columns are read with the getter of their type into primitive arrays,
+     *     instead of being turned into strings like by {@link mysql.MySqlConnector#mysqlGet(String)}.</li>
+     *     <li>The {@code NULL} values are marked in a bitmap of every column.</li>
+     *     <li>The numeric columns can be aggregated in bulk through {@code IntStream}, {@code LongStream} and {@code DoubleStream} views.</li>
+     *     <li>Like {@code mysqlGet}, the query is tried again on a new connection after a connection error.</li>
+     * </ul>
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @return      the result of the query in columns.
+     * @throws      SQLException if it runs into some MySql error while running.
+     * @see         mysql.MySqlColumnarResult
+     */
+    public MySqlColumnarResult mysqlGetColumnar(String mysqlInstructions)
+    throws SQLException {
+        return mysqlExecute(true, true, (connection, statementCache) -> {
+            PreparedStatement preparedStatement = statementCache.prepareStatement(mysqlInstructions);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                return MySqlColumnarResult.read(resultSet);
+            } finally {
+                statementCache.releaseStatement(preparedStatement);
+            }
+        });
+    }
+
+    /**
+     * {@code mysqlGetOffHeap} reads the result of a query column by column into off-heap memory,
+     * for results so large that their objects would keep the garbage collector busy.
+     * <ul>
+     *     <li>The columns are stored in direct buffers, typed like the columns of {@link mysql.MySqlConnector#mysqlGetColumnar(String)},
+     *     the text values as UTF-8 bytes, so the heap holds only a few buffer objects whatever the number of rows is.</li>
+     *     <li>The values are read straight from the buffers.</li>
+     *     <li>Like {@code mysqlGet}, the query is tried again on a new connection after a connection error.</li>
+     * </ul>
+     * <pre>{@code
+     * try (MySqlOffHeapResult result = mysql.mysqlGetOffHeap("SELECT id, amount FROM table1_t")) {
+     *     double total = 0.0;
+     *     for (int row = 0; row < result.getRowCount(); row++) {
+     *         total += result.getDouble(row, 1);
+     *     }
+     * }
+     * }</pre>
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @return      the result of the query in off-heap memory, it must be closed to release the memory.
+     * @throws      SQLException if it runs into some MySql error while running, the memory taken so far is released then.
+     * @see         mysql.MySqlOffHeapResult
+     */
+    public MySqlOffHeapResult mysqlGetOffHeap(String mysqlInstructions)
+    throws SQLException {
+        return mysqlExecute(true, true, (connection, statementCache) -> {
+            PreparedStatement preparedStatement = statementCache.prepareStatement(mysqlInstructions);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                return MySqlOffHeapResult.read(resultSet);
+            } finally {
+                statementCache.releaseStatement(preparedStatement);
+            }
+        });
+    }
+
+    /**
+     * {@code mysqlGetCursor} returns the rows of a query through a cursor,
+     * instead of reading the whole result into the memory like {@link mysql.MySqlConnector#mysqlGet(String)}.
+     * <ul>
+     *     <li>The statement is prepared as forward-only and read-only on a connection borrowed from the connection pool,
+     *     it is not taken from the statement cache, because it stays open as long as the cursor.</li>
+     *     <li>The rows are streamed from the server, or fetched in blocks of {@code cursorFetchSize} rows with a server-side cursor,
+     *     so the heap use stays the same whatever the number of rows is.</li>
+     *     <li>The connection is held until the cursor is closed or read to its end,
+     *     the connection, the statement and the result of a cursor that is never closed are reported by the leak detection of the pool.</li>
+     * </ul>
+     * <pre>{@code
+     * try (MySqlCursor cursor = mysql.mysqlGetCursor("SELECT * FROM table1_t")) {
+     *     while (cursor.hasNext()) {
+     *         String[] row = cursor.next();
+     *     }
+     * }
+     * }</pre>
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @return      the cursor of the rows, it must be closed.
+     * @throws      SQLException if the connection cannot be borrowed or the query fails, no connection is held then.
+     * @see         mysql.MySqlConnector#setCursorFetchSize(int)
+     */
+    public MySqlCursor mysqlGetCursor(String mysqlInstructions)
+    throws SQLException {
+        MySqlConnectionPool pool = readConnectionPool();
+        Connection connection = pool.borrowConnection();
+        PreparedStatement preparedStatement = null;
+        try {
+            preparedStatement = connection.prepareStatement(mysqlInstructions, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            preparedStatement.setFetchSize((cursorFetchSize > 0) ? cursorFetchSize : Integer.MIN_VALUE);
+            return new MySqlCursor(mysqlInstructions, pool, connection, preparedStatement, preparedStatement.executeQuery());
+        } catch (SQLException e) {
+            if (preparedStatement != null) {
+                try {
+                    preparedStatement.close();
+                } catch (SQLException closeError) {
+                    e.addSuppressed(closeError);
+                }
+            }
+            if (isConnectionError(e)) {
+                pool.invalidateConnection(connection);
+            } else {
+                pool.releaseConnection(connection);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * {@code mysqlGetStream} returns the rows of a query as a stream, read through a cursor of {@link mysql.MySqlConnector#mysqlGetCursor(String)}.
+     * Closing the stream closes the cursor, so the stream must be used in a try-with-resources statement, unless it is read to its end.
+     * <pre>{@code
+     * try (Stream<String[]> rows = mysql.mysqlGetStream("SELECT * FROM table1_t")) {
+     *     rows.filter(row -> row[0] != null).forEach(System.out::println);
+     * }
+     * }</pre>
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @return      the stream of the rows, an error while reading is thrown as an {@link java.lang.IllegalStateException IllegalStateException}
+     *              caused by the {@link java.sql.SQLException SQLException}.
+     * @throws      SQLException if the connection cannot be borrowed or the query fails.
+     */
+    public Stream<String[]> mysqlGetStream(String mysqlInstructions)
+    throws SQLException {
+        return mysqlGetCursor(mysqlInstructions).stream();
+    }
+
+    /**
+     * {@code mysqlGetToCollectionAsync} is the asynchronous variant of {@link mysql.MySqlConnector#mysqlGetToCollection(String)}.
+     * The query runs on the executor of the asynchronous operations, the calling thread is not blocked.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @return      a future completed with the result of the MySQL query as a collection of string arrays,
+     *              or completed exceptionally with the {@link java.sql.SQLException SQLException} of the query.
+     */
+    public <C extends Collection<String[]>> CompletableFuture<C> mysqlGetToCollectionAsync(String mysqlInstructions) {
+        return mysqlAsync(() -> mysqlGetToCollection(mysqlInstructions));
+    }
+
+    /**
+     * {@code mysqlSetAsync} is the asynchronous variant of {@link mysql.MySqlConnector#mysqlSet(String)}.
+     * The statement runs on the executor of the asynchronous operations, the calling thread is not blocked.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @return      a future completed when the statement was executed,
+     *              or completed exceptionally with the {@link java.sql.SQLException SQLException} of the statement.
+     */
+    public CompletableFuture<Void> mysqlSetAsync(String mysqlInstructions) {
+        return mysqlAsync(() -> {
+            mysqlSet(mysqlInstructions);
+            return null;
+        });
+    }
+
+    /**
+     * {@code mysqlSetVarargsAsync} is the asynchronous variant of {@link mysql.MySqlConnector#mysqlSetVarargs(String, Object...)}.
+     * The statement runs on the executor of the asynchronous operations, the calling thread is not blocked.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @param       update the values set as parameters of the statement.
+     * @return      a future completed when the statement was executed,
+     *              or completed exceptionally with the {@link java.sql.SQLException SQLException} of the statement.
+     */
+    public CompletableFuture<Void> mysqlSetVarargsAsync(String mysqlInstructions, Object... update) {
+        return mysqlAsync(() -> {
+            mysqlSetVarargs(mysqlInstructions, update);
+            return null;
+        });
+    }
+
+    /**
+     * {@code mysqlSetAsync} is the asynchronous variant of {@link mysql.MySqlConnector#mysqlSet(String, Object[])}.
+     * The statement runs on the executor of the asynchronous operations, the calling thread is not blocked.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @param       update the values set as parameters of the statement.
+     * @return      a future completed when the statement was executed,
+     *              or completed exceptionally with the {@link java.sql.SQLException SQLException} of the statement.
+     */
+    public CompletableFuture<Void> mysqlSetAsync(String mysqlInstructions, Object[] update) {
+        return mysqlAsync(() -> {
+            mysqlSet(mysqlInstructions, update);
+            return null;
+        });
+    }
+
+    /**
+     * {@code mysqlSetAsync} is the asynchronous variant of {@link mysql.MySqlConnector#mysqlSet(String, List)}.
+     * The statement runs on the executor of the asynchronous operations, the calling thread is not blocked.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @param       update the values set as parameters of the statement.
+     * @return      a future completed when the statement was executed,
+     *              or completed exceptionally with the {@link java.sql.SQLException SQLException} of the statement.
+     */
+    public CompletableFuture<Void> mysqlSetAsync(String mysqlInstructions, List<Object> update) {
+        return mysqlAsync(() -> {
+            mysqlSet(mysqlInstructions, update);
+            return null;
+        });
+    }
+
+    /**
+     * {@code mysqlDropDatabase} that attempts to drop a MySQL database. 
+     * It uses the administrative connection and the {@code database} variable.
+     * <ul>
+     *     <li>Constructs an SQL query to drop a database using the value of the {@code database} variable. The database name is appended to the "DROP DATABASE" statement.</li>
+     *     <li>The code then enters a {@code try-catch} block to handle any potential exceptions.</li>
+     *     <li>Executes the statement on the administrative connection, which is opened at the first DDL call
+     *     with the JDBC connection string, connection parameters, username, and password, and reused by the later ones.</li>
+     * </ul>
+     * An {@link java.sql.SQLException SQLException} is thrown on unchanged, with its SQL state and error code, any other exception of the try block is wrapped in an {@code SQLException} as its cause.<br>
+     * <p>It's important to note that dropping a database is a potentially irreversible action that permanently deletes all the data and objects within that database.
+     * Exercise caution when using this method and ensure that you have appropriate permissions and a backup of any critical data before attempting to drop a database.</p>
+     * @throws      SQLException if it runs into some other MySql error while running.
+     */
+    public void mysqlDropDatabase()
+    throws SQLException {
+        String mysqlInstructions = "DROP DATABASE " + database;
+        try {
+            mysqlSchemaBatch(List.of(mysqlInstructions));
+        } catch (RuntimeException e) {
+            throw new SQLException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@code mysqlDropTable} that attempts to drop a table in a MySQL database. 
+     * It uses the administrative connection and the {@code table} and {@code database} variables.
+     * <ul>
+     *     <li>Constructs an SQL query to drop a table using the value of the {@code table} variable, qualified with the {@code database} variable.
+     *     The table name is appended to the "DROP TABLE" statement.</li>
+     *     <li>The code then enters a {@code try-catch} block to handle any potential exceptions.</li>
+     *     <li>Executes the statement on the reused administrative connection.</li>
+     * </ul>
+     * An {@link java.sql.SQLException SQLException} is thrown on unchanged, with its SQL state and error code, any other exception of the try block is wrapped in an {@code SQLException} as its cause.
+     * @throws      SQLException if it runs into some other MySql error while running.
+     */
+    public void mysqlDropTable()
+    throws SQLException {
+        String mysqlInstructions = "DROP TABLE " + qualifiedTable();
+        try {
+            mysqlSchemaBatch(List.of(mysqlInstructions));
+        } catch (RuntimeException e) {
+            throw new SQLException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@code mysqlSchemaBatch} runs a list of schema operations (DDL instructions) in one pass over the administrative connection.
+     * <ul>
+     *     <li>The administrative connection has no database selected, so table names should be qualified with their database name.
+     *     It is opened at the first DDL call and reused by every later DDL call, until {@link mysql.MySqlConnector#mysqlDisconnection()}.</li>
+     *     <li>If the connection was closed or lost since the previous call, a new one is opened.</li>
+     *     <li>The instructions are added to a single {@link java.sql.Statement Statement} with {@link java.sql.Statement#addBatch(String) addBatch()}
+     *     and sent with {@link java.sql.Statement#executeBatch() executeBatch()}, in the order of the list.</li>
+     *     <li>Concurrent DDL calls of the same connector run one after the other.</li>
+     *     <li>If the call fails with a connection error, the administrative connection is closed, so the next call opens a new one.
+     *     The instructions are not repeated, as it is not known which of them were executed.</li>
+     *     <li>The schema catalog is invalidated after the call, even if it failed, so the next access loads the changed metadata,
+     *     see {@link mysql.MySqlConnector#getSchemaCatalog()}.</li>
+     * </ul>
+     * DDL instructions commit implicitly in MySQL, so the instructions before a failing one stay executed.
+     * @param       mysqlInstructions DDL instructions, such as {@code CREATE DATABASE}, {@code CREATE TABLE} or {@code DROP TABLE}.
+     * @return      the update count of every instruction, in the order of the list.
+     * @throws      SQLException if the connection cannot be opened or an instruction fails,
+     *              a {@link java.sql.BatchUpdateException BatchUpdateException} holds the counts of the executed instructions.
+     */
+    public int[] mysqlSchemaBatch(List<String> mysqlInstructions)
+    throws SQLException {
+        adminLock.lock();
+        try (Statement statement = adminConnection().createStatement()) {
+            for (String mysqlInstruction : mysqlInstructions) {
+                statement.addBatch(mysqlInstruction);
+            }
+            int[] updateCounts = statement.executeBatch();
+            afterWrite();
+            return updateCounts;
+        } catch (SQLException e) {
+            if (isConnectionError(e) && (adminConnection != null)) {
+                try {
+                    adminConnection.close();
+                } catch (SQLException ignored) {
+                }
+                adminConnection = null;
+            }
+            throw e;
+        } finally {
+            adminLock.unlock();
+            MySqlSchemaCatalog catalog = schemaCatalog;
+            if (catalog != null) {
+                catalog.invalidate();
+            }
+        }
+    }
+
+    /**
+     * {@code mysqlReadSchema} loads the metadata of the tables of a database with one query, on a connection of the connection pool.
+     * It is always read from the primary server, a lagging replica could still return the metadata before a DDL call.
+     * @param       database the name of the database.
+     * @return      the tables by their name, see {@link mysql.MySqlSchemaCatalog MySqlSchemaCatalog}.
+     * @throws      SQLException if it runs into some MySql error while reading.
+     */
+    Map<String, MySqlSchemaCatalog.Table> mysqlReadSchema(String database)
+    throws SQLException {
+        return mysqlExecute(true, false, true, true, (connection, statementCache) -> MySqlSchemaCatalog.readTables(statementCache, database));
+    }
+
+    /**
+     * {@code mysqlReadRows} reads every row of a result set as string arrays.
+     * <ul>
+     *     <li>The number of columns is resolved from the metadata once, not for every value.</li>
+     *     <li>Values are read by their column index, which needs no lookup of the column by name,
+     *     and stored straight into an array allocated for the row with the exact number of columns.</li>
+     * </ul>
+     * @param       resultSet the result set positioned before its first row.
+     * @param       rows the collection the rows are added to, in the order of the result.
+     * @throws      SQLException if it runs into some MySql error while reading.
+     */
+    static void mysqlReadRows(ResultSet resultSet, Collection<String[]> rows)
+    throws SQLException {
+        int columnCount = resultSet.getMetaData().getColumnCount();
+        while (resultSet.next()) {
+            String[] row = new String[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                row[i] = resultSet.getString((i + 1));
+            }
+            rows.add(row);
+        }
+    }
+
+    /**
+     * {@code readConnectionPool} returns the connection pool a read borrows its connection from.
+     * By default reads and writes share the connection pool, subclasses may route the reads elsewhere, such as to replicas.
+     * @return      the connection pool of the next read.
+     * @throws      SQLException if there is no connection, {@link mysql.MySqlConnector#mysqlConnection()} has not been called
+     *              or the connector was disconnected.
+     * @see         mysql.MySqlReplicatedConnector
+     */
+    protected MySqlConnectionPool readConnectionPool()
+    throws SQLException {
+        return connectionPool();
+    }
+
+    /**
+     * {@code afterWrite} is called on the calling thread after every successful write, including the DDL instructions.
+     * It does nothing by default, subclasses may use it to route the following reads of the thread.
+     */
+    protected void afterWrite() {}
+
+    /**
+     * {@code mysqlExecute} runs a unit of work on a connection borrowed from the connection pool.
+     * <ul>
+     *     <li>A read borrows its connection from {@link mysql.MySqlConnector#readConnectionPool()}, a write from the connection pool,
+     *     and a successful write calls {@link mysql.MySqlConnector#afterWrite()}.</li>
+     *     <li>The connection is borrowed for the time of the call only, and it is released even if the work throws an exception.</li>
+     *     <li>Every statement and result set is created inside the callback, so each call has its own statement scope
+     *     and concurrent calls on the same {@code MySqlConnector} never share a statement.</li>
+     *     <li>Statements are taken from the statement cache of the borrowed connection,
+     *     so a repeated SQL text is not prepared again.</li>
+     *     <li>A connection that fails with a connection error is dropped from the pool instead of being released.</li>
+     *     <li>If no connection can be opened because of a connection error, the borrow is tried again,
+     *     at most {@code maxReconnectAttempts} times with exponential backoff. Nothing was sent yet, so this is safe for every operation.</li>
+     *     <li>If the work itself fails with a connection error, it is tried again on a new connection only if it is {@code idempotent},
+     *     since a lost write may or may not have been executed by the server.</li>
+     *     <li>In a transaction of the calling thread the work runs on the connection of the transaction, and it is never tried again.</li>
+     * </ul>
+     * @param       read {@code true} if the work only reads, such as a query.
+     * @param       idempotent {@code true} if running the work twice has the same effect as running it once, such as a query.
+     * @param       callback the work to run on the borrowed connection.
+     * @param       <R> the type of the result.
+     * @return      the result of the callback.
+     * @throws      SQLException if a connection cannot be borrowed or the work fails.
+     */
+    private <R> R mysqlExecute(boolean read, boolean idempotent, ConnectionCallback<R> callback)
+    throws SQLException {
+        return mysqlExecute(read, idempotent, true, callback);
+    }
+
+    /**
+     * {@code mysqlExecute} runs a unit of work on a connection borrowed from the connection pool, see {@link mysql.MySqlConnector#mysqlExecute(boolean, boolean, ConnectionCallback)}.
+     * <ul>
+     *     <li>If the work fails with a deadlock or a lock wait timeout, the server rolled it back. If it is {@code retryable},
+     *     its connection is released and it is run again as the retry policy decides.</li>
+     *     <li>In a transaction of the calling thread the work is never tried again, the transaction is run again by its owner.</li>
+     * </ul>
+     * @param       read {@code true} if the work only reads, such as a query.
+     * @param       idempotent {@code true} if running the work twice has the same effect as running it once, such as a query.
+     * @param       retryable {@code true} if the work can be run again after the server rolled it back,
+     *              {@code false} if it consumes its input or it commits part of its work.
+     * @param       callback the work to run on the borrowed connection.
+     * @param       <R> the type of the result.
+     * @return      the result of the callback.
+     * @throws      SQLException if a connection cannot be borrowed or the work fails.
+     */
+    private <R> R mysqlExecute(boolean read, boolean idempotent, boolean retryable, ConnectionCallback<R> callback)
+    throws SQLException {
+        return mysqlExecute(read, read, idempotent, retryable, callback);
+    }
+
+    /**
+     * {@code mysqlExecute} runs a unit of work on a connection borrowed from the connection pool,
+     * see {@link mysql.MySqlConnector#mysqlExecute(boolean, boolean, boolean, ConnectionCallback)}.
+     * A read that must see the latest state of the primary server, such as the metadata after a DDL call,
+     * borrows its connection from the connection pool instead of {@link mysql.MySqlConnector#readConnectionPool()}.
+     * @param       read {@code true} if the work only reads, such as a query.
+     * @param       replica {@code true} if the connection may come from {@link mysql.MySqlConnector#readConnectionPool()}.
+     * @param       idempotent {@code true} if running the work twice has the same effect as running it once, such as a query.
+     * @param       retryable {@code true} if the work can be run again after the server rolled it back.
+     * @param       callback the work to run on the borrowed connection.
+     * @param       <R> the type of the result.
+     * @return      the result of the callback.
+     * @throws      SQLException if a connection cannot be borrowed or the work fails.
+     */
+    private <R> R mysqlExecute(boolean read, boolean replica, boolean idempotent, boolean retryable, ConnectionCallback<R> callback)
+    throws SQLException {
+        Transaction current = transaction.get();
+        if (current != null) {
+            if (current.broken) {
+                throw new SQLException("Transaction lost its connection!", "08003");
+            }
+            try {
+                R result = callback.execute(current.connection, current.statementCache);
+                if (!read) {
+                    afterWrite();
+                }
+                return result;
+            } catch (SQLException e) {
+                current.broken |= isConnectionError(e);
+                throw e;
+            }
+        }
+        int attempt = 0;
+        int retries = 0;
+        long reconnectStart = 0L;
+        while (true) {
+            MySqlConnectionPool pool = replica ? readConnectionPool() : connectionPool();
+            Connection connection;
+            try {
+                connection = pool.borrowConnection();
+            } catch (SQLException e) {
+                if (!isConnectionError(e) || (attempt >= maxReconnectAttempts)) {
+                    throw e;
+                }
+                if (reconnectStart == 0L) {
+                    reconnectStart = System.nanoTime();
+                }
+                reconnectBackoff(attempt++);
+                continue;
+            }
+            if (reconnectStart != 0L) {
+                reconnects.increment();
+                reconnectTime.add(System.nanoTime() - reconnectStart);
+                reconnectStart = 0L;
+            }
+            SQLException failure;
+            try {
+                R result = callback.execute(connection, pool.getStatementCache(connection));
+                if (!read) {
+                    afterWrite();
+                }
+                return result;
+            } catch (SQLException e) {
+                if (isConnectionError(e)) {
+                    pool.invalidateConnection(connection);
+                    connection = null;
+                    if (!idempotent || (attempt >= maxReconnectAttempts)) {
+                        throw e;
+                    }
+                    reconnectStart = System.nanoTime();
+                    reconnectBackoff(attempt++);
+                    continue;
+                }
+                if (!retryable) {
+                    throw e;
+                }
+                failure = e;
+            } finally {
+                if (connection != null) {
+                    pool.releaseConnection(connection);
+                }
+            }
+            if (!retryPolicy.retry(failure, retries++)) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * {@code mysqlAsync} runs an operation on the executor of the asynchronous operations.
+     * An operation whose future was cancelled before it started is not run.
+     * @param       operation the blocking operation.
+     * @param       <R> the type of the result.
+     * @return      a future completed with the result of the operation, or exceptionally with its exception.
+     */
+    private <R> CompletableFuture<R> mysqlAsync(Callable<R> operation) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        try {
+            getAsyncExecutor().execute(new MySqlAsyncExecutor.RejectableTask() {
+                @Override
+                public void run() {
+                    if (future.isDone()) {
+                        return;
+                    }
+                    try {
+                        future.complete(operation.call());
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                }
+
+                @Override
+                public void reject(RejectedExecutionException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * {@code closeAsyncExecutor} closes the executor of the asynchronous operations, if it was created.
+     * The next asynchronous call creates a new one.
+     */
+    private synchronized void closeAsyncExecutor() {
+        if (asyncExecutor != null) {
+            asyncExecutor.close();
+            asyncExecutor = null;
+        }
+    }
+
+    /**
+     * {@code reconnectBackoff} waits before a reconnect attempt.
+     * The first attempt is made at once, the following ones wait {@code reconnectBackoff} milliseconds doubled at every attempt,
+     * at most {@code maxReconnectBackoff} milliseconds.
+     * @param       attempt the number of attempts made so far.
+     * @throws      SQLException if the thread is interrupted while waiting.
+     */
+    private void reconnectBackoff(int attempt)
+    throws SQLException {
+        if (attempt == 0) {
+            return;
+        }
+        long wait = Math.min(maxReconnectBackoff, reconnectBackoff << Math.min((attempt - 1), 30));
+        try {
+            Thread.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while reconnecting to MySQL!", e);
+        }
+    }
+
+    /**
+     * {@code maxAllowedPacket} returns the {@code max_allowed_packet} of the server, read at the first call and kept afterwards.
+     * @param       statementCache the statement cache of a borrowed connection.
+     * @return      the largest statement in bytes the server accepts.
+     * @throws      SQLException if it runs into some MySql error while reading.
+     */
+    private long maxAllowedPacket(MySqlStatementCache statementCache)
+    throws SQLException {
+        long packet = maxAllowedPacket;
+        if (packet == 0L) {
+            PreparedStatement preparedStatement = statementCache.prepareStatement("SELECT @@max_allowed_packet");
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                packet = resultSet.next() ? resultSet.getLong(1) : DEFAULT_MAX_ALLOWED_PACKET;
+            } finally {
+                statementCache.releaseStatement(preparedStatement);
+            }
+            maxAllowedPacket = packet;
+        }
+        return packet;
+    }
+
+    /**
+     * {@code insertRows} inserts a stream of rows with multi-row {@code INSERT} statements, in chunks under the {@code max_allowed_packet} of the server.
+     * @param       prefix the {@code INSERT INTO ... VALUES } part of the statements.
+     * @param       suffix the part of the statements after the rows, empty if there is none.
+     * @param       columnCount the number of values of every row.
+     * @param       rows the rows.
+     * @return      the number of rows and the number of affected rows reported by the server.
+     * @throws      SQLException if it runs into some MySql error while running.
+     * @throws      IllegalArgumentException if there are no columns, a row does not have a value for each column,
+     *              or the statement leaves no room for a row in the {@code max_allowed_packet}.
+     */
+    private long[] insertRows(String prefix, String suffix, int columnCount, Iterator<Object[]> rows)
+    throws SQLException, IllegalArgumentException {
+        if (columnCount == 0) {
+            throw new IllegalArgumentException("Columns are empty!");
+        }
+        String rowPlaceholders = "(" + "?, ".repeat(columnCount - 1) + "?)";
+        return mysqlExecute(false, false, false, (connection, statementCache) -> {
+            long packet = maxAllowedPacket(statementCache);
+            long budget = packet - prefix.length() - suffix.length() - Math.min(PACKET_RESERVE, (packet / 4L));
+            if (budget <= 0L) {
+                throw new IllegalArgumentException("Max allowed packet is not correct for the statement: " + packet);
+            }
+            int maxChunkRows = Integer.highestOneBit(Math.max(1, (MAX_STATEMENT_PARAMETERS / columnCount)));
+            Map<Integer, String> templates = new HashMap<>();
+            List<Object[]> chunk = new ArrayList<>(Math.min(maxChunkRows, 1_024));
+            long chunkBytes = 0L;
+            long[] counts = new long[2];
+            while (rows.hasNext()) {
+                Object[] row = rows.next();
+                if (row.length != columnCount) {
+                    throw new IllegalArgumentException("Row has " + row.length + " values for " + columnCount + " columns!");
+                }
+                long rowBytes = rowSize(row);
+                if (!chunk.isEmpty() && ((chunkBytes + rowBytes) > budget)) {
+                    insertChunk(statementCache, prefix, suffix, rowPlaceholders, templates, chunk, counts);
+                    chunkBytes = 0L;
+                }
+                chunk.add(row);
+                chunkBytes += rowBytes;
+                if (chunk.size() >= maxChunkRows) {
+                    insertChunk(statementCache, prefix, suffix, rowPlaceholders, templates, chunk, counts);
+                    chunkBytes = 0L;
+                }
+            }
+            if (!chunk.isEmpty()) {
+                insertChunk(statementCache, prefix, suffix, rowPlaceholders, templates, chunk, counts);
+            }
+            return counts;
+        });
+    }
+
+    /**
+     * {@code insertChunk} inserts a chunk of rows, with as few statements as possible whose number of rows is a power of two, and empties the chunk.
+     * @param       statementCache the statement cache of the borrowed connection.
+     * @param       prefix the {@code INSERT INTO ... VALUES } part of the statements.
+     * @param       suffix the part of the statements after the rows, empty if there is none.
+     * @param       rowPlaceholders the placeholders of a row.
+     * @param       templates the statements built so far, by their number of rows.
+     * @param       chunk the rows of the chunk.
+     * @param       counts the number of rows and the number of affected rows so far, increased by the chunk.
+     * @throws      SQLException if it runs into some MySql error while running.
+     */
+    private static void insertChunk(MySqlStatementCache statementCache, String prefix, String suffix, String rowPlaceholders,
+                                    Map<Integer, String> templates, List<Object[]> chunk, long[] counts)
+    throws SQLException {
+        int offset = 0;
+        while (offset < chunk.size()) {
+            int statementRows = Integer.highestOneBit(chunk.size() - offset);
+            String sql = templates.computeIfAbsent(statementRows, count -> prefix + (rowPlaceholders + ", ").repeat(count - 1) + rowPlaceholders + suffix);
+            PreparedStatement preparedStatement = statementCache.prepareStatement(sql);
+            try {
+                int parameter = 1;
+                for (int row = offset; row < (offset + statementRows); row++) {
+                    for (Object value : chunk.get(row)) {
+                        preparedStatement.setObject(parameter++, value);
+                    }
+                }
+                counts[1] += preparedStatement.executeUpdate();
+            } finally {
+                statementCache.releaseStatement(preparedStatement);
+            }
+            counts[0] += statementRows;
+            offset += statementRows;
+        }
+        chunk.clear();
+    }
+
+    /**
+     * {@code rowSize} estimates the bytes a row takes in a multi-row {@code INSERT}, with the values written into the statement by the driver.
+     * Texts are counted in UTF-8 with their quotes and escapes, binary values as hexadecimal literals, other values by their string form.
+     * @param       row the values of the row.
+     * @return      the estimated size of the row in bytes, with its parentheses and separators.
+     */
+    private static long rowSize(Object[] row) {
+        long size = 4L;
+        for (Object value : row) {
+            if (value == null) {
+                size += 6L;
+            } else if (value instanceof CharSequence) {
+                CharSequence text = (CharSequence) value;
+                size += 4L;
+                for (int i = 0; i < text.length(); i++) {
+                    char c = text.charAt(i);
+                    if ((c == '\'') || (c == '\\') || (c == '"') || (c == '\0') || (c == '\n') || (c == '\r') || (c == '\u001a')) {
+                        size += 2L;
+                    } else if (c < 0x80) {
+                        size += 1L;
+                    } else if (c < 0x800 || Character.isSurrogate(c)) {
+                        size += 2L;
+                    } else {
+                        size += 3L;
+                    }
+                }
+            } else if (value instanceof byte[]) {
+                size += (((byte[]) value).length * 2L) + 5L;
+            } else {
+                size += String.valueOf(value).length() + 4L;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * {@code executeUpdate} runs a parameterized statement taken from the statement cache.
+     * @param       statementCache the statement cache of the borrowed connection.
+     * @param       mysqlInstructions the statement.
+     * @param       update the parameters of the statement.
+     * @return      the number of rows changed.
+     * @throws      SQLException if it runs into some MySql error while running.
+     */
+    private static int executeUpdate(MySqlStatementCache statementCache, String mysqlInstructions, Object[] update)
+    throws SQLException {
+        PreparedStatement preparedStatement = statementCache.prepareStatement(mysqlInstructions);
+        try {
+            for (int i = 0; i < update.length; i++) {
+                preparedStatement.setObject((i + 1), update[i]);
+            }
+            return preparedStatement.executeUpdate();
+        } finally {
+            statementCache.releaseStatement(preparedStatement);
+        }
+    }
+
+    /**
+     * {@code commitGroup} runs the writes of a group in one transaction and completes every write with its update count or error.
+     * A write that fails is completed with its error, the transaction is rolled back, and it is run again without that write.
+     * @param       group the writes of the group, in the order of arrival.
+     */
+    private void commitGroup(List<GroupedWrite> group) {
+        List<GroupedWrite> pending = new ArrayList<>(group);
+        try {
+            mysqlExecute(false, false, false, (connection, statementCache) -> {
+                connection.setAutoCommit(false);
+                int retries = 0;
+                try {
+                    while (!pending.isEmpty()) {
+                        int[] updateCounts = new int[pending.size()];
+                        int failed = -1;
+                        SQLException failure = null;
+                        for (int i = 0; i < pending.size(); i++) {
+                            try {
+                                updateCounts[i] = executeUpdate(statementCache, pending.get(i).mysqlInstructions, pending.get(i).update);
+                            } catch (SQLException e) {
+                                if (isConnectionError(e)) {
+                                    throw e;
+                                }
+                                failed = i;
+                                failure = e;
+                                break;
+                            }
+                        }
+                        if (failed < 0) {
+                            connection.commit();
+                            for (int i = 0; i < pending.size(); i++) {
+                                pending.get(i).complete(updateCounts[i], null);
+                            }
+                            pending.clear();
+                        } else {
+                            connection.rollback();
+                            if (!retryPolicy.retry(failure, retries++)) {
+                                pending.remove(failed).complete(0, failure);
+                                retries = 0;
+                            }
+                        }
+                    }
+                } catch (SQLException e) {
+                    if (!isConnectionError(e)) {
+                        connection.rollback();
+                    }
+                    throw e;
+                } finally {
+                    try {
+                        connection.setAutoCommit(true);
+                    } catch (SQLException ignored) {}
+                }
+                return null;
+            });
+        } catch (SQLException | RuntimeException e) {
+            for (GroupedWrite write : pending) {
+                write.complete(0, e);
+            }
+        }
+    }
+
+    /**
+     * {@code endTransaction} unbinds the transaction of the calling thread.
+     * @return      the transaction of the thread.
+     * @throws      IllegalStateException if no transaction is running on the thread.
+     */
+    private Transaction endTransaction()
+    throws IllegalStateException {
+        Transaction current = transaction.get();
+        if (current == null) {
+            throw new IllegalStateException("No transaction is running!");
+        }
+        transaction.remove();
+        return current;
+    }
+
+    /**
+     * {@code closeTransaction} turns {@code autoCommit} back on and hands back the connection of an ended transaction,
+     * a connection that ran into a connection error is dropped from its pool.
+     * @param       current the ended transaction.
+     */
+    private static void closeTransaction(Transaction current) {
+        if (!current.broken) {
+            try {
+                current.connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                current.broken = true;
+            }
+        }
+        endConnection(current.pool, current.connection, current.broken);
+    }
+
+    /**
+     * {@code endConnection} hands back a borrowed connection, or drops it from its pool if it is broken.
+     * @param       pool the pool the connection was borrowed from.
+     * @param       connection the borrowed connection.
+     * @param       broken {@code true} if the connection ran into a connection error.
+     */
+    private static void endConnection(MySqlConnectionPool pool, Connection connection, boolean broken) {
+        if (broken) {
+            pool.invalidateConnection(connection);
+        } else {
+            pool.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * {@code mysqlCharset} returns the MySQL name of a charset whose special characters are single bytes,
+     * so the escapes of {@code LOAD DATA} cannot split a character.
+     * @param       charset the Java charset.
+     * @return      the name of the charset in MySQL.
+     * @throws      IllegalArgumentException if the charset is not supported.
+     */
+    private static String mysqlCharset(Charset charset)
+    throws IllegalArgumentException {
+        String name = charset.name();
+        if (name.equals("UTF-8")) {
+            return "utf8mb4";
+        } else if (name.equals("US-ASCII")) {
+            return "ascii";
+        } else if (name.equals("ISO-8859-1")) {
+            return "latin1";
+        } else if (name.equals("ISO-8859-2")) {
+            return "latin2";
+        } else if (name.equals("windows-1250")) {
+            return "cp1250";
+        }
+        throw new IllegalArgumentException("Charset is not correct: " + name);
+    }
+
+    /**
+     * {@code firstFailedRow} returns the index of the first failing row within a failed batch.
+     * The driver reports the update counts of the rows run before the error, or {@link java.sql.Statement#EXECUTE_FAILED EXECUTE_FAILED} for the failing rows.
+     * A batch rewritten into a multi-row statement fails as a whole, its first row is reported then.
+     * @param       e the error of the batch.
+     * @return      the index of the first failing row, from the start of the batch.
+     */
+    private static int firstFailedRow(SQLException e) {
+        if (!(e instanceof BatchUpdateException)) {
+            return 0;
+        }
+        int[] batchCounts = ((BatchUpdateException) e).getUpdateCounts();
+        if (batchCounts == null) {
+            return 0;
+        }
+        for (int i = 0; i < batchCounts.length; i++) {
+            if (batchCounts[i] == Statement.EXECUTE_FAILED) {
+                return i;
+            }
+        }
+        return batchCounts.length;
+    }
+
+    /**
+     * {@code isConnectionError} tells whether an exception means the connection itself is lost or cannot be opened.
+     * These are the {@link java.sql.SQLRecoverableException SQLRecoverableException} (such as the communications link failure of the driver),
+     * the {@link java.sql.SQLNonTransientConnectionException SQLNonTransientConnectionException},
+     * and every exception of the connection exception class, whose SQL state starts with {@code 08}.
+     * @param       e the exception to check.
+     * @return      {@code true} if the connection should be replaced.
+     */
+    static boolean isConnectionError(SQLException e) {
+        String sqlState = e.getSQLState();
+        return (e instanceof SQLRecoverableException)
+                || (e instanceof SQLNonTransientConnectionException)
+                || ((sqlState != null) && sqlState.startsWith("08"));
+    }
+
+    /**
+     * {@code adminConnection} returns the administrative connection, opening it if it was not opened yet or it was closed.
+     * The caller must hold the {@code adminLock}.
+     * @return      the administrative connection without a database selected.
+     * @throws      SQLException if the connection cannot be established.
+     */
+    private Connection adminConnection()
+    throws SQLException {
+        if ((adminConnection == null) || adminConnection.isClosed()) {
+            adminConnection = DriverManager.getConnection((JDBCConnectionString + autoReconnect), user, password);
+        }
+        return adminConnection;
+    }
+
+    /**
+     * {@code closeSharedConnection} closes the connection returned by {@link mysql.MySqlConnector#getConnection()}, if it was opened.
+     */
+    private synchronized void closeSharedConnection() {
+        if (sharedConnection != null) {
+            try {
+                sharedConnection.close();
+            } catch (SQLException ignored) {
+            }
+            sharedConnection = null;
+        }
+    }
+
+    /**
+     * {@code closeAdminConnection} closes the administrative connection, if it was opened.
+     * @throws      SQLException if the connection cannot be closed.
+     */
+    private void closeAdminConnection()
+    throws SQLException {
+        adminLock.lock();
+        try {
+            if (adminConnection != null) {
+                adminConnection.close();
+                adminConnection = null;
+            }
+        } finally {
+            adminLock.unlock();
+        }
+    }
+
+    /**
+     * {@code qualifiedTable} returns the name of the current table qualified with the current database,
+     * as the administrative connection has no database selected.
+     * @return      the {@code database.table} name, or the table name alone if there is no current database.
+     */
+    private String qualifiedTable() {
+        return (database != null) ? (database + "." + table) : table;
+    }
+
+    /**
+     * {@code connectionPool} returns the current connection pool, which every operation borrows its connection from.
+     * @return      the current connection pool.
+     * @throws      SQLException if there is no connection, {@link mysql.MySqlConnector#mysqlConnection()} has not been called
+     *              or the connector was disconnected.
+     */
+    private MySqlConnectionPool connectionPool()
+    throws SQLException {
+        MySqlConnectionPool pool = connectionPool;
+        if (pool == null) {
+            throw new SQLException("No connection to MySQL, mysqlConnection() must be called first!");
+        }
+        return pool;
+    }
+
+    /**
+     * {@code Transaction} is the transaction of a thread, with the connection it holds.
+     */
+    private static final class Transaction {
+
+        /**
+         * The pool the connection was borrowed from.
+         */
+        private final MySqlConnectionPool pool;
+
+        /**
+         * The connection of the transaction, with {@code autoCommit} turned off.
+         */
+        private final Connection connection;
+
+        /**
+         * The statement cache of the connection.
+         */
+        private final MySqlStatementCache statementCache;
+
+        /**
+         * It is used to store whether the connection ran into a connection error.
+         */
+        private boolean broken = false;
+
+        private Transaction(MySqlConnectionPool pool, Connection connection, MySqlStatementCache statementCache) {
+            this.pool = pool;
+            this.connection = connection;
+            this.statementCache = statementCache;
+        }
+    }
+
+    /**
+     * {@code GroupedWrite} is a write waiting for its group to be committed.
+     */
+    private static final class GroupedWrite {
+
+        /**
+         * The statement of the write.
+         */
+        private final String mysqlInstructions;
+
+        /**
+         * The parameters of the statement.
+         */
+        private final Object[] update;
+
+        /**
+         * It is used to store whether the group of the write was committed or rolled back, it is set after the result.
+         */
+        private volatile boolean done = false;
+
+        /**
+         * The number of rows changed by the write.
+         */
+        private int updateCount;
+
+        /**
+         * The error of the write, {@code null} if it was committed.
+         */
+        private Exception failure;
+
+        private GroupedWrite(String mysqlInstructions, Object[] update) {
+            this.mysqlInstructions = mysqlInstructions;
+            this.update = update;
+        }
+
+        /**
+         * Completes the write, its caller sees the result once it sees the write done.
+         * @param       updateCount the number of rows changed by the write.
+         * @param       failure the error of the write, {@code null} if it was committed.
+         */
+        private void complete(int updateCount, Exception failure) {
+            this.updateCount = updateCount;
+            this.failure = failure;
+            this.done = true;
+        }
+
+        /**
+         * Returns the update count of the write, or throws its error.
+         * @return      the number of rows changed by the write.
+         * @throws      SQLException if the write failed.
+         */
+        private int result()
+        throws SQLException {
+            if (failure instanceof SQLException) {
+                throw (SQLException) failure;
+            } else if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+            return updateCount;
         }
     }
-}
\ No newline at end of file
+}
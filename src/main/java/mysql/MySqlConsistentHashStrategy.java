@@ -0,0 +1,111 @@
+package mysql;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The MySqlConsistentHashStrategy class routes shard keys with consistent hashing, it is the default {@link mysql.MySqlShardStrategy MySqlShardStrategy}.
+ * <ul>
+ *     <li>Every shard is placed on a hash ring at {@code virtualNodes} points, a key belongs to the first point after its own hash.</li>
+ *     <li>When a shard is added, only the keys that move to the new shard change their shard, about {@code 1 / shardCount} of the keys,
+ *     instead of nearly all of them with a simple modulo.</li>
+ *     <li>The key is hashed by its string form, so an {@code Integer} and a {@code Long} of the same value go to the same shard.</li>
+ * </ul>
+ * The ring of each shard count is built once and reused.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlConsistentHashStrategy
+implements MySqlShardStrategy {
+
+    /**
+     * The default number of points of a shard on the ring.
+     */
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    /**
+     * The number of points of a shard on the ring, more points spread the keys more evenly.
+     */
+    private final int virtualNodes;
+
+    /**
+     * The ring of every shard count used so far, from the hash of a point to the index of its shard.
+     */
+    private final Map<Integer, NavigableMap<Long, Integer>> rings = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor, with {@link #DEFAULT_VIRTUAL_NODES} points for every shard.
+     */
+    public MySqlConsistentHashStrategy() {
+        this(DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * Consistent hash strategy constructor.
+     * @param       virtualNodes the number of points of a shard on the ring.
+     * @throws      IllegalArgumentException if the number is less than <i>1</i>.
+     */
+    public MySqlConsistentHashStrategy(int virtualNodes)
+    throws IllegalArgumentException {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual nodes is not correct: " + virtualNodes);
+        }
+        this.virtualNodes = virtualNodes;
+    }
+
+    /**
+     * This method is a getter for the virtualNodes variable.
+     * @return      the number of points of a shard on the ring.
+     */
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    /**
+     * {@code shard} returns the shard of the first point of the ring at or after the hash of the key.
+     * @param       shardKey the value of the shard key.
+     * @param       shardCount the number of shards.
+     * @return      the index of the shard.
+     */
+    @Override
+    public int shard(Object shardKey, int shardCount) {
+        NavigableMap<Long, Integer> ring = rings.computeIfAbsent(shardCount, this::newRing);
+        Map.Entry<Long, Integer> point = ring.ceilingEntry(hash(String.valueOf(shardKey)));
+        return ((point != null) ? point : ring.firstEntry()).getValue();
+    }
+
+    /**
+     * Builds the ring of a shard count, the points of a shard do not depend on the number of shards.
+     * @param       shardCount the number of shards.
+     * @return      the ring from the hash of a point to the index of its shard.
+     */
+    private NavigableMap<Long, Integer> newRing(int shardCount) {
+        NavigableMap<Long, Integer> ring = new TreeMap<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                ring.putIfAbsent(hash("shard-" + shard + "#" + node), shard);
+            }
+        }
+        return ring;
+    }
+
+    /**
+     * Hashes a text with the 64-bit FNV-1a hash, followed by a final mix so close texts land far apart on the ring.
+     * @param       text the text to hash.
+     * @return      the hash of the text.
+     */
+    private static long hash(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : text.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= (hash >>> 33);
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= (hash >>> 33);
+        return hash;
+    }
+}
@@ -0,0 +1,258 @@
+package mysql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The MySqlCursor class walks over the rows of a query one by one, as the driver reads them,
+ * created by {@link mysql.MySqlConnector#mysqlGetCursor(String)}.
+ * <ul>
+ *     <li>Only the current row is held in the memory, the heap use does not grow with the number of rows,
+ *     unlike {@link mysql.MySqlConnector#mysqlGet(String)} that reads the whole result into a two-dimensional array.</li>
+ *     <li>Every row is a string array, the values are read by their column index.</li>
+ *     <li>The rows can be read as an {@link java.util.Iterator Iterator} or as a {@link java.util.stream.Stream Stream} with {@link #stream()}.</li>
+ *     <li>The cursor holds a connection of the pool until it is closed, reading the last row closes it automatically.</li>
+ * </ul>
+ * A cursor that is not read to its end must be closed, preferably with a try-with-resources statement.
+ * A cursor that is never closed keeps its connection, statement and result open, which are reported by the leak detection of the pool.
+ * The cursor is not thread-safe, it must be read and closed by one thread at a time.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public final class MySqlCursor
+implements Iterator<String[]>, AutoCloseable {
+
+    /**
+     * The pool the connection is borrowed from.
+     */
+    private final MySqlConnectionPool connectionPool;
+
+    /**
+     * The connection held by the cursor until it is closed.
+     */
+    private final Connection connection;
+
+    /**
+     * The statement of the query, closed together with the cursor.
+     */
+    private final PreparedStatement statement;
+
+    /**
+     * The result of the query, read row by row.
+     */
+    private final ResultSet resultSet;
+
+    /**
+     * The number of columns of the result, resolved once.
+     */
+    private final int columnCount;
+
+    /**
+     * It is used to store the row read ahead by {@link #hasNext()}, {@code null} if there is none.
+     */
+    private String[] nextRow;
+
+    /**
+     * It is used to store whether the next row was already read ahead.
+     */
+    private boolean fetched;
+
+    /**
+     * The number of rows returned by {@link #next()} so far.
+     */
+    private long rowCount;
+
+    /**
+     * It is used to store whether the cursor is closed.
+     */
+    private boolean closed;
+
+    /**
+     * It is used to store whether the connection was lost while reading, it is then dropped from the pool instead of being returned.
+     */
+    private boolean broken;
+
+    /**
+     * Cursor constructor, the cursor takes over the borrowed connection and the executed statement.
+     * The statement and the result are watched by the leak detection of the pool until the cursor is closed.
+     * @param       mysqlInstructions the query of the cursor, it describes the statement and the result in a leak report.
+     * @param       connectionPool the pool the connection is borrowed from.
+     * @param       connection the borrowed connection.
+     * @param       statement the executed statement.
+     * @param       resultSet the result of the statement, positioned before its first row.
+     * @throws      SQLException if the metadata of the result cannot be read.
+     */
+    MySqlCursor(String mysqlInstructions, MySqlConnectionPool connectionPool, Connection connection, PreparedStatement statement,
+                ResultSet resultSet)
+    throws SQLException {
+        this.connectionPool = connectionPool;
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.columnCount = resultSet.getMetaData().getColumnCount();
+        connectionPool.getLeakDetector().track(statement, "PreparedStatement of a cursor [" + mysqlInstructions + "]");
+        connectionPool.getLeakDetector().track(resultSet, "ResultSet of a cursor [" + mysqlInstructions + "]");
+    }
+
+    /**
+     * This method is a getter for the columnCount variable.
+     * @return      the number of columns of every row.
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * This method is a getter for the rowCount variable.
+     * @return      the number of rows returned so far.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * This method is a getter for the closed variable.
+     * @return      {@code true} if the cursor is closed, and its connection was handed back to the pool.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * {@code hasNext} reads the next row ahead, if it was not read yet.
+     * Reaching the end of the result closes the cursor.
+     * @return      {@code true} if there is one more row.
+     * @throws      IllegalStateException if it runs into some MySql error while reading, its cause is the {@link java.sql.SQLException SQLException},
+     *              the cursor is closed then.
+     */
+    @Override
+    public boolean hasNext()
+    throws IllegalStateException {
+        if (!fetched) {
+            nextRow = fetch();
+            fetched = true;
+        }
+        return (nextRow != null);
+    }
+
+    /**
+     * {@code next} returns the next row.
+     * @return      the values of the next row as a string array, in the order of the columns.
+     * @throws      NoSuchElementException if there are no more rows or the cursor is closed.
+     * @throws      IllegalStateException if it runs into some MySql error while reading, its cause is the {@link java.sql.SQLException SQLException}.
+     */
+    @Override
+    public String[] next()
+    throws NoSuchElementException, IllegalStateException {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more rows!");
+        }
+        String[] row = nextRow;
+        nextRow = null;
+        fetched = false;
+        rowCount++;
+        return row;
+    }
+
+    /**
+     * {@code stream} returns the remaining rows as a sequential, ordered stream.
+     * Closing the stream closes the cursor, so the stream should be used in a try-with-resources statement,
+     * unless it is read to its end.
+     * @return      the stream of the remaining rows.
+     */
+    public Stream<String[]> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, (Spliterator.ORDERED | Spliterator.NONNULL)), false)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e.getMessage(), e);
+                    }
+                });
+    }
+
+    /**
+     * {@code close} closes the result and the statement, then hands the connection back to the pool.
+     * <ul>
+     *     <li>Closing a cursor again has no effect.</li>
+     *     <li>With driver streaming, the rows not read yet are still read off the network by the driver while the result is closed,
+     *     the connection cannot be used for anything else until then.</li>
+     *     <li>If the connection was lost while reading or closing, it is dropped from the pool instead of being returned.</li>
+     * </ul>
+     * @throws      SQLException if the result or the statement cannot be closed, the connection is handed back anyway.
+     */
+    @Override
+    public void close()
+    throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        nextRow = null;
+        fetched = true;
+        connectionPool.getLeakDetector().untrack(resultSet);
+        connectionPool.getLeakDetector().untrack(statement);
+        SQLException error = null;
+        try {
+            resultSet.close();
+        } catch (SQLException e) {
+            error = e;
+        }
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            if (error == null) {
+                error = e;
+            } else {
+                error.addSuppressed(e);
+            }
+        }
+        if (broken || ((error != null) && MySqlConnector.isConnectionError(error))) {
+            connectionPool.invalidateConnection(connection);
+        } else {
+            connectionPool.releaseConnection(connection);
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Reads the next row, or closes the cursor at the end of the result.
+     * @return      the values of the next row, or {@code null} if there are no more rows.
+     * @throws      IllegalStateException if it runs into some MySql error while reading.
+     */
+    private String[] fetch()
+    throws IllegalStateException {
+        if (closed) {
+            return null;
+        }
+        try {
+            if (!resultSet.next()) {
+                close();
+                return null;
+            }
+            String[] row = new String[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                row[i] = resultSet.getString((i + 1));
+            }
+            return row;
+        } catch (SQLException e) {
+            broken = MySqlConnector.isConnectionError(e);
+            try {
+                close();
+            } catch (SQLException closeError) {
+                e.addSuppressed(closeError);
+            }
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package mysql;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The MySqlGenericOperation class is the default implementation of {@link mysql.MySqlOperation MySqlOperation},
+ * built on a {@link mysql.MySqlConnector MySqlConnector} and the {@link mysql.MySqlRowMapper MySqlRowMapper} of its type.
+ * <ul>
+ *     <li>The rows of a query are mapped to records or classes by the columns of the same name, without reflection per row.</li>
+ *     <li>An object is written by setting its properties as the parameters of the statement, in the order of their names.
+ *     A record can be written without names, in the order of its components, the properties of any other class must be named,
+ *     because the order of the fields of a class is not defined.</li>
+ *     <li>An array or a collection of objects is written in batches, with one round trip and one commit per batch.</li>
+ * </ul>
+ * <pre>{@code
+ * record User(long id, String userName) {}
+ * MySqlOperation<User> users = new MySqlGenericOperation<>(mysql, User.class);
+ * Collection<User> all = users.mysqlGetToGenericCollection("SELECT id, user_name FROM users_t");
+ * users.mysqlSetToGeneric("INSERT INTO users_t (id, user_name) VALUES (?, ?)", new User(1L, "name"));
+ * users.mysqlSetToGeneric("UPDATE users_t SET user_name = ? WHERE id = ?", new User(1L, "other"), "userName", "id");
+ * }</pre>
+ * @param       <T> the type of the rows.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlGenericOperation<T>
+implements MySqlOperation<T> {
+
+    /**
+     * The connector the statements run on.
+     */
+    private final MySqlConnector mysqlConnector;
+
+    /**
+     * The mapper of the type.
+     */
+    private final MySqlRowMapper<T> mapper;
+
+    /**
+     * Generic operation constructor.
+     * @param       mysqlConnector the connector the statements run on.
+     * @param       type the type of the rows, a record or a class with a no-argument constructor.
+     * @throws      IllegalArgumentException if the type cannot be mapped.
+     */
+    public MySqlGenericOperation(MySqlConnector mysqlConnector, Class<T> type)
+    throws IllegalArgumentException {
+        this.mysqlConnector = mysqlConnector;
+        this.mapper = MySqlRowMapper.of(type);
+    }
+
+    /**
+     * This method is a getter for the mysqlConnector variable.
+     * @return      the connector the statements run on.
+     */
+    public MySqlConnector getMysqlConnector() {
+        return mysqlConnector;
+    }
+
+    /**
+     * This method is a getter for the mapper variable.
+     * @return      the mapper of the type.
+     */
+    public MySqlRowMapper<T> getMapper() {
+        return mapper;
+    }
+
+    /**
+     * {@code mysqlGetToGenericCollection} returns the rows of the query mapped to objects,
+     * through {@link mysql.MySqlConnector#mysqlGetToList(String, Class)}.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @return      the rows of the result as objects, in the order of the result.
+     * @throws      SQLException if it runs into some other MySql error while running.
+     */
+    @Override
+    public Collection<T> mysqlGetToGenericCollection(String mysqlInstructions)
+    throws SQLException {
+        return mysqlConnector.mysqlGetToList(mysqlInstructions, mapper.getType());
+    }
+
+    /**
+     * {@code mysqlSetToGeneric} runs the statement with the components of the record as its parameters, in their order.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @param       update the record whose components are the parameters of the statement.
+     * @throws      SQLException if it runs into some other MySql error while running.
+     * @throws      IllegalArgumentException if the type is not a record, the properties of a class must be named.
+     * @see         #mysqlSetToGeneric(String, Object, String...)
+     */
+    @Override
+    public void mysqlSetToGeneric(String mysqlInstructions, T update)
+    throws SQLException, IllegalArgumentException {
+        mysqlConnector.mysqlSet(mysqlInstructions, mapper.toParameters(update));
+    }
+
+    /**
+     * {@code mysqlSetToGeneric} runs the statement with the named properties of the object as its parameters.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @param       update the object whose properties are the parameters of the statement.
+     * @param       propertyNames the names of the properties in the order of the parameters.
+     * @throws      SQLException if it runs into some other MySql error while running.
+     * @throws      IllegalArgumentException if a name is not a property of the type.
+     */
+    public void mysqlSetToGeneric(String mysqlInstructions, T update, String... propertyNames)
+    throws SQLException, IllegalArgumentException {
+        mysqlConnector.mysqlSet(mysqlInstructions, mapper.toParameters(update, propertyNames));
+    }
+
+    /**
+     * {@code mysqlSetToGeneric} runs the statement for every object of the array, with its properties as the parameters,
+     * batched by {@link #mysqlSetToGenericBatch(String, Collection)}.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @param       update the records whose components are the parameters of the statement.
+     * @throws      SQLException if it runs into some other MySql error while running, the batches before the failing one are written.
+     * @throws      IllegalArgumentException if the type is not a record, the properties of a class must be named.
+     */
+    @Override
+    public void mysqlSetToGeneric(String mysqlInstructions, T[] update)
+    throws SQLException, IllegalArgumentException {
+        mysqlSetToGeneric(mysqlInstructions, Arrays.asList(update));
+    }
+
+    /**
+     * {@code mysqlSetToGeneric} runs the statement for every object of the collection, with its properties as the parameters,
+     * batched by {@link #mysqlSetToGenericBatch(String, Collection)}.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @param       update the records whose components are the parameters of the statement.
+     * @throws      SQLException if it runs into some other MySql error while running, the batches before the failing one are written.
+     * @throws      IllegalArgumentException if the type is not a record, the properties of a class must be named.
+     */
+    @Override
+    public void mysqlSetToGeneric(String mysqlInstructions, Collection<T> update)
+    throws SQLException, IllegalArgumentException {
+        MySqlBatchResult result = mysqlSetToGenericBatch(mysqlInstructions, update);
+        if (!result.isSuccessful()) {
+            throw result.getFailure();
+        }
+    }
+
+    /**
+     * {@code mysqlSetToGenericBatch} runs the statement for every object of the collection, with its properties as the parameters,
+     * in batches of the {@code batchSize} of the connector, through {@link mysql.MySqlConnector#mysqlSetBatch(String, List)}.
+     * Every batch is committed on its own, a failing batch is rolled back and reported in the result.
+     * In a transaction the error of a failing batch is thrown, so the owner of the transaction rolls it back.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @param       update the records whose components are the parameters of the statement, in their order.
+     * @return      the update count of every object, in the order of the collection, and the first object that failed.
+     * @throws      SQLException if the connection is lost, the statement cannot be prepared, or a batch fails in a transaction.
+     * @throws      IllegalArgumentException if the type is not a record, the properties of a class must be named.
+     * @see         #mysqlSetToGenericBatch(String, Collection, String...)
+     */
+    public MySqlBatchResult mysqlSetToGenericBatch(String mysqlInstructions, Collection<T> update)
+    throws SQLException, IllegalArgumentException {
+        List<Object[]> rows = new ArrayList<>(update.size());
+        for (T value : update) {
+            rows.add(mapper.toParameters(value));
+        }
+        return mysqlConnector.mysqlSetBatch(mysqlInstructions, rows);
+    }
+
+    /**
+     * {@code mysqlSetToGenericBatch} runs the statement for every object of the collection, with its named properties as the parameters,
+     * like {@link #mysqlSetToGenericBatch(String, Collection)}. The names are resolved once for the whole collection.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @param       update the objects whose properties are the parameters of the statement.
+     * @param       propertyNames the names of the properties in the order of the parameters.
+     * @return      the update count of every object, in the order of the collection, and the first object that failed.
+     * @throws      SQLException if the connection is lost, the statement cannot be prepared, or a batch fails in a transaction.
+     * @throws      IllegalArgumentException if a name is not a property of the type.
+     */
+    public MySqlBatchResult mysqlSetToGenericBatch(String mysqlInstructions, Collection<T> update, String... propertyNames)
+    throws SQLException, IllegalArgumentException {
+        int[] properties = mapper.properties(propertyNames);
+        List<Object[]> rows = new ArrayList<>(update.size());
+        for (T value : update) {
+            rows.add(mapper.toParameters(value, properties));
+        }
+        return mysqlConnector.mysqlSetBatch(mysqlInstructions, rows);
+    }
+}
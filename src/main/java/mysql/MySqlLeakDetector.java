@@ -0,0 +1,227 @@
+package mysql;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The MySqlLeakDetector class watches connections, statements and result sets that are handed out to callers,
+ * and reports those left open for longer than {@code leakDetectionThreshold} milliseconds.
+ * <ul>
+ *     <li>The pool tracks its borrowed connections and the statements handed out by their statement caches,
+ *     a cursor tracks its statement and result, and a row publisher tracks its streamed result.</li>
+ *     <li>Every tracked resource remembers the stack trace of the code that opened it, so a report points to the leaking caller.</li>
+ *     <li>A background task scans the open resources, a resource is reported once through the {@link System.Logger System.Logger}
+ *     of this class, and it stays in {@link #getLeaks()} until it is closed.</li>
+ *     <li>A threshold of <i>0</i> turns the detection off, tracking then costs nothing.</li>
+ * </ul>
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlLeakDetector
+implements AutoCloseable {
+
+    /**
+     * The {@code Leak} class describes a resource that was left open.
+     */
+    public static final class Leak {
+
+        private final String description;
+        private final Throwable allocation;
+        private final long openedAt;
+        private volatile boolean reported;
+
+        private Leak(String description) {
+            this.description = description;
+            this.allocation = new Throwable("Allocation of " + description);
+            StackTraceElement[] stackTrace = allocation.getStackTrace();
+            int caller = 0;
+            while ((caller < stackTrace.length) && stackTrace[caller].getClassName().startsWith(MySqlLeakDetector.class.getName())) {
+                caller++;
+            }
+            allocation.setStackTrace(Arrays.copyOfRange(stackTrace, caller, stackTrace.length));
+            this.openedAt = System.currentTimeMillis();
+        }
+
+        /**
+         * This method is a getter for the description variable.
+         * @return      the description of the resource.
+         */
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * This method is a getter for the allocation variable.
+         * @return      a throwable carrying the stack trace of the code that opened the resource, starting at the caller of {@code track}.
+         */
+        public Throwable getAllocation() {
+            return allocation;
+        }
+
+        /**
+         * This method is a getter for the openedAt variable.
+         * @return      the time in milliseconds when the resource was opened.
+         */
+        public long getOpenedAt() {
+            return openedAt;
+        }
+
+        @Override
+        public String toString() {
+            return description + " open for " + (System.currentTimeMillis() - openedAt) + " ms";
+        }
+    }
+
+    /**
+     * The logger the leaks are reported to.
+     */
+    private static final System.Logger LOGGER = System.getLogger(MySqlLeakDetector.class.getName());
+
+    /**
+     * The time in milliseconds a resource may stay open before it is reported, <i>0</i> turns the detection off.
+     */
+    private volatile long leakDetectionThreshold;
+
+    /**
+     * The resources currently open, compared by identity.
+     */
+    private final Map<Object, Leak> openResources = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * Runs the periodic scan, created when the detection is turned on.
+     */
+    private ScheduledExecutorService scanner;
+
+    /**
+     * Default constructor, the detection is turned off.
+     */
+    public MySqlLeakDetector() {}
+
+    /**
+     * Leak detector constructor.
+     * @param       leakDetectionThreshold the time in milliseconds a resource may stay open, <i>0</i> turns the detection off.
+     */
+    public MySqlLeakDetector(long leakDetectionThreshold) {
+        setLeakDetectionThreshold(leakDetectionThreshold);
+    }
+
+    /**
+     * This method is a getter for the leakDetectionThreshold variable.
+     * @return      the time in milliseconds a resource may stay open before it is reported.
+     */
+    public long getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    /**
+     * This method is a setter for the leakDetectionThreshold variable.
+     * Turning the detection on starts the background scan, which runs at a quarter of the threshold, at least every second.
+     * @param       leakDetectionThreshold the time in milliseconds a resource may stay open, <i>0</i> turns the detection off.
+     * @throws      IllegalArgumentException if the threshold is negative.
+     */
+    public synchronized void setLeakDetectionThreshold(long leakDetectionThreshold)
+    throws IllegalArgumentException {
+        if (leakDetectionThreshold < 0L) {
+            throw new IllegalArgumentException("Leak detection threshold is not correct: " + leakDetectionThreshold);
+        }
+        this.leakDetectionThreshold = leakDetectionThreshold;
+        if (scanner != null) {
+            scanner.shutdownNow();
+            scanner = null;
+        }
+        if (leakDetectionThreshold > 0L) {
+            long period = Math.max(1L, Math.min(1_000L, leakDetectionThreshold / 4L));
+            scanner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "mysql-leak-detector");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scanner.scheduleWithFixedDelay(this::scan, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            openResources.clear();
+        }
+    }
+
+    /**
+     * This method returns whether the detection is turned on.
+     * @return      {@code true} if resources are tracked.
+     */
+    public boolean isEnabled() {
+        return leakDetectionThreshold > 0L;
+    }
+
+    /**
+     * {@code track} starts watching a resource handed out to a caller.
+     * It records the stack trace of the caller, if the detection is turned on.
+     * @param       resource the connection, statement or result set.
+     * @param       description describes the resource in the report.
+     */
+    public void track(Object resource, String description) {
+        if (leakDetectionThreshold > 0L) {
+            openResources.put(resource, new Leak(description));
+        }
+    }
+
+    /**
+     * {@code untrack} stops watching a resource, because it was closed or handed back.
+     * @param       resource the resource given to {@link #track(Object, String)}.
+     */
+    public void untrack(Object resource) {
+        if (!openResources.isEmpty()) {
+            Leak leak = openResources.remove(resource);
+            if ((leak != null) && leak.reported) {
+                LOGGER.log(System.Logger.Level.INFO, "Previously reported leak was closed: {0}", leak);
+            }
+        }
+    }
+
+    /**
+     * This method returns the resources open for longer than the threshold.
+     * @return      the leaks found so far and still open.
+     */
+    public List<Leak> getLeaks() {
+        long now = System.currentTimeMillis();
+        long threshold = leakDetectionThreshold;
+        List<Leak> leaks = new ArrayList<>();
+        synchronized (openResources) {
+            for (Leak leak : openResources.values()) {
+                if ((threshold > 0L) && ((now - leak.openedAt) >= threshold)) {
+                    leaks.add(leak);
+                }
+            }
+        }
+        return leaks;
+    }
+
+    /**
+     * {@code scan} reports every resource that became a leak since the previous scan.
+     * It runs periodically on a background thread, but it can also be called directly.
+     */
+    public void scan() {
+        for (Leak leak : getLeaks()) {
+            if (!leak.reported) {
+                leak.reported = true;
+                LOGGER.log(System.Logger.Level.WARNING, "Possible resource leak: " + leak, leak.allocation);
+            }
+        }
+    }
+
+    /**
+     * {@code close} stops the background scan and forgets every tracked resource.
+     */
+    @Override
+    public synchronized void close() {
+        if (scanner != null) {
+            scanner.shutdownNow();
+            scanner = null;
+        }
+        openResources.clear();
+    }
+}
@@ -0,0 +1,76 @@
+package mysql;
+
+import java.sql.SQLWarning;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The MySqlLoadResult class reports the outcome of a {@code LOAD DATA LOCAL INFILE},
+ * created by {@link mysql.MySqlConnector#mysqlLoadData(String, String[], java.util.Iterator) mysqlLoadData()}.
+ * <ul>
+ *     <li>The loaded rows are the update count of the statement, rows skipped by a duplicate key are not counted.</li>
+ *     <li>The warnings are the ones the server reported for the statement, for example a truncated value or a missing column,
+ *     the server reports at most {@code max_error_count} of them, while the warning count is the full number.</li>
+ * </ul>
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public final class MySqlLoadResult {
+
+    /**
+     * The number of rows loaded.
+     */
+    private final long loadedRows;
+
+    /**
+     * The warnings reported by the server.
+     */
+    private final List<SQLWarning> warnings;
+
+    /**
+     * Load result constructor.
+     * @param       loadedRows the number of rows loaded.
+     * @param       warning the first warning of the chain reported by the server, {@code null} if there is none.
+     */
+    MySqlLoadResult(long loadedRows, SQLWarning warning) {
+        List<SQLWarning> list = new ArrayList<>();
+        for (SQLWarning next = warning; next != null; next = next.getNextWarning()) {
+            list.add(next);
+        }
+        this.loadedRows = loadedRows;
+        this.warnings = Collections.unmodifiableList(list);
+    }
+
+    /**
+     * This method is a getter for the loadedRows variable.
+     * @return      the number of rows loaded.
+     */
+    public long getLoadedRows() {
+        return loadedRows;
+    }
+
+    /**
+     * This method is a getter for the warnings variable.
+     * @return      the unmodifiable list of the warnings reported by the server, in the order of the server.
+     */
+    public List<SQLWarning> getWarnings() {
+        return warnings;
+    }
+
+    /**
+     * This method returns the number of warnings reported by the server.
+     * @return      the size of the warnings list.
+     */
+    public int getWarningCount() {
+        return warnings.size();
+    }
+
+    /**
+     * This method tells whether the server reported any warning.
+     * @return      {@code true} if there is no warning.
+     */
+    public boolean isClean() {
+        return warnings.isEmpty();
+    }
+}
@@ -0,0 +1,645 @@
+package mysql;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The MySqlOffHeapResult class holds a query result column by column outside of the Java heap, in direct {@link java.nio.ByteBuffer ByteBuffer}s,
+ * created by {@link mysql.MySqlConnector#mysqlGetOffHeap(String)}.
+ * <ul>
+ *     <li>The columns are stored like in a {@link mysql.MySqlColumnarResult MySqlColumnarResult}, see {@link mysql.MySqlColumnarResult.ColumnType ColumnType},
+ *     every fixed-width column is one buffer of 4 or 8 bytes per row in the native byte order.</li>
+ *     <li>The text columns are stored as UTF-8 bytes in one buffer, with the start offset of every row in another one.</li>
+ *     <li>The {@code NULL} values are marked in a bitmap buffer of every column.</li>
+ *     <li>However large the result is, the heap holds only a few buffer objects, so the garbage collector has nothing to trace or copy.</li>
+ *     <li>The values are read straight from the buffers, the bytes of a text value are returned as a view without copying them.</li>
+ * </ul>
+ * The memory must be released explicitly with {@link #close()}, preferably with a try-with-resources statement.
+ * The result can be read by several threads at once, {@link #close()} waits for the reads in progress,
+ * and a read after it throws an {@link java.lang.IllegalStateException IllegalStateException}.<br>
+ * A view returned by {@link #getBytes(int, int)} stays readable as long as it is referenced, even after {@link #close()}:
+ * once a view was handed out, closing only drops the buffers of the result,
+ * and their memory is freed by the garbage collector after the last view is no longer referenced.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public final class MySqlOffHeapResult
+implements AutoCloseable {
+
+    /**
+     * The number of rows the buffers of the columns are created for, they grow by doubling.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The method freeing the memory of a direct buffer at once, {@code null} if it is not available,
+     * the memory is then freed by the garbage collector, after the buffer is no longer referenced.
+     */
+    private static final Method INVOKE_CLEANER;
+
+    /**
+     * The instance the {@code INVOKE_CLEANER} method is called on.
+     */
+    private static final Object UNSAFE;
+
+    static {
+        Method invokeCleaner = null;
+        Object unsafe = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            invokeCleaner = null;
+        }
+        INVOKE_CLEANER = invokeCleaner;
+        UNSAFE = unsafe;
+    }
+
+    /**
+     * The column names of the result.
+     */
+    private final String[] columnNames;
+
+    /**
+     * The index of every column name.
+     */
+    private final Map<String, Integer> columnIndexes;
+
+    /**
+     * The storage type of every column.
+     */
+    private final MySqlColumnarResult.ColumnType[] columnTypes;
+
+    /**
+     * The values of every column, fixed-width values or the UTF-8 bytes of the text values.
+     */
+    private final ByteBuffer[] values;
+
+    /**
+     * The start offset of every row of the text columns, followed by the end of the last row, {@code null} for the other columns.
+     */
+    private final ByteBuffer[] offsets;
+
+    /**
+     * The bitmap of the {@code NULL} values of every column, a set bit marks a {@code NULL} row.
+     */
+    private final ByteBuffer[] nulls;
+
+    /**
+     * The number of rows.
+     */
+    private final int rowCount;
+
+    /**
+     * It is used to store whether the memory of the result was released.
+     */
+    private volatile boolean released;
+
+    /**
+     * It is used to store whether a view of the memory was returned by {@link #getBytes(int, int)},
+     * the memory is then not freed at once, the view may still be read.
+     */
+    private volatile boolean viewed;
+
+    /**
+     * The reads hold its read lock, {@link #close()} takes its write lock, so the memory is never released during a read.
+     */
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * Off-heap result constructor.
+     * @param       columnNames the column names.
+     * @param       columnTypes the storage type of every column.
+     * @param       values the values of every column.
+     * @param       offsets the row offsets of the text columns.
+     * @param       nulls the bitmap of the {@code NULL} values of every column.
+     * @param       rowCount the number of rows.
+     */
+    private MySqlOffHeapResult(String[] columnNames, MySqlColumnarResult.ColumnType[] columnTypes,
+                               ByteBuffer[] values, ByteBuffer[] offsets, ByteBuffer[] nulls, int rowCount) {
+        this.columnNames = columnNames;
+        this.columnTypes = columnTypes;
+        this.values = values;
+        this.offsets = offsets;
+        this.nulls = nulls;
+        this.rowCount = rowCount;
+        this.columnIndexes = new HashMap<>();
+        for (int i = 0; i < columnNames.length; i++) {
+            columnIndexes.putIfAbsent(columnNames[i], i);
+        }
+    }
+
+    /**
+     * {@code read} reads every row of a result set into off-heap columns.
+     * <ul>
+     *     <li>The metadata is resolved once, the storage type of every column is chosen before the first row.</li>
+     *     <li>Every value is read by its column index with the getter of its type and written straight into the buffer of its column.</li>
+     *     <li>A full buffer is replaced by one twice as large, the memory of the old one is released at once.</li>
+     * </ul>
+     * If the reading fails, the memory taken so far is released.
+     * @param       resultSet the result set positioned before its first row.
+     * @return      the off-heap columns of the result.
+     * @throws      SQLException if it runs into some MySql error while reading.
+     */
+    static MySqlOffHeapResult read(ResultSet resultSet)
+    throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        String[] columnNames = new String[columnCount];
+        MySqlColumnarResult.ColumnType[] columnTypes = new MySqlColumnarResult.ColumnType[columnCount];
+        ByteBuffer[] values = new ByteBuffer[columnCount];
+        ByteBuffer[] offsets = new ByteBuffer[columnCount];
+        ByteBuffer[] nulls = new ByteBuffer[columnCount];
+        int row = 0;
+        try {
+            for (int i = 0; i < columnCount; i++) {
+                columnNames[i] = metaData.getColumnName((i + 1));
+                columnTypes[i] = MySqlColumnarResult.columnType(metaData.getColumnType((i + 1)), metaData.isSigned((i + 1)));
+                values[i] = allocate(INITIAL_CAPACITY * width(columnTypes[i]));
+                nulls[i] = allocate((INITIAL_CAPACITY >>> 3));
+                if (columnTypes[i] == MySqlColumnarResult.ColumnType.STRING) {
+                    offsets[i] = allocate(((INITIAL_CAPACITY + 1) * Integer.BYTES));
+                    offsets[i].putInt(0);
+                }
+            }
+            while (resultSet.next()) {
+                for (int i = 0; i < columnCount; i++) {
+                    int index = i + 1;
+                    switch (columnTypes[i]) {
+                        case INT:
+                            values[i] = ensureCapacity(values[i], Integer.BYTES);
+                            values[i].putInt(resultSet.getInt(index));
+                            break;
+                        case LONG:
+                            values[i] = ensureCapacity(values[i], Long.BYTES);
+                            values[i].putLong(resultSet.getLong(index));
+                            break;
+                        case DOUBLE:
+                            values[i] = ensureCapacity(values[i], Double.BYTES);
+                            values[i].putDouble(resultSet.getDouble(index));
+                            break;
+                        case TIMESTAMP:
+                            Timestamp timestamp = resultSet.getTimestamp(index);
+                            values[i] = ensureCapacity(values[i], Long.BYTES);
+                            values[i].putLong((timestamp != null) ? timestamp.getTime() : 0L);
+                            break;
+                        default:
+                            String value = resultSet.getString(index);
+                            if (value != null) {
+                                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                                values[i] = ensureCapacity(values[i], bytes.length);
+                                values[i].put(bytes);
+                            }
+                            offsets[i] = ensureCapacity(offsets[i], Integer.BYTES);
+                            offsets[i].putInt(values[i].position());
+                            break;
+                    }
+                    if (resultSet.wasNull()) {
+                        int nullByte = row >>> 3;
+                        if (nullByte >= nulls[i].capacity()) {
+                            int capacity = nulls[i].capacity();
+                            nulls[i] = ensureCapacity(nulls[i].position(capacity), (nullByte + 1 - capacity));
+                        }
+                        nulls[i].put(nullByte, (byte) (nulls[i].get(nullByte) | (1 << (row & 7))));
+                    }
+                }
+                row++;
+            }
+        } catch (SQLException | RuntimeException | Error e) {
+            release(values);
+            release(offsets);
+            release(nulls);
+            throw e;
+        }
+        return new MySqlOffHeapResult(columnNames, columnTypes, values, offsets, nulls, row);
+    }
+
+    /**
+     * This method is a getter for the rowCount variable.
+     * @return      the number of rows.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * This method returns the number of columns.
+     * @return      the number of columns of the result.
+     */
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    /**
+     * This method returns the name of a column.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      the name of the column.
+     * @throws      IndexOutOfBoundsException if there is no such column.
+     */
+    public String getColumnName(int column)
+    throws IndexOutOfBoundsException {
+        return columnNames[column];
+    }
+
+    /**
+     * This method returns the index of a column by its name.
+     * @param       columnName the name of the column.
+     * @return      the index of the column, from <i>0</i>.
+     * @throws      IllegalArgumentException if there is no such column.
+     */
+    public int getColumnIndex(String columnName)
+    throws IllegalArgumentException {
+        Integer column = columnIndexes.get(columnName);
+        if (column == null) {
+            throw new IllegalArgumentException("Column not found: " + columnName);
+        }
+        return column;
+    }
+
+    /**
+     * This method returns the storage type of a column.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      the storage type of the column.
+     * @throws      IndexOutOfBoundsException if there is no such column.
+     */
+    public MySqlColumnarResult.ColumnType getColumnType(int column)
+    throws IndexOutOfBoundsException {
+        return columnTypes[column];
+    }
+
+    /**
+     * This method returns the off-heap memory held by the result.
+     * @return      the number of bytes of the buffers, <i>0</i> once released.
+     */
+    public long getMemorySize() {
+        long stamp = lock.readLock();
+        try {
+            if (released) {
+                return 0L;
+            }
+            long size = 0L;
+            for (int i = 0; i < columnNames.length; i++) {
+                size += values[i].capacity() + nulls[i].capacity();
+                if (offsets[i] != null) {
+                    size += offsets[i].capacity();
+                }
+            }
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * This method is a getter for the released variable.
+     * @return      {@code true} if the memory of the result was released.
+     */
+    public boolean isReleased() {
+        return released;
+    }
+
+    /**
+     * This method tells whether a value is SQL {@code NULL}.
+     * @param       row the index of the row, from <i>0</i>.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      {@code true} if the value is {@code NULL}.
+     * @throws      IndexOutOfBoundsException if there is no such row or column.
+     * @throws      IllegalStateException if the result was released.
+     */
+    public boolean isNull(int row, int column)
+    throws IndexOutOfBoundsException, IllegalStateException {
+        long stamp = lock.readLock();
+        try {
+            checkRow(row);
+            return readNull(row, column);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * This method returns a value of an {@link mysql.MySqlColumnarResult.ColumnType#INT INT} column.
+     * @param       row the index of the row, from <i>0</i>.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      the value, <i>0</i> for {@code NULL}.
+     * @throws      IndexOutOfBoundsException if there is no such row or column.
+     * @throws      IllegalStateException if the column is not an {@code INT} column, or the result was released.
+     */
+    public int getInt(int row, int column)
+    throws IndexOutOfBoundsException, IllegalStateException {
+        long stamp = lock.readLock();
+        try {
+            checkRow(row);
+            checkType(column, MySqlColumnarResult.ColumnType.INT);
+            return values[column].getInt((row * Integer.BYTES));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * This method returns a value of an {@link mysql.MySqlColumnarResult.ColumnType#INT INT},
+     * {@link mysql.MySqlColumnarResult.ColumnType#LONG LONG} or {@link mysql.MySqlColumnarResult.ColumnType#TIMESTAMP TIMESTAMP} column.
+     * @param       row the index of the row, from <i>0</i>.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      the value, epoch milliseconds for a {@code TIMESTAMP} column, <i>0</i> for {@code NULL}.
+     * @throws      IndexOutOfBoundsException if there is no such row or column.
+     * @throws      IllegalStateException if the column is not an integer or timestamp column, or the result was released.
+     */
+    public long getLong(int row, int column)
+    throws IndexOutOfBoundsException, IllegalStateException {
+        long stamp = lock.readLock();
+        try {
+            checkRow(row);
+            return readLong(row, column);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * This method returns a value of a numeric column, {@link mysql.MySqlColumnarResult.ColumnType#INT INT},
+     * {@link mysql.MySqlColumnarResult.ColumnType#LONG LONG} or {@link mysql.MySqlColumnarResult.ColumnType#DOUBLE DOUBLE}.
+     * @param       row the index of the row, from <i>0</i>.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      the value, <i>0</i> for {@code NULL}.
+     * @throws      IndexOutOfBoundsException if there is no such row or column.
+     * @throws      IllegalStateException if the column is not a numeric column, or the result was released.
+     */
+    public double getDouble(int row, int column)
+    throws IndexOutOfBoundsException, IllegalStateException {
+        long stamp = lock.readLock();
+        try {
+            checkRow(row);
+            switch (columnTypes[column]) {
+                case INT:
+                    return values[column].getInt((row * Integer.BYTES));
+                case LONG:
+                    return values[column].getLong((row * Long.BYTES));
+                case DOUBLE:
+                    return values[column].getDouble((row * Double.BYTES));
+                default:
+                    throw new IllegalStateException("Column is not numeric: " + columnNames[column]);
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * This method returns the UTF-8 bytes of a value of a {@link mysql.MySqlColumnarResult.ColumnType#STRING STRING} column without copying them.
+     * @param       row the index of the row, from <i>0</i>.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      a read-only view of the bytes, empty for {@code NULL}. It keeps the memory of the column alive while it is referenced,
+     *              so it can be read even after {@link #close()}, which then leaves the memory to the garbage collector.
+     * @throws      IndexOutOfBoundsException if there is no such row or column.
+     * @throws      IllegalStateException if the column is not a {@code STRING} column, or the result was released.
+     */
+    public ByteBuffer getBytes(int row, int column)
+    throws IndexOutOfBoundsException, IllegalStateException {
+        long stamp = lock.readLock();
+        try {
+            checkRow(row);
+            checkType(column, MySqlColumnarResult.ColumnType.STRING);
+            viewed = true;
+            return readBytes(row, column);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * This method returns a value of any column as a string, the only accessor that creates an object on the heap,
+     * the primitive values are formatted, a {@code TIMESTAMP} value like {@link java.sql.Timestamp#toString()}.
+     * @param       row the index of the row, from <i>0</i>.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      the value as a string, {@code null} for {@code NULL}.
+     * @throws      IndexOutOfBoundsException if there is no such row or column.
+     * @throws      IllegalStateException if the result was released.
+     */
+    public String getString(int row, int column)
+    throws IndexOutOfBoundsException, IllegalStateException {
+        long stamp = lock.readLock();
+        try {
+            checkRow(row);
+            if (readNull(row, column)) {
+                return null;
+            }
+            switch (columnTypes[column]) {
+                case INT:
+                    return Integer.toString(values[column].getInt((row * Integer.BYTES)));
+                case LONG:
+                    return Long.toString(readLong(row, column));
+                case DOUBLE:
+                    return Double.toString(values[column].getDouble((row * Double.BYTES)));
+                case TIMESTAMP:
+                    return new Timestamp(readLong(row, column)).toString();
+                default:
+                    return StandardCharsets.UTF_8.decode(readBytes(row, column)).toString();
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * {@code close} releases the off-heap memory of the result, after the reads in progress finished.
+     * <ul>
+     *     <li>If no view was returned by {@link #getBytes(int, int)}, the memory is freed at once, instead of waiting for the garbage collector.</li>
+     *     <li>Otherwise the buffers are only dropped, and the memory is freed by the garbage collector after the last view is no longer referenced.</li>
+     * </ul>
+     * Closing a released result again has no effect, reading it throws an {@link java.lang.IllegalStateException IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        long stamp = lock.writeLock();
+        try {
+            if (released) {
+                return;
+            }
+            released = true;
+            boolean free = !viewed;
+            release(values, free);
+            release(offsets, free);
+            release(nulls, free);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of bytes of a value of a column in its values buffer, for the first allocation.
+     * @param       columnType the storage type of the column.
+     * @return      the number of bytes of a value, an estimate for the text columns.
+     */
+    private static int width(MySqlColumnarResult.ColumnType columnType) {
+        switch (columnType) {
+            case INT:
+                return Integer.BYTES;
+            case LONG:
+            case DOUBLE:
+            case TIMESTAMP:
+                return Long.BYTES;
+            default:
+                return 16;
+        }
+    }
+
+    /**
+     * Allocates a direct buffer in the native byte order.
+     * @param       capacity the number of bytes.
+     * @return      the buffer, filled with zeros.
+     */
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Returns a buffer that has room for a number of further bytes after its position,
+     * a new buffer of twice the size, or more if needed, holding the written bytes when the old one is full.
+     * @param       buffer the buffer being written.
+     * @param       bytes the number of bytes to be written.
+     * @return      the buffer to write into, at the same position.
+     * @throws      IllegalStateException if the column would not fit in <i>2 GB</i>.
+     */
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int bytes)
+    throws IllegalStateException {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+        long needed = (long) buffer.position() + bytes;
+        long capacity = Math.max(needed, ((long) buffer.capacity() << 1));
+        if (needed > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Column is larger than 2 GB!");
+        }
+        ByteBuffer grown = allocate((int) Math.min(capacity, Integer.MAX_VALUE));
+        grown.put(buffer.flip());
+        free(buffer);
+        return grown;
+    }
+
+    /**
+     * Checks the index of a row and that the result is not released.
+     * @param       row the index of the row.
+     * @throws      IndexOutOfBoundsException if there is no such row.
+     * @throws      IllegalStateException if the result was released.
+     */
+    private void checkRow(int row)
+    throws IndexOutOfBoundsException, IllegalStateException {
+        if (released) {
+            throw new IllegalStateException("Result is released!");
+        }
+        if ((row < 0) || (row >= rowCount)) {
+            throw new IndexOutOfBoundsException("Row is not correct: " + row);
+        }
+    }
+
+    /**
+     * Checks the storage type of a column.
+     * @param       column the index of the column.
+     * @param       columnType the expected storage type.
+     * @throws      IllegalStateException if the column has another type.
+     */
+    private void checkType(int column, MySqlColumnarResult.ColumnType columnType)
+    throws IllegalStateException {
+        if (columnTypes[column] != columnType) {
+            throw new IllegalStateException("Column is not " + columnType + ": " + columnNames[column]);
+        }
+    }
+
+    /**
+     * Reads whether a value is {@code NULL}, called while holding the read lock.
+     * @param       row the index of the row.
+     * @param       column the index of the column.
+     * @return      {@code true} if the value is {@code NULL}.
+     */
+    private boolean readNull(int row, int column) {
+        ByteBuffer bitmap = nulls[column];
+        int index = row >>> 3;
+        return (index < bitmap.capacity()) && ((bitmap.get(index) & (1 << (row & 7))) != 0);
+    }
+
+    /**
+     * Reads a value of an integer or timestamp column, called while holding the read lock.
+     * @param       row the index of the row.
+     * @param       column the index of the column.
+     * @return      the value.
+     * @throws      IllegalStateException if the column is not an integer or timestamp column.
+     */
+    private long readLong(int row, int column)
+    throws IllegalStateException {
+        switch (columnTypes[column]) {
+            case INT:
+                return values[column].getInt((row * Integer.BYTES));
+            case LONG:
+            case TIMESTAMP:
+                return values[column].getLong((row * Long.BYTES));
+            default:
+                throw new IllegalStateException("Column is not a long: " + columnNames[column]);
+        }
+    }
+
+    /**
+     * Reads the bytes of a value of a text column as a view, called while holding the read lock.
+     * @param       row the index of the row.
+     * @param       column the index of the column.
+     * @return      a read-only view of the bytes.
+     */
+    private ByteBuffer readBytes(int row, int column) {
+        int start = offsets[column].getInt((row * Integer.BYTES));
+        int end = offsets[column].getInt(((row + 1) * Integer.BYTES));
+        return values[column].slice(start, (end - start)).asReadOnlyBuffer();
+    }
+
+    /**
+     * Releases the memory of every buffer of an array.
+     * @param       buffers the buffers, the {@code null} elements are skipped.
+     */
+    private static void release(ByteBuffer[] buffers) {
+        release(buffers, true);
+    }
+
+    /**
+     * Drops every buffer of an array, and releases their memory at once if it is asked for.
+     * @param       buffers the buffers, the {@code null} elements are skipped.
+     * @param       free {@code true} to free the memory at once, {@code false} to leave it to the garbage collector.
+     */
+    private static void release(ByteBuffer[] buffers, boolean free) {
+        for (int i = 0; i < buffers.length; i++) {
+            if (buffers[i] != null) {
+                if (free) {
+                    free(buffers[i]);
+                }
+                buffers[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Releases the memory of a direct buffer at once, if the runtime allows it,
+     * otherwise the memory is freed by the garbage collector once the buffer is no longer referenced.
+     * @param       buffer the direct buffer, it must not be used afterwards.
+     */
+    private static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+        }
+    }
+}
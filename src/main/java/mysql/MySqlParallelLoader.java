@@ -0,0 +1,564 @@
+package mysql;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * The MySqlParallelLoader class loads a stream of rows into a table over several connections at once,
+ * since one connection uses only a fraction of what the server can take in.
+ * <ul>
+ *     <li>The rows are split into {@code workers} partitions, every partition is written by a thread of its own,
+ *     in chunks of {@code chunkSize} rows, with the multi-row {@code INSERT} statements of
+ *     {@link mysql.MySqlConnector#mysqlInsertRows(String, String[], Iterator) mysqlInsertRows()}.
+ *     Every chunk borrows a connection from the pool of the connector, so the pool should hold at least {@code workers} connections.</li>
+ *     <li>Without a partition column the chunks are dealt to the partitions in turn, which spreads the load evenly.
+ *     With a partition column, see {@link #setPartitionColumn(int)}, the rows of the same key always go to the same partition,
+ *     and a partition writes its rows in the order of the input, so the rows of a key are written in order.</li>
+ *     <li>Every partition has a small queue of chunks, the input is read only as fast as the partitions write.</li>
+ *     <li>When a chunk fails, its partition stops and keeps the error, the rows left of the partition are skipped,
+ *     while the other partitions go on. The outcome of every partition is in the returned {@link Result Result}.</li>
+ *     <li>The loaded rows and the rows per second can be read while the load runs, from any thread,
+ *     and a progress listener is called after every written chunk.</li>
+ * </ul>
+ * <pre>{@code
+ * MySqlParallelLoader loader = new MySqlParallelLoader(mysql, "events_t", new String[]{"sensor", "value"}, 4);
+ * loader.setPartitionColumn(0);
+ * MySqlParallelLoader.Result result = loader.load(rows);
+ * }</pre>
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlParallelLoader {
+
+    /**
+     * Numbers the worker threads.
+     */
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    /**
+     * The number of chunks a partition queues before the input waits.
+     */
+    private static final int QUEUED_CHUNKS = 2;
+
+    /**
+     * The connector the rows are written with.
+     */
+    private final MySqlConnector mysqlConnector;
+
+    /**
+     * The name of the table.
+     */
+    private final String table;
+
+    /**
+     * The names of the columns the values of a row are inserted into.
+     */
+    private final String[] columns;
+
+    /**
+     * The number of partitions, and of the threads writing them.
+     */
+    private final int workers;
+
+    /**
+     * The number of rows written together.
+     */
+    private int chunkSize = 1_000;
+
+    /**
+     * The index of the column whose value decides the partition of a row, <i>-1</i> deals the chunks in turn.
+     */
+    private int partitionColumn = -1;
+
+    /**
+     * It is used to store the listener called with the number of loaded rows after every written chunk, {@code null} if there is none.
+     */
+    private LongConsumer progressListener;
+
+    /**
+     * Counts the rows written by the running or the last load.
+     */
+    private final LongAdder loadedRows = new LongAdder();
+
+    /**
+     * The start of the running or the last load, in nanoseconds.
+     */
+    private volatile long startTime = 0L;
+
+    /**
+     * The end of the last load in nanoseconds, <i>0</i> while it runs.
+     */
+    private volatile long endTime = 0L;
+
+    /**
+     * Parallel loader constructor.
+     * @param       mysqlConnector the connector the rows are written with.
+     * @param       table the name of the table.
+     * @param       columns the names of the columns the values of a row are inserted into.
+     * @param       workers the number of partitions, and of the threads writing them.
+     * @throws      IllegalArgumentException if there are no columns, or the number of workers is less than <i>1</i>.
+     */
+    public MySqlParallelLoader(MySqlConnector mysqlConnector, String table, String[] columns, int workers)
+    throws IllegalArgumentException {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("Columns are empty!");
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException("Workers are not correct: " + workers);
+        }
+        this.mysqlConnector = mysqlConnector;
+        this.table = table;
+        this.columns = columns.clone();
+        this.workers = workers;
+    }
+
+    /**
+     * This method is a getter for the workers variable.
+     * @return      the number of partitions, and of the threads writing them.
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * This method is a getter for the chunkSize variable.
+     * @return      the number of rows written together.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * This method is a getter for the partitionColumn variable.
+     * @return      the index of the column whose value decides the partition of a row, <i>-1</i> if the chunks are dealt in turn.
+     */
+    public int getPartitionColumn() {
+        return partitionColumn;
+    }
+
+    /**
+     * This method returns the number of rows written by the running or the last load.
+     * @return      the number of loaded rows.
+     */
+    public long getLoadedRows() {
+        return loadedRows.sum();
+    }
+
+    /**
+     * This method returns the rate of the running or the last load.
+     * @return      the rows written per second, <i>0</i> before the first load.
+     */
+    public double getRowsPerSecond() {
+        long start = startTime;
+        if (start == 0L) {
+            return 0.0;
+        }
+        long end = (endTime == 0L) ? System.nanoTime() : endTime;
+        return rate(loadedRows.sum(), (end - start));
+    }
+
+    /**
+     * This method is a setter for the chunkSize variable.
+     * @param       chunkSize the number of rows written together.
+     * @throws      IllegalArgumentException if the number is less than <i>1</i>.
+     */
+    public void setChunkSize(int chunkSize)
+    throws IllegalArgumentException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size is not correct: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * This method is a setter for the partitionColumn variable.
+     * The rows of the same value in the column go to the same partition, so they are written in the order of the input.
+     * @param       partitionColumn the index of the column whose value decides the partition of a row, <i>-1</i> deals the chunks in turn.
+     * @throws      IllegalArgumentException if there is no such column.
+     */
+    public void setPartitionColumn(int partitionColumn)
+    throws IllegalArgumentException {
+        if ((partitionColumn < -1) || (partitionColumn >= columns.length)) {
+            throw new IllegalArgumentException("Partition column is not correct: " + partitionColumn);
+        }
+        this.partitionColumn = partitionColumn;
+    }
+
+    /**
+     * This method is a setter for the progressListener variable.
+     * @param       progressListener the listener called on a worker thread with the number of loaded rows after every written chunk,
+     *              {@code null} removes it.
+     */
+    public void setProgressListener(LongConsumer progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * {@code load} loads a stream of rows.
+     * @param       rows the rows, every row has a value for each column.
+     * @return      the outcome of every partition.
+     * @throws      IllegalArgumentException if a row does not have a value for each column.
+     * @see         #load(Iterator)
+     */
+    public Result load(Stream<Object[]> rows)
+    throws IllegalArgumentException {
+        return load(rows.iterator());
+    }
+
+    /**
+     * {@code load} splits the rows into partitions and writes the partitions at the same time, it returns when every partition finished.
+     * If the input fails, the chunks already handed to the partitions are written and the error is thrown.
+     * Every partition is ended and waited for, also when the load stops by an error or an interrupt.
+     * @param       rows the rows, every row has a value for each column.
+     * @return      the outcome of every partition.
+     * @throws      IllegalArgumentException if a row does not have a value for each column.
+     * @throws      IllegalStateException if the thread is interrupted while it waits for a partition.
+     */
+    public synchronized Result load(Iterator<Object[]> rows)
+    throws IllegalArgumentException, IllegalStateException {
+        loadedRows.reset();
+        endTime = 0L;
+        startTime = System.nanoTime();
+        Worker[] running = new Worker[workers];
+        List<List<Object[]>> chunks = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            running[i] = new Worker(i);
+            running[i].start();
+            chunks.add(new ArrayList<>(chunkSize));
+        }
+        int turn = 0;
+        try {
+            while (rows.hasNext()) {
+                Object[] row = rows.next();
+                if (row.length != columns.length) {
+                    throw new IllegalArgumentException("Row has " + row.length + " values for " + columns.length + " columns!");
+                }
+                int partition = (partitionColumn < 0) ? turn : Math.floorMod(Objects.hashCode(row[partitionColumn]), workers);
+                List<Object[]> chunk = chunks.get(partition);
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    running[partition].hand(chunk);
+                    chunks.set(partition, new ArrayList<>(chunkSize));
+                    turn = (turn + 1) % workers;
+                }
+            }
+            for (int i = 0; i < workers; i++) {
+                if (!chunks.get(i).isEmpty()) {
+                    running[i].hand(chunks.get(i));
+                }
+            }
+        } finally {
+            for (Worker worker : running) {
+                worker.end();
+            }
+            for (Worker worker : running) {
+                worker.await();
+            }
+            endTime = System.nanoTime();
+        }
+        List<PartitionResult> partitions = new ArrayList<>(workers);
+        for (Worker worker : running) {
+            partitions.add(new PartitionResult(worker.partition, worker.writtenRows, worker.skippedRows, worker.failure));
+        }
+        return new Result(partitions, (endTime - startTime));
+    }
+
+    /**
+     * {@code rate} returns the rows per second.
+     * @param       rows the number of rows.
+     * @param       nanos the time in nanoseconds.
+     * @return      the rows per second, <i>0</i> if no time passed.
+     */
+    private static double rate(long rows, long nanos) {
+        return (nanos <= 0L) ? 0.0 : ((rows * 1_000_000_000.0) / nanos);
+    }
+
+    /**
+     * {@code Worker} is the thread writing the chunks of a partition in the order they are handed over.
+     */
+    private final class Worker
+    extends Thread {
+
+        /**
+         * The index of the partition.
+         */
+        private final int partition;
+
+        /**
+         * The chunks waiting to be written, an empty chunk ends the partition.
+         */
+        private final BlockingQueue<List<Object[]>> queue = new ArrayBlockingQueue<>(QUEUED_CHUNKS);
+
+        /**
+         * The number of rows written, read after the thread ended.
+         */
+        private long writtenRows = 0L;
+
+        /**
+         * The number of rows skipped after a failing chunk, read after the thread ended.
+         */
+        private long skippedRows = 0L;
+
+        /**
+         * The error of the failing chunk, {@code null} if every chunk was written.
+         */
+        private Exception failure;
+
+        private Worker(int partition) {
+            super("mysql-loader-" + THREAD_NUMBER.incrementAndGet());
+            this.partition = partition;
+            setDaemon(true);
+        }
+
+        /**
+         * Hands a chunk to the partition, it waits while the queue of the partition is full.
+         * @param       chunk the rows, an empty chunk ends the partition.
+         * @throws      IllegalStateException if the thread is interrupted while it waits.
+         */
+        private void hand(List<Object[]> chunk)
+        throws IllegalStateException {
+            try {
+                queue.put(chunk);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while loading!", e);
+            }
+        }
+
+        /**
+         * Hands the empty chunk ending the partition, it waits while the queue of the partition is full, even if the thread is interrupted,
+         * so every partition gets its end also when the load stops by an interrupt. The interrupt status of the thread is kept.
+         */
+        private void end() {
+            boolean interrupted = Thread.interrupted();
+            while (true) {
+                try {
+                    queue.put(Collections.emptyList());
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Waits until the partition finished.
+         */
+        private void await() {
+            boolean interrupted = false;
+            while (isAlive()) {
+                try {
+                    join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                List<Object[]> chunk;
+                try {
+                    chunk = queue.take();
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                if (chunk.isEmpty()) {
+                    return;
+                }
+                if (failure != null) {
+                    skippedRows += chunk.size();
+                    continue;
+                }
+                try {
+                    mysqlConnector.mysqlInsertRows(table, columns, chunk.iterator());
+                    writtenRows += chunk.size();
+                    loadedRows.add(chunk.size());
+                    LongConsumer listener = progressListener;
+                    if (listener != null) {
+                        listener.accept(loadedRows.sum());
+                    }
+                } catch (SQLException | RuntimeException e) {
+                    failure = e;
+                    skippedRows += chunk.size();
+                }
+            }
+        }
+    }
+
+    /**
+     * The PartitionResult class is the outcome of a partition of a load.
+     * @since       1.1
+     * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+     */
+    public static final class PartitionResult {
+
+        /**
+         * The index of the partition.
+         */
+        private final int partition;
+
+        /**
+         * The number of rows written.
+         */
+        private final long writtenRows;
+
+        /**
+         * The number of rows not written, of the failing chunk and after it.
+         */
+        private final long skippedRows;
+
+        /**
+         * The error of the failing chunk, {@code null} if every chunk was written.
+         */
+        private final Exception failure;
+
+        private PartitionResult(int partition, long writtenRows, long skippedRows, Exception failure) {
+            this.partition = partition;
+            this.writtenRows = writtenRows;
+            this.skippedRows = skippedRows;
+            this.failure = failure;
+        }
+
+        /**
+         * This method is a getter for the partition variable.
+         * @return      the index of the partition.
+         */
+        public int getPartition() {
+            return partition;
+        }
+
+        /**
+         * This method is a getter for the writtenRows variable.
+         * @return      the number of rows written.
+         */
+        public long getWrittenRows() {
+            return writtenRows;
+        }
+
+        /**
+         * This method is a getter for the skippedRows variable.
+         * @return      the number of rows not written, of the failing chunk and after it.
+         */
+        public long getSkippedRows() {
+            return skippedRows;
+        }
+
+        /**
+         * This method is a getter for the failure variable.
+         * @return      the error of the failing chunk, {@code null} if every chunk was written.
+         */
+        public Exception getFailure() {
+            return failure;
+        }
+
+        /**
+         * This method tells whether every row of the partition was written.
+         * @return      {@code true} if no chunk failed.
+         */
+        public boolean isSuccessful() {
+            return (failure == null);
+        }
+    }
+
+    /**
+     * The Result class is the outcome of a load, with the outcome of every partition.
+     * @since       1.1
+     * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+     */
+    public static final class Result {
+
+        /**
+         * The outcome of every partition, by their index.
+         */
+        private final List<PartitionResult> partitions;
+
+        /**
+         * The time of the load in nanoseconds.
+         */
+        private final long elapsed;
+
+        private Result(List<PartitionResult> partitions, long elapsed) {
+            this.partitions = Collections.unmodifiableList(partitions);
+            this.elapsed = elapsed;
+        }
+
+        /**
+         * This method is a getter for the partitions variable.
+         * @return      the unmodifiable list of the outcome of every partition, by their index.
+         */
+        public List<PartitionResult> getPartitions() {
+            return partitions;
+        }
+
+        /**
+         * This method returns the number of rows written by every partition.
+         * @return      the number of loaded rows.
+         */
+        public long getWrittenRows() {
+            long written = 0L;
+            for (PartitionResult partition : partitions) {
+                written += partition.writtenRows;
+            }
+            return written;
+        }
+
+        /**
+         * This method returns the number of rows not written by the failing partitions.
+         * @return      the number of skipped rows.
+         */
+        public long getSkippedRows() {
+            long skipped = 0L;
+            for (PartitionResult partition : partitions) {
+                skipped += partition.skippedRows;
+            }
+            return skipped;
+        }
+
+        /**
+         * This method returns the time of the load.
+         * @return      the time of the load in milliseconds.
+         */
+        public long getElapsedTime() {
+            return elapsed / 1_000_000L;
+        }
+
+        /**
+         * This method returns the rate of the load.
+         * @return      the rows written per second.
+         */
+        public double getRowsPerSecond() {
+            return rate(getWrittenRows(), elapsed);
+        }
+
+        /**
+         * This method tells whether every row was written.
+         * @return      {@code true} if no partition failed.
+         */
+        public boolean isSuccessful() {
+            for (PartitionResult partition : partitions) {
+                if (!partition.isSuccessful()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package mysql;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The MySqlReplicatedConnector class is a {@link mysql.MySqlConnector MySqlConnector} for a primary server and its read replicas.
+ * <ul>
+ *     <li>Writes ({@code mysqlSet} methods) and DDL instructions go to the primary server, given by the {@code JDBCConnectionString}.</li>
+ *     <li>Reads ({@code mysqlGet} methods and the row publisher) go to the replicas, added with {@link #addReplica(String)},
+ *     balanced by {@link Balancing#ROUND_ROBIN ROUND_ROBIN} or {@link Balancing#LEAST_OUTSTANDING LEAST_OUTSTANDING}.</li>
+ *     <li>With a {@code readYourWritesWindow}, a thread that wrote reads from the primary for that many milliseconds,
+ *     so it sees its own writes even if the replicas lag behind.</li>
+ *     <li>Without replicas every read goes to the primary, like with a {@code MySqlConnector}.</li>
+ * </ul>
+ * Every replica has its own connection pool, with the same settings as the pool of the primary.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlReplicatedConnector
+extends MySqlConnector {
+
+    /**
+     * {@code Balancing} decides which replica serves the next read.
+     */
+    public enum Balancing {
+
+        /**
+         * The replicas serve the reads in turn.
+         */
+        ROUND_ROBIN,
+
+        /**
+         * The replica with the fewest borrowed connections serves the read, ties are served in turn.
+         */
+        LEAST_OUTSTANDING
+    }
+
+    /**
+     * It is used to store the connection strings of the replicas, such as {@code jdbc:mysql://10.0.0.2:3306/}.
+     */
+    private final List<String> replicaConnectionStrings = new CopyOnWriteArrayList<>();
+
+    /**
+     * It is used to store the connection pools of the replicas, in the order they were added.
+     */
+    private volatile List<MySqlConnectionPool> replicaConnectionPools = List.of();
+
+    /**
+     * The way the reads are balanced between the replicas.
+     */
+    private volatile Balancing balancing = Balancing.ROUND_ROBIN;
+
+    /**
+     * The time in milliseconds after a write during which the reads of the same thread go to the primary, <i>0</i> turns it off.
+     */
+    private volatile long readYourWritesWindow = 0L;
+
+    /**
+     * The replica next in turn.
+     */
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    /**
+     * The time in nanoseconds of the last write of each thread.
+     */
+    private final ThreadLocal<Long> lastWrite = new ThreadLocal<>();
+
+    /**
+     * Counts the reads served by the primary.
+     */
+    private final LongAdder primaryReads = new LongAdder();
+
+    /**
+     * Counts the reads served by a replica.
+     */
+    private final LongAdder replicaReads = new LongAdder();
+
+    /**
+     * Default constructor.
+     * <b>Automatic connection is not possible, the MySQL parameters must be specified separately.</b>
+     * @see         mysql.MySqlConnector#MySqlConnector()
+     */
+    public MySqlReplicatedConnector() {}
+
+    /**
+     * Default Login constructor.
+     * @param       user MySQL username.
+     * @param       password MySQL password.
+     * @see         mysql.MySqlConnector#MySqlConnector(String, String)
+     */
+    public MySqlReplicatedConnector(String user, String password) {
+        super(user, password);
+    }
+
+    /**
+     * Login constructor with the database and table.
+     * @param       user MySQL username.
+     * @param       password MySQL password.
+     * @param       database MySQL database name.
+     * @param       table MySQL table name.
+     * @see         mysql.MySqlConnector#MySqlConnector(String, String, String, String)
+     */
+    public MySqlReplicatedConnector(String user, String password, String database, String table) {
+        super(user, password, database, table);
+    }
+
+    /**
+     * This method returns the connection strings of the replicas.
+     * @return      the connection strings, in the order they were added.
+     */
+    public List<String> getReplicaConnectionStrings() {
+        return List.copyOf(replicaConnectionStrings);
+    }
+
+    /**
+     * This method is a getter for the replicaConnectionPools variable.
+     * @return      the connection pools of the replicas.
+     */
+    public List<MySqlConnectionPool> getReplicaConnectionPools() {
+        return replicaConnectionPools;
+    }
+
+    /**
+     * This method is a getter for the balancing variable.
+     * @return      the way the reads are balanced between the replicas.
+     */
+    public Balancing getBalancing() {
+        return balancing;
+    }
+
+    /**
+     * This method is a getter for the readYourWritesWindow variable.
+     * @return      the time in milliseconds after a write during which the reads of the same thread go to the primary.
+     */
+    public long getReadYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+
+    /**
+     * This method returns the number of reads served by the primary.
+     * @return      the number of reads of the primary.
+     */
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+
+    /**
+     * This method returns the number of reads served by the replicas.
+     * @return      the number of reads of the replicas.
+     */
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    /**
+     * {@code addReplica} adds a read replica, its connection pool is opened by the next {@link #mysqlConnection()} call.
+     * @param       JDBCConnectionString the protocol, host and port of the replica, such as {@code jdbc:mysql://10.0.0.2:3306/}.
+     */
+    public void addReplica(String JDBCConnectionString) {
+        replicaConnectionStrings.add(JDBCConnectionString);
+    }
+
+    /**
+     * This method is a setter for the balancing variable.
+     * @param       balancing the way the reads are balanced between the replicas.
+     */
+    public void setBalancing(Balancing balancing) {
+        this.balancing = balancing;
+    }
+
+    /**
+     * This method is a setter for the readYourWritesWindow variable.
+     * A thread that wrote reads from the primary during the window, so its reads see its writes even if the replicas lag behind.
+     * The window should be longer than the usual replication lag.
+     * @param       readYourWritesWindow the time in milliseconds after a write, <i>0</i> turns it off.
+     * @throws      IllegalArgumentException if the window is negative.
+     */
+    public void setReadYourWritesWindow(long readYourWritesWindow)
+    throws IllegalArgumentException {
+        if (readYourWritesWindow < 0L) {
+            throw new IllegalArgumentException("Read your writes window is not correct: " + readYourWritesWindow);
+        }
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+
+    /**
+     * This method is a setter for the replicaConnectionPools variable.
+     * It allows externally created pools to be used as replicas, the previous replica pools are closed.
+     * @param       replicaConnectionPools the connection pools of the replicas.
+     */
+    public void setReplicaConnectionPools(List<MySqlConnectionPool> replicaConnectionPools) {
+        List<MySqlConnectionPool> previous = this.replicaConnectionPools;
+        this.replicaConnectionPools = List.copyOf(replicaConnectionPools);
+        for (MySqlConnectionPool pool : previous) {
+            if (!this.replicaConnectionPools.contains(pool)) {
+                pool.close();
+            }
+        }
+    }
+
+    /**
+     * {@code mysqlConnection} connects to the primary server, then opens a connection pool to every replica.
+     * If a replica cannot be reached, the pools opened so far are closed and the exception is thrown.
+     * @throws      SQLException if there is an error during the connection process.
+     * @see         mysql.MySqlConnector#mysqlConnection()
+     */
+    @Override
+    public void mysqlConnection()
+    throws SQLException {
+        super.mysqlConnection();
+        List<MySqlConnectionPool> pools = new ArrayList<>();
+        try {
+            for (String replicaConnectionString : replicaConnectionStrings) {
+                pools.add(newConnectionPool(replicaConnectionString));
+            }
+        } catch (SQLException e) {
+            for (MySqlConnectionPool pool : pools) {
+                pool.close();
+            }
+            throw e;
+        }
+        setReplicaConnectionPools(pools);
+    }
+
+    /**
+     * {@code mysqlDisconnection} closes the connection pools of the replicas, then disconnects from the primary server.
+     * @throws      SQLException if there is an error during the disconnection process.
+     * @see         mysql.MySqlConnector#mysqlDisconnection()
+     */
+    @Override
+    public void mysqlDisconnection()
+    throws SQLException {
+        setReplicaConnectionPools(List.of());
+        super.mysqlDisconnection();
+    }
+
+    /**
+     * {@code readConnectionPool} picks the connection pool of the next read.
+     * <ul>
+     *     <li>The primary serves the read if there are no replicas,
+     *     or the thread wrote within the {@code readYourWritesWindow}.</li>
+     *     <li>Otherwise a replica serves it, chosen by the {@code balancing}.</li>
+     * </ul>
+     * @return      the connection pool of the next read.
+     * @throws      SQLException if there is no connection to the primary server.
+     */
+    @Override
+    protected MySqlConnectionPool readConnectionPool()
+    throws SQLException {
+        List<MySqlConnectionPool> replicas = replicaConnectionPools;
+        if (replicas.isEmpty() || isPinnedToPrimary()) {
+            primaryReads.increment();
+            return super.readConnectionPool();
+        }
+        replicaReads.increment();
+        int first = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        if (balancing == Balancing.ROUND_ROBIN) {
+            return replicas.get(first);
+        }
+        MySqlConnectionPool leastOutstanding = replicas.get(first);
+        for (int i = 1; i < replicas.size(); i++) {
+            MySqlConnectionPool replica = replicas.get((first + i) % replicas.size());
+            if (replica.getActiveConnections() < leastOutstanding.getActiveConnections()) {
+                leastOutstanding = replica;
+            }
+        }
+        return leastOutstanding;
+    }
+
+    /**
+     * {@code afterWrite} remembers the time of the write of the thread, if the {@code readYourWritesWindow} is turned on.
+     */
+    @Override
+    protected void afterWrite() {
+        if (readYourWritesWindow > 0L) {
+            lastWrite.set(System.nanoTime());
+        }
+    }
+
+    /**
+     * Checks whether the thread wrote within the {@code readYourWritesWindow}.
+     * @return      {@code true} if the reads of the thread go to the primary.
+     */
+    private boolean isPinnedToPrimary() {
+        long window = readYourWritesWindow;
+        if (window == 0L) {
+            return false;
+        }
+        Long written = lastWrite.get();
+        if (written == null) {
+            return false;
+        }
+        if ((System.nanoTime() - written) < (window * 1_000_000L)) {
+            return true;
+        }
+        lastWrite.remove();
+        return false;
+    }
+}
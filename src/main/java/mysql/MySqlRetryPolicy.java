@@ -0,0 +1,238 @@
+package mysql;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The MySqlRetryPolicy class decides which failures of a {@link mysql.MySqlConnector MySqlConnector} are run again, and how long to wait before.
+ * <ul>
+ *     <li>The errors are classified by their MySQL error code and SQL state, see {@link #classify(SQLException)}.
+ *     A deadlock (<i>1213</i>) and a lock wait timeout (<i>1205</i>) are transient: the server rolled back the statement or the transaction,
+ *     so running it again is safe and usually succeeds once the competing transaction finished.</li>
+ *     <li>A transient failure is run again at most {@code maxRetries} times. Before every retry the thread waits
+ *     {@code baseBackoff} milliseconds doubled at every retry, at most {@code maxBackoff} milliseconds,
+ *     and a random part of the wait is left out, so the competing callers do not collide again at the same moment.</li>
+ *     <li>Connection errors are not retried here, they are handled by the reconnect of the connector.</li>
+ *     <li>The retries are counted, so the contention can be watched.</li>
+ * </ul>
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlRetryPolicy {
+
+    /**
+     * The error code of a deadlock.
+     */
+    public static final int ER_LOCK_DEADLOCK = 1213;
+
+    /**
+     * The error code of a lock wait timeout.
+     */
+    public static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+
+    /**
+     * {@code Failure} is the class of an error.
+     */
+    public enum Failure {
+
+        /**
+         * The transaction was chosen as the victim of a deadlock and rolled back.
+         */
+        DEADLOCK,
+
+        /**
+         * The statement waited too long for a row lock and was rolled back.
+         */
+        LOCK_WAIT_TIMEOUT,
+
+        /**
+         * The connection is lost or cannot be opened.
+         */
+        CONNECTION,
+
+        /**
+         * Any other error, running the statement again would fail again.
+         */
+        PERMANENT
+    }
+
+    /**
+     * The largest number of retries of a failure.
+     */
+    private final int maxRetries;
+
+    /**
+     * The wait in milliseconds before the first retry.
+     */
+    private final long baseBackoff;
+
+    /**
+     * The longest wait in milliseconds between two retries.
+     */
+    private final long maxBackoff;
+
+    /**
+     * Counts the retries after a deadlock.
+     */
+    private final LongAdder deadlockRetries = new LongAdder();
+
+    /**
+     * Counts the retries after a lock wait timeout.
+     */
+    private final LongAdder lockWaitRetries = new LongAdder();
+
+    /**
+     * Counts the transient failures thrown because no retry was left.
+     */
+    private final LongAdder exhaustedRetries = new LongAdder();
+
+    /**
+     * Retry policy constructor with the default settings: at most <i>3</i> retries, waiting from <i>10</i> up to <i>1000</i> milliseconds.
+     */
+    public MySqlRetryPolicy() {
+        this(3, 10L, 1_000L);
+    }
+
+    /**
+     * Retry policy constructor.
+     * @param       maxRetries the largest number of retries of a failure, <i>0</i> turns the retries off.
+     * @param       baseBackoff the wait in milliseconds before the first retry.
+     * @param       maxBackoff the longest wait in milliseconds between two retries.
+     * @throws      IllegalArgumentException if a number is negative or the longest wait is less than the first one.
+     */
+    public MySqlRetryPolicy(int maxRetries, long baseBackoff, long maxBackoff)
+    throws IllegalArgumentException {
+        if ((maxRetries < 0) || (baseBackoff < 0L) || (maxBackoff < baseBackoff)) {
+            throw new IllegalArgumentException("Retry policy is not correct: " + maxRetries + ", " + baseBackoff + ", " + maxBackoff);
+        }
+        this.maxRetries = maxRetries;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * This method is a getter for the maxRetries variable.
+     * @return      the largest number of retries of a failure.
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * This method is a getter for the baseBackoff variable.
+     * @return      the wait in milliseconds before the first retry.
+     */
+    public long getBaseBackoff() {
+        return baseBackoff;
+    }
+
+    /**
+     * This method is a getter for the maxBackoff variable.
+     * @return      the longest wait in milliseconds between two retries.
+     */
+    public long getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    /**
+     * This method returns how many times a deadlock was retried.
+     * @return      the number of deadlock retries.
+     */
+    public long getDeadlockRetries() {
+        return deadlockRetries.sum();
+    }
+
+    /**
+     * This method returns how many times a lock wait timeout was retried.
+     * @return      the number of lock wait timeout retries.
+     */
+    public long getLockWaitRetries() {
+        return lockWaitRetries.sum();
+    }
+
+    /**
+     * This method returns how many times a failure was retried.
+     * @return      the number of retries.
+     */
+    public long getRetryCount() {
+        return deadlockRetries.sum() + lockWaitRetries.sum();
+    }
+
+    /**
+     * This method returns how many transient failures were thrown because no retry was left.
+     * @return      the number of exhausted retries.
+     */
+    public long getExhaustedCount() {
+        return exhaustedRetries.sum();
+    }
+
+    /**
+     * {@code classify} returns the class of an error, by its MySQL error code, or its SQL state if the error code is unknown.
+     * @param       e the error.
+     * @return      the class of the error.
+     */
+    public Failure classify(SQLException e) {
+        if ((e.getErrorCode() == ER_LOCK_DEADLOCK) || "40001".equals(e.getSQLState())) {
+            return Failure.DEADLOCK;
+        } else if (e.getErrorCode() == ER_LOCK_WAIT_TIMEOUT) {
+            return Failure.LOCK_WAIT_TIMEOUT;
+        } else if (MySqlConnector.isConnectionError(e)) {
+            return Failure.CONNECTION;
+        }
+        return Failure.PERMANENT;
+    }
+
+    /**
+     * {@code isTransient} tells whether an error can be retried.
+     * @param       e the error.
+     * @return      {@code true} for a deadlock or a lock wait timeout.
+     */
+    public boolean isTransient(SQLException e) {
+        Failure failure = classify(e);
+        return (failure == Failure.DEADLOCK) || (failure == Failure.LOCK_WAIT_TIMEOUT);
+    }
+
+    /**
+     * {@code retry} decides whether a failure is run again, and waits before the retry.
+     * @param       e the error of the failure.
+     * @param       attempt the number of retries made so far.
+     * @return      {@code true} if the failure should be run again, after the wait.
+     */
+    public boolean retry(SQLException e, int attempt) {
+        Failure failure = classify(e);
+        if ((failure != Failure.DEADLOCK) && (failure != Failure.LOCK_WAIT_TIMEOUT)) {
+            return false;
+        }
+        if (attempt >= maxRetries) {
+            exhaustedRetries.increment();
+            return false;
+        }
+        long wait = backoff(attempt);
+        if (wait > 0L) {
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        if (failure == Failure.DEADLOCK) {
+            deadlockRetries.increment();
+        } else {
+            lockWaitRetries.increment();
+        }
+        return true;
+    }
+
+    /**
+     * {@code backoff} returns the wait before a retry: the exponential wait, of which a random part at most its half is left out.
+     * @param       attempt the number of retries made so far.
+     * @return      the wait in milliseconds.
+     */
+    long backoff(int attempt) {
+        long wait = Math.min(maxBackoff, baseBackoff << Math.min(attempt, 30));
+        long half = wait / 2L;
+        return (wait - half) + ThreadLocalRandom.current().nextLong(half + 1L);
+    }
+}
@@ -0,0 +1,102 @@
+package mysql;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * The MySqlRow class holds one row of a query result, the values are read as strings,
+ * like the rows of {@link mysql.MySqlConnector#mysqlGet(String)}.
+ * <ul>
+ *     <li>The values are indexed from <i>0</i>, in the order of the columns of the query.</li>
+ *     <li>The column names are shared by every row of the same result, they are not copied for each row.</li>
+ * </ul>
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public final class MySqlRow {
+
+    /**
+     * The column names of the result, shared by its rows.
+     */
+    private final String[] columnNames;
+
+    /**
+     * The index of every column name, shared by the rows of the result.
+     */
+    private final Map<String, Integer> columnIndexes;
+
+    /**
+     * The values of the row.
+     */
+    private final String[] values;
+
+    /**
+     * Row constructor.
+     * @param       columnNames the column names of the result.
+     * @param       columnIndexes the index of every column name.
+     * @param       values the values of the row, in the order of the columns.
+     */
+    MySqlRow(String[] columnNames, Map<String, Integer> columnIndexes, String[] values) {
+        this.columnNames = columnNames;
+        this.columnIndexes = columnIndexes;
+        this.values = values;
+    }
+
+    /**
+     * This method returns the number of columns.
+     * @return      the number of values in the row.
+     */
+    public int getColumnCount() {
+        return values.length;
+    }
+
+    /**
+     * This method returns the name of a column.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      the name of the column.
+     * @throws      IndexOutOfBoundsException if there is no such column.
+     */
+    public String getColumnName(int column)
+    throws IndexOutOfBoundsException {
+        return columnNames[column];
+    }
+
+    /**
+     * This method returns a value of the row.
+     * @param       column the index of the column, from <i>0</i>.
+     * @return      the value, {@code null} for SQL {@code NULL}.
+     * @throws      IndexOutOfBoundsException if there is no such column.
+     */
+    public String getString(int column)
+    throws IndexOutOfBoundsException {
+        return values[column];
+    }
+
+    /**
+     * This method returns a value of the row by its column name.
+     * @param       columnName the name of the column.
+     * @return      the value, {@code null} for SQL {@code NULL}.
+     * @throws      IllegalArgumentException if there is no such column.
+     */
+    public String getString(String columnName)
+    throws IllegalArgumentException {
+        Integer column = columnIndexes.get(columnName);
+        if (column == null) {
+            throw new IllegalArgumentException("No such column: " + columnName);
+        }
+        return values[column];
+    }
+
+    /**
+     * This method returns the values of the row as an array, like a row of {@link mysql.MySqlConnector#mysqlGet(String)}.
+     * @return      a copy of the values.
+     */
+    public String[] toArray() {
+        return values.clone();
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+}
@@ -0,0 +1,470 @@
+package mysql;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The MySqlRowMapper class maps the rows of a query to objects of a class, and the objects back to statement parameters.
+ * <ul>
+ *     <li>A record is created through its canonical constructor, the columns are bound to its components.</li>
+ *     <li>Any other class is created through its no-argument constructor, the columns are bound to its non-static, non-final fields.</li>
+ *     <li>A column is bound to the property of the same name, ignoring the case and the underscores,
+ *     so the {@code user_name} column fills the {@code userName} property. Columns without a property are skipped,
+ *     properties without a column keep their default value.</li>
+ *     <li>Every value is read by its column index with the getter of the type of its property,
+ *     such as {@link java.sql.ResultSet#getLong(int) getLong()} for a {@code long}, no string is parsed.</li>
+ *     <li>An object is written by naming the properties in the order of the parameters of the statement.
+ *     Only a record can be written without names, in the order of its components,
+ *     because the order of the fields of a class is not defined by the JVM.</li>
+ * </ul>
+ * The mapper of a class is built once with {@link java.lang.invoke.MethodHandle MethodHandle}s, and kept for the lifetime of the class.
+ * The columns of a result are bound to the properties once per result, mapping a row only runs the bound handles,
+ * about the same work as a hand-written mapping. The mapper is thread-safe.
+ * @param       <T> the type the rows are mapped to.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public final class MySqlRowMapper<T> {
+
+    /**
+     * {@code ValueReader} reads a value of a column for a property of a given type.
+     */
+    @FunctionalInterface
+    private interface ValueReader {
+
+        /**
+         * Reads the value.
+         * @param       resultSet the result set positioned on a row.
+         * @param       column the index of the column, from <i>1</i>.
+         * @return      the value, {@code null} for {@code NULL} unless the property is primitive.
+         * @throws      SQLException if it runs into some MySql error while reading.
+         */
+        Object read(ResultSet resultSet, int column)
+        throws SQLException;
+    }
+
+    /**
+     * The mapper of every class mapped so far.
+     */
+    private static final ClassValue<MySqlRowMapper<?>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected MySqlRowMapper<?> computeValue(Class<?> type) {
+            return new MySqlRowMapper<>(type);
+        }
+    };
+
+    /**
+     * The type the rows are mapped to.
+     */
+    private final Class<T> type;
+
+    /**
+     * The names of the properties, in the order of the record components or of the declared fields.
+     */
+    private final List<String> propertyNames;
+
+    /**
+     * The index of every property by its normalized name.
+     */
+    private final Map<String, Integer> propertyIndexes;
+
+    /**
+     * The reader of every property, chosen from the type of the property.
+     */
+    private final ValueReader[] readers;
+
+    /**
+     * The getter of every property, of type {@code (Object)Object}.
+     */
+    private final MethodHandle[] getters;
+
+    /**
+     * The setter of every field, of type {@code (Object,Object)void}, {@code null} for a record.
+     */
+    private final MethodHandle[] setters;
+
+    /**
+     * The constructor, of type {@code (Object[])Object} taking the components for a record, of type {@code ()Object} for any other class.
+     */
+    private final MethodHandle constructor;
+
+    /**
+     * The default value of every property, <i>0</i> or {@code false} for the primitives, {@code null} otherwise.
+     */
+    private final Object[] defaults;
+
+    /**
+     * It is used to store whether the type is a record.
+     */
+    private final boolean record;
+
+    /**
+     * Row mapper constructor, it builds the handles of the class.
+     * @param       type the type the rows are mapped to.
+     * @throws      IllegalArgumentException if the type cannot be created or its properties cannot be accessed.
+     */
+    @SuppressWarnings("unchecked")
+    private MySqlRowMapper(Class<?> type)
+    throws IllegalArgumentException {
+        this.type = (Class<T>) type;
+        this.record = type.isRecord();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<String> names = new ArrayList<>();
+        List<Class<?>> types = new ArrayList<>();
+        List<MethodHandle> getterList = new ArrayList<>();
+        List<MethodHandle> setterList = new ArrayList<>();
+        try {
+            if (record) {
+                RecordComponent[] components = type.getRecordComponents();
+                Class<?>[] parameterTypes = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    parameterTypes[i] = components[i].getType();
+                    components[i].getAccessor().setAccessible(true);
+                    names.add(components[i].getName());
+                    types.add(components[i].getType());
+                    getterList.add(lookup.unreflect(components[i].getAccessor()).asType(MethodType.methodType(Object.class, Object.class)));
+                }
+                Constructor<?> canonical = type.getDeclaredConstructor(parameterTypes);
+                canonical.setAccessible(true);
+                this.constructor = lookup.unreflectConstructor(canonical)
+                        .asSpreader(Object[].class, components.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            } else {
+                for (Class<?> declaring = type; (declaring != null) && (declaring != Object.class); declaring = declaring.getSuperclass()) {
+                    List<Field> fields = new ArrayList<>();
+                    for (Field field : declaring.getDeclaredFields()) {
+                        int modifiers = field.getModifiers();
+                        if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                            fields.add(field);
+                        }
+                    }
+                    for (int i = 0; i < fields.size(); i++) {
+                        Field field = fields.get(i);
+                        field.setAccessible(true);
+                        names.add(i, field.getName());
+                        types.add(i, field.getType());
+                        getterList.add(i, lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class)));
+                        setterList.add(i, lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class)));
+                    }
+                }
+                Constructor<?> noArgument = type.getDeclaredConstructor();
+                noArgument.setAccessible(true);
+                this.constructor = lookup.unreflectConstructor(noArgument).asType(MethodType.methodType(Object.class));
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalArgumentException("Type cannot be mapped: " + type.getName(), e);
+        }
+        this.propertyNames = Collections.unmodifiableList(names);
+        this.propertyIndexes = new HashMap<>();
+        this.readers = new ValueReader[names.size()];
+        this.defaults = new Object[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            propertyIndexes.putIfAbsent(normalize(names.get(i)), i);
+            readers[i] = reader(types.get(i));
+            defaults[i] = defaultValue(types.get(i));
+        }
+        this.getters = getterList.toArray(new MethodHandle[0]);
+        this.setters = record ? null : setterList.toArray(new MethodHandle[0]);
+    }
+
+    /**
+     * {@code of} returns the mapper of a class, it is built at the first call and reused afterwards.
+     * @param       type the type the rows are mapped to, a record or a class with a no-argument constructor.
+     * @param       <T> the type the rows are mapped to.
+     * @return      the mapper of the class.
+     * @throws      IllegalArgumentException if the type cannot be created or its properties cannot be accessed.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> MySqlRowMapper<T> of(Class<T> type)
+    throws IllegalArgumentException {
+        return (MySqlRowMapper<T>) MAPPERS.get(type);
+    }
+
+    /**
+     * This method is a getter for the type variable.
+     * @return      the type the rows are mapped to.
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * This method is a getter for the propertyNames variable.
+     * @return      the names of the properties, in the order of the record components or of the declared fields, superclass fields first.
+     */
+    public List<String> getPropertyNames() {
+        return propertyNames;
+    }
+
+    /**
+     * {@code mapRows} maps every row of a result set to an object.
+     * <ul>
+     *     <li>The columns are bound to the properties once, by their labels.</li>
+     *     <li>For every row, the bound values are read by index, then the object is created with them.</li>
+     * </ul>
+     * @param       resultSet the result set positioned before its first row.
+     * @param       rows the collection the objects are added to, in the order of the result.
+     * @throws      SQLException if it runs into some MySql error while reading.
+     * @throws      IllegalStateException if the constructor or a setter of the type fails.
+     */
+    public void mapRows(ResultSet resultSet, Collection<? super T> rows)
+    throws SQLException, IllegalStateException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        int[] columns = new int[columnCount];
+        int[] properties = new int[columnCount];
+        int bound = 0;
+        for (int i = 1; i <= columnCount; i++) {
+            Integer property = propertyIndexes.get(normalize(metaData.getColumnLabel(i)));
+            if (property != null) {
+                columns[bound] = i;
+                properties[bound++] = property;
+            }
+        }
+        while (resultSet.next()) {
+            rows.add(mapRow(resultSet, columns, properties, bound));
+        }
+    }
+
+    /**
+     * {@code toParameters} returns the values of the components of a record, to be set as the parameters of a statement.
+     * @param       value the record.
+     * @return      the values of the components, in the order of {@link #getPropertyNames()}, an enum by its name like it is read.
+     * @throws      IllegalArgumentException if the type is not a record, the properties of a class must be named.
+     * @throws      IllegalStateException if a getter of the type fails.
+     * @see         #toParameters(Object, String...)
+     */
+    public Object[] toParameters(T value)
+    throws IllegalArgumentException, IllegalStateException {
+        if (!record) {
+            throw new IllegalArgumentException("Properties of " + type.getName() + " have no defined order, name them!");
+        }
+        int[] properties = new int[getters.length];
+        for (int i = 0; i < properties.length; i++) {
+            properties[i] = i;
+        }
+        return toParameters(value, properties);
+    }
+
+    /**
+     * {@code toParameters} returns the values of the named properties of an object, to be set as the parameters of a statement.
+     * @param       value the object.
+     * @param       propertyNames the names of the properties in the order of the parameters, a column name such as {@code user_name}
+     *              names the {@code userName} property.
+     * @return      the values of the properties, in the order of their names, an enum by its name like it is read.
+     * @throws      IllegalArgumentException if a name is not a property of the type.
+     * @throws      IllegalStateException if a getter of the type fails.
+     */
+    public Object[] toParameters(T value, String... propertyNames)
+    throws IllegalArgumentException, IllegalStateException {
+        return toParameters(value, properties(propertyNames));
+    }
+
+    /**
+     * {@code properties} returns the indexes of the named properties, so the names of a batch are resolved once.
+     * @param       propertyNames the names of the properties.
+     * @return      the index of every property, in the order of the names.
+     * @throws      IllegalArgumentException if a name is not a property of the type.
+     */
+    int[] properties(String... propertyNames)
+    throws IllegalArgumentException {
+        int[] properties = new int[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; i++) {
+            Integer property = propertyIndexes.get(normalize(propertyNames[i]));
+            if (property == null) {
+                throw new IllegalArgumentException("Property is not correct: " + propertyNames[i]);
+            }
+            properties[i] = property;
+        }
+        return properties;
+    }
+
+    /**
+     * {@code toParameters} returns the values of the properties of an object at the given indexes.
+     * @param       value the object.
+     * @param       properties the indexes of the properties, in the order of the parameters.
+     * @return      the values of the properties, an enum by its name like it is read.
+     * @throws      IllegalStateException if a getter of the type fails.
+     */
+    Object[] toParameters(T value, int[] properties)
+    throws IllegalStateException {
+        Object[] parameters = new Object[properties.length];
+        try {
+            for (int i = 0; i < properties.length; i++) {
+                parameters[i] = (Object) getters[properties[i]].invokeExact((Object) value);
+                if (parameters[i] instanceof Enum) {
+                    parameters[i] = ((Enum<?>) parameters[i]).name();
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot read " + type.getName(), e);
+        }
+        return parameters;
+    }
+
+    /**
+     * Maps the current row to an object.
+     * @param       resultSet the result set positioned on a row.
+     * @param       columns the indexes of the bound columns.
+     * @param       properties the property of every bound column.
+     * @param       bound the number of bound columns.
+     * @return      the object of the row.
+     * @throws      SQLException if it runs into some MySql error while reading.
+     * @throws      IllegalStateException if the constructor or a setter of the type fails.
+     */
+    @SuppressWarnings("unchecked")
+    private T mapRow(ResultSet resultSet, int[] columns, int[] properties, int bound)
+    throws SQLException, IllegalStateException {
+        try {
+            if (record) {
+                Object[] arguments = defaults.clone();
+                for (int i = 0; i < bound; i++) {
+                    arguments[properties[i]] = readers[properties[i]].read(resultSet, columns[i]);
+                }
+                return (T) (Object) constructor.invokeExact(arguments);
+            }
+            Object value = (Object) constructor.invokeExact();
+            for (int i = 0; i < bound; i++) {
+                setters[properties[i]].invokeExact(value, readers[properties[i]].read(resultSet, columns[i]));
+            }
+            return (T) value;
+        } catch (SQLException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Normalizes a column or property name, so {@code user_name}, {@code USER_NAME} and {@code userName} are the same.
+     * @param       name the name.
+     * @return      the name in lower case, without underscores.
+     */
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Chooses the reader of a property type, the primitives read <i>0</i> or {@code false} for {@code NULL},
+     * the wrappers read {@code null}, an enum is read by its name, any other type through {@link java.sql.ResultSet#getObject(int, Class) getObject()}.
+     * @param       propertyType the type of the property.
+     * @return      the reader of the values.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ValueReader reader(Class<?> propertyType) {
+        if (propertyType == int.class) {
+            return ResultSet::getInt;
+        } else if (propertyType == long.class) {
+            return ResultSet::getLong;
+        } else if (propertyType == double.class) {
+            return ResultSet::getDouble;
+        } else if (propertyType == float.class) {
+            return ResultSet::getFloat;
+        } else if (propertyType == short.class) {
+            return ResultSet::getShort;
+        } else if (propertyType == byte.class) {
+            return ResultSet::getByte;
+        } else if (propertyType == boolean.class) {
+            return ResultSet::getBoolean;
+        } else if (propertyType == Integer.class) {
+            return (resultSet, column) -> nullable(resultSet, resultSet.getInt(column));
+        } else if (propertyType == Long.class) {
+            return (resultSet, column) -> nullable(resultSet, resultSet.getLong(column));
+        } else if (propertyType == Double.class) {
+            return (resultSet, column) -> nullable(resultSet, resultSet.getDouble(column));
+        } else if (propertyType == Float.class) {
+            return (resultSet, column) -> nullable(resultSet, resultSet.getFloat(column));
+        } else if (propertyType == Short.class) {
+            return (resultSet, column) -> nullable(resultSet, resultSet.getShort(column));
+        } else if (propertyType == Byte.class) {
+            return (resultSet, column) -> nullable(resultSet, resultSet.getByte(column));
+        } else if (propertyType == Boolean.class) {
+            return (resultSet, column) -> nullable(resultSet, resultSet.getBoolean(column));
+        } else if (propertyType == char.class || propertyType == Character.class) {
+            return (resultSet, column) -> {
+                String value = resultSet.getString(column);
+                if ((value == null) || value.isEmpty()) {
+                    return (propertyType == char.class) ? '\0' : null;
+                }
+                return value.charAt(0);
+            };
+        } else if (propertyType == String.class) {
+            return ResultSet::getString;
+        } else if (propertyType == BigDecimal.class) {
+            return ResultSet::getBigDecimal;
+        } else if (propertyType == byte[].class) {
+            return ResultSet::getBytes;
+        } else if (propertyType == java.sql.Timestamp.class) {
+            return ResultSet::getTimestamp;
+        } else if (propertyType == java.sql.Date.class) {
+            return ResultSet::getDate;
+        } else if (propertyType == LocalDate.class || propertyType == LocalDateTime.class || propertyType == LocalTime.class) {
+            return (resultSet, column) -> resultSet.getObject(column, propertyType);
+        } else if (propertyType.isEnum()) {
+            return (resultSet, column) -> {
+                String name = resultSet.getString(column);
+                return (name != null) ? Enum.valueOf((Class<? extends Enum>) propertyType, name) : null;
+            };
+        }
+        return (resultSet, column) -> resultSet.getObject(column, propertyType);
+    }
+
+    /**
+     * Returns a value read by a primitive getter, or {@code null} if it was {@code NULL}.
+     * @param       resultSet the result set the value was read from.
+     * @param       value the value.
+     * @return      the value, or {@code null}.
+     * @throws      SQLException if it runs into some MySql error while reading.
+     */
+    private static Object nullable(ResultSet resultSet, Object value)
+    throws SQLException {
+        return resultSet.wasNull() ? null : value;
+    }
+
+    /**
+     * Returns the default value of a property type.
+     * @param       propertyType the type of the property.
+     * @return      <i>0</i> or {@code false} for the primitives, {@code null} otherwise.
+     */
+    private static Object defaultValue(Class<?> propertyType) {
+        if (propertyType == int.class) {
+            return 0;
+        } else if (propertyType == long.class) {
+            return 0L;
+        } else if (propertyType == double.class) {
+            return 0.0;
+        } else if (propertyType == float.class) {
+            return 0.0f;
+        } else if (propertyType == short.class) {
+            return (short) 0;
+        } else if (propertyType == byte.class) {
+            return (byte) 0;
+        } else if (propertyType == boolean.class) {
+            return false;
+        } else if (propertyType == char.class) {
+            return '\0';
+        }
+        return null;
+    }
+}
@@ -0,0 +1,359 @@
+package mysql;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The MySqlRowPublisher class publishes the rows of a query one by one, as the driver reads them,
+ * created by {@link mysql.MySqlConnector#mysqlGetPublisher(String)}.
+ * <ul>
+ *     <li>Every subscriber runs the query again on the executor of the asynchronous operations of the connector.</li>
+ *     <li>The result is streamed from the server row by row, with a fetch size of {@link Integer#MIN_VALUE},
+ *     so the rows are never buffered in the memory all at once.</li>
+ *     <li>A row is read only when the subscriber has requested it with {@link java.util.concurrent.Flow.Subscription#request(long) request(n)},
+ *     a slow subscriber slows down the reading, and the server waits on the network.</li>
+ *     <li>Cancelling the subscription cancels the running statement, the connection is then handed back to the pool.</li>
+ * </ul>
+ * The connection is held until the last row was published or the subscription was cancelled.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public final class MySqlRowPublisher
+implements Flow.Publisher<MySqlRow> {
+
+    /**
+     * {@code Query} runs the query of the publisher on a borrowed connection,
+     * and hands its prepared statement to the {@code StatementHandler} while the connection is borrowed.
+     */
+    @FunctionalInterface
+    interface Query {
+
+        /**
+         * Runs the query.
+         * @param       handler reads the result of the prepared statement.
+         * @throws      SQLException if the connection cannot be borrowed or the query fails.
+         */
+        void run(StatementHandler handler)
+        throws SQLException;
+    }
+
+    /**
+     * {@code StatementHandler} executes a prepared statement and reads its result.
+     */
+    @FunctionalInterface
+    interface StatementHandler {
+
+        /**
+         * Executes the statement and reads its result.
+         * @param       statement the prepared statement.
+         * @param       leakDetector watches the result while it is read.
+         * @throws      SQLException if it runs into some MySql error while running.
+         */
+        void handle(PreparedStatement statement, MySqlLeakDetector leakDetector)
+        throws SQLException;
+    }
+
+    /**
+     * The executor the query runs on.
+     */
+    private final Executor executor;
+
+    /**
+     * The query of the publisher.
+     */
+    private final Query query;
+
+    /**
+     * Row publisher constructor.
+     * @param       executor the executor the query runs on.
+     * @param       query runs the query on a borrowed connection.
+     */
+    MySqlRowPublisher(Executor executor, Query query) {
+        this.executor = executor;
+        this.query = query;
+    }
+
+    /**
+     * {@code subscribe} starts the query for the subscriber.
+     * The subscriber gets {@code onSubscribe} at once, the rows follow as they are requested.
+     * @param       subscriber the subscriber of the rows.
+     * @throws      NullPointerException if the subscriber is {@code null}.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super MySqlRow> subscriber)
+    throws NullPointerException {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber is null!");
+        }
+        RowSubscription subscription = new RowSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        try {
+            executor.execute(new MySqlAsyncExecutor.RejectableTask() {
+                @Override
+                public void run() {
+                    subscription.run();
+                }
+
+                @Override
+                public void reject(RejectedExecutionException e) {
+                    subscription.finish(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            subscription.finish(e);
+        }
+    }
+
+    /**
+     * The subscription of one subscriber, it runs the query and publishes the rows as they are requested.
+     */
+    private final class RowSubscription
+    implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super MySqlRow> subscriber;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition demanded = lock.newCondition();
+        private long demand;
+        private boolean cancelled;
+        private boolean terminated;
+        private boolean awaitingDemand;
+        private boolean statementCancelled;
+        private Throwable invalidRequest;
+        private PreparedStatement statement;
+
+        private RowSubscription(Flow.Subscriber<? super MySqlRow> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * {@code request} adds to the number of rows the subscriber is ready to receive.
+         * @param       n the number of rows, a non-positive number fails the subscription.
+         */
+        @Override
+        public void request(long n) {
+            lock.lock();
+            try {
+                if (cancelled) {
+                    return;
+                }
+                if (n > 0L) {
+                    demand = ((demand + n) < 0L) ? Long.MAX_VALUE : (demand + n);
+                    demanded.signalAll();
+                    return;
+                }
+                invalidRequest = new IllegalArgumentException("Non-positive request: " + n);
+            } finally {
+                lock.unlock();
+            }
+            cancel();
+        }
+
+        /**
+         * {@code cancel} stops the publishing, the running statement is cancelled.
+         * If the query is waiting for demand, the query thread cancels the statement itself when it wakes up,
+         * otherwise the statement is cancelled here, so the driver stops reading the result.
+         */
+        @Override
+        public void cancel() {
+            PreparedStatement running;
+            lock.lock();
+            try {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                running = awaitingDemand ? null : takeStatementToCancel();
+                demanded.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            cancelStatement(running);
+        }
+
+        /**
+         * Runs the query and publishes its rows, then signals the end of the result or the error.
+         */
+        private void run() {
+            if (isCancelled()) {
+                finish(null);
+                return;
+            }
+            try {
+                query.run(this::publish);
+                finish(null);
+            } catch (Throwable e) {
+                finish(e);
+            }
+        }
+
+        /**
+         * Executes the statement with a streamed result, and publishes a row for every request.
+         * The streamed result is watched by the leak detection of the pool while it is open, as a slow subscriber keeps it open.
+         * @param       preparedStatement the prepared statement of the query.
+         * @param       leakDetector watches the streamed result.
+         * @throws      SQLException if the query fails, unless the subscription was cancelled.
+         */
+        private void publish(PreparedStatement preparedStatement, MySqlLeakDetector leakDetector)
+        throws SQLException {
+            setStatement(preparedStatement);
+            try {
+                preparedStatement.setFetchSize(Integer.MIN_VALUE);
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    leakDetector.track(resultSet, "Streamed ResultSet of a row publisher");
+                    try {
+                        read(resultSet);
+                    } finally {
+                        leakDetector.untrack(resultSet);
+                    }
+                }
+            } catch (SQLException e) {
+                if (!isCancelled()) {
+                    throw e;
+                }
+            } finally {
+                setStatement(null);
+                try {
+                    preparedStatement.setFetchSize(0);
+                } catch (SQLException ignored) {
+                }
+            }
+        }
+
+        /**
+         * Publishes a row of the result for every request, until the result ends or the subscription is cancelled.
+         * @param       resultSet the streamed result.
+         * @throws      SQLException if it runs into some MySql error while reading.
+         */
+        private void read(ResultSet resultSet)
+        throws SQLException {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            int columnCount = metaData.getColumnCount();
+            String[] columnNames = new String[columnCount];
+            Map<String, Integer> columnIndexes = new HashMap<>();
+            for (int i = 0; i < columnCount; i++) {
+                columnNames[i] = metaData.getColumnName((i + 1));
+                columnIndexes.putIfAbsent(columnNames[i], i);
+            }
+            while (awaitDemand() && resultSet.next()) {
+                String[] values = new String[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    values[i] = resultSet.getString((i + 1));
+                }
+                subscriber.onNext(new MySqlRow(columnNames, columnIndexes, values));
+            }
+        }
+
+        /**
+         * Waits until the subscriber requests a row, and takes one from the demand.
+         * @return      {@code true} if a row may be published, {@code false} if the subscription was cancelled.
+         * @throws      SQLException if the thread is interrupted while waiting.
+         */
+        private boolean awaitDemand()
+        throws SQLException {
+            PreparedStatement running;
+            lock.lock();
+            try {
+                awaitingDemand = true;
+                while (!cancelled && (demand == 0L)) {
+                    demanded.await();
+                }
+                if (!cancelled) {
+                    if (demand != Long.MAX_VALUE) {
+                        demand--;
+                    }
+                    return true;
+                }
+                running = takeStatementToCancel();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for the subscriber!", e);
+            } finally {
+                awaitingDemand = false;
+                lock.unlock();
+            }
+            cancelStatement(running);
+            return false;
+        }
+
+        /**
+         * Signals the end of the publishing to the subscriber exactly once.
+         * A cancelled subscription gets no signal, unless it was cancelled by an invalid request.
+         * @param       e the error of the query, or {@code null} if the result was read to its end.
+         */
+        private void finish(Throwable e) {
+            Throwable error;
+            lock.lock();
+            try {
+                if (terminated) {
+                    return;
+                }
+                terminated = true;
+                if (cancelled && (invalidRequest == null)) {
+                    return;
+                }
+                error = (invalidRequest != null) ? invalidRequest : e;
+                cancelled = true;
+            } finally {
+                lock.unlock();
+            }
+            if (error != null) {
+                subscriber.onError(error);
+            } else {
+                subscriber.onComplete();
+            }
+        }
+
+        private boolean isCancelled() {
+            lock.lock();
+            try {
+                return cancelled;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void setStatement(PreparedStatement statement) {
+            lock.lock();
+            try {
+                this.statement = statement;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Takes the statement to cancel, so it is cancelled only once, either by {@code cancel} or by the query thread.
+         * The caller must hold the {@code lock}.
+         * @return      the running statement, or {@code null} if there is none or it was cancelled already.
+         */
+        private PreparedStatement takeStatementToCancel() {
+            if (statementCancelled || (statement == null)) {
+                return null;
+            }
+            statementCancelled = true;
+            return statement;
+        }
+
+        /**
+         * Cancels the running statement, so a large result is not read to its end when the result set is closed.
+         * @param       running the statement to cancel, or {@code null} if there is nothing to cancel.
+         */
+        private void cancelStatement(PreparedStatement running) {
+            if (running != null) {
+                try {
+                    running.cancel();
+                } catch (SQLException ignored) {
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,547 @@
+package mysql;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The MySqlSchemaCatalog class caches the metadata of the tables of the {@code database} of a {@link mysql.MySqlConnector MySqlConnector}:
+ * their columns, column types, primary keys and indexes.
+ * <ul>
+ *     <li>The metadata of every table is loaded with one query of {@code information_schema},
+ *     the columns and the index entries are read together with {@code UNION ALL}, instead of a query for every table.</li>
+ *     <li>The loaded metadata is kept for {@code timeToLive} milliseconds, the first access after it loads it again.</li>
+ *     <li>{@link #refresh()} loads it at once, {@link #invalidate()} makes the next access load it.
+ *     The DDL methods of the connector, such as {@link mysql.MySqlConnector#mysqlCreateTable(String[], String[]) mysqlCreateTable()}
+ *     and {@link mysql.MySqlConnector#mysqlDropTable() mysqlDropTable()}, invalidate it after they run.</li>
+ *     <li>A change of the {@code database} of the connector makes the next access load the metadata of the new database.</li>
+ *     <li>Concurrent accesses of an expired catalog wait for one load, and the loaded metadata is never changed, so it can be shared.</li>
+ * </ul>
+ * The catalog of a connector is returned by {@link mysql.MySqlConnector#getSchemaCatalog()}.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlSchemaCatalog {
+
+    /**
+     * The default time in milliseconds the loaded metadata is kept.
+     */
+    public static final long DEFAULT_TIME_TO_LIVE = 60_000L;
+
+    /**
+     * The query of the metadata: a row for every column, followed by a row for every column of every index, ordered by table.
+     * The columns of the rows: kind, table, column, position, data type or index name, column type, nullable or non unique, extra.
+     */
+    static final String SCHEMA_QUERY = "SELECT 'C', TABLE_NAME, COLUMN_NAME, ORDINAL_POSITION, DATA_TYPE, COLUMN_TYPE, IS_NULLABLE, EXTRA"
+            + " FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = ?"
+            + " UNION ALL SELECT 'I', TABLE_NAME, COLUMN_NAME, SEQ_IN_INDEX, INDEX_NAME, NULL, NON_UNIQUE, NULL"
+            + " FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = ?"
+            + " ORDER BY 2, 1, 4";
+
+    /**
+     * The connector the metadata is loaded with.
+     */
+    private final MySqlConnector mysqlConnector;
+
+    /**
+     * Only one thread loads the metadata at a time.
+     */
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    /**
+     * Raised by every invalidation, a snapshot loaded before it is not used.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Counts the loads of the metadata.
+     */
+    private final LongAdder loads = new LongAdder();
+
+    /**
+     * The time in milliseconds the loaded metadata is kept.
+     */
+    private volatile long timeToLive = DEFAULT_TIME_TO_LIVE;
+
+    /**
+     * The metadata loaded last, {@code null} before the first load.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * Schema catalog constructor.
+     * @param       mysqlConnector the connector the metadata is loaded with.
+     */
+    MySqlSchemaCatalog(MySqlConnector mysqlConnector) {
+        this.mysqlConnector = mysqlConnector;
+    }
+
+    /**
+     * This method is a getter for the timeToLive variable.
+     * @return      the time in milliseconds the loaded metadata is kept.
+     */
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * This method is a setter for the timeToLive variable.
+     * @param       timeToLive the time in milliseconds the loaded metadata is kept, <i>0</i> loads it at every access.
+     * @throws      IllegalArgumentException if the time is negative.
+     */
+    public void setTimeToLive(long timeToLive)
+    throws IllegalArgumentException {
+        if (timeToLive < 0L) {
+            throw new IllegalArgumentException("Time to live is not correct: " + timeToLive);
+        }
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * This method returns how many times the metadata was loaded.
+     * @return      the number of loads.
+     */
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    /**
+     * {@code getTables} returns the metadata of every table of the database, loading it if it is expired.
+     * @return      the tables by their name, in the order of their name.
+     * @throws      SQLException if the metadata cannot be loaded.
+     */
+    public Map<String, Table> getTables()
+    throws SQLException {
+        return current().tables;
+    }
+
+    /**
+     * {@code getTable} returns the metadata of a table of the database, loading it if it is expired.
+     * @param       tableName the name of the table.
+     * @return      the metadata of the table, {@code null} if there is no such table.
+     * @throws      SQLException if the metadata cannot be loaded.
+     */
+    public Table getTable(String tableName)
+    throws SQLException {
+        return current().tables.get(tableName);
+    }
+
+    /**
+     * {@code refresh} loads the metadata at once, replacing the cached metadata.
+     * @throws      SQLException if the metadata cannot be loaded, the cached metadata is kept.
+     */
+    public void refresh()
+    throws SQLException {
+        loadLock.lock();
+        try {
+            load();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * {@code invalidate} drops the cached metadata, the next access loads it again.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * {@code current} returns the cached metadata, or loads it if it is missing, expired, invalidated or of another database.
+     * @return      the current metadata.
+     * @throws      SQLException if the metadata cannot be loaded.
+     */
+    private Snapshot current()
+    throws SQLException {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        loadLock.lock();
+        try {
+            current = snapshot;
+            if (isFresh(current)) {
+                return current;
+            }
+            return load();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * {@code isFresh} tells whether a snapshot can still be used.
+     * @param       current the snapshot.
+     * @return      {@code true} if it is not expired, not invalidated, and it belongs to the current database.
+     */
+    private boolean isFresh(Snapshot current) {
+        return (current != null)
+                && (current.version == version.get())
+                && ((System.nanoTime() - current.loadedAt) < (timeToLive * 1_000_000L))
+                && String.valueOf(mysqlConnector.getDatabase()).equals(current.database);
+    }
+
+    /**
+     * {@code load} loads the metadata and caches it, called while holding the load lock.
+     * @return      the loaded metadata.
+     * @throws      SQLException if the metadata cannot be loaded.
+     */
+    private Snapshot load()
+    throws SQLException {
+        long loadVersion = version.get();
+        String database = String.valueOf(mysqlConnector.getDatabase());
+        long loadedAt = System.nanoTime();
+        Map<String, Table> tables = mysqlConnector.mysqlReadSchema(database);
+        Snapshot loaded = new Snapshot(database, tables, loadVersion, loadedAt);
+        snapshot = loaded;
+        loads.increment();
+        return loaded;
+    }
+
+    /**
+     * {@code readTables} runs the query of the metadata and builds the tables from its rows.
+     * @param       statementCache the statement cache of a borrowed connection.
+     * @param       database the name of the database.
+     * @return      the tables by their name, in the order of their name, the map cannot be modified.
+     * @throws      SQLException if it runs into some MySql error while reading.
+     */
+    static Map<String, Table> readTables(MySqlStatementCache statementCache, String database)
+    throws SQLException {
+        Map<String, Table> tables = new LinkedHashMap<>();
+        PreparedStatement preparedStatement = statementCache.prepareStatement(SCHEMA_QUERY);
+        try {
+            preparedStatement.setString(1, database);
+            preparedStatement.setString(2, database);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    String tableName = resultSet.getString(2);
+                    Table table = tables.computeIfAbsent(tableName, Table::new);
+                    if ("C".equals(resultSet.getString(1))) {
+                        table.columns.add(new Column(resultSet.getString(3), resultSet.getInt(4), resultSet.getString(5),
+                                resultSet.getString(6), "YES".equals(resultSet.getString(7)), resultSet.getString(8)));
+                    } else {
+                        String indexName = resultSet.getString(5);
+                        boolean unique = "0".equals(resultSet.getString(7));
+                        table.indexes.computeIfAbsent(indexName, name -> new Index(name, unique)).columns.add(resultSet.getString(3));
+                    }
+                }
+            }
+        } finally {
+            statementCache.releaseStatement(preparedStatement);
+        }
+        return Collections.unmodifiableMap(tables);
+    }
+
+    /**
+     * The metadata of a database, loaded by one query.
+     */
+    private static final class Snapshot {
+
+        /**
+         * The name of the database.
+         */
+        private final String database;
+
+        /**
+         * The tables by their name.
+         */
+        private final Map<String, Table> tables;
+
+        /**
+         * The version of the catalog when the load started.
+         */
+        private final long version;
+
+        /**
+         * The {@link System#nanoTime()} when the load started.
+         */
+        private final long loadedAt;
+
+        /**
+         * Snapshot constructor.
+         * @param       database the name of the database.
+         * @param       tables the tables by their name.
+         * @param       version the version of the catalog when the load started.
+         * @param       loadedAt the {@link System#nanoTime()} when the load started.
+         */
+        private Snapshot(String database, Map<String, Table> tables, long version, long loadedAt) {
+            this.database = database;
+            this.tables = tables;
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * The Table class holds the metadata of a table: its columns in their order, its primary key and its indexes.
+     * @since       1.1
+     * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+     */
+    public static final class Table {
+
+        /**
+         * The name of the primary key index in MySQL.
+         */
+        private static final String PRIMARY = "PRIMARY";
+
+        /**
+         * The name of the table.
+         */
+        private final String name;
+
+        /**
+         * The columns of the table, in their order.
+         */
+        private final List<Column> columns = new ArrayList<>();
+
+        /**
+         * The indexes of the table by their name.
+         */
+        private final Map<String, Index> indexes = new LinkedHashMap<>();
+
+        /**
+         * Table constructor.
+         * @param       name the name of the table.
+         */
+        private Table(String name) {
+            this.name = name;
+        }
+
+        /**
+         * This method is a getter for the name variable.
+         * @return      the name of the table.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * This method is a getter for the columns variable.
+         * @return      the columns of the table, in their order, the list cannot be modified.
+         */
+        public List<Column> getColumns() {
+            return Collections.unmodifiableList(columns);
+        }
+
+        /**
+         * This method returns a column of the table.
+         * @param       columnName the name of the column, compared ignoring the case, as MySQL does.
+         * @return      the column, {@code null} if the table has no such column.
+         */
+        public Column getColumn(String columnName) {
+            for (Column column : columns) {
+                if (column.name.equalsIgnoreCase(columnName)) {
+                    return column;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * This method returns the names of the columns of the table.
+         * @return      the names of the columns, in their order.
+         */
+        public String[] getColumnNames() {
+            String[] columnNames = new String[columns.size()];
+            for (int i = 0; i < columnNames.length; i++) {
+                columnNames[i] = columns.get(i).name;
+            }
+            return columnNames;
+        }
+
+        /**
+         * This method returns the columns of the primary key of the table.
+         * @return      the names of the columns of the primary key, in the order of the key, empty if the table has no primary key.
+         */
+        public String[] getPrimaryKey() {
+            Index primaryKey = indexes.get(PRIMARY);
+            return (primaryKey != null) ? primaryKey.columns.toArray(new String[0]) : new String[0];
+        }
+
+        /**
+         * This method is a getter for the indexes variable.
+         * @return      the indexes of the table by their name, the primary key is named {@code PRIMARY}, the map cannot be modified.
+         */
+        public Map<String, Index> getIndexes() {
+            return Collections.unmodifiableMap(indexes);
+        }
+    }
+
+    /**
+     * The Column class holds the metadata of a column of a table.
+     * @since       1.1
+     * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+     */
+    public static final class Column {
+
+        /**
+         * The name of the column.
+         */
+        private final String name;
+
+        /**
+         * The position of the column in the table, from <i>1</i>.
+         */
+        private final int position;
+
+        /**
+         * The data type of the column, such as {@code varchar}.
+         */
+        private final String dataType;
+
+        /**
+         * The full type of the column, such as {@code varchar(255)}.
+         */
+        private final String columnType;
+
+        /**
+         * Whether the column accepts {@code NULL}.
+         */
+        private final boolean nullable;
+
+        /**
+         * The extra information of the column, such as {@code auto_increment}.
+         */
+        private final String extra;
+
+        /**
+         * Column constructor.
+         * @param       name the name of the column.
+         * @param       position the position of the column in the table, from <i>1</i>.
+         * @param       dataType the data type of the column.
+         * @param       columnType the full type of the column.
+         * @param       nullable whether the column accepts {@code NULL}.
+         * @param       extra the extra information of the column.
+         */
+        private Column(String name, int position, String dataType, String columnType, boolean nullable, String extra) {
+            this.name = name;
+            this.position = position;
+            this.dataType = dataType;
+            this.columnType = columnType;
+            this.nullable = nullable;
+            this.extra = (extra != null) ? extra : "";
+        }
+
+        /**
+         * This method is a getter for the name variable.
+         * @return      the name of the column.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * This method is a getter for the position variable.
+         * @return      the position of the column in the table, from <i>1</i>.
+         */
+        public int getPosition() {
+            return position;
+        }
+
+        /**
+         * This method is a getter for the dataType variable.
+         * @return      the data type of the column, such as {@code varchar}.
+         */
+        public String getDataType() {
+            return dataType;
+        }
+
+        /**
+         * This method is a getter for the columnType variable.
+         * @return      the full type of the column, such as {@code varchar(255)}.
+         */
+        public String getColumnType() {
+            return columnType;
+        }
+
+        /**
+         * This method is a getter for the nullable variable.
+         * @return      {@code true} if the column accepts {@code NULL}.
+         */
+        public boolean isNullable() {
+            return nullable;
+        }
+
+        /**
+         * This method tells whether the value of the column is generated by {@code AUTO_INCREMENT}.
+         * @return      {@code true} if the column is auto increment.
+         */
+        public boolean isAutoIncrement() {
+            return extra.toLowerCase().contains("auto_increment");
+        }
+    }
+
+    /**
+     * The Index class holds the metadata of an index of a table.
+     * @since       1.1
+     * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+     */
+    public static final class Index {
+
+        /**
+         * The name of the index.
+         */
+        private final String name;
+
+        /**
+         * Whether the index is unique.
+         */
+        private final boolean unique;
+
+        /**
+         * The columns of the index, in the order of the index.
+         */
+        private final List<String> columns = new ArrayList<>();
+
+        /**
+         * Index constructor.
+         * @param       name the name of the index.
+         * @param       unique whether the index is unique.
+         */
+        private Index(String name, boolean unique) {
+            this.name = name;
+            this.unique = unique;
+        }
+
+        /**
+         * This method is a getter for the name variable.
+         * @return      the name of the index.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * This method is a getter for the unique variable.
+         * @return      {@code true} if the index is unique.
+         */
+        public boolean isUnique() {
+            return unique;
+        }
+
+        /**
+         * This method tells whether the index is the primary key.
+         * @return      {@code true} if the index is the primary key.
+         */
+        public boolean isPrimaryKey() {
+            return Table.PRIMARY.equals(name);
+        }
+
+        /**
+         * This method is a getter for the columns variable.
+         * @return      the names of the columns of the index, in the order of the index, the list cannot be modified.
+         */
+        public List<String> getColumns() {
+            return Collections.unmodifiableList(columns);
+        }
+    }
+}
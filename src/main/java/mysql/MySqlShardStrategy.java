@@ -0,0 +1,23 @@
+package mysql;
+
+/**
+ * {@code MySqlShardStrategy} decides which shard of a {@link mysql.MySqlShardedConnector MySqlShardedConnector} holds a shard key.
+ * <ul>
+ *     <li>The same key must always be routed to the same shard, as long as the number of shards does not change.</li>
+ *     <li>Implementations must be thread-safe, the connector routes from many threads at once.</li>
+ * </ul>
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ * @see         mysql.MySqlConsistentHashStrategy
+ */
+@FunctionalInterface
+public interface MySqlShardStrategy {
+
+    /**
+     * {@code shard} returns the index of the shard holding the key.
+     * @param       shardKey the value of the shard key, such as a customer id, it is never {@code null}.
+     * @param       shardCount the number of shards, at least <i>1</i>.
+     * @return      the index of the shard, from <i>0</i> to {@code shardCount - 1}.
+     */
+    public int shard(Object shardKey, int shardCount);
+}
@@ -0,0 +1,342 @@
+package mysql;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * The MySqlShardedConnector class spreads one logical table over several {@link mysql.MySqlConnector MySqlConnector} backends, the shards.
+ * <ul>
+ *     <li>Writes and single-shard reads are routed by a shard key, with a pluggable {@link mysql.MySqlShardStrategy MySqlShardStrategy},
+ *     by default a {@link mysql.MySqlConsistentHashStrategy MySqlConsistentHashStrategy}.</li>
+ *     <li>The {@code mysqlSet} methods take the same parameters as those of {@code MySqlConnector},
+ *     the shard key is the parameter at {@code shardKeyIndex}, so the calling code does not change.
+ *     A write without a shard key is rejected, a broadcast to every shard is asked for with {@code mysqlSetAll}.</li>
+ *     <li>Scatter-gather queries run on every shard in parallel, with the asynchronous operations of the shards,
+ *     and their rows are concatenated, or merged in the order of a column.</li>
+ * </ul>
+ * The shards must have the same tables, every row lives on the shard of its shard key.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlShardedConnector {
+
+    /**
+     * It is used to store the shards, the index of a shard is its position in the list.
+     */
+    private final List<MySqlConnector> shards;
+
+    /**
+     * Decides which shard holds a shard key.
+     */
+    private volatile MySqlShardStrategy shardStrategy = new MySqlConsistentHashStrategy();
+
+    /**
+     * The index of the statement parameter holding the shard key, from <i>0</i>.
+     */
+    private volatile int shardKeyIndex = 0;
+
+    /**
+     * Sharded connector constructor.
+     * @param       shards the backends, each connected to its own MySQL server.
+     * @throws      IllegalArgumentException if there are no shards.
+     */
+    public MySqlShardedConnector(List<? extends MySqlConnector> shards)
+    throws IllegalArgumentException {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("Sharded connector needs at least one shard!");
+        }
+        this.shards = List.copyOf(shards);
+    }
+
+    /**
+     * This method is a getter for the shards variable.
+     * @return      the shards, in the order of their indexes.
+     */
+    public List<MySqlConnector> getShards() {
+        return shards;
+    }
+
+    /**
+     * This method is a getter for the shardStrategy variable.
+     * @return      the strategy routing the shard keys.
+     */
+    public MySqlShardStrategy getShardStrategy() {
+        return shardStrategy;
+    }
+
+    /**
+     * This method is a getter for the shardKeyIndex variable.
+     * @return      the index of the statement parameter holding the shard key.
+     */
+    public int getShardKeyIndex() {
+        return shardKeyIndex;
+    }
+
+    /**
+     * This method is a setter for the shardStrategy variable.
+     * @param       shardStrategy the strategy routing the shard keys.
+     */
+    public void setShardStrategy(MySqlShardStrategy shardStrategy) {
+        this.shardStrategy = shardStrategy;
+    }
+
+    /**
+     * This method is a setter for the shardKeyIndex variable.
+     * @param       shardKeyIndex the index of the statement parameter holding the shard key, from <i>0</i>.
+     * @throws      IllegalArgumentException if the index is negative.
+     */
+    public void setShardKeyIndex(int shardKeyIndex)
+    throws IllegalArgumentException {
+        if (shardKeyIndex < 0) {
+            throw new IllegalArgumentException("Shard key index is not correct: " + shardKeyIndex);
+        }
+        this.shardKeyIndex = shardKeyIndex;
+    }
+
+    /**
+     * {@code shardFor} returns the shard holding a shard key.
+     * @param       shardKey the value of the shard key.
+     * @return      the shard of the key.
+     * @throws      IllegalArgumentException if the key is {@code null}.
+     */
+    public MySqlConnector shardFor(Object shardKey)
+    throws IllegalArgumentException {
+        if (shardKey == null) {
+            throw new IllegalArgumentException("Shard key is null!");
+        }
+        return shards.get(shardStrategy.shard(shardKey, shards.size()));
+    }
+
+    /**
+     * {@code mysqlConnection} connects every shard.
+     * @throws      SQLException if a shard cannot be connected, the shards connected so far stay connected.
+     * @see         mysql.MySqlConnector#mysqlConnection()
+     */
+    public void mysqlConnection()
+    throws SQLException {
+        for (MySqlConnector shard : shards) {
+            shard.mysqlConnection();
+        }
+    }
+
+    /**
+     * {@code mysqlDisconnection} disconnects every shard, even if one of them fails.
+     * @throws      SQLException the error of the first shard that failed to disconnect.
+     * @see         mysql.MySqlConnector#mysqlDisconnection()
+     */
+    public void mysqlDisconnection()
+    throws SQLException {
+        SQLException failure = null;
+        for (MySqlConnector shard : shards) {
+            try {
+                shard.mysqlDisconnection();
+            } catch (SQLException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * {@code mysqlGet} runs a query on the shard of the shard key.
+     * @param       shardKey the value of the shard key the query reads.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @return      Values read from MySql stored in a two-dimensional String array.
+     * @throws      SQLException if it runs into some other MySql error while running.
+     * @see         mysql.MySqlConnector#mysqlGet(String)
+     */
+    public String[][] mysqlGet(Object shardKey, String mysqlInstructions)
+    throws SQLException {
+        return shardFor(shardKey).mysqlGet(mysqlInstructions);
+    }
+
+    /**
+     * {@code mysqlGetAll} runs a query on every shard in parallel (scatter-gather) and concatenates the rows in the order of the shards.
+     * An aggregate, such as {@code COUNT(*)}, returns one row for every shard.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @return      the rows of every shard.
+     * @throws      SQLException the error of the first shard that failed.
+     */
+    public String[][] mysqlGetAll(String mysqlInstructions)
+    throws SQLException {
+        List<String[]> rows = new ArrayList<>();
+        for (String[][] shardRows : scatter(mysqlInstructions)) {
+            rows.addAll(List.of(shardRows));
+        }
+        return rows.toArray(new String[0][]);
+    }
+
+    /**
+     * {@code mysqlGetMerged} runs an ordered query on every shard in parallel and merges the rows, keeping their order.
+     * <ul>
+     *     <li>The query must sort its rows with {@code ORDER BY} on the column at {@code orderColumn}, in the order of the comparator.</li>
+     *     <li>The sorted rows of the shards are merged with a k-way merge, so the rows are compared only {@code log(shards)} times each.</li>
+     *     <li>A {@code LIMIT n} of the query applies to every shard, the first {@code n} merged rows are the first {@code n} rows overall.</li>
+     * </ul>
+     * @param       mysqlInstructions MySql instruction with an {@code ORDER BY} clause.
+     * @param       orderColumn the index of the column the rows are sorted by, from <i>0</i>.
+     * @param       order the order of the values of the column, the same as the order of the {@code ORDER BY} clause,
+     *              for example {@code Comparator.nullsFirst(Comparator.comparing(Long::valueOf))} for a numeric column.
+     * @return      the rows of every shard, in order.
+     * @throws      SQLException the error of the first shard that failed.
+     */
+    public String[][] mysqlGetMerged(String mysqlInstructions, int orderColumn, Comparator<String> order)
+    throws SQLException {
+        List<String[][]> shardRows = scatter(mysqlInstructions);
+        Comparator<int[]> cursorOrder = Comparator.comparing(cursor -> shardRows.get(cursor[0])[cursor[1]][orderColumn], order);
+        PriorityQueue<int[]> cursors = new PriorityQueue<>(shardRows.size(), cursorOrder.thenComparingInt(cursor -> cursor[0]));
+        int total = 0;
+        for (int shard = 0; shard < shardRows.size(); shard++) {
+            total += shardRows.get(shard).length;
+            if (shardRows.get(shard).length > 0) {
+                cursors.add(new int[]{shard, 0});
+            }
+        }
+        String[][] rows = new String[total][];
+        int next = 0;
+        while (!cursors.isEmpty()) {
+            int[] cursor = cursors.poll();
+            rows[next++] = shardRows.get(cursor[0])[cursor[1]];
+            if (++cursor[1] < shardRows.get(cursor[0]).length) {
+                cursors.add(cursor);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * {@code mysqlSet} is rejected: a statement without parameters has no shard key, so the shard of its rows is unknown,
+     * and writing it on every shard would duplicate the rows it inserts.
+     * A statement meant for every shard, such as a DDL or a maintenance {@code UPDATE}, is run with {@link #mysqlSetAll(String)}.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @throws      IllegalArgumentException always, the statement has no shard key.
+     * @see         #mysqlSetAll(String)
+     */
+    public void mysqlSet(String mysqlInstructions)
+    throws IllegalArgumentException {
+        throw new IllegalArgumentException("Statement has no shard key, mysqlSetAll runs it on every shard: " + mysqlInstructions);
+    }
+
+    /**
+     * {@code mysqlSetAll} runs a statement on every shard in parallel (broadcast).
+     * A statement inserting rows is written once on every shard, so it is meant for statements touching rows of any shard,
+     * or the tables themselves.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @throws      SQLException the error of the first shard that failed, the other shards still executed the statement.
+     * @see         mysql.MySqlConnector#mysqlSet(String)
+     */
+    public void mysqlSetAll(String mysqlInstructions)
+    throws SQLException {
+        gather(shards, shard -> shard.mysqlSetAsync(mysqlInstructions));
+    }
+
+    /**
+     * {@code mysqlSetVarargs} runs a statement on the shard of the parameter at {@code shardKeyIndex}.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @param       update the values set as parameters of the statement.
+     * @throws      SQLException if it runs into some other MySql error while running.
+     * @throws      IllegalArgumentException if there is no shard key parameter or it is {@code null}.
+     * @see         mysql.MySqlConnector#mysqlSetVarargs(String, Object...)
+     */
+    public void mysqlSetVarargs(String mysqlInstructions, Object... update)
+    throws SQLException, IllegalArgumentException {
+        shardFor(shardKey(update.length, update)).mysqlSetVarargs(mysqlInstructions, update);
+    }
+
+    /**
+     * {@code mysqlSet} runs a statement on the shard of the parameter at {@code shardKeyIndex}.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @param       update the values set as parameters of the statement.
+     * @throws      SQLException if it runs into some other MySql error while running.
+     * @throws      IllegalArgumentException if there is no shard key parameter or it is {@code null}.
+     * @see         mysql.MySqlConnector#mysqlSet(String, Object[])
+     */
+    public void mysqlSet(String mysqlInstructions, Object[] update)
+    throws SQLException, IllegalArgumentException {
+        shardFor(shardKey(update.length, update)).mysqlSet(mysqlInstructions, update);
+    }
+
+    /**
+     * {@code mysqlSet} runs a statement on the shard of the parameter at {@code shardKeyIndex}.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @param       update the values set as parameters of the statement.
+     * @throws      SQLException if it runs into some other MySql error while running.
+     * @throws      IllegalArgumentException if there is no shard key parameter or it is {@code null}.
+     * @see         mysql.MySqlConnector#mysqlSet(String, List)
+     */
+    public void mysqlSet(String mysqlInstructions, List<Object> update)
+    throws SQLException, IllegalArgumentException {
+        shardFor(shardKey(update.size(), update.toArray())).mysqlSet(mysqlInstructions, update);
+    }
+
+    /**
+     * Returns the shard key among the parameters of a statement.
+     * @param       count the number of parameters.
+     * @param       update the parameters.
+     * @return      the parameter at {@code shardKeyIndex}.
+     * @throws      IllegalArgumentException if there is no parameter at {@code shardKeyIndex}.
+     */
+    private Object shardKey(int count, Object[] update)
+    throws IllegalArgumentException {
+        int index = shardKeyIndex;
+        if (index >= count) {
+            throw new IllegalArgumentException("No shard key parameter at index " + index + ", the statement has " + count + " parameters!");
+        }
+        return update[index];
+    }
+
+    /**
+     * Runs a query on every shard in parallel.
+     * @param       mysqlInstructions MySql instruction, text string containing instructions.
+     * @return      the rows of each shard, in the order of the shards.
+     * @throws      SQLException the error of the first shard that failed.
+     */
+    private List<String[][]> scatter(String mysqlInstructions)
+    throws SQLException {
+        return gather(shards, shard -> shard.mysqlGetAsync(mysqlInstructions));
+    }
+
+    /**
+     * Starts an asynchronous operation on every shard, and waits for all of them.
+     * @param       shards the shards to run on.
+     * @param       operation starts the operation on a shard.
+     * @param       <R> the type of the result.
+     * @return      the results, in the order of the shards.
+     * @throws      SQLException the error of the first shard that failed, after every shard finished.
+     */
+    private static <R> List<R> gather(List<MySqlConnector> shards, Function<MySqlConnector, CompletableFuture<R>> operation)
+    throws SQLException {
+        List<CompletableFuture<R>> futures = new ArrayList<>();
+        for (MySqlConnector shard : shards) {
+            futures.add(operation.apply(shard));
+        }
+        List<R> results = new ArrayList<>();
+        SQLException failure = null;
+        for (CompletableFuture<R> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for the shards!", e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = (e.getCause() instanceof SQLException) ? (SQLException) e.getCause() : new SQLException(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+}
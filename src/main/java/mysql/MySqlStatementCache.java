@@ -0,0 +1,275 @@
+package mysql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The MySqlStatementCache class keeps the prepared statements of one connection, keyed by their SQL text.
+ * A statement prepared again with the same SQL text is taken from the cache,
+ * so the driver does not parse and prepare it again.
+ * <ul>
+ *     <li>The cache holds at most {@code capacity} statements, the least recently used statement is closed and evicted first.</li>
+ *     <li>A capacity of <i>0</i> turns the cache off, every statement is prepared again and closed after use.</li>
+ *     <li>A statement prepared to return the generated keys is cached apart from the plain statement of the same SQL text.</li>
+ *     <li>A statement taken from the cache belongs to the caller until it is handed back with {@link #releaseStatement(PreparedStatement)}.
+ *     If the same SQL text is prepared again meanwhile, an uncached statement is created for the second caller.</li>
+ *     <li>Statements handed out are watched by a {@link mysql.MySqlLeakDetector MySqlLeakDetector}, if one is given.</li>
+ * </ul>
+ * The cache belongs to a single connection, it is used by the thread that borrowed the connection,
+ * only the hit and miss counters may be read from other threads.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlStatementCache
+implements AutoCloseable {
+
+    /**
+     * Marks the cache key of a statement prepared to return the generated keys, it cannot start a SQL text.
+     */
+    private static final String GENERATED_KEYS = "\0RETURN_GENERATED_KEYS\0";
+
+    /**
+     * The connection the statements are prepared on.
+     */
+    private final Connection connection;
+
+    /**
+     * The largest number of statements kept open.
+     */
+    private final int capacity;
+
+    /**
+     * Watches the statements handed out, it may be turned off.
+     */
+    private final MySqlLeakDetector leakDetector;
+
+    /**
+     * Cached statements in access order, the least recently used first.
+     */
+    private final LinkedHashMap<String, PreparedStatement> statements;
+
+    /**
+     * Statements handed out and not yet released, with the SQL text they were prepared with.
+     */
+    private final Map<PreparedStatement, String> statementsInUse = new IdentityHashMap<>();
+
+    /**
+     * Counts the statements found in the cache.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Counts the statements that had to be prepared.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Counts the statements closed because the cache was full.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Statement cache constructor without leak detection.
+     * @param       connection the connection the statements are prepared on.
+     * @param       capacity the largest number of statements kept open, <i>0</i> turns the cache off.
+     * @throws      IllegalArgumentException if the capacity is negative.
+     */
+    public MySqlStatementCache(Connection connection, int capacity)
+    throws IllegalArgumentException {
+        this(connection, capacity, new MySqlLeakDetector());
+    }
+
+    /**
+     * Statement cache constructor.
+     * @param       connection the connection the statements are prepared on.
+     * @param       capacity the largest number of statements kept open, <i>0</i> turns the cache off.
+     * @param       leakDetector watches the statements handed out.
+     * @throws      IllegalArgumentException if the capacity is negative.
+     */
+    public MySqlStatementCache(Connection connection, int capacity, MySqlLeakDetector leakDetector)
+    throws IllegalArgumentException {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Statement cache capacity is not correct: " + capacity);
+        }
+        this.connection = connection;
+        this.capacity = capacity;
+        this.leakDetector = leakDetector;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > MySqlStatementCache.this.capacity) {
+                    evictions.increment();
+                    if (!statementsInUse.containsKey(eldest.getValue())) {
+                        closeQuietly(eldest.getValue());
+                    }
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * This method is a getter for the connection variable.
+     * @return      the connection the statements are prepared on.
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * This method is a getter for the leakDetector variable.
+     * @return      the leak detector watching the statements handed out.
+     */
+    MySqlLeakDetector getLeakDetector() {
+        return leakDetector;
+    }
+
+    /**
+     * This method is a getter for the capacity variable.
+     * @return      the largest number of statements kept open.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * This method returns the number of statements currently cached.
+     * @return      the number of cached statements.
+     */
+    public int size() {
+        return statements.size();
+    }
+
+    /**
+     * This method returns how many times a statement was found in the cache.
+     * @return      the number of cache hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * This method returns how many times a statement had to be prepared.
+     * @return      the number of cache misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * This method returns how many statements were closed because the cache was full.
+     * @return      the number of evictions.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * {@code prepareStatement} returns a prepared statement for the SQL text.
+     * <ul>
+     *     <li>If the statement is cached and not in use, it is returned without preparing it again.</li>
+     *     <li>Otherwise the statement is prepared on the connection and, if the SQL text is not in use, it is added to the cache.
+     *     Adding it may close the least recently used statement.</li>
+     * </ul>
+     * The statement must be handed back with {@link #releaseStatement(PreparedStatement)}, and never closed directly.
+     * @param       sql MySql instruction, text string containing instructions.
+     * @return      a prepared statement reserved for the caller.
+     * @throws      SQLException if the statement cannot be prepared.
+     */
+    public PreparedStatement prepareStatement(String sql)
+    throws SQLException {
+        return prepareStatement(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    /**
+     * {@code prepareStatement} returns a prepared statement for the SQL text, which returns the generated keys if it is asked to,
+     * as {@link #prepareStatement(String)} does.
+     * @param       sql MySql instruction, text string containing instructions.
+     * @param       autoGeneratedKeys {@link java.sql.Statement#RETURN_GENERATED_KEYS RETURN_GENERATED_KEYS}
+     *              or {@link java.sql.Statement#NO_GENERATED_KEYS NO_GENERATED_KEYS}.
+     * @return      a prepared statement reserved for the caller.
+     * @throws      SQLException if the statement cannot be prepared.
+     */
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys)
+    throws SQLException {
+        boolean generatedKeys = (autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS);
+        String key = generatedKeys ? (GENERATED_KEYS + sql) : sql;
+        PreparedStatement statement = statements.get(key);
+        if ((statement != null) && !statementsInUse.containsKey(statement)) {
+            hits.increment();
+        } else {
+            misses.increment();
+            boolean cacheable = (capacity > 0) && (statement == null);
+            statement = generatedKeys ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS) : connection.prepareStatement(sql);
+            if (cacheable) {
+                statements.put(key, statement);
+            }
+        }
+        statementsInUse.put(statement, key);
+        if (leakDetector.isEnabled()) {
+            leakDetector.track(statement, "PreparedStatement [" + sql + "]");
+        }
+        return statement;
+    }
+
+    /**
+     * {@code releaseStatement} hands back a statement received from {@link #prepareStatement(String)}.
+     * <ul>
+     *     <li>A cached statement has its parameters cleared and stays open for the next caller.</li>
+     *     <li>An uncached or evicted statement is closed.</li>
+     *     <li>A cached statement whose parameters cannot be cleared is removed from the cache and closed.</li>
+     * </ul>
+     * The method never throws, so it can be called from a {@code finally} block without hiding the original exception.
+     * @param       statement the statement to hand back.
+     */
+    public void releaseStatement(PreparedStatement statement) {
+        leakDetector.untrack(statement);
+        String sql = statementsInUse.remove(statement);
+        if ((sql != null) && (statements.get(sql) == statement)) {
+            try {
+                statement.clearParameters();
+                return;
+            } catch (SQLException e) {
+                statements.remove(sql);
+            }
+        }
+        closeQuietly(statement);
+    }
+
+    /**
+     * {@code close} closes every cached statement and every statement still in use, and empties the cache.
+     * Errors of statements on a broken connection are ignored.
+     */
+    @Override
+    public void close() {
+        for (PreparedStatement statement : statements.values()) {
+            closeQuietly(statement);
+        }
+        for (Map.Entry<PreparedStatement, String> inUse : statementsInUse.entrySet()) {
+            leakDetector.untrack(inUse.getKey());
+            if (statements.get(inUse.getValue()) != inUse.getKey()) {
+                closeQuietly(inUse.getKey());
+            }
+        }
+        statements.clear();
+        statementsInUse.clear();
+    }
+
+    /**
+     * Closes a statement, ignoring the errors of a statement on a broken connection.
+     * @param       statement the statement to close.
+     */
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package mysql;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+
+/**
+ * The MySqlTsvInputStream class serializes rows into the default text format of {@code LOAD DATA} while it is read,
+ * so the rows are never held in memory or written to a file all at once.
+ * <ul>
+ *     <li>The fields are separated by tabs and the lines end with a newline.</li>
+ *     <li>A {@code null} value is written as {@code \N}.</li>
+ *     <li>The backslash, the tab, the newline, the carriage return and the zero byte are escaped with a backslash,
+ *     so any text or binary value is read back unchanged.</li>
+ *     <li>Texts are encoded in the given charset, binary values are written as they are,
+ *     {@code Boolean} values as <i>1</i> or <i>0</i>, other values by their string form.</li>
+ *     <li>A wrong row or an error of the iterator is thrown as an {@code IOException}, so the driver ends the transfer
+ *     and the connection stays usable.</li>
+ * </ul>
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+final class MySqlTsvInputStream
+extends InputStream {
+
+    /**
+     * The rows that are not serialized yet.
+     */
+    private final Iterator<Object[]> rows;
+
+    /**
+     * The number of values of every row.
+     */
+    private final int columnCount;
+
+    /**
+     * The charset of the texts.
+     */
+    private final Charset charset;
+
+    /**
+     * The serialized line of the current row.
+     */
+    private byte[] line = new byte[256];
+
+    /**
+     * The number of bytes of the current line.
+     */
+    private int length = 0;
+
+    /**
+     * The index of the next byte to read of the current line.
+     */
+    private int position = 0;
+
+    /**
+     * The number of rows serialized so far.
+     */
+    private long rowCount = 0L;
+
+    /**
+     * TSV input stream constructor.
+     * @param       rows the rows to serialize.
+     * @param       columnCount the number of values of every row.
+     * @param       charset the charset of the texts.
+     */
+    MySqlTsvInputStream(Iterator<Object[]> rows, int columnCount, Charset charset) {
+        this.rows = rows;
+        this.columnCount = columnCount;
+        this.charset = charset;
+    }
+
+    /**
+     * This method is a getter for the rowCount variable.
+     * @return      the number of rows serialized so far.
+     */
+    long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * {@code read} returns the next byte of the serialized rows.
+     * @return      the next byte, <i>-1</i> after the last row.
+     * @throws      IOException if a row does not have a value for each column, or the iterator fails.
+     */
+    @Override
+    public int read()
+    throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return line[position++] & 0xFF;
+    }
+
+    /**
+     * {@code read} copies the next bytes of the serialized rows into the buffer, without crossing the end of a line.
+     * @param       buffer the buffer the bytes are copied to.
+     * @param       offset the index of the first byte in the buffer.
+     * @param       count the largest number of bytes to copy.
+     * @return      the number of bytes copied, <i>-1</i> after the last row.
+     * @throws      IOException if a row does not have a value for each column, or the iterator fails.
+     */
+    @Override
+    public int read(byte[] buffer, int offset, int count)
+    throws IOException {
+        if (count == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int copied = Math.min(count, (length - position));
+        System.arraycopy(line, position, buffer, offset, copied);
+        position += copied;
+        return copied;
+    }
+
+    /**
+     * {@code fill} serializes the next row when the current line is read to the end.
+     * @return      {@code true} if there are bytes to read.
+     * @throws      IOException if a row does not have a value for each column, or the iterator fails.
+     */
+    private boolean fill()
+    throws IOException {
+        while (position == length) {
+            Object[] row;
+            try {
+                if (!rows.hasNext()) {
+                    return false;
+                }
+                row = rows.next();
+            } catch (RuntimeException e) {
+                throw new IOException("Row " + (rowCount + 1) + " cannot be read!", e);
+            }
+            if (row.length != columnCount) {
+                throw new IOException("Row " + (rowCount + 1) + " has " + row.length + " values for " + columnCount + " columns!");
+            }
+            length = 0;
+            position = 0;
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    append((byte) '\t');
+                }
+                appendValue(row[i]);
+            }
+            append((byte) '\n');
+            rowCount++;
+        }
+        return true;
+    }
+
+    /**
+     * {@code appendValue} appends a value to the current line, escaped.
+     * @param       value the value, {@code null} is written as {@code \N}.
+     */
+    private void appendValue(Object value) {
+        if (value == null) {
+            append((byte) '\\');
+            append((byte) 'N');
+            return;
+        }
+        byte[] bytes;
+        if (value instanceof byte[]) {
+            bytes = (byte[]) value;
+        } else if (value instanceof Boolean) {
+            bytes = new byte[]{(byte) (((Boolean) value) ? '1' : '0')};
+        } else {
+            bytes = value.toString().getBytes(charset);
+        }
+        for (byte b : bytes) {
+            if (b == '\\') {
+                escape((byte) '\\');
+            } else if (b == '\t') {
+                escape((byte) 't');
+            } else if (b == '\n') {
+                escape((byte) 'n');
+            } else if (b == '\r') {
+                escape((byte) 'r');
+            } else if (b == 0) {
+                escape((byte) '0');
+            } else {
+                append(b);
+            }
+        }
+    }
+
+    /**
+     * {@code escape} appends a backslash and the escaped character to the current line.
+     * @param       b the character after the backslash.
+     */
+    private void escape(byte b) {
+        append((byte) '\\');
+        append(b);
+    }
+
+    /**
+     * {@code append} appends a byte to the current line, the line grows when it is full.
+     * @param       b the byte to append.
+     */
+    private void append(byte b) {
+        if (length == line.length) {
+            byte[] grown = new byte[line.length * 2];
+            System.arraycopy(line, 0, grown, 0, length);
+            line = grown;
+        }
+        line[length++] = b;
+    }
+}
@@ -0,0 +1,68 @@
+package mysql;
+
+/**
+ * The MySqlUpsertResult class reports the outcome of a bulk upsert,
+ * created by {@link mysql.MySqlConnector#mysqlUpsertRows(String, String[], String[], java.util.Iterator) mysqlUpsertRows()}.
+ * <ul>
+ *     <li>The server reports the affected rows of a multi-row {@code INSERT ... ON DUPLICATE KEY UPDATE} as a sum,
+ *     <i>1</i> for every inserted row and <i>2</i> for every updated row, so the updated rows are the affected rows above the number of rows.</li>
+ *     <li>An existing row whose values were already the same counts as <i>1</i> with the default connection parameters,
+ *     so it is counted among the inserted rows, the server does not tell them apart.</li>
+ * </ul>
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public final class MySqlUpsertResult {
+
+    /**
+     * The number of rows sent.
+     */
+    private final long rowCount;
+
+    /**
+     * The sum of the affected rows reported by the server.
+     */
+    private final long affectedRows;
+
+    /**
+     * Upsert result constructor.
+     * @param       rowCount the number of rows sent.
+     * @param       affectedRows the sum of the affected rows reported by the server.
+     */
+    MySqlUpsertResult(long rowCount, long affectedRows) {
+        this.rowCount = rowCount;
+        this.affectedRows = affectedRows;
+    }
+
+    /**
+     * This method is a getter for the rowCount variable.
+     * @return      the number of rows sent.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * This method is a getter for the affectedRows variable.
+     * @return      the sum of the affected rows reported by the server.
+     */
+    public long getAffectedRows() {
+        return affectedRows;
+    }
+
+    /**
+     * This method returns the number of existing rows that were updated.
+     * @return      the affected rows above the number of rows.
+     */
+    public long getUpdatedRows() {
+        return Math.max(0L, (affectedRows - rowCount));
+    }
+
+    /**
+     * This method returns the number of rows inserted, with the existing rows left unchanged.
+     * @return      the number of rows that were not updated.
+     */
+    public long getInsertedRows() {
+        return (rowCount - getUpdatedRows());
+    }
+}
@@ -0,0 +1,580 @@
+package mysql;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The MySqlWriteBehindBuffer class collects small writes in front of a {@link mysql.MySqlConnector MySqlConnector}
+ * and writes them in batches from a background thread, so a caller writing thousands of times per second does not wait for the database.
+ * <ul>
+ *     <li>The writes go into a bounded queue. A write waits while the queue is full, so a slow database slows the writers down
+ *     instead of filling the memory, {@link #tryWrite(String, Object...)} gives up instead of waiting.</li>
+ *     <li>The flusher thread takes the queued writes when {@code batchSize} of them are waiting, or {@code flushInterval}
+ *     milliseconds after the previous flush, and groups them by their statement. Every group is written with
+ *     {@link mysql.MySqlConnector#mysqlSetBatch(String, List, int) mysqlSetBatch()}, in the order the statements first appeared.
+ *     The writes of one statement keep their order, writes of different statements may be reordered within a flush.</li>
+ *     <li>A write with a key, {@link #writeCoalesced(String, Object, Object...)}, replaces the parameters of a queued write
+ *     of the same statement and key, so repeated updates of the same row are written once, with the last values.</li>
+ *     <li>A failing batch is counted and kept as the last failure, its writes are lost, the flusher goes on with the next one.</li>
+ *     <li>{@link #flush()} waits until every write made before it is written, {@link #close()} writes the queued writes and stops the flusher.</li>
+ * </ul>
+ * <pre>{@code
+ * try (MySqlWriteBehindBuffer buffer = new MySqlWriteBehindBuffer(mysql, 10_000, 500, 100L)) {
+ *     buffer.write("INSERT INTO events_t (sensor, value) VALUES (?, ?)", sensor, value);
+ *     buffer.writeCoalesced("UPDATE sensors_t SET last_value = ? WHERE id = ?", sensor, value, sensor);
+ * }
+ * }</pre>
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlWriteBehindBuffer
+implements AutoCloseable {
+
+    /**
+     * Numbers the flusher threads.
+     */
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    /**
+     * The connector the writes are written with.
+     */
+    private final MySqlConnector mysqlConnector;
+
+    /**
+     * The largest number of queued writes.
+     */
+    private final int capacity;
+
+    /**
+     * The number of queued writes that starts a flush, and the size of the batches.
+     */
+    private final int batchSize;
+
+    /**
+     * The longest time in milliseconds a write waits in the queue.
+     */
+    private final long flushInterval;
+
+    /**
+     * The queued writes, in the order of writing.
+     */
+    private final ArrayDeque<Write> queue = new ArrayDeque<>();
+
+    /**
+     * The queued writes with a key, by their statement and key.
+     */
+    private final Map<List<Object>, Write> coalescing = new HashMap<>();
+
+    /**
+     * Guards the queue and the counters of the writes.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signalled when there is room in the queue.
+     */
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * Signalled when the flusher has something to do.
+     */
+    private final Condition flushNeeded = lock.newCondition();
+
+    /**
+     * Signalled when a flush finished.
+     */
+    private final Condition flushed = lock.newCondition();
+
+    /**
+     * The sequence number of the last queued write.
+     */
+    private long queuedSequence = 0L;
+
+    /**
+     * The sequence number of the last written write, every write before it is written as well.
+     */
+    private long flushedSequence = 0L;
+
+    /**
+     * The sequence number a {@link #flush()} waits for.
+     */
+    private long requestedSequence = 0L;
+
+    /**
+     * It is used to store whether the buffer was closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * The thread that writes the queued writes.
+     */
+    private final Thread flusher;
+
+    /**
+     * Counts the writes accepted.
+     */
+    private final LongAdder writes = new LongAdder();
+
+    /**
+     * Counts the writes merged into a queued write of the same key.
+     */
+    private final LongAdder coalescedWrites = new LongAdder();
+
+    /**
+     * Counts the writes that waited for room in the queue.
+     */
+    private final LongAdder blockedWrites = new LongAdder();
+
+    /**
+     * Counts the writes written to the database.
+     */
+    private final LongAdder flushedWrites = new LongAdder();
+
+    /**
+     * Counts the writes lost by a failing batch.
+     */
+    private final LongAdder failedWrites = new LongAdder();
+
+    /**
+     * Counts the flushes.
+     */
+    private final LongAdder flushes = new LongAdder();
+
+    /**
+     * The total time in nanoseconds spent flushing.
+     */
+    private final LongAdder flushTime = new LongAdder();
+
+    /**
+     * The longest flush in nanoseconds.
+     */
+    private volatile long maxFlushTime = 0L;
+
+    /**
+     * The error of the last failing batch, {@code null} if no batch failed.
+     */
+    private volatile Exception lastFailure;
+
+    /**
+     * Write-behind buffer constructor, the flusher thread starts at once.
+     * @param       mysqlConnector the connector the writes are written with.
+     * @param       capacity the largest number of queued writes.
+     * @param       batchSize the number of queued writes that starts a flush, and the size of the batches.
+     * @param       flushInterval the longest time in milliseconds a write waits in the queue.
+     * @throws      IllegalArgumentException if the capacity or the batch size is less than <i>1</i>, or the interval is not positive.
+     */
+    public MySqlWriteBehindBuffer(MySqlConnector mysqlConnector, int capacity, int batchSize, long flushInterval)
+    throws IllegalArgumentException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Write-behind capacity is not correct: " + capacity);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size is not correct: " + batchSize);
+        }
+        if (flushInterval < 1L) {
+            throw new IllegalArgumentException("Flush interval is not correct: " + flushInterval);
+        }
+        this.mysqlConnector = mysqlConnector;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        flusher = new Thread(this::runFlusher, ("mysql-write-behind-" + THREAD_NUMBER.incrementAndGet()));
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * This method is a getter for the mysqlConnector variable.
+     * @return      the connector the writes are written with.
+     */
+    public MySqlConnector getMysqlConnector() {
+        return mysqlConnector;
+    }
+
+    /**
+     * This method is a getter for the capacity variable.
+     * @return      the largest number of queued writes.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * This method is a getter for the batchSize variable.
+     * @return      the number of queued writes that starts a flush, and the size of the batches.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * This method is a getter for the flushInterval variable.
+     * @return      the longest time in milliseconds a write waits in the queue.
+     */
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * This method returns the number of writes waiting in the queue.
+     * @return      the depth of the queue.
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method returns the number of writes accepted, including the coalesced ones.
+     * @return      the number of writes.
+     */
+    public long getWriteCount() {
+        return writes.sum();
+    }
+
+    /**
+     * This method returns the number of writes merged into a queued write of the same statement and key.
+     * @return      the number of coalesced writes.
+     */
+    public long getCoalescedCount() {
+        return coalescedWrites.sum();
+    }
+
+    /**
+     * This method returns the number of writes that waited for room in the queue.
+     * @return      the number of writes slowed down by backpressure.
+     */
+    public long getBlockedCount() {
+        return blockedWrites.sum();
+    }
+
+    /**
+     * This method returns the number of writes written to the database.
+     * @return      the number of flushed writes.
+     */
+    public long getFlushedCount() {
+        return flushedWrites.sum();
+    }
+
+    /**
+     * This method returns the number of writes lost by a failing batch.
+     * @return      the number of failed writes.
+     */
+    public long getFailedCount() {
+        return failedWrites.sum();
+    }
+
+    /**
+     * This method returns the number of flushes that wrote at least one write.
+     * @return      the number of flushes.
+     */
+    public long getFlushCount() {
+        return flushes.sum();
+    }
+
+    /**
+     * This method returns the average time of a flush.
+     * @return      the average flush latency in milliseconds, <i>0</i> before the first flush.
+     */
+    public double getAverageFlushLatency() {
+        long count = flushes.sum();
+        return (count == 0L) ? 0.0 : ((flushTime.sum() / 1_000_000.0) / count);
+    }
+
+    /**
+     * This method returns the time of the longest flush.
+     * @return      the longest flush latency in milliseconds.
+     */
+    public double getMaxFlushLatency() {
+        return maxFlushTime / 1_000_000.0;
+    }
+
+    /**
+     * This method is a getter for the lastFailure variable.
+     * @return      the error of the last failing batch, {@code null} if no batch failed.
+     */
+    public Exception getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * This method tells whether the buffer was closed.
+     * @return      {@code true} if {@link #close()} was called.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * {@code write} queues a write, it waits while the queue is full.
+     * @param       mysqlInstructions MySql instruction, the statement with {@code ?} placeholders.
+     * @param       parameters the parameters of the statement.
+     * @throws      IllegalStateException if the buffer was closed.
+     * @throws      InterruptedException if the thread is interrupted while it waits for room in the queue.
+     */
+    public void write(String mysqlInstructions, Object... parameters)
+    throws IllegalStateException, InterruptedException {
+        enqueue(mysqlInstructions, null, parameters, true);
+    }
+
+    /**
+     * {@code writeCoalesced} queues a write with a key, it replaces the parameters of a queued write of the same statement and key,
+     * otherwise it waits while the queue is full.
+     * @param       mysqlInstructions MySql instruction, the statement with {@code ?} placeholders.
+     * @param       key the key of the row the statement writes, for example its primary key.
+     * @param       parameters the parameters of the statement.
+     * @throws      IllegalStateException if the buffer was closed.
+     * @throws      InterruptedException if the thread is interrupted while it waits for room in the queue.
+     */
+    public void writeCoalesced(String mysqlInstructions, Object key, Object... parameters)
+    throws IllegalStateException, InterruptedException {
+        enqueue(mysqlInstructions, Objects.requireNonNull(key), parameters, true);
+    }
+
+    /**
+     * {@code tryWrite} queues a write if there is room in the queue, without waiting.
+     * @param       mysqlInstructions MySql instruction, the statement with {@code ?} placeholders.
+     * @param       parameters the parameters of the statement.
+     * @return      {@code true} if the write was queued, {@code false} if the queue is full.
+     * @throws      IllegalStateException if the buffer was closed.
+     */
+    public boolean tryWrite(String mysqlInstructions, Object... parameters)
+    throws IllegalStateException {
+        try {
+            return enqueue(mysqlInstructions, null, parameters, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * {@code flush} starts a flush at once and waits until every write queued before it is written, or lost by a failing batch.
+     * @throws      InterruptedException if the thread is interrupted while it waits.
+     */
+    public void flush()
+    throws InterruptedException {
+        lock.lock();
+        try {
+            long sequence = queuedSequence;
+            requestedSequence = Math.max(requestedSequence, sequence);
+            flushNeeded.signal();
+            while ((flushedSequence < sequence) && flusher.isAlive()) {
+                flushed.await(flushInterval, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@code close} refuses new writes, writes the queued ones and stops the flusher thread.
+     * Writers waiting for room in the queue get an {@code IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            flushNeeded.signal();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        boolean interrupted = false;
+        while (flusher.isAlive()) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues a write, or merges it into a queued write of the same statement and key.
+     * @param       mysqlInstructions the statement.
+     * @param       key the key of the row, {@code null} if the write is not coalesced.
+     * @param       parameters the parameters of the statement.
+     * @param       wait whether to wait for room in the queue.
+     * @return      {@code true} if the write was queued or merged, {@code false} if the queue is full and it does not wait.
+     * @throws      IllegalStateException if the buffer was closed.
+     * @throws      InterruptedException if the thread is interrupted while it waits for room in the queue.
+     */
+    private boolean enqueue(String mysqlInstructions, Object key, Object[] parameters, boolean wait)
+    throws IllegalStateException, InterruptedException {
+        Objects.requireNonNull(mysqlInstructions);
+        Object[] copy = parameters.clone();
+        List<Object> coalescingKey = (key == null) ? null : Arrays.asList(mysqlInstructions, key);
+        lock.lock();
+        try {
+            checkOpen();
+            if (coalescingKey != null) {
+                Write queued = coalescing.get(coalescingKey);
+                if (queued != null) {
+                    queued.parameters = copy;
+                    writes.increment();
+                    coalescedWrites.increment();
+                    return true;
+                }
+            }
+            if (queue.size() >= capacity) {
+                if (!wait) {
+                    return false;
+                }
+                blockedWrites.increment();
+                while (queue.size() >= capacity) {
+                    notFull.await();
+                    checkOpen();
+                }
+            }
+            Write write = new Write(mysqlInstructions, copy, ++queuedSequence);
+            queue.addLast(write);
+            if (coalescingKey != null) {
+                coalescing.put(coalescingKey, write);
+            }
+            writes.increment();
+            if (queue.size() >= batchSize) {
+                flushNeeded.signal();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Throws if the buffer was closed, it is called with the lock held.
+     * @throws      IllegalStateException if the buffer was closed.
+     */
+    private void checkOpen()
+    throws IllegalStateException {
+        if (closed) {
+            throw new IllegalStateException("MySql write-behind buffer is closed!");
+        }
+    }
+
+    /**
+     * The loop of the flusher thread, it takes the queued writes when a flush is due and writes them,
+     * until the buffer is closed and the queue is empty.
+     */
+    private void runFlusher() {
+        while (true) {
+            List<Write> taken;
+            lock.lock();
+            try {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushInterval);
+                long remaining;
+                while (!closed && (queue.size() < batchSize) && (requestedSequence <= flushedSequence)
+                        && ((remaining = deadline - System.nanoTime()) > 0L)) {
+                    try {
+                        flushNeeded.awaitNanos(remaining);
+                    } catch (InterruptedException ignored) {}
+                }
+                if (closed && queue.isEmpty()) {
+                    flushedSequence = queuedSequence;
+                    flushed.signalAll();
+                    return;
+                }
+                taken = new ArrayList<>(queue);
+                queue.clear();
+                coalescing.clear();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (!taken.isEmpty()) {
+                writeAll(taken);
+            }
+            lock.lock();
+            try {
+                if (!taken.isEmpty()) {
+                    flushedSequence = taken.get(taken.size() - 1).sequence;
+                }
+                if (flushedSequence >= requestedSequence) {
+                    flushed.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes the taken writes, grouped by their statement, in batches of {@code batchSize}.
+     * @param       taken the writes taken from the queue, in the order of writing.
+     */
+    private void writeAll(List<Write> taken) {
+        long start = System.nanoTime();
+        Map<String, List<Object[]>> groups = new LinkedHashMap<>();
+        for (Write write : taken) {
+            groups.computeIfAbsent(write.mysqlInstructions, sql -> new ArrayList<>()).add(write.parameters);
+        }
+        for (Map.Entry<String, List<Object[]>> group : groups.entrySet()) {
+            List<Object[]> rows = group.getValue();
+            try {
+                MySqlBatchResult result = mysqlConnector.mysqlSetBatch(group.getKey(), rows, batchSize);
+                flushedWrites.add(result.getWrittenRows());
+                failedWrites.add(rows.size() - result.getWrittenRows());
+                if (!result.isSuccessful()) {
+                    lastFailure = result.getFailure();
+                }
+            } catch (SQLException | RuntimeException e) {
+                failedWrites.add(rows.size());
+                lastFailure = e;
+            }
+        }
+        long time = System.nanoTime() - start;
+        flushes.increment();
+        flushTime.add(time);
+        if (time > maxFlushTime) {
+            maxFlushTime = time;
+        }
+    }
+
+    /**
+     * {@code Write} is a queued write.
+     */
+    private static final class Write {
+
+        /**
+         * The statement of the write.
+         */
+        private final String mysqlInstructions;
+
+        /**
+         * The parameters of the statement, replaced by a coalesced write.
+         */
+        private Object[] parameters;
+
+        /**
+         * The sequence number of the write.
+         */
+        private final long sequence;
+
+        private Write(String mysqlInstructions, Object[] parameters, long sequence) {
+            this.mysqlInstructions = mysqlInstructions;
+            this.parameters = parameters;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Assertions;
+import org.mockito.Mockito;
+
+import mysql.MySqlConnectionPool;
+import mysql.MySqlConnector;
+
+/**
+ * The shared fixture of the tests running a {@link MySqlConnector} on mocked connections instead of a MySQL server.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MockMySql {
+
+    /**
+     * private Constructor.
+     */
+    private MockMySql() {}
+
+    /**
+     * A mocked connection, it is always valid, and it keeps its auto-commit mode like a real connection, starting in auto-commit mode.
+     * @return      the new mocked connection.
+     * @throws      SQLException never, {@code isValid} and {@code getAutoCommit} are stubbed.
+     */
+    public static Connection newConnection()
+    throws SQLException {
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.isValid(Mockito.anyInt())).thenReturn(true);
+        AtomicBoolean autoCommit = new AtomicBoolean(true);
+        Mockito.doAnswer(invocation -> {
+            autoCommit.set(invocation.getArgument(0));
+            return null;
+        }).when(connection).setAutoCommit(Mockito.anyBoolean());
+        Mockito.when(connection.getAutoCommit()).thenAnswer(invocation -> autoCommit.get());
+        return connection;
+    }
+
+    /**
+     * A connector of <i>database1_db.table1_t</i>, with a pool opening its connections by the factory when it has to grow.
+     * @param       connectionFactory opens the connections of the pool.
+     * @param       maximumPoolSize the largest number of connections of the pool.
+     * @return      the new connector.
+     * @throws      SQLException if the pool cannot be created.
+     */
+    public static MySqlConnector newConnector(MySqlConnectionPool.ConnectionFactory connectionFactory, int maximumPoolSize)
+    throws SQLException {
+        MySqlConnector mysql = new MySqlConnector("username", "password", "database1_db", "table1_t");
+        mysql.setConnectionPool(new MySqlConnectionPool(connectionFactory, 0, maximumPoolSize));
+        return mysql;
+    }
+
+    /**
+     * A connector of <i>database1_db.table1_t</i>, with a pool of the one connection.
+     * @param       connection the connection of the pool.
+     * @return      the new connector.
+     * @throws      SQLException if the pool cannot be created.
+     */
+    public static MySqlConnector newConnector(Connection connection)
+    throws SQLException {
+        return newConnector(() -> connection, 1);
+    }
+
+    /**
+     * Closes the connector, it must not throw.
+     * @param       mysql the connector.
+     */
+    public static void disconnect(MySqlConnector mysql) {
+        Assertions.assertDoesNotThrow(() -> mysql.mysqlDisconnection());
+    }
+}
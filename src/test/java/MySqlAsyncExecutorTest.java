@@ -0,0 +1,78 @@
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.*;
+
+import mysql.MySqlAsyncExecutor;
+import mysql.MySqlConnector;
+
+/**
+ * Testing the MySqlAsyncExecutor class in JUnit 5 & Mockito.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlAsyncExecutorTest {
+
+    @Test
+    @DisplayName(value = "No more tasks run at the same time than the limit, the rest are queued.")
+    void maxConcurrencyTest()
+    throws InterruptedException {
+        ExecutorService threads = Executors.newFixedThreadPool(16);
+        try (MySqlAsyncExecutor executor = new MySqlAsyncExecutor(threads, 3)) {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            CountDownLatch finished = new CountDownLatch(100);
+            for (int i = 0; i < 100; i++) {
+                executor.execute(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Assertions.assertDoesNotThrow(() -> Thread.sleep(1L));
+                    running.decrementAndGet();
+                    finished.countDown();
+                });
+            }
+            Assertions.assertTrue(finished.await(10, TimeUnit.SECONDS));
+            Assertions.assertTrue(maxRunning.get() <= 3);
+            Assertions.assertEquals(0, executor.getQueuedTasks());
+        } finally {
+            threads.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName(value = "A task rejected by the executor is not run on the submitting thread, an asynchronous operation fails with the rejection.")
+    void rejectedTest()
+    throws SQLException {
+        ExecutorService threads = Executors.newSingleThreadExecutor();
+        threads.shutdown();
+        try (MySqlAsyncExecutor executor = new MySqlAsyncExecutor(threads, 1)) {
+            AtomicInteger ran = new AtomicInteger();
+            for (int i = 0; i < 100; i++) {
+                executor.execute(ran::incrementAndGet);
+            }
+            Assertions.assertEquals(0, ran.get());
+            Assertions.assertEquals(0, executor.getRunningTasks());
+            Assertions.assertEquals(0, executor.getQueuedTasks());
+        }
+        MySqlConnector mysql = MockMySql.newConnector(MockMySql.newConnection());
+        mysql.setAsyncExecutor(threads);
+        CompletableFuture<String[][]> future = mysql.mysqlGetAsync("SELECT 1");
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        MockMySql.disconnect(mysql);
+    }
+
+    @Test
+    @DisplayName(value = "A closed executor refuses new tasks.")
+    void closeTest() {
+        MySqlAsyncExecutor executor = new MySqlAsyncExecutor(2);
+        executor.close();
+        Assertions.assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new MySqlAsyncExecutor(0));
+    }
+}
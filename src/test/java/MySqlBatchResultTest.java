@@ -0,0 +1,99 @@
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import mysql.MySqlBatchResult;
+import mysql.MySqlConnector;
+
+/**
+ * Testing the MySqlBatchResult class in JUnit 5 & Mockito.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlBatchResultTest {
+
+    private static final String INSERT = "INSERT INTO table1_t (id, name) VALUES (?, ?)";
+
+    private MySqlConnector mysql;
+    private Connection connection;
+    private PreparedStatement statement;
+    private List<Object[]> rows;
+
+    @BeforeEach
+    void setUp()
+    throws SQLException {
+        statement = Mockito.mock(PreparedStatement.class);
+        connection = MockMySql.newConnection();
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenReturn(statement);
+        mysql = MockMySql.newConnector(connection);
+        rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rows.add(new Object[]{i, ("name" + i)});
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockMySql.disconnect(mysql);
+    }
+
+    @Test
+    @DisplayName(value = "The rows are sent and committed in batches.")
+    void batchTest()
+    throws SQLException {
+        Mockito.when(statement.executeBatch()).thenReturn(new int[]{1, 1}, new int[]{1, 1}, new int[]{Statement.SUCCESS_NO_INFO});
+        MySqlBatchResult result = mysql.mysqlSetBatch(INSERT, rows, 2);
+        Assertions.assertTrue(result.isSuccessful());
+        Assertions.assertArrayEquals(new int[]{1, 1, 1, 1, Statement.SUCCESS_NO_INFO}, result.getUpdateCounts());
+        Assertions.assertEquals(-1, result.getFirstFailedIndex());
+        Assertions.assertEquals(3, result.getCommittedBatches());
+        Assertions.assertEquals(5, result.getWrittenRows());
+        Mockito.verify(statement, Mockito.times(5)).addBatch();
+        Mockito.verify(statement, Mockito.times(3)).executeBatch();
+        Mockito.verify(statement, Mockito.never()).executeUpdate();
+        Mockito.verify(connection, Mockito.times(3)).commit();
+        Mockito.verify(connection).setAutoCommit(false);
+        Mockito.verify(connection).setAutoCommit(true);
+        Assertions.assertEquals(0, mysql.getConnectionPool().getActiveConnections());
+    }
+
+    @Test
+    @DisplayName(value = "A failing batch is rolled back and reported with its first failing row.")
+    void failureTest()
+    throws SQLException {
+        BatchUpdateException failure = new BatchUpdateException("Duplicate entry '3' for key 'PRIMARY'", "23000", 1062,
+                new int[]{Statement.SUCCESS_NO_INFO, Statement.EXECUTE_FAILED}, null);
+        Mockito.when(statement.executeBatch()).thenReturn(new int[]{1, 1}).thenThrow(failure);
+        MySqlBatchResult result = mysql.mysqlSetBatch(INSERT, rows, 2);
+        Assertions.assertFalse(result.isSuccessful());
+        Assertions.assertSame(failure, result.getFailure());
+        Assertions.assertEquals(3, result.getFirstFailedIndex());
+        Assertions.assertEquals(1, result.getCommittedBatches());
+        Assertions.assertEquals(2, result.getWrittenRows());
+        Assertions.assertEquals(Statement.EXECUTE_FAILED, result.getUpdateCount(2));
+        Mockito.verify(connection).commit();
+        Mockito.verify(connection).rollback();
+        Mockito.verify(statement, Mockito.times(2)).executeBatch();
+        Mockito.verify(connection).setAutoCommit(true);
+        Assertions.assertEquals(0, mysql.getConnectionPool().getActiveConnections());
+    }
+
+    @Test
+    @DisplayName(value = "Inside a transaction the batches are not committed.")
+    void transactionTest()
+    throws SQLException {
+        Mockito.when(statement.executeBatch()).thenReturn(new int[]{1, 1, 1, 1, 1});
+        mysql.setBatchSize(10);
+        Assertions.assertTrue(mysql.mysqlInTransaction(() -> mysql.mysqlSetBatch(INSERT, rows)).isSuccessful());
+        Mockito.verify(connection, Mockito.times(1)).commit();
+        Mockito.verify(connection, Mockito.times(1)).setAutoCommit(false);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mysql.setBatchSize(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mysql.mysqlSetBatch(INSERT, rows, 0));
+    }
+}
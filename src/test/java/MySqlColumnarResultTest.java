@@ -0,0 +1,129 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import mysql.MySqlColumnarResult;
+import mysql.MySqlConnector;
+
+/**
+ * Testing the MySqlColumnarResult class in JUnit 5 & Mockito.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlColumnarResultTest {
+
+    private static final int ROWS = 150;
+    private static final long EPOCH = 1_700_000_000_000L;
+
+    private MySqlConnector mysql;
+    private ResultSet resultSet;
+
+    @BeforeEach
+    void setUp()
+    throws SQLException {
+        AtomicInteger row = new AtomicInteger();
+        AtomicBoolean wasNull = new AtomicBoolean();
+        resultSet = Mockito.mock(ResultSet.class);
+        ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaData.getColumnCount()).thenReturn(5);
+        Mockito.when(metaData.getColumnName(Mockito.anyInt())).thenAnswer(invocation ->
+                new String[]{"id", "amount", "created", "name", "total"}[(int) invocation.getArgument(0) - 1]);
+        Mockito.when(metaData.getColumnType(Mockito.anyInt())).thenAnswer(invocation ->
+                new int[]{Types.INTEGER, Types.DOUBLE, Types.TIMESTAMP, Types.VARCHAR, Types.BIGINT}[(int) invocation.getArgument(0) - 1]);
+        Mockito.when(metaData.isSigned(Mockito.anyInt())).thenReturn(true);
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(resultSet.next()).thenAnswer(invocation -> row.incrementAndGet() <= ROWS);
+        Mockito.when(resultSet.wasNull()).thenAnswer(invocation -> wasNull.get());
+        Mockito.when(resultSet.getInt(1)).thenAnswer(invocation -> {
+            wasNull.set(false);
+            return row.get();
+        });
+        Mockito.when(resultSet.getDouble(2)).thenAnswer(invocation -> {
+            wasNull.set(row.get() % 10 == 0);
+            return wasNull.get() ? 0.0 : row.get() / 2.0;
+        });
+        Mockito.when(resultSet.getTimestamp(3)).thenAnswer(invocation -> {
+            wasNull.set(false);
+            return new Timestamp(EPOCH + row.get());
+        });
+        Mockito.when(resultSet.getString(4)).thenAnswer(invocation -> {
+            wasNull.set(false);
+            return "name" + row.get();
+        });
+        Mockito.when(resultSet.getLong(5)).thenAnswer(invocation -> {
+            wasNull.set(false);
+            return row.get() * 1_000_000_000_000L;
+        });
+        PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(statement.executeQuery()).thenReturn(resultSet);
+        mysql = MockMySql.newConnector(() -> {
+            Connection connection = MockMySql.newConnection();
+            Mockito.when(connection.prepareStatement(Mockito.anyString())).thenReturn(statement);
+            return connection;
+        }, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockMySql.disconnect(mysql);
+    }
+
+    @Test
+    @DisplayName(value = "Every column is stored and read according to its JDBC type.")
+    void typedTest()
+    throws SQLException {
+        MySqlColumnarResult result = mysql.mysqlGetColumnar("SELECT id, amount, created, name, total FROM table1_t");
+        Assertions.assertEquals(ROWS, result.getRowCount());
+        Assertions.assertEquals(5, result.getColumnCount());
+        Assertions.assertEquals(MySqlColumnarResult.ColumnType.INT, result.getColumnType(0));
+        Assertions.assertEquals(MySqlColumnarResult.ColumnType.DOUBLE, result.getColumnType(1));
+        Assertions.assertEquals(MySqlColumnarResult.ColumnType.TIMESTAMP, result.getColumnType(2));
+        Assertions.assertEquals(MySqlColumnarResult.ColumnType.STRING, result.getColumnType(3));
+        Assertions.assertEquals(MySqlColumnarResult.ColumnType.LONG, result.getColumnType(4));
+        Assertions.assertEquals(3, result.getColumnIndex("name"));
+        Assertions.assertEquals(100, result.getInt(99, 0));
+        Assertions.assertEquals(50.5, result.getDouble(100, 1));
+        Assertions.assertEquals(EPOCH + 128, result.getEpochMillis(127, 2));
+        Assertions.assertEquals("name150", result.getString(149, 3));
+        Assertions.assertEquals(3_000_000_000_000L, result.getLong(2, 4));
+        Assertions.assertEquals("7", result.getString(6, 0));
+        Mockito.verify(resultSet, Mockito.never()).getString(1);
+        Mockito.verify(resultSet, Mockito.never()).getString(2);
+        Assertions.assertThrows(IllegalStateException.class, () -> result.getInt(0, 3));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> result.getInt(ROWS, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> result.getColumnIndex("missing"));
+    }
+
+    @Test
+    @DisplayName(value = "NULL values are marked in the bitmap and left out of the streams.")
+    void nullTest()
+    throws SQLException {
+        MySqlColumnarResult result = mysql.mysqlGetColumnar("SELECT id, amount, created, name, total FROM table1_t");
+        Assertions.assertEquals(ROWS / 10, result.getNullCount(1));
+        Assertions.assertEquals(0, result.getNullCount(0));
+        Assertions.assertTrue(result.isNull(9, 1));
+        Assertions.assertTrue(result.isNull(139, 1));
+        Assertions.assertFalse(result.isNull(10, 1));
+        Assertions.assertNull(result.getString(69, 1));
+        Assertions.assertEquals(0.0, result.getDouble(69, 1));
+        Assertions.assertEquals(ROWS * (ROWS + 1) / 2, result.intStream(0).sum());
+        Assertions.assertEquals(ROWS - (ROWS / 10), result.doubleStream(1).count());
+        double expected = 0.0;
+        for (int i = 1; i <= ROWS; i++) {
+            if (i % 10 != 0) {
+                expected += i / 2.0;
+            }
+        }
+        Assertions.assertEquals(expected, result.doubleStream(1).sum(), 1e-9);
+        Assertions.assertEquals(ROWS * (ROWS + 1) / 2 * 1_000_000_000_000L, result.longStream(4).sum());
+        Assertions.assertThrows(IllegalStateException.class, () -> result.doubleStream(3));
+    }
+}
@@ -0,0 +1,190 @@
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import mysql.MySqlConnectionPool;
+import mysql.MySqlConnector;
+
+/**
+ * Testing the MySqlConnectionPool class in JUnit 5 & Mockito.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlConnectionPoolTest {
+
+    private List<Connection> opened;
+    private MySqlConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        opened = new ArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private Connection newConnection()
+    throws SQLException {
+        Connection connection = MockMySql.newConnection();
+        opened.add(connection);
+        return connection;
+    }
+
+    @Test
+    @DisplayName(value = "The minimum number of connections is opened immediately.")
+    void minimumPoolSizeTest() {
+        Assertions.assertDoesNotThrow(() -> pool = new MySqlConnectionPool(this::newConnection, 2, 4));
+        Assertions.assertEquals(2, opened.size());
+        Assertions.assertEquals(2, pool.getIdleConnections());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new MySqlConnectionPool(this::newConnection, 3, 2));
+    }
+
+    @Test
+    @DisplayName(value = "A returned connection is borrowed again.")
+    void borrowReleaseTest()
+    throws SQLException {
+        pool = new MySqlConnectionPool(this::newConnection, 1, 1);
+        Connection first = pool.borrowConnection();
+        Assertions.assertEquals(1, pool.getActiveConnections());
+        pool.releaseConnection(first);
+        Assertions.assertSame(first, pool.borrowConnection());
+        Assertions.assertEquals(1, opened.size());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> pool.releaseConnection(Mockito.mock(Connection.class)));
+    }
+
+    @Test
+    @DisplayName(value = "Borrowing from an exhausted pool times out.")
+    void borrowTimeoutTest()
+    throws SQLException {
+        pool = new MySqlConnectionPool(this::newConnection, 0, 2);
+        pool.setBorrowTimeout(50L);
+        pool.borrowConnection();
+        pool.borrowConnection();
+        Assertions.assertEquals(2, opened.size());
+        Assertions.assertThrows(SQLTimeoutException.class, () -> pool.borrowConnection());
+    }
+
+    @Test
+    @DisplayName(value = "A connection returned with an open transaction is rolled back, or closed if it cannot be reset.")
+    void resetSessionTest()
+    throws SQLException {
+        pool = new MySqlConnectionPool(this::newConnection, 0, 1);
+        Connection connection = pool.borrowConnection();
+        connection.setAutoCommit(false);
+        pool.releaseConnection(connection);
+        Mockito.verify(connection).rollback();
+        Assertions.assertTrue(connection.getAutoCommit());
+        Assertions.assertSame(connection, pool.borrowConnection());
+        connection.setAutoCommit(false);
+        Mockito.doThrow(new SQLException("Lost connection to MySQL server during query", "HY000", 2013)).when(connection).rollback();
+        pool.releaseConnection(connection);
+        Mockito.verify(connection).close();
+        Assertions.assertEquals(0, pool.getTotalConnections());
+        Assertions.assertNotSame(connection, pool.borrowConnection());
+    }
+
+    @Test
+    @DisplayName(value = "An invalid idle connection is closed and replaced.")
+    void validationTest()
+    throws SQLException {
+        pool = new MySqlConnectionPool(this::newConnection, 1, 1);
+        Connection broken = opened.get(0);
+        Mockito.when(broken.isValid(Mockito.anyInt())).thenReturn(false);
+        Connection connection = pool.borrowConnection();
+        Assertions.assertNotSame(broken, connection);
+        Mockito.verify(broken).close();
+        Assertions.assertEquals(1, pool.getTotalConnections());
+    }
+
+    @Test
+    @DisplayName(value = "A connection used within the alive bypass window is not validated.")
+    void aliveBypassWindowTest()
+    throws SQLException {
+        pool = new MySqlConnectionPool(this::newConnection, 1, 1);
+        pool.setAliveBypassWindow(60_000L);
+        pool.releaseConnection(pool.borrowConnection());
+        pool.releaseConnection(pool.borrowConnection());
+        Mockito.verify(opened.get(0), Mockito.atMost(1)).isValid(Mockito.anyInt());
+        pool.setAliveBypassWindow(0L);
+        pool.releaseConnection(pool.borrowConnection());
+        Mockito.verify(opened.get(0), Mockito.atLeast(1)).isValid(Mockito.anyInt());
+    }
+
+    @Test
+    @DisplayName(value = "An invalidated connection is closed, and the idle connections are validated again.")
+    void invalidateConnectionTest()
+    throws SQLException {
+        pool = new MySqlConnectionPool(this::newConnection, 0, 2);
+        pool.setAliveBypassWindow(60_000L);
+        Connection broken = pool.borrowConnection();
+        Connection idle = pool.borrowConnection();
+        pool.releaseConnection(idle);
+        Mockito.clearInvocations(idle);
+        pool.invalidateConnection(broken);
+        Mockito.verify(broken).close();
+        Assertions.assertEquals(1, pool.getTotalConnections());
+        Assertions.assertSame(idle, pool.borrowConnection());
+        Mockito.verify(idle).isValid(Mockito.anyInt());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> pool.invalidateConnection(broken));
+    }
+
+    @Test
+    @DisplayName(value = "Idle connections above the minimum and expired connections are evicted.")
+    void evictIdleConnectionsTest()
+    throws SQLException {
+        pool = new MySqlConnectionPool(this::newConnection, 1, 3);
+        Connection first = pool.borrowConnection();
+        Connection second = pool.borrowConnection();
+        pool.releaseConnection(first);
+        pool.releaseConnection(second);
+        pool.setIdleTimeout(0L);
+        pool.evictIdleConnections();
+        Assertions.assertEquals(1, pool.getTotalConnections());
+        pool.setMaxLifetime(1L);
+        Assertions.assertDoesNotThrow(() -> Thread.sleep(5L));
+        pool.evictIdleConnections();
+        Assertions.assertEquals(1, pool.getTotalConnections());
+        Assertions.assertEquals(3, opened.size());
+    }
+
+    @Test
+    @DisplayName(value = "Closing the pool closes idle and later released connections.")
+    void closeTest()
+    throws SQLException {
+        pool = new MySqlConnectionPool(this::newConnection, 2, 2);
+        Connection borrowed = pool.borrowConnection();
+        pool.close();
+        Mockito.verify(opened.get(1)).close();
+        pool.releaseConnection(borrowed);
+        Mockito.verify(borrowed).close();
+        Assertions.assertThrows(SQLException.class, () -> pool.borrowConnection());
+    }
+
+    @Test
+    @SuppressWarnings(value = "deprecation")
+    @DisplayName(value = "The connection of the connector is opened outside the pool, so it does not block the operations.")
+    void sharedConnectionTest()
+    throws SQLException {
+        MySqlConnector mysql = new MySqlConnector("username", "password", "database1_db", "table1_t");
+        Assertions.assertNull(mysql.getConnection());
+        pool = new MySqlConnectionPool(this::newConnection, 0, 1);
+        mysql.setConnectionPool(pool);
+        Connection shared = mysql.getConnection();
+        Assertions.assertSame(shared, mysql.getConnection());
+        Assertions.assertEquals(0, pool.getActiveConnections());
+        Connection borrowed = mysql.borrowConnection();
+        Assertions.assertNotSame(shared, borrowed);
+        mysql.releaseConnection(borrowed);
+        mysql.mysqlDisconnection();
+        Mockito.verify(shared).close();
+        pool = null;
+    }
+}
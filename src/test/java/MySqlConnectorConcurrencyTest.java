@@ -0,0 +1,199 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import mysql.MySqlConnector;
+
+/**
+ * Stress testing one shared MySqlConnector instance from many threads in JUnit 5 & Mockito.
+ * Every statement records its own parameters, any statement shared between two calls shows up as a mixed up row.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlConnectorConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int CALLS = 100;
+
+    private MySqlConnector mysql;
+    private Map<PreparedStatement, Object[]> parameters;
+    private AtomicInteger mixedUp;
+    private AtomicInteger executed;
+    private AtomicInteger unclosed;
+
+    @BeforeEach
+    void setUp()
+    throws SQLException {
+        parameters = new ConcurrentHashMap<>();
+        mixedUp = new AtomicInteger();
+        executed = new AtomicInteger();
+        unclosed = new AtomicInteger();
+        mysql = MockMySql.newConnector(this::newConnection, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (mysql.getConnectionPool() != null) {
+            MockMySql.disconnect(mysql);
+        }
+    }
+
+    private Connection newConnection()
+    throws SQLException {
+        Connection connection = MockMySql.newConnection();
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenAnswer(invocation -> newStatement(invocation.getArgument(0)));
+        return connection;
+    }
+
+    private PreparedStatement newStatement(String sql)
+    throws SQLException {
+        PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        parameters.put(statement, new Object[3]);
+        unclosed.incrementAndGet();
+        Mockito.doAnswer(invocation -> {
+            parameters.get(statement)[(int) invocation.getArgument(0) - 1] = invocation.getArgument(1);
+            Thread.yield();
+            return null;
+        }).when(statement).setObject(Mockito.anyInt(), Mockito.any());
+        Mockito.when(statement.executeUpdate()).thenAnswer(invocation -> {
+            Object[] row = parameters.get(statement);
+            if (((int) row[0] * CALLS + (int) row[1]) != (int) row[2]) {
+                mixedUp.incrementAndGet();
+            }
+            executed.incrementAndGet();
+            return 1;
+        });
+        Mockito.when(statement.executeQuery()).thenAnswer(invocation -> newResultSet(sql));
+        Mockito.doAnswer(invocation -> unclosed.decrementAndGet()).when(statement).close();
+        return statement;
+    }
+
+    private ResultSet newResultSet(String sql)
+    throws SQLException {
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaData.getColumnCount()).thenReturn(1);
+        Mockito.when(metaData.getColumnName(1)).thenReturn("value");
+        Mockito.when(metaData.getColumnLabel(1)).thenReturn("value");
+        Mockito.when(metaData.getColumnType(1)).thenReturn(Types.VARCHAR);
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(resultSet.next()).thenReturn(true, false);
+        Mockito.when(resultSet.getString(Mockito.anyString())).thenReturn(sql);
+        Mockito.when(resultSet.getString(Mockito.anyInt())).thenReturn(sql);
+        return resultSet;
+    }
+
+    private void runConcurrently(ExecutorService executor, Task task)
+    throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < CALLS; i++) {
+                    task.run(thread, i);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        void run(int thread, int call)
+        throws Exception;
+    }
+
+    @Test
+    @DisplayName(value = "Concurrent mysqlSetVarargs and mysqlSet calls never share a statement.")
+    void concurrentSetTest()
+    throws Exception {
+        runConcurrently(Executors.newFixedThreadPool(THREADS), (thread, call) -> {
+            if ((call % 2) == 0) {
+                mysql.mysqlSetVarargs("INSERT INTO table1_t VALUE (?, ?, ?)", thread, call, (thread * CALLS + call));
+            } else {
+                mysql.mysqlSet("INSERT INTO table1_t VALUE (?, ?, ?)", new Object[]{thread, call, (thread * CALLS + call)});
+            }
+        });
+        Assertions.assertEquals(0, mixedUp.get());
+        Assertions.assertEquals(THREADS * CALLS, executed.get());
+        Assertions.assertEquals(0, mysql.getConnectionPool().getActiveConnections());
+        Assertions.assertEquals((THREADS * CALLS), mysql.getConnectionPool().getStatementCacheHits() + mysql.getConnectionPool().getStatementCacheMisses());
+        mysql.mysqlDisconnection();
+        Assertions.assertEquals(0, unclosed.get());
+    }
+
+    @Test
+    @DisplayName(value = "Concurrent mysqlGet calls read the result of their own statement.")
+    void concurrentGetTest()
+    throws Exception {
+        runConcurrently(Executors.newFixedThreadPool(THREADS), (thread, call) -> {
+            String sql = "SELECT " + thread + ", " + call;
+            String[][] result = mysql.mysqlGet(sql);
+            if (!sql.equals(result[0][0])) {
+                mixedUp.incrementAndGet();
+            }
+        });
+        Assertions.assertEquals(0, mixedUp.get());
+        mysql.mysqlDisconnection();
+        Assertions.assertEquals(0, unclosed.get());
+    }
+
+    @Test
+    @DisplayName(value = "Many asynchronous calls fanned out at once complete with their own results.")
+    void asyncTest()
+    throws Exception {
+        List<CompletableFuture<String[][]>> queries = new ArrayList<>();
+        List<CompletableFuture<Void>> updates = new ArrayList<>();
+        for (int i = 0; i < (THREADS * CALLS); i++) {
+            queries.add(mysql.mysqlGetAsync("SELECT " + i));
+            updates.add(mysql.mysqlSetVarargsAsync("INSERT INTO table1_t VALUE (?, ?, ?)", (i / CALLS), (i % CALLS), i));
+        }
+        CompletableFuture.allOf(updates.toArray(CompletableFuture<?>[]::new)).get(60, TimeUnit.SECONDS);
+        for (int i = 0; i < queries.size(); i++) {
+            Assertions.assertEquals(("SELECT " + i), queries.get(i).get(60, TimeUnit.SECONDS)[0][0]);
+        }
+        Assertions.assertEquals(0, mixedUp.get());
+        Assertions.assertEquals(THREADS * CALLS, executed.get());
+        Assertions.assertEquals(mysql.getConnectionPool().getMaximumPoolSize(), mysql.getAsyncExecutor().getMaxConcurrency());
+        Assertions.assertEquals(0, mysql.getConnectionPool().getActiveConnections());
+    }
+
+    @Test
+    @DisplayName(value = "Concurrent calls from virtual threads, when the JDK provides them.")
+    void concurrentVirtualThreadTest()
+    throws Exception {
+        ExecutorService executor;
+        try {
+            executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            Assumptions.abort("Virtual threads need JDK 21 or newer.");
+            return;
+        }
+        runConcurrently(executor, (thread, call) -> mysql.mysqlSetVarargs("INSERT INTO table1_t VALUE (?, ?, ?)", thread, call, (thread * CALLS + call)));
+        Assertions.assertEquals(0, mixedUp.get());
+        Assertions.assertEquals(THREADS * CALLS, executed.get());
+    }
+}
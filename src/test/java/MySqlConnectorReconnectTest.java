@@ -0,0 +1,121 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import mysql.MySqlConnectionPool;
+import mysql.MySqlConnector;
+
+/**
+ * Testing the reconnect of the MySqlConnector class in JUnit 5 & Mockito.
+ * The first connections opened can be made to fail with a communications link failure.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlConnectorReconnectTest {
+
+    private MySqlConnector mysql;
+    private List<Connection> opened;
+    private int brokenConnections;
+    private int refusedConnections;
+
+    @BeforeEach
+    void setUp()
+    throws SQLException {
+        opened = new ArrayList<>();
+        brokenConnections = 0;
+        refusedConnections = 0;
+        mysql = MockMySql.newConnector(this::newConnection, 2);
+        mysql.setReconnectBackoff(1L, 4L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockMySql.disconnect(mysql);
+    }
+
+    private Connection newConnection()
+    throws SQLException {
+        if (refusedConnections > 0) {
+            refusedConnections--;
+            throw new SQLRecoverableException("Communications link failure", "08S01");
+        }
+        boolean broken = (brokenConnections > 0);
+        if (broken) {
+            brokenConnections--;
+        }
+        Connection connection = MockMySql.newConnection();
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenAnswer(invocation -> newStatement(broken));
+        opened.add(connection);
+        return connection;
+    }
+
+    private PreparedStatement newStatement(boolean broken)
+    throws SQLException {
+        PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        if (broken) {
+            SQLException lost = new SQLRecoverableException("Communications link failure", "08S01");
+            Mockito.when(statement.executeQuery()).thenThrow(lost);
+            Mockito.when(statement.executeUpdate()).thenThrow(lost);
+        } else {
+            ResultSet resultSet = Mockito.mock(ResultSet.class);
+            ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+            Mockito.when(metaData.getColumnCount()).thenReturn(1);
+            Mockito.when(metaData.getColumnName(1)).thenReturn("value");
+            Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+            Mockito.when(resultSet.next()).thenReturn(true, false);
+            Mockito.when(resultSet.getString(Mockito.anyString())).thenReturn("1");
+            Mockito.when(resultSet.getString(Mockito.anyInt())).thenReturn("1");
+            Mockito.when(statement.executeQuery()).thenReturn(resultSet);
+            Mockito.when(statement.executeUpdate()).thenReturn(1);
+        }
+        return statement;
+    }
+
+    @Test
+    @DisplayName(value = "A query on a lost connection is run again on a new connection.")
+    void queryRetryTest()
+    throws SQLException {
+        brokenConnections = 1;
+        Assertions.assertEquals("1", mysql.mysqlGet("SELECT 1")[0][0]);
+        Assertions.assertEquals(2, opened.size());
+        Mockito.verify(opened.get(0)).close();
+        Assertions.assertEquals(1, mysql.getReconnectCount());
+        Assertions.assertEquals(1, mysql.getConnectionPool().getTotalConnections());
+    }
+
+    @Test
+    @DisplayName(value = "A write on a lost connection is not repeated, but the connection is replaced.")
+    void writeNotRetriedTest()
+    throws SQLException {
+        brokenConnections = 1;
+        Assertions.assertThrows(SQLRecoverableException.class, () -> mysql.mysqlSet("INSERT INTO table1_t VALUE (1)"));
+        Assertions.assertEquals(1, opened.size());
+        Assertions.assertEquals(0, mysql.getConnectionPool().getTotalConnections());
+        mysql.mysqlSet("INSERT INTO table1_t VALUE (1)");
+        Assertions.assertEquals(2, opened.size());
+    }
+
+    @Test
+    @DisplayName(value = "Opening a connection is tried again with backoff, up to the attempt limit.")
+    void reconnectBackoffTest()
+    throws SQLException {
+        refusedConnections = 2;
+        mysql.mysqlSet("INSERT INTO table1_t VALUE (1)");
+        Assertions.assertEquals(1, mysql.getReconnectCount());
+        Assertions.assertTrue(mysql.getReconnectTime() >= 1L);
+        refusedConnections = 5;
+        mysql.mysqlDisconnection();
+        mysql.setConnectionPool(new MySqlConnectionPool(this::newConnection, 0, 2));
+        mysql.setMaxReconnectAttempts(1);
+        Assertions.assertThrows(SQLRecoverableException.class, () -> mysql.mysqlGet("SELECT 1"));
+        Assertions.assertEquals(3, refusedConnections);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mysql.setReconnectBackoff(10L, 1L));
+    }
+}
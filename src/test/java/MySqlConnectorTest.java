@@ -94,6 +94,16 @@ public class MySqlConnectorTest {
         Assertions.assertDoesNotThrow(() -> mysql.mysqlCreateTable(column, datatype));
     }
 
+    @Test
+    @DisplayName(value = "CREATE TABLE <database>.<table>; DROP TABLE <database>.<table>; in one batch")
+    void mysqlSchemaBatchTest() {
+        List<String> instructions = List.of(
+            "CREATE TABLE IF NOT EXISTS " + database + ".table4_t (String_t4 VARCHAR(256))",
+            "DROP TABLE " + database + ".table4_t"
+        );
+        Assertions.assertDoesNotThrow(() -> mysql.mysqlSchemaBatch(instructions));
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {"aaa", "bbb", "ccc"})
     @DisplayName(value = "INSERT INTO <table> VALUE (<update>); setVarargs")
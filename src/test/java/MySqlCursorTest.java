@@ -0,0 +1,135 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import mysql.MySqlConnector;
+import mysql.MySqlCursor;
+import mysql.MySqlLeakDetector;
+
+/**
+ * Testing the MySqlCursor class in JUnit 5 & Mockito.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlCursorTest {
+
+    private static final int ROWS = 10;
+
+    private MySqlConnector mysql;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+    private AtomicInteger readRows;
+
+    @BeforeEach
+    void setUp()
+    throws SQLException {
+        readRows = new AtomicInteger();
+        statement = Mockito.mock(PreparedStatement.class);
+        resultSet = Mockito.mock(ResultSet.class);
+        ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaData.getColumnCount()).thenReturn(2);
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(resultSet.next()).thenAnswer(invocation -> readRows.incrementAndGet() <= ROWS);
+        Mockito.when(resultSet.getString(1)).thenAnswer(invocation -> String.valueOf(readRows.get()));
+        Mockito.when(resultSet.getString(2)).thenReturn("name");
+        Mockito.when(statement.executeQuery()).thenReturn(resultSet);
+        mysql = MockMySql.newConnector(() -> {
+            Connection connection = MockMySql.newConnection();
+            Mockito.when(connection.prepareStatement(Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt())).thenReturn(statement);
+            return connection;
+        }, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockMySql.disconnect(mysql);
+    }
+
+    @Test
+    @DisplayName(value = "The rows are streamed one by one, reading the last row closes the cursor.")
+    void iterateTest()
+    throws SQLException {
+        MySqlCursor cursor = mysql.mysqlGetCursor("SELECT id, name FROM table1_t");
+        Assertions.assertEquals(1, mysql.getConnectionPool().getActiveConnections());
+        Assertions.assertEquals(0, readRows.get());
+        for (int i = 1; i <= ROWS; i++) {
+            Assertions.assertTrue(cursor.hasNext());
+            Assertions.assertArrayEquals(new String[]{String.valueOf(i), "name"}, cursor.next());
+            Assertions.assertEquals(i, readRows.get());
+        }
+        Assertions.assertFalse(cursor.hasNext());
+        Assertions.assertThrows(NoSuchElementException.class, cursor::next);
+        Assertions.assertTrue(cursor.isClosed());
+        Assertions.assertEquals(ROWS, cursor.getRowCount());
+        Mockito.verify(statement).setFetchSize(Integer.MIN_VALUE);
+        Mockito.verify(resultSet).close();
+        Mockito.verify(statement).close();
+        Assertions.assertEquals(0, mysql.getConnectionPool().getActiveConnections());
+        cursor.close();
+        Mockito.verify(statement).close();
+    }
+
+    @Test
+    @DisplayName(value = "Closing a partly read stream closes the statement and releases the connection.")
+    void streamCloseTest()
+    throws SQLException {
+        try (Stream<String[]> rows = mysql.mysqlGetStream("SELECT id, name FROM table1_t")) {
+            Assertions.assertEquals(3, rows.limit(3).count());
+        }
+        Assertions.assertTrue(readRows.get() <= 4);
+        Mockito.verify(statement).close();
+        Assertions.assertEquals(0, mysql.getConnectionPool().getActiveConnections());
+        Assertions.assertEquals(1, mysql.getConnectionPool().getIdleConnections());
+    }
+
+    @Test
+    @DisplayName(value = "A lost connection while reading is thrown unchecked and dropped from the pool.")
+    void connectionErrorTest()
+    throws SQLException {
+        MySqlCursor cursor = mysql.mysqlGetCursor("SELECT id, name FROM table1_t");
+        Assertions.assertNotNull(cursor.next());
+        Mockito.when(resultSet.next()).thenThrow(new SQLRecoverableException("Communications link failure", "08S01"));
+        IllegalStateException e = Assertions.assertThrows(IllegalStateException.class, cursor::hasNext);
+        Assertions.assertEquals("08S01", ((SQLException) e.getCause()).getSQLState());
+        Assertions.assertTrue(cursor.isClosed());
+        Assertions.assertEquals(0, mysql.getConnectionPool().getTotalConnections());
+    }
+
+    @Test
+    @DisplayName(value = "A positive cursor fetch size reads the rows in blocks with a server-side cursor.")
+    void fetchSizeTest()
+    throws SQLException {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mysql.setCursorFetchSize(-1));
+        mysql.setCursorFetchSize(100);
+        try (MySqlCursor cursor = mysql.mysqlGetCursor("SELECT id, name FROM table1_t")) {
+            Assertions.assertEquals(2, cursor.getColumnCount());
+        }
+        Mockito.verify(statement).setFetchSize(100);
+        Assertions.assertEquals(0, mysql.getConnectionPool().getActiveConnections());
+    }
+
+    @Test
+    @DisplayName(value = "The statement and the result of a cursor left open are reported as leaks, until the cursor is closed.")
+    void leakTest()
+    throws SQLException {
+        mysql.getConnectionPool().setLeakDetectionThreshold(10L);
+        MySqlCursor cursor = mysql.mysqlGetCursor("SELECT id, name FROM table1_t");
+        Assertions.assertDoesNotThrow(() -> Thread.sleep(30L));
+        List<String> leaks = mysql.getConnectionPool().getLeakDetector().getLeaks().stream()
+                .map(MySqlLeakDetector.Leak::getDescription).sorted().toList();
+        Assertions.assertEquals(List.of("Connection borrowed from pool",
+                "PreparedStatement of a cursor [SELECT id, name FROM table1_t]",
+                "ResultSet of a cursor [SELECT id, name FROM table1_t]"), leaks);
+        cursor.close();
+        Assertions.assertTrue(mysql.getConnectionPool().getLeakDetector().getLeaks().isEmpty());
+    }
+}
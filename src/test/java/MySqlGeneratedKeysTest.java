@@ -0,0 +1,87 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import mysql.MySqlConnector;
+
+/**
+ * Testing the mysqlInsert and mysqlInsertBatch methods of the MySqlConnector class in JUnit 5 & Mockito.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlGeneratedKeysTest {
+
+    private MySqlConnector mysql;
+    private Connection connection;
+    private PreparedStatement statement;
+
+    @BeforeEach
+    void setUp()
+    throws SQLException {
+        AtomicLong nextKey = new AtomicLong(100L);
+        AtomicInteger batched = new AtomicInteger();
+        AtomicInteger keysOfLastRun = new AtomicInteger();
+        statement = Mockito.mock(PreparedStatement.class);
+        Mockito.doAnswer(invocation -> batched.incrementAndGet()).when(statement).addBatch();
+        Mockito.when(statement.executeUpdate()).thenAnswer(invocation -> {
+            keysOfLastRun.set(1);
+            return 1;
+        });
+        Mockito.when(statement.executeBatch()).thenAnswer(invocation -> {
+            keysOfLastRun.set(batched.getAndSet(0));
+            return new int[keysOfLastRun.get()];
+        });
+        Mockito.when(statement.getGeneratedKeys()).thenAnswer(invocation -> {
+            AtomicInteger left = new AtomicInteger(keysOfLastRun.get());
+            AtomicLong key = new AtomicLong();
+            ResultSet keys = Mockito.mock(ResultSet.class);
+            Mockito.when(keys.next()).thenAnswer(next -> {
+                if (left.getAndDecrement() <= 0) {
+                    return false;
+                }
+                key.set(nextKey.getAndIncrement());
+                return true;
+            });
+            Mockito.when(keys.getLong(1)).thenAnswer(get -> key.get());
+            return keys;
+        });
+        connection = MockMySql.newConnection();
+        Mockito.when(connection.prepareStatement(Mockito.anyString(), Mockito.eq(Statement.RETURN_GENERATED_KEYS))).thenReturn(statement);
+        mysql = MockMySql.newConnector(connection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockMySql.disconnect(mysql);
+    }
+
+    @Test
+    @DisplayName(value = "The generated key of a single insert is returned without another query.")
+    void insertTest()
+    throws SQLException {
+        Assertions.assertEquals(100L, mysql.mysqlInsert("INSERT INTO users_t (name) VALUES (?)", "user1"));
+        Assertions.assertEquals(101L, mysql.mysqlInsert("INSERT INTO users_t (name) VALUES (?)", "user2"));
+        Mockito.verify(connection, Mockito.times(1)).prepareStatement("INSERT INTO users_t (name) VALUES (?)", Statement.RETURN_GENERATED_KEYS);
+        Mockito.verify(connection, Mockito.never()).prepareStatement(Mockito.anyString());
+        Mockito.verify(statement).setObject(1, "user2");
+    }
+
+    @Test
+    @DisplayName(value = "The generated keys of a batched insert are aligned with the rows.")
+    void insertBatchTest()
+    throws SQLException {
+        List<Object[]> rows = List.of(new Object[]{"a"}, new Object[]{"b"}, new Object[]{"c"}, new Object[]{"d"}, new Object[]{"e"});
+        Assertions.assertArrayEquals(new long[]{100L, 101L, 102L, 103L, 104L}, mysql.mysqlInsertBatch("INSERT INTO users_t (name) VALUES (?)", rows, 2));
+        Mockito.verify(statement, Mockito.times(3)).executeBatch();
+        Mockito.verify(statement, Mockito.times(3)).getGeneratedKeys();
+        Assertions.assertArrayEquals(new long[0], mysql.mysqlInsertBatch("INSERT INTO users_t (name) VALUES (?)", List.of()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mysql.mysqlInsertBatch("INSERT INTO users_t (name) VALUES (?)", rows, 0));
+    }
+}
@@ -0,0 +1,164 @@
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import mysql.MySqlConnectionPool;
+import mysql.MySqlConnector;
+
+/**
+ * Benchmark of the read path of {@code mysqlGet}, it is not a test and it is not run by the build.
+ * <ul>
+ *     <li>The previous read path resolved the column name from the metadata for every value, looked the value up by that name,
+ *     and copied every row through an {@code ArrayList}.</li>
+ *     <li>The current read path resolves the metadata once, and reads the values by index into an array allocated for the row.</li>
+ * </ul>
+ * The JDBC objects are {@link java.lang.reflect.Proxy Proxy} stand-ins that hand out the same values without a server,
+ * so only the cost of the read loop is measured. Looking a value up by name scans the column labels, like a driver without a label index.
+ * Run it with {@code java -cp target/classes:target/test-classes MySqlGetBenchmark [rows] [columns]}.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlGetBenchmark {
+
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 5;
+
+    public static void main(String[] args)
+    throws SQLException {
+        int rows = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        int columns = (args.length > 1) ? Integer.parseInt(args[1]) : 8;
+        MySqlConnector mysql = new MySqlConnector("username", "password", "database1_db", "table1_t");
+        mysql.setConnectionPool(new MySqlConnectionPool(() -> newConnection(rows, columns), 1, 1));
+        try {
+            System.out.printf("%,d rows x %d columns%n", rows, columns);
+            measure("by name, per value metadata (previous)", rows, () -> previousReadPath(newResultSet(rows, columns)).length);
+            measure("by index, metadata once (mysqlGet)", rows, () -> mysql.mysqlGet("SELECT * FROM table1_t").length);
+        } finally {
+            mysql.mysqlDisconnection();
+        }
+    }
+
+    /**
+     * The read loop of {@code mysqlGet} before the metadata was resolved once per result set.
+     */
+    private static String[][] previousReadPath(ResultSet resultSet)
+    throws SQLException {
+        List<String> resultList = new ArrayList<>();
+        List<String[]> lists = new ArrayList<>();
+        int columnCount = resultSet.getMetaData().getColumnCount();
+        while (resultSet.next()) {
+            for (int i = 0; i < columnCount; i++) {
+                resultList.add(resultSet.getString(resultSet.getMetaData().getColumnName((i + 1))));
+            }
+            lists.add(resultList.toArray(new String[0]));
+            resultList.clear();
+        }
+        return lists.toArray(new String[0][]);
+    }
+
+    private static void measure(String name, int rows, Pass pass)
+    throws SQLException {
+        for (int i = 0; i < WARMUP; i++) {
+            pass.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            if (pass.run() != rows) {
+                throw new IllegalStateException("Wrong number of rows!");
+            }
+            best = Math.min(best, (System.nanoTime() - start));
+        }
+        System.out.printf("%-42s %8.1f ms %,14.0f rows/s%n", name, (best / 1e6), (rows / (best / 1e9)));
+    }
+
+    @FunctionalInterface
+    private interface Pass {
+        int run()
+        throws SQLException;
+    }
+
+    private static Connection newConnection(int rows, int columns) {
+        return proxy(Connection.class, (method, args) -> {
+            switch (method) {
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, (statementMethod, statementArgs) ->
+                            "executeQuery".equals(statementMethod) ? newResultSet(rows, columns) : null);
+                case "isValid":
+                    return true;
+                case "isClosed":
+                    return false;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private static ResultSet newResultSet(int rows, int columns) {
+        String[] labels = new String[columns];
+        String[] values = new String[columns];
+        for (int i = 0; i < columns; i++) {
+            labels[i] = "column_" + i;
+            values[i] = "value " + i;
+        }
+        ResultSetMetaData metaData = proxy(ResultSetMetaData.class, (method, args) -> {
+            switch (method) {
+                case "getColumnCount":
+                    return columns;
+                case "getColumnName":
+                case "getColumnLabel":
+                    return labels[(int) args[0] - 1];
+                default:
+                    return null;
+            }
+        });
+        int[] row = new int[1];
+        return proxy(ResultSet.class, (method, args) -> {
+            switch (method) {
+                case "next":
+                    return (++row[0] <= rows);
+                case "getMetaData":
+                    return metaData;
+                case "getString":
+                    if (args[0] instanceof Integer) {
+                        return values[(int) args[0] - 1];
+                    }
+                    for (int i = 0; i < columns; i++) {
+                        if (labels[i].equalsIgnoreCase((String) args[0])) {
+                            return values[i];
+                        }
+                    }
+                    throw new SQLException("Column not found: " + args[0]);
+                default:
+                    return null;
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object invoke(String method, Object[] args)
+        throws SQLException;
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return (proxy == args[0]);
+                        case "toString":
+                            return type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+                        default:
+                            return handler.invoke(method.getName(), args);
+                    }
+                }));
+    }
+}
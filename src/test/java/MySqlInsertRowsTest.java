@@ -0,0 +1,144 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import mysql.MySqlConnector;
+import mysql.MySqlUpsertResult;
+
+/**
+ * Testing the mysqlInsertRows and mysqlUpsertRows methods of the MySqlConnector class in JUnit 5 & Mockito.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlInsertRowsTest {
+
+    private MySqlConnector mysql;
+    private List<String> prepared;
+    private PreparedStatement packetStatement;
+
+    @BeforeEach
+    void setUp()
+    throws SQLException {
+        prepared = new ArrayList<>();
+        ResultSet packet = Mockito.mock(ResultSet.class);
+        Mockito.when(packet.next()).thenReturn(true);
+        Mockito.when(packet.getLong(1)).thenReturn(4_194_304L);
+        packetStatement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(packetStatement.executeQuery()).thenReturn(packet);
+        mysql = MockMySql.newConnector(() -> {
+            Connection connection = MockMySql.newConnection();
+            Mockito.when(connection.prepareStatement(Mockito.anyString())).thenAnswer(invocation -> {
+                String sql = invocation.getArgument(0);
+                if (sql.startsWith("SELECT")) {
+                    return packetStatement;
+                }
+                prepared.add(sql);
+                int rows = (sql.length() - sql.replace("(?", "").length()) / 2;
+                PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+                Mockito.when(statement.executeUpdate()).thenReturn(sql.contains("ON DUPLICATE KEY UPDATE") ? (rows + 1) : rows);
+                return statement;
+            });
+            return connection;
+        }, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockMySql.disconnect(mysql);
+    }
+
+    @Test
+    @DisplayName(value = "The max_allowed_packet is read once from the server, when it is first needed.")
+    void maxAllowedPacketTest()
+    throws SQLException {
+        Assertions.assertEquals(0L, mysql.getMaxAllowedPacket());
+        Assertions.assertEquals(3L, mysql.mysqlInsertRows("table1_t", new String[]{"id", "name"},
+                IntStream.range(0, 3).mapToObj(i -> new Object[]{i, "name" + i})));
+        Assertions.assertEquals(4_194_304L, mysql.getMaxAllowedPacket());
+        mysql.mysqlInsertRows("table1_t", new String[]{"id", "name"}, List.<Object[]>of(new Object[]{9, null}).iterator());
+        Mockito.verify(packetStatement, Mockito.times(1)).executeQuery();
+        Assertions.assertEquals("INSERT INTO table1_t (id, name) VALUES (?, ?), (?, ?)", prepared.get(0));
+        Assertions.assertEquals("INSERT INTO table1_t (id, name) VALUES (?, ?)", prepared.get(1));
+    }
+
+    @Test
+    @DisplayName(value = "The rows are chunked under the packet size, and the full chunks reuse one cached statement.")
+    void chunkTest()
+    throws SQLException {
+        mysql.setMaxAllowedPacket(20_000L);
+        String text = "x".repeat(100);
+        long inserted = mysql.mysqlInsertRows("table1_t", new String[]{"id", "name"},
+                IntStream.range(0, 1_000).mapToObj(i -> new Object[]{i, text}));
+        Assertions.assertEquals(1_000L, inserted);
+        Mockito.verify(packetStatement, Mockito.never()).executeQuery();
+        Assertions.assertTrue(prepared.size() <= 17);
+        for (String sql : prepared) {
+            Assertions.assertTrue(sql.length() < 20_000);
+        }
+        Assertions.assertEquals(prepared.size(), prepared.stream().distinct().count());
+    }
+
+    @Test
+    @DisplayName(value = "A large row makes only its own chunk smaller, the later chunks fill the packet again.")
+    void largeRowTest()
+    throws SQLException {
+        mysql.setMaxAllowedPacket(20_000L);
+        String text = "x".repeat(3_000);
+        long inserted = mysql.mysqlInsertRows("table1_t", new String[]{"id", "name"}, IntStream.range(0, 202)
+                .mapToObj(i -> new Object[]{i, (i < 2) ? text : "n"}));
+        Assertions.assertEquals(202L, inserted);
+        int largest = prepared.stream().mapToInt(sql -> (sql.length() - sql.replace("(?", "").length()) / 2).max().orElse(0);
+        Assertions.assertTrue(largest >= 128);
+    }
+
+    @Test
+    @DisplayName(value = "The rows are upserted in chunks, the updated rows are counted from the affected rows.")
+    void upsertTest()
+    throws SQLException {
+        MySqlUpsertResult result = mysql.mysqlUpsertRows("table1_t", new String[]{"id"}, new String[]{"name", "score"},
+                IntStream.range(0, 5).mapToObj(i -> new Object[]{i, ("name" + i), i}));
+        Assertions.assertEquals(List.of(
+                "INSERT INTO table1_t (id, name, score) VALUES (?, ?, ?), (?, ?, ?), (?, ?, ?), (?, ?, ?)"
+                        + " ON DUPLICATE KEY UPDATE name = VALUES(name), score = VALUES(score)",
+                "INSERT INTO table1_t (id, name, score) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE name = VALUES(name), score = VALUES(score)"), prepared);
+        Assertions.assertEquals(5L, result.getRowCount());
+        Assertions.assertEquals(7L, result.getAffectedRows());
+        Assertions.assertEquals(2L, result.getUpdatedRows());
+        Assertions.assertEquals(3L, result.getInsertedRows());
+        mysql.mysqlUpsertRows("table1_t", new String[]{"id"}, new String[0], List.<Object[]>of(new Object[]{1}).iterator());
+        Assertions.assertEquals("INSERT INTO table1_t (id) VALUES (?) ON DUPLICATE KEY UPDATE id = id", prepared.get(2));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mysql.mysqlUpsertRows("table1_t", new String[0], new String[]{"name"},
+                List.<Object[]>of().iterator()));
+    }
+
+    @Test
+    @DisplayName(value = "A small packet still takes several rows per statement, a statement without room for a row is rejected.")
+    void smallPacketTest()
+    throws SQLException {
+        mysql.setMaxAllowedPacket(4_096L);
+        Assertions.assertEquals(100L, mysql.mysqlInsertRows("table1_t", new String[]{"id", "name"},
+                IntStream.range(0, 100).mapToObj(i -> new Object[]{i, "name" + i})));
+        int largest = prepared.stream().mapToInt(sql -> (sql.length() - sql.replace("(?", "").length()) / 2).max().orElse(0);
+        Assertions.assertTrue(largest >= 16);
+        mysql.setMaxAllowedPacket(1_024L);
+        String[] columns = IntStream.range(0, 100).mapToObj(i -> "column_name_" + i).toArray(String[]::new);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mysql.mysqlInsertRows("table1_t", columns,
+                List.<Object[]>of(new Object[100]).iterator()));
+    }
+
+    @Test
+    @DisplayName(value = "A row without a value for each column is rejected.")
+    void wrongRowTest() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mysql.setMaxAllowedPacket(100L));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mysql.mysqlInsertRows("table1_t", new String[0],
+                List.<Object[]>of().iterator()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mysql.mysqlInsertRows("table1_t", new String[]{"id", "name"},
+                List.<Object[]>of(new Object[]{1}).iterator()));
+    }
+}
@@ -0,0 +1,89 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import mysql.MySqlConnectionPool;
+import mysql.MySqlLeakDetector;
+import mysql.MySqlStatementCache;
+
+/**
+ * Testing the MySqlLeakDetector class in JUnit 5 & Mockito.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlLeakDetectorTest {
+
+    private MySqlLeakDetector leakDetector;
+
+    @AfterEach
+    void tearDown() {
+        if (leakDetector != null) {
+            leakDetector.close();
+        }
+    }
+
+    @Test
+    @DisplayName(value = "A resource open past the threshold is reported with its allocation stack trace.")
+    void leakTest() {
+        leakDetector = new MySqlLeakDetector(20L);
+        Object resource = new Object();
+        leakDetector.track(resource, "resource");
+        Assertions.assertTrue(leakDetector.getLeaks().isEmpty());
+        Assertions.assertDoesNotThrow(() -> Thread.sleep(40L));
+        List<MySqlLeakDetector.Leak> leaks = leakDetector.getLeaks();
+        Assertions.assertEquals(1, leaks.size());
+        Assertions.assertEquals("resource", leaks.get(0).getDescription());
+        Assertions.assertEquals("leakTest", leaks.get(0).getAllocation().getStackTrace()[0].getMethodName());
+        leakDetector.untrack(resource);
+        Assertions.assertTrue(leakDetector.getLeaks().isEmpty());
+    }
+
+    @Test
+    @DisplayName(value = "Nothing is tracked while the detection is turned off.")
+    void disabledTest() {
+        leakDetector = new MySqlLeakDetector();
+        leakDetector.track(new Object(), "resource");
+        Assertions.assertFalse(leakDetector.isEnabled());
+        Assertions.assertTrue(leakDetector.getLeaks().isEmpty());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> leakDetector.setLeakDetectionThreshold(-1L));
+    }
+
+    @Test
+    @DisplayName(value = "A statement that is not released is reported, a released one is not.")
+    void statementLeakTest()
+    throws SQLException {
+        leakDetector = new MySqlLeakDetector(10L);
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenAnswer(invocation -> Mockito.mock(PreparedStatement.class));
+        MySqlStatementCache cache = new MySqlStatementCache(connection, 4, leakDetector);
+        cache.releaseStatement(cache.prepareStatement("SELECT 1"));
+        PreparedStatement leaked = cache.prepareStatement("SELECT 2");
+        Assertions.assertDoesNotThrow(() -> Thread.sleep(30L));
+        Assertions.assertEquals(1, leakDetector.getLeaks().size());
+        Assertions.assertEquals("PreparedStatement [SELECT 2]", leakDetector.getLeaks().get(0).getDescription());
+        cache.close();
+        Mockito.verify(leaked).close();
+        Assertions.assertTrue(leakDetector.getLeaks().isEmpty());
+    }
+
+    @Test
+    @DisplayName(value = "A borrowed connection that is not released is reported.")
+    void connectionLeakTest()
+    throws SQLException {
+        try (MySqlConnectionPool pool = new MySqlConnectionPool(() -> {
+            Connection connection = MockMySql.newConnection();
+            return connection;
+        }, 0, 2)) {
+            pool.setLeakDetectionThreshold(10L);
+            Connection connection = pool.borrowConnection();
+            pool.releaseConnection(pool.borrowConnection());
+            Assertions.assertDoesNotThrow(() -> Thread.sleep(30L));
+            Assertions.assertEquals(1, pool.getLeakDetector().getLeaks().size());
+            pool.releaseConnection(connection);
+            Assertions.assertTrue(pool.getLeakDetector().getLeaks().isEmpty());
+        }
+    }
+}
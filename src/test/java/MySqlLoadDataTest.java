@@ -0,0 +1,117 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import com.mysql.cj.jdbc.JdbcStatement;
+
+import mysql.MySqlConnector;
+import mysql.MySqlLoadResult;
+
+/**
+ * Testing the mysqlLoadData method of the MySqlConnector class in JUnit 5 & Mockito.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlLoadDataTest {
+
+    private MySqlConnector mysql;
+    private JdbcStatement statement;
+    private AtomicReference<String> sent;
+
+    @BeforeEach
+    void setUp()
+    throws SQLException {
+        sent = new AtomicReference<>();
+        AtomicReference<InputStream> stream = new AtomicReference<>();
+        statement = Mockito.mock(JdbcStatement.class);
+        Mockito.when(statement.unwrap(JdbcStatement.class)).thenReturn(statement);
+        Mockito.doAnswer(invocation -> {
+            stream.set(invocation.getArgument(0));
+            return null;
+        }).when(statement).setLocalInfileInputStream(Mockito.any());
+        Mockito.when(statement.executeLargeUpdate(Mockito.anyString())).thenAnswer(invocation -> {
+            try {
+                sent.set(new String(stream.get().readAllBytes(), StandardCharsets.UTF_8));
+                stream.get().close();
+            } catch (IOException e) {
+                throw new SQLException(e.getMessage(), e);
+            }
+            return sent.get().chars().filter(c -> c == '\n').count();
+        });
+        mysql = MockMySql.newConnector(() -> {
+            Connection connection = MockMySql.newConnection();
+            Mockito.when(connection.createStatement()).thenReturn(statement);
+            return connection;
+        }, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockMySql.disconnect(mysql);
+    }
+
+    @Test
+    @DisplayName(value = "The rows are sent as escaped tab separated lines, null values as \\N.")
+    void escapeTest()
+    throws SQLException {
+        MySqlLoadResult result = mysql.mysqlLoadData("table1_t", new String[]{"id", "name", "active", "data"}, List.of(
+                new Object[]{1, "tab\there", true, new byte[]{0, '\\'}},
+                new Object[]{2, null, false, null},
+                new Object[]{3, "line\nnév\r", null, new byte[0]}).iterator());
+        Assertions.assertEquals("1\ttab\\there\t1\t\\0\\\\\n2\t\\N\t0\t\\N\n3\tline\\nnév\\r\t\\N\t\n", sent.get());
+        Assertions.assertEquals(3L, result.getLoadedRows());
+        Assertions.assertTrue(result.isClean());
+        Mockito.verify(statement).executeLargeUpdate(
+                "LOAD DATA LOCAL INFILE 'stream' INTO TABLE table1_t CHARACTER SET utf8mb4"
+                + " FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (id, name, active, data)");
+        Mockito.verify(statement).close();
+    }
+
+    @Test
+    @DisplayName(value = "The warnings of the server are returned with the number of loaded rows.")
+    void warningTest()
+    throws SQLException {
+        SQLWarning warning = new SQLWarning("Data truncated for column 'name' at row 2", "01000", 1265);
+        warning.setNextWarning(new SQLWarning("Row 3 doesn't contain data for all columns", "01000", 1261));
+        Mockito.when(statement.getWarnings()).thenReturn(warning);
+        MySqlLoadResult result = mysql.mysqlLoadData("table1_t", new String[]{"id", "name"},
+                IntStream.range(0, 1_000).mapToObj(i -> new Object[]{i, "name" + i}));
+        Assertions.assertEquals(1_000L, result.getLoadedRows());
+        Assertions.assertEquals(2, result.getWarningCount());
+        Assertions.assertEquals(1261, result.getWarnings().get(1).getErrorCode());
+        Assertions.assertFalse(result.isClean());
+    }
+
+    @Test
+    @DisplayName(value = "A wrong row or charset is rejected, and the connection is handed back.")
+    void wrongRowTest() {
+        SQLException e = Assertions.assertThrows(SQLException.class, () -> mysql.mysqlLoadData("table1_t", new String[]{"id", "name"},
+                List.<Object[]>of(new Object[]{1, "a"}, new Object[]{2}).iterator()));
+        Assertions.assertTrue(e.getMessage().contains("Row 2"));
+        Assertions.assertEquals(0, mysql.getConnectionPool().getActiveConnections());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mysql.mysqlLoadData("table1_t", new String[]{"id"},
+                new ByteArrayInputStream(new byte[0]), StandardCharsets.UTF_16));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mysql.mysqlLoadData("table1_t", new String[0],
+                List.<Object[]>of().iterator()));
+    }
+
+    @Test
+    @DisplayName(value = "The stream of the caller is read to its end, but it is not closed, even though the driver closes its stream.")
+    void streamTest()
+    throws SQLException, IOException {
+        InputStream data = Mockito.spy(new ByteArrayInputStream("1\tfirst\n2\tsecond\n".getBytes(StandardCharsets.UTF_8)));
+        MySqlLoadResult result = mysql.mysqlLoadData("table1_t", new String[]{"id", "name"}, data, StandardCharsets.UTF_8);
+        Assertions.assertEquals(2L, result.getLoadedRows());
+        Assertions.assertEquals("1\tfirst\n2\tsecond\n", sent.get());
+        Mockito.verify(data, Mockito.never()).close();
+    }
+}
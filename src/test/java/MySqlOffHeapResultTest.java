@@ -0,0 +1,141 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import mysql.MySqlColumnarResult;
+import mysql.MySqlConnector;
+import mysql.MySqlOffHeapResult;
+
+/**
+ * Testing the MySqlOffHeapResult class in JUnit 5 & Mockito.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlOffHeapResultTest {
+
+    private static final int ROWS = 3_000;
+
+    private MySqlConnector mysql;
+    private AtomicInteger row;
+    private ResultSet resultSet;
+
+    @BeforeEach
+    void setUp()
+    throws SQLException {
+        row = new AtomicInteger();
+        AtomicBoolean wasNull = new AtomicBoolean();
+        resultSet = Mockito.mock(ResultSet.class);
+        ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaData.getColumnCount()).thenReturn(3);
+        Mockito.when(metaData.getColumnName(Mockito.anyInt())).thenAnswer(invocation ->
+                new String[]{"id", "amount", "name"}[(int) invocation.getArgument(0) - 1]);
+        Mockito.when(metaData.getColumnType(Mockito.anyInt())).thenAnswer(invocation ->
+                new int[]{Types.INTEGER, Types.DOUBLE, Types.VARCHAR}[(int) invocation.getArgument(0) - 1]);
+        Mockito.when(metaData.isSigned(Mockito.anyInt())).thenReturn(true);
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(resultSet.next()).thenAnswer(invocation -> row.incrementAndGet() <= ROWS);
+        Mockito.when(resultSet.wasNull()).thenAnswer(invocation -> wasNull.get());
+        Mockito.when(resultSet.getInt(1)).thenAnswer(invocation -> {
+            wasNull.set(false);
+            return row.get();
+        });
+        Mockito.when(resultSet.getDouble(2)).thenAnswer(invocation -> {
+            wasNull.set(row.get() % 7 == 0);
+            return wasNull.get() ? 0.0 : row.get() * 1.5;
+        });
+        Mockito.when(resultSet.getString(3)).thenAnswer(invocation -> {
+            wasNull.set(row.get() % 5 == 0);
+            return wasNull.get() ? null : ("név " + row.get());
+        });
+        PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(statement.executeQuery()).thenReturn(resultSet);
+        mysql = MockMySql.newConnector(() -> {
+            Connection connection = MockMySql.newConnection();
+            Mockito.when(connection.prepareStatement(Mockito.anyString())).thenReturn(statement);
+            return connection;
+        }, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockMySql.disconnect(mysql);
+    }
+
+    @Test
+    @DisplayName(value = "The values are read back from the off-heap columns.")
+    void readTest()
+    throws SQLException {
+        try (MySqlOffHeapResult result = mysql.mysqlGetOffHeap("SELECT id, amount, name FROM table1_t")) {
+            Assertions.assertEquals(ROWS, result.getRowCount());
+            Assertions.assertEquals(MySqlColumnarResult.ColumnType.INT, result.getColumnType(0));
+            Assertions.assertEquals(MySqlColumnarResult.ColumnType.STRING, result.getColumnType(result.getColumnIndex("name")));
+            double total = 0.0;
+            double expected = 0.0;
+            for (int i = 0; i < ROWS; i++) {
+                Assertions.assertEquals((i + 1), result.getInt(i, 0));
+                Assertions.assertEquals(((i + 1) % 7 == 0), result.isNull(i, 1));
+                Assertions.assertEquals(((i + 1) % 5 == 0) ? null : ("név " + (i + 1)), result.getString(i, 2));
+                total += result.getDouble(i, 1);
+                expected += ((i + 1) % 7 == 0) ? 0.0 : (i + 1) * 1.5;
+            }
+            Assertions.assertEquals(expected, total, 1e-6);
+            ByteBuffer bytes = result.getBytes(2_000, 2);
+            Assertions.assertTrue(bytes.isReadOnly());
+            Assertions.assertEquals("név 2001", StandardCharsets.UTF_8.decode(bytes).toString());
+            Assertions.assertEquals(0, result.getBytes(4, 2).remaining());
+            Assertions.assertTrue(result.getMemorySize() > 0L);
+            Assertions.assertThrows(IllegalStateException.class, () -> result.getInt(0, 1));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> result.getInt(ROWS, 0));
+        }
+        Mockito.verify(resultSet, Mockito.never()).getString(1);
+    }
+
+    @Test
+    @DisplayName(value = "A released result holds no memory and cannot be read.")
+    void releaseTest()
+    throws SQLException {
+        MySqlOffHeapResult result = mysql.mysqlGetOffHeap("SELECT id, amount, name FROM table1_t");
+        Assertions.assertFalse(result.isReleased());
+        result.close();
+        Assertions.assertTrue(result.isReleased());
+        Assertions.assertEquals(0L, result.getMemorySize());
+        Assertions.assertThrows(IllegalStateException.class, () -> result.getInt(0, 0));
+        Assertions.assertDoesNotThrow(result::close);
+    }
+
+    @Test
+    @DisplayName(value = "A view taken before the release stays readable, the release waits for it to be dropped.")
+    void viewTest()
+    throws SQLException {
+        MySqlOffHeapResult result = mysql.mysqlGetOffHeap("SELECT id, amount, name FROM table1_t");
+        ByteBuffer bytes = result.getBytes(2_000, 2);
+        result.close();
+        Assertions.assertTrue(result.isReleased());
+        Assertions.assertEquals("név 2001", StandardCharsets.UTF_8.decode(bytes).toString());
+        Assertions.assertThrows(IllegalStateException.class, () -> result.getBytes(2_000, 2));
+    }
+
+    @Test
+    @DisplayName(value = "An error while reading is thrown, and the connection is handed back.")
+    void errorTest()
+    throws SQLException {
+        Mockito.when(resultSet.next()).thenAnswer(invocation -> {
+            if (row.incrementAndGet() > 2_000) {
+                throw new SQLException("Query execution was interrupted", "70100", 1317);
+            }
+            return true;
+        });
+        SQLException e = Assertions.assertThrows(SQLException.class, () -> mysql.mysqlGetOffHeap("SELECT id, amount, name FROM table1_t"));
+        Assertions.assertEquals(1317, e.getErrorCode());
+        Assertions.assertEquals(0, mysql.getConnectionPool().getActiveConnections());
+    }
+}
@@ -0,0 +1,128 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import mysql.MySqlConnector;
+import mysql.MySqlParallelLoader;
+
+/**
+ * Testing the MySqlParallelLoader class in JUnit 5 & Mockito.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlParallelLoaderTest {
+
+    private static final int ROWS = 1_000;
+
+    private MySqlConnector mysql;
+    private List<int[]> written;
+
+    @BeforeEach
+    void setUp()
+    throws SQLException {
+        written = Collections.synchronizedList(new ArrayList<>());
+        mysql = MockMySql.newConnector(() -> {
+            Connection connection = MockMySql.newConnection();
+            Mockito.when(connection.prepareStatement(Mockito.anyString())).thenAnswer(invocation -> {
+                List<Integer> values = new ArrayList<>();
+                PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+                Mockito.doAnswer(set -> values.add(set.getArgument(1))).when(statement).setObject(Mockito.anyInt(), Mockito.any());
+                Mockito.when(statement.executeUpdate()).thenAnswer(execute -> {
+                    for (int i = 0; i < values.size(); i += 2) {
+                        if ((values.get(i) == 3) && (values.get(i + 1) > 500)) {
+                            throw new SQLException("Data too long for column 'value'", "22001", 1406);
+                        }
+                    }
+                    for (int i = 0; i < values.size(); i += 2) {
+                        written.add(new int[]{values.get(i), values.get(i + 1)});
+                    }
+                    int rows = values.size() / 2;
+                    values.clear();
+                    return rows;
+                });
+                Mockito.doAnswer(clear -> {
+                    values.clear();
+                    return null;
+                }).when(statement).clearParameters();
+                return statement;
+            });
+            return connection;
+        }, 4);
+        mysql.setMaxAllowedPacket(1_048_576L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockMySql.disconnect(mysql);
+    }
+
+    @Test
+    @DisplayName(value = "The rows of a key are written in order by one partition, the progress is reported.")
+    void orderTest() {
+        MySqlParallelLoader loader = new MySqlParallelLoader(mysql, "table1_t", new String[]{"sensor", "value"}, 4);
+        loader.setPartitionColumn(0);
+        loader.setChunkSize(16);
+        AtomicLong progress = new AtomicLong();
+        loader.setProgressListener(rows -> progress.accumulateAndGet(rows, Math::max));
+        MySqlParallelLoader.Result result = loader.load(IntStream.range(0, ROWS)
+                .filter(i -> (i % 5) != 3)
+                .mapToObj(i -> new Object[]{(i % 5), i}));
+        Assertions.assertTrue(result.isSuccessful());
+        Assertions.assertEquals(800L, result.getWrittenRows());
+        Assertions.assertEquals(800L, loader.getLoadedRows());
+        Assertions.assertEquals(800L, progress.get());
+        Assertions.assertEquals(4, result.getPartitions().size());
+        Assertions.assertTrue(result.getRowsPerSecond() > 0.0);
+        for (int key = 0; key < 5; key++) {
+            int sensor = key;
+            List<Integer> values = written.stream().filter(row -> row[0] == sensor).map(row -> row[1]).collect(Collectors.toList());
+            List<Integer> sorted = new ArrayList<>(values);
+            Collections.sort(sorted);
+            Assertions.assertEquals(sorted, values);
+        }
+    }
+
+    @Test
+    @DisplayName(value = "A failing partition stops and keeps its error, the other partitions are written.")
+    void failureTest() {
+        MySqlParallelLoader loader = new MySqlParallelLoader(mysql, "table1_t", new String[]{"sensor", "value"}, 4);
+        loader.setPartitionColumn(0);
+        loader.setChunkSize(10);
+        MySqlParallelLoader.Result result = loader.load(IntStream.range(0, ROWS).mapToObj(i -> new Object[]{(i % 5), i}));
+        Assertions.assertFalse(result.isSuccessful());
+        MySqlParallelLoader.PartitionResult failed = result.getPartitions().stream()
+                .filter(partition -> !partition.isSuccessful()).findFirst().orElseThrow();
+        Assertions.assertEquals(1406, ((SQLException) failed.getFailure()).getErrorCode());
+        Assertions.assertTrue(failed.getSkippedRows() > 0L);
+        Assertions.assertEquals(ROWS, (result.getWrittenRows() + result.getSkippedRows()));
+        Assertions.assertEquals(1L, result.getPartitions().stream().filter(partition -> !partition.isSuccessful()).count());
+        Assertions.assertEquals(ROWS / 5, written.stream().filter(row -> row[0] == 4).count());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> loader.load(List.<Object[]>of(new Object[]{1}).iterator()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> loader.setPartitionColumn(2));
+    }
+
+    @Test
+    @DisplayName(value = "An interrupted load ends and waits for every partition, and keeps the interrupt.")
+    void interruptTest() {
+        MySqlParallelLoader loader = new MySqlParallelLoader(mysql, "table1_t", new String[]{"sensor", "value"}, 4);
+        loader.setChunkSize(10);
+        Assertions.assertThrows(IllegalStateException.class, () -> loader.load(IntStream.range(0, ROWS).mapToObj(i -> {
+            if (i == 25) {
+                Thread.currentThread().interrupt();
+            }
+            return new Object[]{(i % 5), i};
+        })));
+        Assertions.assertTrue(Thread.interrupted());
+        Assertions.assertTrue(Thread.getAllStackTraces().keySet().stream()
+                .noneMatch(thread -> thread.getName().startsWith("mysql-loader-") && thread.isAlive()));
+        Assertions.assertEquals(20, written.size());
+    }
+}
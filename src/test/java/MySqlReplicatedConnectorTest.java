@@ -0,0 +1,138 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import mysql.MySqlConnectionPool;
+import mysql.MySqlReplicatedConnector;
+
+/**
+ * Testing the MySqlReplicatedConnector class in JUnit 5 & Mockito.
+ * The primary and the replicas are stand-in connection pools, every query returns the name of the server that ran it.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlReplicatedConnectorTest {
+
+    private MySqlReplicatedConnector mysql;
+    private List<String> writes;
+
+    @BeforeEach
+    void setUp()
+    throws SQLException {
+        writes = new ArrayList<>();
+        mysql = new MySqlReplicatedConnector("username", "password", "database1_db", "table1_t");
+        mysql.setConnectionPool(newServer("primary"));
+        mysql.setReplicaConnectionPools(List.of(newServer("replica1"), newServer("replica2")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockMySql.disconnect(mysql);
+    }
+
+    private MySqlConnectionPool newServer(String name)
+    throws SQLException {
+        return new MySqlConnectionPool(() -> {
+            Connection connection = MockMySql.newConnection();
+            Mockito.when(connection.prepareStatement(Mockito.anyString())).thenAnswer(invocation -> {
+                PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+                Mockito.when(statement.executeQuery()).thenAnswer(query -> newResultSet(name));
+                Mockito.when(statement.executeUpdate()).thenAnswer(update -> {
+                    writes.add(name);
+                    return 1;
+                });
+                return statement;
+            });
+            return connection;
+        }, 0, 2);
+    }
+
+    private ResultSet newResultSet(String name)
+    throws SQLException {
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaData.getColumnCount()).thenReturn(1);
+        Mockito.when(metaData.getColumnName(1)).thenReturn("server");
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(resultSet.next()).thenReturn(true, false);
+        Mockito.when(resultSet.getString(Mockito.anyString())).thenReturn(name);
+        Mockito.when(resultSet.getString(Mockito.anyInt())).thenReturn(name);
+        return resultSet;
+    }
+
+    private String read()
+    throws SQLException {
+        return mysql.mysqlGet("SELECT @@hostname")[0][0];
+    }
+
+    @Test
+    @DisplayName(value = "Writes go to the primary, reads go to the replicas in turn.")
+    void roundRobinTest()
+    throws SQLException {
+        mysql.mysqlSetVarargs("INSERT INTO table1_t VALUE (?)", 1);
+        Assertions.assertEquals(List.of("primary"), writes);
+        String first = read();
+        String second = read();
+        Assertions.assertNotEquals(first, second);
+        Assertions.assertTrue(first.startsWith("replica") && second.startsWith("replica"));
+        Assertions.assertEquals(first, read());
+        Assertions.assertEquals(3, mysql.getReplicaReads());
+        Assertions.assertEquals(0, mysql.getPrimaryReads());
+    }
+
+    @Test
+    @DisplayName(value = "The replica with the fewest borrowed connections serves the read.")
+    void leastOutstandingTest()
+    throws SQLException {
+        mysql.setBalancing(MySqlReplicatedConnector.Balancing.LEAST_OUTSTANDING);
+        MySqlConnectionPool busy = mysql.getReplicaConnectionPools().get(0);
+        Connection borrowed = busy.borrowConnection();
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertEquals("replica2", read());
+        }
+        busy.releaseConnection(borrowed);
+    }
+
+    @Test
+    @DisplayName(value = "A thread that wrote reads from the primary within the read your writes window.")
+    void readYourWritesTest()
+    throws Exception {
+        mysql.setReadYourWritesWindow(60_000L);
+        Assertions.assertTrue(read().startsWith("replica"));
+        mysql.mysqlSet("UPDATE table1_t SET value = 1");
+        Assertions.assertEquals("primary", read());
+        Assertions.assertEquals(1, mysql.getPrimaryReads());
+        String[] otherThread = new String[1];
+        Thread thread = new Thread(() -> Assertions.assertDoesNotThrow(() -> otherThread[0] = read()));
+        thread.start();
+        thread.join();
+        Assertions.assertTrue(otherThread[0].startsWith("replica"));
+        mysql.setReadYourWritesWindow(1L);
+        mysql.mysqlSet("UPDATE table1_t SET value = 2");
+        Thread.sleep(5L);
+        Assertions.assertTrue(read().startsWith("replica"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mysql.setReadYourWritesWindow(-1L));
+    }
+
+    @Test
+    @DisplayName(value = "Without replicas every read goes to the primary.")
+    void noReplicaTest()
+    throws SQLException {
+        mysql.setReplicaConnectionPools(List.of());
+        Assertions.assertEquals("primary", read());
+    }
+
+    @Test
+    @DisplayName(value = "The schema catalog is loaded from the primary, without pinning the later reads to it.")
+    void schemaCatalogTest()
+    throws SQLException {
+        Assertions.assertEquals(List.of("primary"), List.copyOf(mysql.getSchemaCatalog().getTables().keySet()));
+        Assertions.assertTrue(read().startsWith("replica"));
+    }
+}
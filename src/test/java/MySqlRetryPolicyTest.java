@@ -0,0 +1,126 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import mysql.MySqlBatchResult;
+import mysql.MySqlConnector;
+import mysql.MySqlRetryPolicy;
+
+/**
+ * Testing the MySqlRetryPolicy class in JUnit 5 & Mockito.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlRetryPolicyTest {
+
+    private MySqlConnector mysql;
+    private Connection connection;
+    private PreparedStatement statement;
+    private MySqlRetryPolicy retryPolicy;
+
+    @BeforeEach
+    void setUp()
+    throws SQLException {
+        statement = Mockito.mock(PreparedStatement.class);
+        connection = MockMySql.newConnection();
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenReturn(statement);
+        retryPolicy = new MySqlRetryPolicy(3, 1L, 4L);
+        mysql = MockMySql.newConnector(connection);
+        mysql.setRetryPolicy(retryPolicy);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockMySql.disconnect(mysql);
+    }
+
+    @Test
+    @DisplayName(value = "A statement failing with a deadlock is run again and succeeds, the retries are counted.")
+    void deadlockTest()
+    throws SQLException {
+        SQLException deadlock = new SQLException("Deadlock found when trying to get lock; try restarting transaction", "40001", 1213);
+        Mockito.when(statement.executeUpdate()).thenThrow(deadlock, deadlock).thenReturn(1);
+        mysql.mysqlSetVarargs("UPDATE accounts_t SET balance = balance - ? WHERE id = 1", 10);
+        Mockito.verify(statement, Mockito.times(3)).executeUpdate();
+        Assertions.assertEquals(2L, retryPolicy.getDeadlockRetries());
+        Assertions.assertEquals(2L, retryPolicy.getRetryCount());
+        Assertions.assertEquals(0L, retryPolicy.getExhaustedCount());
+        Assertions.assertEquals(0, mysql.getConnectionPool().getActiveConnections());
+    }
+
+    @Test
+    @DisplayName(value = "After the last retry the original exception is thrown, with its SQL state and error code.")
+    void exhaustedTest()
+    throws SQLException {
+        SQLException lockWait = new SQLException("Lock wait timeout exceeded; try restarting transaction", "HY000", 1205);
+        Mockito.when(statement.executeUpdate()).thenThrow(lockWait);
+        SQLException e = Assertions.assertThrows(SQLException.class, () -> mysql.mysqlSetVarargs("DELETE FROM users_t WHERE id = ?", 1));
+        Assertions.assertSame(lockWait, e);
+        Assertions.assertEquals("HY000", e.getSQLState());
+        Assertions.assertEquals(1205, e.getErrorCode());
+        Mockito.verify(statement, Mockito.times(4)).executeUpdate();
+        Assertions.assertEquals(3L, retryPolicy.getLockWaitRetries());
+        Assertions.assertEquals(1L, retryPolicy.getExhaustedCount());
+    }
+
+    @Test
+    @DisplayName(value = "A permanent error is not retried, and the errors are classified by their code.")
+    void permanentTest()
+    throws SQLException {
+        SQLException duplicate = new SQLException("Duplicate entry '1' for key 'PRIMARY'", "23000", 1062);
+        Mockito.when(statement.executeUpdate()).thenThrow(duplicate);
+        Assertions.assertSame(duplicate, Assertions.assertThrows(SQLException.class,
+                () -> mysql.mysqlSetVarargs("INSERT INTO users_t (id) VALUES (?)", 1)));
+        Mockito.verify(statement, Mockito.times(1)).executeUpdate();
+        Assertions.assertEquals(0L, retryPolicy.getRetryCount());
+        Assertions.assertEquals(MySqlRetryPolicy.Failure.PERMANENT, retryPolicy.classify(duplicate));
+        Assertions.assertEquals(MySqlRetryPolicy.Failure.CONNECTION, retryPolicy.classify(new SQLException("Communications link failure", "08S01", 0)));
+        Assertions.assertEquals(MySqlRetryPolicy.Failure.DEADLOCK, retryPolicy.classify(new SQLException("Deadlock", "40001", 1213)));
+        Assertions.assertTrue(retryPolicy.isTransient(new SQLException("Lock wait timeout", "HY000", 1205)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new MySqlRetryPolicy(-1, 1L, 2L));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new MySqlRetryPolicy(1, 5L, 2L));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mysql.setRetryPolicy(null));
+    }
+
+    @Test
+    @DisplayName(value = "A transaction rolled back by a deadlock is run again from its start.")
+    void transactionTest()
+    throws SQLException {
+        Mockito.when(statement.executeUpdate()).thenThrow(new SQLException("Deadlock", "40001", 1213)).thenReturn(1);
+        AtomicInteger runs = new AtomicInteger();
+        Integer result = mysql.mysqlInTransaction(() -> {
+            runs.incrementAndGet();
+            mysql.mysqlSetVarargs("UPDATE accounts_t SET balance = balance - ? WHERE id = 1", 10);
+            mysql.mysqlSetVarargs("UPDATE accounts_t SET balance = balance + ? WHERE id = 2", 10);
+            return 7;
+        });
+        Assertions.assertEquals(7, result);
+        Assertions.assertEquals(2, runs.get());
+        Mockito.verify(connection, Mockito.times(1)).rollback();
+        Mockito.verify(connection, Mockito.times(1)).commit();
+        Mockito.verify(statement, Mockito.times(3)).executeUpdate();
+        Assertions.assertEquals(1L, retryPolicy.getDeadlockRetries());
+        Assertions.assertFalse(mysql.isInTransaction());
+    }
+
+    @Test
+    @DisplayName(value = "Every committed batch gets its own retries.")
+    void batchTest()
+    throws SQLException {
+        SQLException deadlock = new SQLException("Deadlock", "40001", 1213);
+        Mockito.when(statement.executeBatch()).thenThrow(deadlock).thenReturn(new int[]{1})
+                .thenThrow(deadlock).thenReturn(new int[]{1})
+                .thenThrow(deadlock).thenReturn(new int[]{1});
+        mysql.setRetryPolicy(new MySqlRetryPolicy(1, 1L, 1L));
+        MySqlBatchResult result = mysql.mysqlSetBatch("INSERT INTO users_t (id) VALUES (?)",
+                List.of(new Object[]{1}, new Object[]{2}, new Object[]{3}), 1);
+        Assertions.assertTrue(result.isSuccessful());
+        Assertions.assertEquals(3, result.getCommittedBatches());
+        Mockito.verify(connection, Mockito.times(3)).rollback();
+        Mockito.verify(connection, Mockito.times(3)).commit();
+    }
+}
@@ -0,0 +1,155 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import mysql.MySqlConnector;
+import mysql.MySqlGenericOperation;
+import mysql.MySqlOperation;
+import mysql.MySqlRowMapper;
+
+/**
+ * Testing the MySqlRowMapper class in JUnit 5 & Mockito.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlRowMapperTest {
+
+    private static final int ROWS = 3;
+
+    enum Level {
+        LOW, HIGH
+    }
+
+    record User(long id, String userName, Integer score, Level level) {
+    }
+
+    static class Account {
+        private int id;
+        private String userName;
+        private Double score;
+        private static int instances;
+    }
+
+    private MySqlConnector mysql;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+
+    @BeforeEach
+    void setUp()
+    throws SQLException {
+        AtomicInteger row = new AtomicInteger();
+        AtomicBoolean wasNull = new AtomicBoolean();
+        resultSet = Mockito.mock(ResultSet.class);
+        ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaData.getColumnCount()).thenReturn(5);
+        Mockito.when(metaData.getColumnLabel(Mockito.anyInt())).thenAnswer(invocation ->
+                new String[]{"ID", "user_name", "score", "level", "unused"}[(int) invocation.getArgument(0) - 1]);
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(resultSet.next()).thenAnswer(invocation -> row.incrementAndGet() <= ROWS);
+        Mockito.when(resultSet.wasNull()).thenAnswer(invocation -> wasNull.get());
+        Mockito.when(resultSet.getLong(1)).thenAnswer(invocation -> (long) row.get());
+        Mockito.when(resultSet.getInt(1)).thenAnswer(invocation -> row.get());
+        Mockito.when(resultSet.getString(2)).thenAnswer(invocation -> "user" + row.get());
+        Mockito.when(resultSet.getInt(3)).thenAnswer(invocation -> {
+            wasNull.set(row.get() == 2);
+            return wasNull.get() ? 0 : (row.get() * 10);
+        });
+        Mockito.when(resultSet.getDouble(3)).thenAnswer(invocation -> {
+            wasNull.set(row.get() == 2);
+            return wasNull.get() ? 0.0 : (row.get() * 10.0);
+        });
+        Mockito.when(resultSet.getString(4)).thenAnswer(invocation -> (row.get() % 2 == 0) ? "HIGH" : "LOW");
+        statement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(statement.executeQuery()).thenReturn(resultSet);
+        mysql = MockMySql.newConnector(() -> {
+            Connection connection = MockMySql.newConnection();
+            Mockito.when(connection.prepareStatement(Mockito.anyString())).thenReturn(statement);
+            return connection;
+        }, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockMySql.disconnect(mysql);
+    }
+
+    @Test
+    @DisplayName(value = "The rows are mapped to records through the canonical constructor, by column names.")
+    void recordTest()
+    throws SQLException {
+        List<User> users = mysql.mysqlGetToList("SELECT id, user_name, score, level, unused FROM users_t", User.class);
+        Assertions.assertEquals(List.of(
+                new User(1L, "user1", 10, Level.LOW),
+                new User(2L, "user2", null, Level.HIGH),
+                new User(3L, "user3", 30, Level.LOW)), users);
+        Mockito.verify(resultSet, Mockito.never()).getString(1);
+        Mockito.verify(resultSet, Mockito.never()).getObject(Mockito.eq(5), Mockito.<Class<Object>>any());
+        Assertions.assertSame(MySqlRowMapper.of(User.class), MySqlRowMapper.of(User.class));
+        Assertions.assertEquals(List.of("id", "userName", "score", "level"), MySqlRowMapper.of(User.class).getPropertyNames());
+    }
+
+    @Test
+    @DisplayName(value = "The rows are mapped to classes through their fields, static fields are skipped.")
+    void classTest()
+    throws SQLException {
+        MySqlOperation<Account> accounts = new MySqlGenericOperation<>(mysql, Account.class);
+        List<Account> rows = new ArrayList<>(accounts.mysqlGetToGenericCollection("SELECT id, user_name, score, level, unused FROM accounts_t"));
+        Assertions.assertEquals(ROWS, rows.size());
+        Assertions.assertEquals(3, rows.get(2).id);
+        Assertions.assertEquals("user1", rows.get(0).userName);
+        Assertions.assertNull(rows.get(1).score);
+        Assertions.assertEquals(30.0, rows.get(2).score);
+        Assertions.assertEquals(List.of("id", "userName", "score"), MySqlRowMapper.of(Account.class).getPropertyNames());
+    }
+
+    @Test
+    @DisplayName(value = "The properties of an object are set as the parameters of the statement.")
+    void setToGenericTest()
+    throws SQLException {
+        MySqlOperation<User> users = new MySqlGenericOperation<>(mysql, User.class);
+        users.mysqlSetToGeneric("INSERT INTO users_t (id, user_name, score, level) VALUES (?, ?, ?, ?)", new User(7L, "user7", null, Level.HIGH));
+        Mockito.verify(statement).setObject(1, 7L);
+        Mockito.verify(statement).setObject(2, "user7");
+        Mockito.verify(statement).setObject(3, null);
+        Mockito.verify(statement).setObject(4, "HIGH");
+        Mockito.verify(statement).executeUpdate();
+        Collection<User> many = List.of(new User(8L, "user8", 1, Level.LOW), new User(9L, "user9", 2, Level.LOW));
+        Mockito.when(statement.executeBatch()).thenReturn(new int[]{1, 1});
+        users.mysqlSetToGeneric("INSERT INTO users_t (id, user_name, score, level) VALUES (?, ?, ?, ?)", many);
+        Mockito.verify(statement).executeUpdate();
+        Mockito.verify(statement, Mockito.times(2)).addBatch();
+        Mockito.verify(statement).executeBatch();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MySqlRowMapper.of(Runnable.class));
+    }
+
+    @Test
+    @DisplayName(value = "The fields of a class are written by their names, never by their declaration order.")
+    void setClassByNameTest()
+    throws SQLException {
+        MySqlGenericOperation<Account> accounts = new MySqlGenericOperation<>(mysql, Account.class);
+        Account account = new Account();
+        account.id = 5;
+        account.userName = "user5";
+        account.score = 1.5;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> accounts.mysqlSetToGeneric("INSERT INTO accounts_t VALUES (?, ?, ?)", account));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> accounts.mysqlSetToGeneric("UPDATE accounts_t SET name = ?", account, "name"));
+        Mockito.verify(statement, Mockito.never()).executeUpdate();
+        accounts.mysqlSetToGeneric("UPDATE accounts_t SET score = ?, user_name = ? WHERE id = ?", account, "score", "user_name", "id");
+        Mockito.verify(statement).setObject(1, 1.5);
+        Mockito.verify(statement).setObject(2, "user5");
+        Mockito.verify(statement).setObject(3, 5);
+        Mockito.when(statement.executeBatch()).thenReturn(new int[]{1});
+        Assertions.assertTrue(accounts.mysqlSetToGenericBatch("DELETE FROM accounts_t WHERE id = ?", List.of(account), "id").isSuccessful());
+        Mockito.verify(statement).addBatch();
+        Mockito.verify(statement).executeBatch();
+    }
+}
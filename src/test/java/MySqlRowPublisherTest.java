@@ -0,0 +1,124 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import mysql.MySqlConnector;
+import mysql.MySqlRow;
+
+/**
+ * Testing the MySqlRowPublisher class in JUnit 5 & Mockito.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlRowPublisherTest {
+
+    private static final int ROWS = 10;
+
+    private MySqlConnector mysql;
+    private PreparedStatement statement;
+    private AtomicInteger readRows;
+    private BlockingQueue<Object> signals;
+    private Flow.Subscription subscription;
+
+    @BeforeEach
+    void setUp()
+    throws SQLException {
+        readRows = new AtomicInteger();
+        signals = new LinkedBlockingQueue<>();
+        statement = Mockito.mock(PreparedStatement.class);
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaData.getColumnCount()).thenReturn(1);
+        Mockito.when(metaData.getColumnName(1)).thenReturn("value");
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(resultSet.next()).thenAnswer(invocation -> readRows.incrementAndGet() <= ROWS);
+        Mockito.when(resultSet.getString(1)).thenAnswer(invocation -> String.valueOf(readRows.get()));
+        Mockito.when(statement.executeQuery()).thenReturn(resultSet);
+        mysql = MockMySql.newConnector(() -> {
+            Connection connection = MockMySql.newConnection();
+            Mockito.when(connection.prepareStatement(Mockito.anyString())).thenReturn(statement);
+            return connection;
+        }, 1);
+        mysql.mysqlGetPublisher("SELECT value FROM table1_t").subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                MySqlRowPublisherTest.this.subscription = subscription;
+            }
+
+            @Override
+            public void onNext(MySqlRow row) {
+                signals.add(row);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                signals.add(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                signals.add("complete");
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockMySql.disconnect(mysql);
+    }
+
+    @Test
+    @DisplayName(value = "Rows are read only as they are requested, then the publisher completes.")
+    void demandTest()
+    throws InterruptedException, SQLException {
+        Assertions.assertNull(signals.poll(50, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(0, readRows.get());
+        subscription.request(2);
+        Assertions.assertEquals("1", ((MySqlRow) signals.poll(5, TimeUnit.SECONDS)).getString("value"));
+        Assertions.assertEquals("2", ((MySqlRow) signals.poll(5, TimeUnit.SECONDS)).getString(0));
+        Assertions.assertNull(signals.poll(50, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(2, readRows.get());
+        subscription.request(Long.MAX_VALUE);
+        for (int i = 3; i <= ROWS; i++) {
+            Assertions.assertEquals(String.valueOf(i), ((MySqlRow) signals.poll(5, TimeUnit.SECONDS)).toArray()[0]);
+        }
+        Assertions.assertEquals("complete", signals.poll(5, TimeUnit.SECONDS));
+        Mockito.verify(statement).setFetchSize(Integer.MIN_VALUE);
+        Mockito.verify(statement).setFetchSize(0);
+        Assertions.assertEquals(0, mysql.getConnectionPool().getActiveConnections());
+    }
+
+    @Test
+    @DisplayName(value = "Cancelling the subscription cancels the statement and releases the connection.")
+    void cancelTest()
+    throws InterruptedException, SQLException {
+        subscription.request(1);
+        Assertions.assertNotNull(signals.poll(5, TimeUnit.SECONDS));
+        subscription.cancel();
+        long deadline = System.currentTimeMillis() + 5_000L;
+        while ((mysql.getConnectionPool().getActiveConnections() > 0) && (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(5L);
+        }
+        Assertions.assertEquals(0, mysql.getConnectionPool().getActiveConnections());
+        Mockito.verify(statement).cancel();
+        Assertions.assertNull(signals.poll(50, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(1, readRows.get());
+    }
+
+    @Test
+    @DisplayName(value = "A non-positive request fails the subscription.")
+    void invalidRequestTest()
+    throws InterruptedException {
+        subscription.request(0);
+        Assertions.assertInstanceOf(IllegalArgumentException.class, signals.poll(5, TimeUnit.SECONDS));
+    }
+}
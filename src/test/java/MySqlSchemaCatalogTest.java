@@ -0,0 +1,137 @@
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.*;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import mysql.MySqlConnector;
+import mysql.MySqlSchemaCatalog;
+
+/**
+ * Testing the MySqlSchemaCatalog class in JUnit 5 & Mockito.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlSchemaCatalogTest {
+
+    private static final Object[][] ROWS = {
+            {"C", "orders_t", "id", 1, "bigint", "bigint unsigned", "NO", "auto_increment"},
+            {"C", "orders_t", "user_id", 2, "int", "int", "NO", ""},
+            {"C", "orders_t", "note", 3, "varchar", "varchar(255)", "YES", ""},
+            {"I", "orders_t", "id", 1, "PRIMARY", null, "0", null},
+            {"I", "orders_t", "user_id", 1, "orders_user_idx", null, "1", null},
+            {"I", "orders_t", "note", 2, "orders_user_idx", null, "1", null},
+            {"C", "users_t", "tenant", 1, "int", "int", "NO", ""},
+            {"C", "users_t", "name", 2, "varchar", "varchar(64)", "NO", ""},
+            {"I", "users_t", "tenant", 1, "PRIMARY", null, "0", null},
+            {"I", "users_t", "name", 2, "PRIMARY", null, "0", null}
+    };
+
+    private MySqlConnector mysql;
+    private PreparedStatement statement;
+    private AtomicInteger queries;
+
+    @BeforeEach
+    void setUp()
+    throws SQLException {
+        queries = new AtomicInteger();
+        statement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(statement.executeQuery()).thenAnswer(invocation -> {
+            queries.incrementAndGet();
+            AtomicInteger row = new AtomicInteger(-1);
+            ResultSet resultSet = Mockito.mock(ResultSet.class);
+            Mockito.when(resultSet.next()).thenAnswer(next -> row.incrementAndGet() < ROWS.length);
+            Mockito.when(resultSet.getString(Mockito.anyInt())).thenAnswer(get -> {
+                Object value = ROWS[row.get()][(int) get.getArgument(0) - 1];
+                return (value != null) ? value.toString() : null;
+            });
+            Mockito.when(resultSet.getInt(Mockito.anyInt())).thenAnswer(get -> ROWS[row.get()][(int) get.getArgument(0) - 1]);
+            return resultSet;
+        });
+        Connection connection = MockMySql.newConnection();
+        Mockito.when(connection.prepareStatement(MySqlSchemaCatalogTest.query())).thenReturn(statement);
+        mysql = MockMySql.newConnector(connection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockMySql.disconnect(mysql);
+    }
+
+    private static String query() {
+        return Mockito.argThat(sql -> sql.contains("information_schema.COLUMNS") && sql.contains("information_schema.STATISTICS"));
+    }
+
+    @Test
+    @DisplayName(value = "The columns, primary keys and indexes of every table are loaded with one query.")
+    void loadTest()
+    throws SQLException {
+        MySqlSchemaCatalog catalog = mysql.getSchemaCatalog();
+        Assertions.assertSame(catalog, mysql.getSchemaCatalog());
+        Assertions.assertEquals(List.of("orders_t", "users_t"), List.copyOf(catalog.getTables().keySet()));
+        MySqlSchemaCatalog.Table orders = catalog.getTable("orders_t");
+        Assertions.assertArrayEquals(new String[]{"id", "user_id", "note"}, orders.getColumnNames());
+        Assertions.assertArrayEquals(new String[]{"id"}, orders.getPrimaryKey());
+        Assertions.assertTrue(orders.getColumn("ID").isAutoIncrement());
+        Assertions.assertEquals("varchar(255)", orders.getColumn("note").getColumnType());
+        Assertions.assertTrue(orders.getColumn("note").isNullable());
+        MySqlSchemaCatalog.Index index = orders.getIndexes().get("orders_user_idx");
+        Assertions.assertEquals(List.of("user_id", "note"), index.getColumns());
+        Assertions.assertFalse(index.isUnique());
+        Assertions.assertFalse(index.isPrimaryKey());
+        Assertions.assertArrayEquals(new String[]{"tenant", "name"}, catalog.getTable("users_t").getPrimaryKey());
+        Assertions.assertNull(catalog.getTable("missing_t"));
+        Assertions.assertEquals(1, queries.get());
+        Assertions.assertEquals(1L, catalog.getLoadCount());
+        Mockito.verify(statement, Mockito.times(2)).setString(Mockito.anyInt(), Mockito.eq("database1_db"));
+    }
+
+    @Test
+    @DisplayName(value = "The metadata is loaded again after its time to live, an explicit refresh, or a change of the database.")
+    void refreshTest()
+    throws SQLException, InterruptedException {
+        MySqlSchemaCatalog catalog = mysql.getSchemaCatalog();
+        catalog.getTables();
+        catalog.getTables();
+        Assertions.assertEquals(1, queries.get());
+        catalog.refresh();
+        Assertions.assertEquals(2, queries.get());
+        catalog.setTimeToLive(20L);
+        Thread.sleep(40L);
+        catalog.getTable("orders_t");
+        Assertions.assertEquals(3, queries.get());
+        catalog.setTimeToLive(MySqlSchemaCatalog.DEFAULT_TIME_TO_LIVE);
+        mysql.setDatabase("database2_db");
+        catalog.getTable("orders_t");
+        Assertions.assertEquals(4, queries.get());
+        Mockito.verify(statement, Mockito.times(2)).setString(Mockito.anyInt(), Mockito.eq("database2_db"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> catalog.setTimeToLive(-1L));
+    }
+
+    @Test
+    @DisplayName(value = "A DDL call of the connector invalidates the catalog.")
+    void ddlTest()
+    throws SQLException {
+        MySqlSchemaCatalog catalog = mysql.getSchemaCatalog();
+        catalog.getTables();
+        Statement adminStatement = Mockito.mock(Statement.class);
+        Mockito.when(adminStatement.executeBatch()).thenReturn(new int[]{0});
+        Connection adminConnection = Mockito.mock(Connection.class);
+        Mockito.when(adminConnection.createStatement()).thenReturn(adminStatement);
+        try (MockedStatic<DriverManager> driverManager = Mockito.mockStatic(DriverManager.class)) {
+            driverManager.when(() -> DriverManager.getConnection(Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
+                    .thenReturn(adminConnection);
+            mysql.mysqlCreateTable(new String[]{"id"}, new String[]{"int"});
+        }
+        Assertions.assertEquals(1, queries.get());
+        catalog.getTables();
+        Assertions.assertEquals(2, queries.get());
+        Mockito.verify(adminStatement).addBatch("CREATE TABLE IF NOT EXISTS database1_db.table1_t(id INT)");
+    }
+}
@@ -0,0 +1,118 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import mysql.MySqlConnector;
+import mysql.MySqlConsistentHashStrategy;
+import mysql.MySqlShardStrategy;
+import mysql.MySqlShardedConnector;
+
+/**
+ * Testing the MySqlShardedConnector and MySqlConsistentHashStrategy classes in JUnit 5 & Mockito.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlShardedConnectorTest {
+
+    private List<MySqlConnector> shards;
+    private MySqlShardedConnector mysql;
+
+    @BeforeEach
+    void setUp() {
+        shards = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            shards.add(Mockito.mock(MySqlConnector.class));
+        }
+        mysql = new MySqlShardedConnector(shards);
+    }
+
+    @Test
+    @DisplayName(value = "A write goes to the shard of the shard key parameter.")
+    void routeTest()
+    throws SQLException {
+        mysql.setShardKeyIndex(1);
+        MySqlConnector shard = mysql.shardFor(42);
+        mysql.mysqlSetVarargs("INSERT INTO table1_t VALUE (?, ?)", "name", 42);
+        mysql.mysqlSet("INSERT INTO table1_t VALUE (?, ?)", List.of("name", 42));
+        Mockito.verify(shard).mysqlSetVarargs("INSERT INTO table1_t VALUE (?, ?)", "name", 42);
+        Mockito.verify(shard).mysqlSet("INSERT INTO table1_t VALUE (?, ?)", List.of("name", 42));
+        for (MySqlConnector other : shards) {
+            if (other != shard) {
+                Mockito.verifyNoInteractions(other);
+            }
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mysql.mysqlSetVarargs("DELETE FROM table1_t WHERE id = ?", 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mysql.mysqlSetVarargs("INSERT INTO table1_t VALUE (?, ?)", "name", null));
+    }
+
+    @Test
+    @DisplayName(value = "A write without a shard key is rejected, a broadcast runs only when it is asked for.")
+    void broadcastTest()
+    throws SQLException {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mysql.mysqlSet("INSERT INTO table1_t VALUE ('name', 42)"));
+        for (MySqlConnector shard : shards) {
+            Mockito.verifyNoInteractions(shard);
+            Mockito.when(shard.mysqlSetAsync(Mockito.anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        }
+        mysql.mysqlSetAll("ALTER TABLE table1_t ADD INDEX name_idx (name)");
+        for (MySqlConnector shard : shards) {
+            Mockito.verify(shard).mysqlSetAsync("ALTER TABLE table1_t ADD INDEX name_idx (name)");
+        }
+    }
+
+    @Test
+    @DisplayName(value = "The rows of an ordered scatter-gather query are merged in order.")
+    void mergeTest()
+    throws SQLException {
+        String sql = "SELECT id FROM table1_t ORDER BY id";
+        Mockito.when(shards.get(0).mysqlGetAsync(sql)).thenReturn(CompletableFuture.completedFuture(new String[][]{{"1"}, {"5"}, {"9"}}));
+        Mockito.when(shards.get(1).mysqlGetAsync(sql)).thenReturn(CompletableFuture.completedFuture(new String[][]{{"2"}, {"10"}}));
+        Mockito.when(shards.get(2).mysqlGetAsync(sql)).thenReturn(CompletableFuture.completedFuture(new String[0][]));
+        String[][] merged = mysql.mysqlGetMerged(sql, 0, Comparator.comparing(Long::valueOf));
+        Assertions.assertArrayEquals(new String[][]{{"1"}, {"2"}, {"5"}, {"9"}, {"10"}}, merged);
+        Assertions.assertEquals(5, mysql.mysqlGetAll(sql).length);
+    }
+
+    @Test
+    @DisplayName(value = "The error of a shard fails the scatter-gather query.")
+    void scatterErrorTest() {
+        String sql = "SELECT id FROM table1_t";
+        Mockito.when(shards.get(0).mysqlGetAsync(sql)).thenReturn(CompletableFuture.completedFuture(new String[0][]));
+        Mockito.when(shards.get(1).mysqlGetAsync(sql)).thenReturn(CompletableFuture.failedFuture(new SQLException("Shard down")));
+        Mockito.when(shards.get(2).mysqlGetAsync(sql)).thenReturn(CompletableFuture.completedFuture(new String[0][]));
+        SQLException e = Assertions.assertThrows(SQLException.class, () -> mysql.mysqlGetAll(sql));
+        Assertions.assertEquals("Shard down", e.getMessage());
+    }
+
+    @Test
+    @DisplayName(value = "Consistent hashing spreads the keys, and a new shard moves only the keys it takes over.")
+    void consistentHashTest() {
+        MySqlShardStrategy strategy = new MySqlConsistentHashStrategy();
+        int keys = 10_000;
+        int[] counts = new int[4];
+        Map<Integer, Integer> before = new HashMap<>();
+        for (int key = 0; key < keys; key++) {
+            before.put(key, strategy.shard(key, 4));
+            counts[before.get(key)]++;
+        }
+        for (int count : counts) {
+            Assertions.assertTrue(count > (keys / 4) * 0.7, "Uneven shards: " + count);
+        }
+        int moved = 0;
+        for (int key = 0; key < keys; key++) {
+            int after = strategy.shard(key, 5);
+            if (after != before.get(key)) {
+                Assertions.assertEquals(4, after);
+                moved++;
+            }
+        }
+        Assertions.assertTrue(moved < (keys / 5) * 1.5, "Too many keys moved: " + moved);
+        Assertions.assertEquals(strategy.shard(7, 5), strategy.shard(7L, 5));
+    }
+}
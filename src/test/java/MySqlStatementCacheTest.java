@@ -0,0 +1,108 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import mysql.MySqlStatementCache;
+
+/**
+ * Testing the MySqlStatementCache class in JUnit 5 & Mockito.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlStatementCacheTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp()
+    throws SQLException {
+        connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenAnswer(invocation -> Mockito.mock(PreparedStatement.class));
+        Mockito.when(connection.prepareStatement(Mockito.anyString(), Mockito.anyInt())).thenAnswer(invocation -> Mockito.mock(PreparedStatement.class));
+    }
+
+    @Test
+    @DisplayName(value = "A repeated SQL text is prepared only once.")
+    void hitTest()
+    throws SQLException {
+        MySqlStatementCache cache = new MySqlStatementCache(connection, 2);
+        PreparedStatement first = cache.prepareStatement("SELECT 1");
+        cache.releaseStatement(first);
+        PreparedStatement second = cache.prepareStatement("SELECT 1");
+        cache.releaseStatement(second);
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, cache.getHits());
+        Assertions.assertEquals(1, cache.getMisses());
+        Mockito.verify(connection, Mockito.times(1)).prepareStatement("SELECT 1");
+        Mockito.verify(first, Mockito.times(2)).clearParameters();
+        Mockito.verify(first, Mockito.never()).close();
+    }
+
+    @Test
+    @DisplayName(value = "The least recently used statement is closed on eviction.")
+    void evictionTest()
+    throws SQLException {
+        MySqlStatementCache cache = new MySqlStatementCache(connection, 2);
+        PreparedStatement first = cache.prepareStatement("SELECT 1");
+        cache.releaseStatement(first);
+        PreparedStatement second = cache.prepareStatement("SELECT 2");
+        cache.releaseStatement(second);
+        cache.releaseStatement(cache.prepareStatement("SELECT 1"));
+        PreparedStatement third = cache.prepareStatement("SELECT 3");
+        cache.releaseStatement(third);
+        Mockito.verify(second).close();
+        Mockito.verify(first, Mockito.never()).close();
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(1, cache.getEvictions());
+        cache.close();
+        Mockito.verify(first).close();
+        Mockito.verify(third).close();
+    }
+
+    @Test
+    @DisplayName(value = "A statement in use is not handed out twice.")
+    void inUseTest()
+    throws SQLException {
+        MySqlStatementCache cache = new MySqlStatementCache(connection, 2);
+        PreparedStatement outer = cache.prepareStatement("SELECT 1");
+        PreparedStatement inner = cache.prepareStatement("SELECT 1");
+        Assertions.assertNotSame(outer, inner);
+        cache.releaseStatement(inner);
+        Mockito.verify(inner).close();
+        cache.releaseStatement(outer);
+        Mockito.verify(outer, Mockito.never()).close();
+    }
+
+    @Test
+    @DisplayName(value = "A capacity of 0 turns the cache off.")
+    void disabledTest()
+    throws SQLException {
+        MySqlStatementCache cache = new MySqlStatementCache(connection, 0);
+        PreparedStatement statement = cache.prepareStatement("SELECT 1");
+        cache.releaseStatement(statement);
+        Mockito.verify(statement).close();
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new MySqlStatementCache(connection, -1));
+    }
+
+    @Test
+    @DisplayName(value = "A statement returning the generated keys is cached apart from the plain one.")
+    void generatedKeysTest()
+    throws SQLException {
+        MySqlStatementCache cache = new MySqlStatementCache(connection, 4);
+        String sql = "INSERT INTO users_t (name) VALUES (?)";
+        PreparedStatement plain = cache.prepareStatement(sql);
+        cache.releaseStatement(plain);
+        PreparedStatement keys = cache.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+        cache.releaseStatement(keys);
+        Assertions.assertNotSame(plain, keys);
+        Assertions.assertSame(keys, cache.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS));
+        Assertions.assertSame(plain, cache.prepareStatement(sql, Statement.NO_GENERATED_KEYS));
+        Assertions.assertEquals(2, cache.size());
+        Mockito.verify(connection, Mockito.times(1)).prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+        Mockito.verify(connection, Mockito.times(1)).prepareStatement(sql);
+    }
+}
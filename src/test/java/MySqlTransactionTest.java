@@ -0,0 +1,184 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.*;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import mysql.MySqlBatchResult;
+import mysql.MySqlConnector;
+import mysql.MySqlRetryPolicy;
+
+/**
+ * Testing the transactions and the group commit of the MySqlConnector class in JUnit 5 & Mockito.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlTransactionTest {
+
+    private MySqlConnector mysql;
+    private Connection connection;
+    private PreparedStatement statement;
+
+    @BeforeEach
+    void setUp()
+    throws SQLException {
+        AtomicReference<Object> parameter = new AtomicReference<>();
+        statement = Mockito.mock(PreparedStatement.class);
+        Mockito.doAnswer(invocation -> {
+            parameter.set(invocation.getArgument(1));
+            return null;
+        }).when(statement).setObject(Mockito.anyInt(), Mockito.any());
+        Mockito.when(statement.executeUpdate()).thenAnswer(invocation -> {
+            if ("duplicate".equals(parameter.get())) {
+                throw new SQLException("Duplicate entry 'duplicate' for key 'PRIMARY'", "23000", 1062);
+            }
+            return 1;
+        });
+        connection = MockMySql.newConnection();
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenReturn(statement);
+        mysql = MockMySql.newConnector(connection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockMySql.disconnect(mysql);
+    }
+
+    @Test
+    @DisplayName(value = "The operations of a transaction share its connection and are committed together.")
+    void commitTest()
+    throws SQLException {
+        Integer result = mysql.mysqlInTransaction(() -> {
+            Assertions.assertTrue(mysql.isInTransaction());
+            mysql.mysqlSetVarargs("UPDATE accounts_t SET balance = balance - ? WHERE id = 1", 10);
+            mysql.mysqlSetVarargs("UPDATE accounts_t SET balance = balance + ? WHERE id = 2", 10);
+            return mysql.mysqlInTransaction(() -> 7);
+        });
+        Assertions.assertEquals(7, result);
+        Assertions.assertFalse(mysql.isInTransaction());
+        InOrder inOrder = Mockito.inOrder(connection);
+        inOrder.verify(connection).setAutoCommit(false);
+        inOrder.verify(connection).commit();
+        inOrder.verify(connection).setAutoCommit(true);
+        Mockito.verify(statement, Mockito.times(2)).executeUpdate();
+        Mockito.verify(connection, Mockito.never()).rollback();
+        Assertions.assertEquals(0, mysql.getConnectionPool().getActiveConnections());
+    }
+
+    @Test
+    @DisplayName(value = "A failing transaction is rolled back and its error is thrown on.")
+    void rollbackTest()
+    throws SQLException {
+        SQLException e = Assertions.assertThrows(SQLException.class, () -> mysql.mysqlInTransaction(() -> {
+            mysql.mysqlSetVarargs("INSERT INTO users_t (name) VALUES (?)", "first");
+            mysql.mysqlSetVarargs("INSERT INTO users_t (name) VALUES (?)", "duplicate");
+            return null;
+        }));
+        Assertions.assertEquals(1062, e.getErrorCode());
+        Mockito.verify(connection).rollback();
+        Mockito.verify(connection, Mockito.never()).commit();
+        Assertions.assertFalse(mysql.isInTransaction());
+        Assertions.assertEquals(0, mysql.getConnectionPool().getActiveConnections());
+        mysql.mysqlBegin();
+        Assertions.assertThrows(IllegalStateException.class, () -> mysql.mysqlBegin());
+        mysql.mysqlRollback();
+        Assertions.assertThrows(IllegalStateException.class, () -> mysql.mysqlCommit());
+    }
+
+    @Test
+    @DisplayName(value = "Concurrent grouped writes are committed together, a failing write does not fail its group.")
+    void groupCommitTest()
+    throws SQLException, InterruptedException, ExecutionException, TimeoutException {
+        mysql.setGroupCommit(6, 5_000L);
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            String name = (i == 3) ? "duplicate" : ("user" + i);
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return mysql.mysqlSetGrouped("INSERT INTO users_t (name) VALUES (?)", name);
+                } catch (SQLException e) {
+                    return -e.getErrorCode();
+                }
+            }, executor));
+        }
+        for (int i = 0; i < 6; i++) {
+            Assertions.assertEquals((i == 3) ? -1062 : 1, futures.get(i).get(10, TimeUnit.SECONDS));
+        }
+        Mockito.verify(connection, Mockito.times(1)).commit();
+        Mockito.verify(connection, Mockito.times(1)).rollback();
+        Mockito.verify(connection, Mockito.atMost(11)).prepareStatement(Mockito.anyString());
+        executor.shutdown();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mysql.setGroupCommit(0, 1L));
+    }
+
+    @Test
+    @DisplayName(value = "A write of a group that used up its retries does not use up the retries of the next write.")
+    void groupRetryTest()
+    throws SQLException, InterruptedException, ExecutionException, TimeoutException {
+        AtomicReference<Object> parameter = new AtomicReference<>();
+        Mockito.doAnswer(invocation -> {
+            parameter.set(invocation.getArgument(1));
+            return null;
+        }).when(statement).setObject(Mockito.anyInt(), Mockito.any());
+        AtomicInteger lateRuns = new AtomicInteger();
+        Mockito.when(statement.executeUpdate()).thenAnswer(invocation -> {
+            if ("stuck".equals(parameter.get()) || ("late".equals(parameter.get()) && (lateRuns.incrementAndGet() == 1))) {
+                throw new SQLException("Deadlock found when trying to get lock; try restarting transaction", "40001", 1213);
+            }
+            return 1;
+        });
+        mysql.setRetryPolicy(new MySqlRetryPolicy(1, 1L, 1L));
+        mysql.setGroupCommit(2, 5_000L);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (String name : List.of("stuck", "late")) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return mysql.mysqlSetGrouped("INSERT INTO users_t (name) VALUES (?)", name);
+                } catch (SQLException e) {
+                    return -e.getErrorCode();
+                }
+            }, executor));
+            Thread.sleep(200L);
+        }
+        Assertions.assertEquals(-1213, futures.get(0).get(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, futures.get(1).get(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(2, lateRuns.get());
+        Mockito.verify(connection, Mockito.times(1)).commit();
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName(value = "A batch failing in a transaction throws, so the transaction is rolled back instead of committed.")
+    void batchDeadlockTest()
+    throws SQLException {
+        SQLException deadlock = new SQLException("Deadlock found when trying to get lock; try restarting transaction", "40001", 1213);
+        Mockito.when(statement.executeBatch()).thenThrow(deadlock).thenReturn(new int[]{1, 1});
+        List<Object[]> rows = List.of(new Object[]{"first"}, new Object[]{"second"});
+        mysql.setRetryPolicy(new MySqlRetryPolicy(0, 0L, 0L));
+        SQLException e = Assertions.assertThrows(SQLException.class, () -> mysql.mysqlInTransaction(
+                () -> mysql.mysqlSetBatch("INSERT INTO users_t (name) VALUES (?)", rows)));
+        Assertions.assertSame(deadlock, e);
+        Mockito.verify(connection, Mockito.times(1)).rollback();
+        Mockito.verify(connection, Mockito.never()).commit();
+        Mockito.when(statement.executeBatch()).thenThrow(deadlock).thenReturn(new int[]{1, 1});
+        mysql.setRetryPolicy(new MySqlRetryPolicy(1, 1L, 1L));
+        MySqlBatchResult result = mysql.mysqlInTransaction(() -> mysql.mysqlSetBatch("INSERT INTO users_t (name) VALUES (?)", rows));
+        Assertions.assertTrue(result.isSuccessful());
+        Mockito.verify(connection, Mockito.times(2)).rollback();
+        Mockito.verify(connection, Mockito.times(1)).commit();
+        Assertions.assertEquals(0, mysql.getConnectionPool().getActiveConnections());
+    }
+}
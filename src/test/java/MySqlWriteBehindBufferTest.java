@@ -0,0 +1,138 @@
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import mysql.MySqlConnector;
+import mysql.MySqlWriteBehindBuffer;
+
+/**
+ * Testing the MySqlWriteBehindBuffer class in JUnit 5 & Mockito.
+ * @since       1.1
+ * @author      <a href=https://github.com/MagyarZoli>Magyar Zoltán</a>
+ */
+public class MySqlWriteBehindBufferTest {
+
+    private MySqlConnector mysql;
+    private PreparedStatement statement;
+    private List<String> executed;
+    private List<Object> parameters;
+
+    @BeforeEach
+    void setUp()
+    throws SQLException {
+        executed = Collections.synchronizedList(new ArrayList<>());
+        parameters = Collections.synchronizedList(new ArrayList<>());
+        List<Object> pending = new ArrayList<>();
+        statement = Mockito.mock(PreparedStatement.class);
+        Mockito.doAnswer(invocation -> pending.add(invocation.getArgument(1))).when(statement).setObject(Mockito.anyInt(), Mockito.any());
+        Mockito.doAnswer(invocation -> {
+            parameters.addAll(pending);
+            pending.clear();
+            return null;
+        }).when(statement).addBatch();
+        Mockito.when(statement.executeBatch()).thenAnswer(invocation -> {
+            int[] counts = new int[parameters.size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+        mysql = MockMySql.newConnector(() -> {
+            Connection connection = MockMySql.newConnection();
+            Mockito.when(connection.prepareStatement(Mockito.anyString())).thenAnswer(invocation -> {
+                executed.add(invocation.getArgument(0));
+                return statement;
+            });
+            return connection;
+        }, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockMySql.disconnect(mysql);
+    }
+
+    @Test
+    @DisplayName(value = "The writes are grouped by statement and written on close.")
+    void closeTest()
+    throws InterruptedException, SQLException {
+        MySqlWriteBehindBuffer buffer = new MySqlWriteBehindBuffer(mysql, 100, 50, 60_000L);
+        for (int i = 0; i < 10; i++) {
+            buffer.write("INSERT INTO events_t (value) VALUES (?)", i);
+            buffer.write("UPDATE sensors_t SET value = ? WHERE id = 1", i);
+        }
+        Assertions.assertEquals(20, buffer.getQueueDepth());
+        Mockito.verify(statement, Mockito.never()).executeBatch();
+        buffer.close();
+        Assertions.assertTrue(buffer.isClosed());
+        Assertions.assertEquals(0, buffer.getQueueDepth());
+        Assertions.assertEquals(20L, buffer.getFlushedCount());
+        Assertions.assertEquals(1L, buffer.getFlushCount());
+        Assertions.assertEquals(List.of("INSERT INTO events_t (value) VALUES (?)", "UPDATE sensors_t SET value = ? WHERE id = 1"), executed);
+        Mockito.verify(statement, Mockito.times(2)).executeBatch();
+        Assertions.assertThrows(IllegalStateException.class, () -> buffer.write("INSERT INTO events_t (value) VALUES (?)", 1));
+    }
+
+    @Test
+    @DisplayName(value = "Writes of the same key are coalesced, the last parameters are written.")
+    void coalesceTest()
+    throws InterruptedException {
+        try (MySqlWriteBehindBuffer buffer = new MySqlWriteBehindBuffer(mysql, 100, 50, 60_000L)) {
+            for (int i = 0; i < 5; i++) {
+                buffer.writeCoalesced("UPDATE sensors_t SET value = ? WHERE id = ?", 1, i, 1);
+                buffer.writeCoalesced("UPDATE sensors_t SET value = ? WHERE id = ?", 2, (i * 10), 2);
+            }
+            Assertions.assertEquals(2, buffer.getQueueDepth());
+            Assertions.assertEquals(10L, buffer.getWriteCount());
+            Assertions.assertEquals(8L, buffer.getCoalescedCount());
+            buffer.flush();
+            Assertions.assertEquals(List.of(4, 1, 40, 2), parameters);
+            Assertions.assertEquals(2L, buffer.getFlushedCount());
+            Assertions.assertTrue(buffer.getAverageFlushLatency() >= 0.0);
+            Assertions.assertTrue(buffer.getMaxFlushLatency() >= buffer.getAverageFlushLatency());
+        }
+    }
+
+    @Test
+    @DisplayName(value = "A full queue blocks the writers until the flusher makes room, failures are counted.")
+    void backpressureTest()
+    throws InterruptedException, SQLException {
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(statement.executeBatch()).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            throw new BatchUpdateException("Deadlock found", "40001", 1213, new int[0], null);
+        });
+        try (MySqlWriteBehindBuffer buffer = new MySqlWriteBehindBuffer(mysql, 2, 2, 60_000L)) {
+            buffer.write("INSERT INTO events_t (value) VALUES (?)", 1);
+            buffer.write("INSERT INTO events_t (value) VALUES (?)", 2);
+            long deadline = System.currentTimeMillis() + 5_000L;
+            while ((buffer.getQueueDepth() > 0) && (System.currentTimeMillis() < deadline)) {
+                Thread.sleep(5L);
+            }
+            buffer.write("INSERT INTO events_t (value) VALUES (?)", 3);
+            buffer.write("INSERT INTO events_t (value) VALUES (?)", 4);
+            Assertions.assertFalse(buffer.tryWrite("INSERT INTO events_t (value) VALUES (?)", 5));
+            Thread writer = new Thread(() -> Assertions.assertDoesNotThrow(() -> buffer.write("INSERT INTO events_t (value) VALUES (?)", 6)));
+            writer.start();
+            deadline = System.currentTimeMillis() + 5_000L;
+            while ((buffer.getBlockedCount() == 0L) && (System.currentTimeMillis() < deadline)) {
+                Thread.sleep(5L);
+            }
+            Assertions.assertEquals(1L, buffer.getBlockedCount());
+            release.countDown();
+            writer.join(5_000L);
+            Assertions.assertFalse(writer.isAlive());
+            buffer.flush();
+            Assertions.assertEquals(5L, buffer.getFailedCount());
+            Assertions.assertEquals(1213, ((SQLException) buffer.getLastFailure()).getErrorCode());
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new MySqlWriteBehindBuffer(mysql, 0, 1, 1L));
+    }
+}